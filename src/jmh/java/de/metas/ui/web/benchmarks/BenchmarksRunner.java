@@ -0,0 +1,67 @@
+package de.metas.ui.web.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON, so they can be compared between builds.
+ * <p>
+ * Usually called by the <code>benchmarks</code> maven profile (i.e. <code>mvn -Pbenchmarks verify</code>).
+ *
+ * <pre>
+ * Arguments: [resultFile] [includesRegExp]
+ * </pre>
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+public final class BenchmarksRunner
+{
+	private static final String DEFAULT_ResultFile = "target/jmh-result.json";
+	private static final String DEFAULT_Includes = BenchmarksRunner.class.getPackage().getName() + ".*";
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		final String resultFile = args.length > 0 ? args[0] : DEFAULT_ResultFile;
+		final String includes = args.length > 1 ? args[1] : DEFAULT_Includes;
+
+		final Options options = new OptionsBuilder()
+				.include(includes)
+				.addProfiler(GCProfiler.class) // allocations per operation (gc.alloc.rate.norm)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile)
+				.shouldFailOnError(true)
+				.build();
+
+		new Runner(options).run();
+	}
+
+	private BenchmarksRunner()
+	{
+	}
+}
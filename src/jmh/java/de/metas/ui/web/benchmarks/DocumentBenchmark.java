@@ -0,0 +1,252 @@
+package de.metas.ui.web.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.ad.expression.api.ConstantLogicExpression;
+import org.adempiere.ad.security.IUserRolePermissions;
+import org.adempiere.test.AdempiereTestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentType;
+import de.metas.ui.web.window.datatypes.json.JSONDocument;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.descriptor.DocumentEntityDataBindingDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentEntityDataBindingDescriptor.DocumentEntityDataBindingDescriptorBuilder;
+import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDataBindingDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor.Characteristic;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.Document.DocumentValuesSupplier;
+import de.metas.ui.web.window.model.NullDocumentChangesCollector;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Converting documents to JSON and copying them (i.e. what is done for each document request).
+ * <p>
+ * The documents are built from a hand-made {@link DocumentEntityDescriptor} and are not backed by SQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentBenchmark
+{
+	private static final String AD_Language = "en_US";
+
+	@Param({ "1", "20" })
+	private int documentsCount;
+
+	private List<Document> documents;
+	private JSONOptions jsonOpts;
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		final DocumentEntityDescriptor entityDescriptor = createEntityDescriptor();
+
+		final ImmutableList.Builder<Document> documents = ImmutableList.builder();
+		for (int i = 1; i <= documentsCount; i++)
+		{
+			documents.add(Document.builder(entityDescriptor)
+					.initializeAsExistingRecord(new MapDocumentValuesSupplier(DocumentId.of(i), ImmutableMap.<String, Object> builder()
+							.put("DocumentNo", "DOC-" + i)
+							.put("Description", "Some description for document " + i)
+							.put("QtyEntered", BigDecimal.valueOf(i))
+							.put("DateOrdered", new java.util.Date())
+							.put("IsActive", Boolean.TRUE)
+							.build())));
+		}
+		this.documents = documents.build();
+
+		jsonOpts = JSONOptions.builder(new BenchmarkUserSession())
+				.setAD_LanguageIfNotEmpty(AD_Language)
+				.setShowAdvancedFields(true)
+				.build();
+	}
+
+	private static DocumentEntityDescriptor createEntityDescriptor()
+	{
+		final DocumentEntityDataBindingDescriptor dataBinding = () -> {
+			throw new IllegalStateException("No repository available");
+		};
+		final DocumentEntityDataBindingDescriptorBuilder dataBindingBuilder = () -> dataBinding;
+
+		return DocumentEntityDescriptor.builder()
+				.setDocumentType(DocumentType.ProductAttributes, DocumentId.of(1))
+				.setCaption("Benchmark")
+				.setDataBinding(dataBindingBuilder)
+				.disableCallouts()
+				.setDetailId(null)
+				.addField(createFieldDescriptor("DocumentNo", String.class, DocumentFieldWidgetType.Text))
+				.addField(createFieldDescriptor("Description", String.class, DocumentFieldWidgetType.Text))
+				.addField(createFieldDescriptor("QtyEntered", BigDecimal.class, DocumentFieldWidgetType.Quantity))
+				.addField(createFieldDescriptor("DateOrdered", java.util.Date.class, DocumentFieldWidgetType.Date))
+				.addField(createFieldDescriptor("IsActive", Boolean.class, DocumentFieldWidgetType.YesNo))
+				.build();
+	}
+
+	private static DocumentFieldDescriptor.Builder createFieldDescriptor(final String fieldName, final Class<?> valueClass, final DocumentFieldWidgetType widgetType)
+	{
+		return DocumentFieldDescriptor.builder(fieldName)
+				.setCaption(fieldName)
+				.setValueClass(valueClass)
+				.setWidgetType(widgetType)
+				.setReadonlyLogic(ConstantLogicExpression.FALSE)
+				.setDisplayLogic(ConstantLogicExpression.TRUE)
+				.setMandatoryLogic(ConstantLogicExpression.FALSE)
+				.addCharacteristic(Characteristic.PublicField)
+				.setDataBinding(new FieldDataBinding(fieldName));
+	}
+
+	@Benchmark
+	public List<JSONDocument> toJSONDocumentsList()
+	{
+		return JSONDocument.ofDocumentsList(documents, jsonOpts);
+	}
+
+	@Benchmark
+	public Document copyDocumentWritable()
+	{
+		return documents.get(0).copy(CopyMode.CheckOutWritable, NullDocumentChangesCollector.instance);
+	}
+
+	@Benchmark
+	public Document copyDocumentReadonly()
+	{
+		return documents.get(0).copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+	}
+
+	private static final class MapDocumentValuesSupplier implements DocumentValuesSupplier
+	{
+		private final DocumentId documentId;
+		private final Map<String, Object> values;
+
+		private MapDocumentValuesSupplier(final DocumentId documentId, final Map<String, Object> values)
+		{
+			this.documentId = documentId;
+			this.values = values;
+		}
+
+		@Override
+		public DocumentId getDocumentId()
+		{
+			return documentId;
+		}
+
+		@Override
+		public String getVersion()
+		{
+			return "0";
+		}
+
+		@Override
+		public Object getValue(final DocumentFieldDescriptor fieldDescriptor)
+		{
+			return values.getOrDefault(fieldDescriptor.getFieldName(), NO_VALUE);
+		}
+	}
+
+	private static final class FieldDataBinding implements DocumentFieldDataBindingDescriptor
+	{
+		private final String columnName;
+
+		private FieldDataBinding(final String columnName)
+		{
+			this.columnName = columnName;
+		}
+
+		@Override
+		public String getColumnName()
+		{
+			return columnName;
+		}
+
+		@Override
+		public boolean isMandatory()
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * User session which is not bound to a HTTP session.
+	 * The permissions are never asked because the benchmarked documents are not window documents.
+	 */
+	private static final class BenchmarkUserSession extends UserSession
+	{
+		private BenchmarkUserSession()
+		{
+			super(null);
+		}
+
+		@Override
+		public String getAD_Language()
+		{
+			return AD_Language;
+		}
+
+		@Override
+		public boolean isUseHttpAcceptLanguage()
+		{
+			return false;
+		}
+
+		@Override
+		public IUserRolePermissions getUserRolePermissions()
+		{
+			return (IUserRolePermissions)Proxy.newProxyInstance(
+					IUserRolePermissions.class.getClassLoader(),
+					new Class<?>[] { IUserRolePermissions.class },
+					(proxy, method, args) -> {
+						throw new UnsupportedOperationException("Permissions are not available in benchmarks: " + method);
+					});
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package de.metas.ui.web.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.cache.JSONResponsesCache;
+import de.metas.ui.web.cache.JSONResponsesCache.CachedJSON;
+import de.metas.ui.web.cache.JSONResponsesCache.JSONResponseCacheKey;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Serializing (and gzipping) a layout-like JSON vs. serving it from {@link JSONResponsesCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JSONResponsesCacheBenchmark
+{
+	@Param({ "true", "false" })
+	private boolean gzip;
+
+	private JSONResponsesCache cache;
+	private Object json;
+	private JSONResponseCacheKey cacheKey;
+
+	@Setup
+	public void setup()
+	{
+		cache = new JSONResponsesCache(new ObjectMapper(), 50, gzip);
+
+		final ImmutableList.Builder<Map<String, Object>> elements = ImmutableList.builder();
+		for (int i = 1; i <= 300; i++)
+		{
+			elements.add(ImmutableMap.<String, Object> builder()
+					.put("field", "Field_" + i)
+					.put("caption", "Caption of field " + i)
+					.put("description", "Description of field " + i)
+					.put("widgetType", i % 2 == 0 ? "Text" : "Lookup")
+					.put("readonly", i % 3 == 0)
+					.build());
+		}
+		json = ImmutableMap.of("windowId", "143", "elements", elements.build());
+
+		cacheKey = JSONResponseCacheKey.builder()
+				.resultId("layout:143")
+				.etag("143-1")
+				.permissionsKey("benchmark")
+				.build();
+	}
+
+	@Benchmark
+	public CachedJSON toCachedJSON() throws Exception
+	{
+		return cache.toCachedJSON(json);
+	}
+
+	@Benchmark
+	public CachedJSON getOrLoad()
+	{
+		return cache.getOrLoad(cacheKey, () -> json);
+	}
+}
@@ -0,0 +1,102 @@
+package de.metas.ui.web.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Lookup values resolution and conversion to JSON, as done for each dropdown/typeahead request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupValuesBenchmark
+{
+	@Param({ "100", "5000" })
+	private int size;
+
+	private List<LookupValue> values;
+	private LookupValuesList lookupValues;
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		values = IntStream.rangeClosed(1, size)
+				.mapToObj(id -> IntegerLookupValue.of(id, "Value " + id))
+				.collect(ImmutableList.toImmutableList());
+		lookupValues = LookupValuesList.fromCollection(values);
+	}
+
+	@Benchmark
+	public LookupValuesList collect()
+	{
+		return values.stream().collect(LookupValuesList.collect());
+	}
+
+	@Benchmark
+	public LookupValue getById()
+	{
+		final int id = ThreadLocalRandom.current().nextInt(1, size + 1);
+		return lookupValues.getById(id);
+	}
+
+	@Benchmark
+	public LookupValuesList offsetAndLimit()
+	{
+		return lookupValues.offsetAndLimit(size / 2, 20);
+	}
+
+	@Benchmark
+	public JSONLookupValuesList toJSON()
+	{
+		return JSONLookupValuesList.ofLookupValuesList(lookupValues);
+	}
+}
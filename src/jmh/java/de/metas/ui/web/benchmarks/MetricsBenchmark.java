@@ -0,0 +1,71 @@
+package de.metas.ui.web.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.util.lang.IAutoCloseable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.metas.ui.web.metrics.LatencyHistogram;
+import de.metas.ui.web.metrics.SqlAccounting;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Overhead of the per request instrumentation, which is executed for each request resp. each SQL statement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark
+{
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	@Benchmark
+	@Threads(4)
+	public void latencyHistogramRecord()
+	{
+		histogram.record(ThreadLocalRandom.current().nextLong(0, 5000));
+	}
+
+	@Benchmark
+	public void sqlAccountingWhenNotStarted()
+	{
+		try (final IAutoCloseable c = SqlAccounting.recordStatement("SELECT 1"))
+		{
+			// nothing
+		}
+	}
+}
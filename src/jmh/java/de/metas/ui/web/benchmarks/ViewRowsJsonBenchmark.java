@@ -0,0 +1,128 @@
+package de.metas.ui.web.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import de.metas.ui.web.view.ViewRow;
+import de.metas.ui.web.view.ViewRow.DefaultRowType;
+import de.metas.ui.web.view.json.JSONStreamedViewRow;
+import de.metas.ui.web.view.json.JSONViewRow;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Converting a view page to JSON (i.e. what is done for each view page request).
+ * <p>
+ * Compare {@link #toJSONViewRowsAndSerialize()} with {@link #serializeStreamedViewRows()} (time and gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewRowsJsonBenchmark
+{
+	private static final String AD_Language = "en_US";
+	private static final IViewRowOverrides NO_OVERRIDES = new IViewRowOverrides()
+	{
+	};
+
+	@Param({ "20", "100" })
+	private int pageLength;
+
+	private List<IViewRow> rows;
+	private List<JSONViewRow> jsonRows;
+	private ObjectMapper jsonObjectMapper;
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		final WindowId windowId = WindowId.of(123);
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (int i = 1; i <= pageLength; i++)
+		{
+			rows.add(ViewRow.builder(windowId)
+					.setRowId(DocumentId.of(i))
+					.setType(DefaultRowType.Line)
+					.putFieldValue("DocumentNo", "DOC-" + i)
+					.putFieldValue("C_BPartner_ID", JSONLookupValue.of(1000 + i, "Business partner " + i))
+					.putFieldValue("M_Product_ID", JSONLookupValue.of(2000 + i, "Product " + i))
+					.putFieldValue("QtyOrdered", BigDecimal.valueOf(i))
+					.putFieldValue("Description", "Some description for row " + i)
+					.build());
+		}
+		this.rows = rows.build();
+
+		jsonRows = JSONViewRow.ofViewRows(this.rows, NO_OVERRIDES, AD_Language);
+		jsonObjectMapper = new ObjectMapper();
+	}
+
+	@Benchmark
+	public List<JSONViewRow> toJSONViewRows()
+	{
+		return JSONViewRow.ofViewRows(rows, NO_OVERRIDES, AD_Language);
+	}
+
+	@Benchmark
+	public byte[] serializeJSONViewRows() throws Exception
+	{
+		return jsonObjectMapper.writeValueAsBytes(jsonRows);
+	}
+
+	@Benchmark
+	public byte[] toJSONViewRowsAndSerialize() throws Exception
+	{
+		return jsonObjectMapper.writeValueAsBytes(JSONViewRow.ofViewRows(rows, NO_OVERRIDES, AD_Language));
+	}
+
+	@Benchmark
+	public byte[] serializeStreamedViewRows() throws Exception
+	{
+		return jsonObjectMapper.writeValueAsBytes(JSONStreamedViewRow.ofViewRows(rows, NO_OVERRIDES, AD_Language));
+	}
+}
@@ -1,11 +1,13 @@
 package de.metas.ui.web.attachments;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.stream.Stream;
 
 import org.adempiere.archive.api.IArchiveDAO;
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
@@ -18,10 +20,12 @@ import org.compiere.util.Env;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.google.common.base.Joiner;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import com.jgoodies.common.base.Objects;
 
 import de.metas.attachments.AttachmentEntry;
@@ -121,13 +125,46 @@ final class DocumentAttachments
 	{
 		Check.assumeNotNull(file, "Parameter file is not null");
 		final String name = file.getOriginalFilename();
-		final byte[] data = file.getBytes();
+		final byte[] data = readFully(file);
 
 		attachmentsBL.addEntry(recordRef, name, data);
 
 		notifyRelatedDocumentTabsChanged();
 	}
 
+	/**
+	 * Reads the uploaded file directly into an array of the file's size.
+	 * If the size is not known or it does not match the actual content, it falls back to {@link MultipartFile#getBytes()}.
+	 * <p>
+	 * NOTE: {@link MultipartFile#getBytes()} is copying the content through a growing buffer, so for big files it's allocating a multiple of the file size.
+	 */
+	@VisibleForTesting
+	static byte[] readFully(final MultipartFile file) throws IOException
+	{
+		final long size = file.getSize();
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new AdempiereException("File too big: " + file.getOriginalFilename());
+		}
+		if (size <= 0)
+		{
+			return file.getBytes();
+		}
+
+		final byte[] data = new byte[(int)size];
+		try (final InputStream in = file.getInputStream())
+		{
+			final int bytesRead = ByteStreams.read(in, data, 0, data.length);
+			if (bytesRead == data.length && in.read() < 0)
+			{
+				return data;
+			}
+		}
+
+		// the reported size was wrong
+		return file.getBytes();
+	}
+
 	public void addURLEntry(final String name, final URI url)
 	{
 		attachmentsBL.addURLEntry(recordRef, name, url);
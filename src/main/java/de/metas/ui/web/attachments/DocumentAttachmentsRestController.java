@@ -6,6 +6,8 @@ import java.util.List;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -121,8 +123,13 @@ public class DocumentAttachmentsRestController
 				.toJson();
 	}
 
+	/**
+	 * Gets attachment's data.
+	 * <p>
+	 * NOTE: data is returned as {@link Resource}, so HTTP range requests are supported too.
+	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<byte[]> getAttachmentById(
+	public ResponseEntity<Resource> getAttachmentById(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentId //
 			, @PathVariable("id") final String entryIdStr)
@@ -151,7 +158,7 @@ public class DocumentAttachmentsRestController
 		}
 	}
 
-	private static ResponseEntity<byte[]> extractResponseEntryFromData(@NonNull final IDocumentAttachmentEntry entry)
+	private static ResponseEntity<Resource> extractResponseEntryFromData(@NonNull final IDocumentAttachmentEntry entry)
 	{
 		final String entryFilename = entry.getFilename();
 		final byte[] entryData = entry.getData();
@@ -168,15 +175,15 @@ public class DocumentAttachmentsRestController
 		headers.setContentType(MediaType.parseMediaType(entryContentType));
 		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + entryFilename + "\"");
 		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(entryData, headers, HttpStatus.OK);
+		final ResponseEntity<Resource> response = new ResponseEntity<>(new ByteArrayResource(entryData, entryFilename), headers, HttpStatus.OK);
 		return response;
 	}
 
-	private static ResponseEntity<byte[]> extractResponseEntryFromURL(@NonNull final IDocumentAttachmentEntry entry)
+	private static ResponseEntity<Resource> extractResponseEntryFromURL(@NonNull final IDocumentAttachmentEntry entry)
 	{
 		final HttpHeaders headers = new HttpHeaders();
 		headers.setLocation(entry.getUrl()); // forward to attachment entry's URL
-		final ResponseEntity<byte[]> response = new ResponseEntity<>(new byte[] {}, headers, HttpStatus.FOUND);
+		final ResponseEntity<Resource> response = new ResponseEntity<>(headers, HttpStatus.FOUND);
 		return response;
 	}
 
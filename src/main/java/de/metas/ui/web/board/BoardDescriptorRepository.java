@@ -14,11 +14,14 @@ import java.util.Set;
 import java.util.function.Consumer;
 
 import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.dao.IQueryBuilder;
+import org.adempiere.ad.dao.impl.CompareQueryFilter;
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.CompositeStringExpression;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.validationRule.IValidationRule;
 import org.adempiere.ad.validationRule.IValidationRuleFactory;
@@ -27,15 +30,18 @@ import org.adempiere.exceptions.DBException;
 import org.adempiere.exceptions.DBUniqueConstraintException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.RecordZoomWindowFinder;
+import org.adempiere.util.GuavaCollectors;
 import org.adempiere.util.NumberUtils;
 import org.adempiere.util.Services;
 import org.adempiere.util.collections.ListUtils;
+import org.adempiere.util.comparator.FixedOrderByKeyComparator;
 import org.compiere.model.I_AD_User;
 import org.compiere.util.CCache;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 import org.compiere.util.Env;
 import org.compiere.util.Evaluatees;
+import org.compiere.util.Util.ArrayKey;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -43,7 +49,9 @@ import org.springframework.stereotype.Repository;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 
 import de.metas.currency.Amount;
 import de.metas.currency.ICurrencyDAO;
@@ -62,6 +70,7 @@ import de.metas.ui.web.board.BoardCardFieldDescriptor.BoardFieldLoader;
 import de.metas.ui.web.board.BoardDescriptor.BoardDescriptorBuilder;
 import de.metas.ui.web.board.json.events.JSONBoardChangedEventsList;
 import de.metas.ui.web.board.json.events.JSONBoardChangedEventsList.JSONBoardChangedEventsListBuilder;
+import de.metas.ui.web.board.json.events.JSONBoardCardChangedEvent;
 import de.metas.ui.web.board.json.events.JSONBoardLaneChangedEvent;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterParam;
@@ -126,6 +135,9 @@ public class BoardDescriptorRepository
 			.addResetForTableName(I_WEBUI_Board_Lane.Table_Name)
 			.addResetForTableName(I_WEBUI_Board_CardField.Table_Name);
 
+	/** Lane cards count (committed data only), indexed by boardId/laneId. Invalidated (after commit) when cards are added, removed or moved. */
+	private final CCache<ArrayKey, Integer> laneCardsCounts = CCache.newLRUCache(I_WEBUI_Board_RecordAssignment.Table_Name + "#LaneCardsCount", 500, 0);
+
 	private void sendEvents(final BoardDescriptor board, final JSONBoardChangedEventsList events)
 	{
 		if (events.isEmpty())
@@ -344,6 +356,112 @@ public class BoardDescriptorRepository
 		return retrieveCards(boardId, cardIds);
 	}
 
+	/**
+	 * Gets a page of lane cards, ordered by their position in lane.
+	 *
+	 * @param afterCardId the last card of the previous page (keyset); if <= 0 the first page will be returned
+	 * @param pageLength maximum number of cards to return
+	 */
+	public List<BoardCard> getLaneCards(final int boardId, final int laneId, final int afterCardId, final int pageLength)
+	{
+		return getLanesCards(boardId, ImmutableSet.of(laneId), afterCardId, pageLength).get(laneId);
+	}
+
+	/**
+	 * Gets the first page of each given lane.
+	 * The card IDs of each lane's page are retrieved per lane (one small keyset query for each lane), then the cards of all lanes are loaded using one single SQL query.
+	 *
+	 * @return lane cards, indexed by laneId and ordered by their position in lane
+	 * @see #getLaneCards(int, int, int, int)
+	 */
+	public ListMultimap<Integer, BoardCard> getLanesCards(final int boardId, final Collection<Integer> laneIds, final int pageLength)
+	{
+		return getLanesCards(boardId, laneIds, -1, pageLength);
+	}
+
+	private ListMultimap<Integer, BoardCard> getLanesCards(final int boardId, final Collection<Integer> laneIds, final int afterCardId, final int pageLength)
+	{
+		Preconditions.checkArgument(pageLength > 0, "pageLength > 0");
+
+		final List<Integer> pageCardIds = new ArrayList<>();
+		for (final int laneId : laneIds)
+		{
+			pageCardIds.addAll(retrieveLaneCardIdsPage(boardId, laneId, afterCardId, pageLength));
+		}
+
+		if (pageCardIds.isEmpty())
+		{
+			return ImmutableListMultimap.of();
+		}
+
+		return retrieveCards(boardId, pageCardIds)
+				.stream()
+				.sorted(FixedOrderByKeyComparator.notMatchedAtTheEnd(pageCardIds, BoardCard::getCardId))
+				.collect(GuavaCollectors.toImmutableListMultimap(BoardCard::getLaneId));
+	}
+
+	/** @return how many cards are in given lane */
+	public int getLaneCardsCount(final int boardId, final int laneId)
+	{
+		// NOTE: load out of transaction, so we never cache not committed data
+		return laneCardsCounts.getOrLoad(ArrayKey.of(boardId, laneId), () -> retrieveLaneCardsCount(boardId, laneId));
+	}
+
+	private int retrieveLaneCardsCount(final int boardId, final int laneId)
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_WEBUI_Board_RecordAssignment.class)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_Lane_ID, laneId)
+				.create()
+				.count();
+	}
+
+	/**
+	 * Retrieves a page of lane's card IDs, ordered by SeqNo and WEBUI_Board_RecordAssignment_ID.
+	 * The page starts right after <code>afterCardId</code>'s (SeqNo, WEBUI_Board_RecordAssignment_ID), so only the page rows are fetched.
+	 */
+	private List<Integer> retrieveLaneCardIdsPage(final int boardId, final int laneId, final int afterCardId, final int pageLength)
+	{
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+		final IQueryBuilder<I_WEBUI_Board_RecordAssignment> queryBuilder = queryBL.createQueryBuilderOutOfTrx(I_WEBUI_Board_RecordAssignment.class)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
+				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_Lane_ID, laneId);
+
+		if (afterCardId > 0)
+		{
+			final I_WEBUI_Board_RecordAssignment afterAssignment = queryBL.createQueryBuilderOutOfTrx(I_WEBUI_Board_RecordAssignment.class)
+					.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
+					.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_Lane_ID, laneId)
+					.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_Record_ID, afterCardId)
+					.create()
+					.firstOnly(I_WEBUI_Board_RecordAssignment.class);
+			if (afterAssignment == null)
+			{
+				throw new EntityNotFoundException("Card " + afterCardId + " is no longer in lane " + laneId + ". Please reload the lane.");
+			}
+
+			queryBuilder.addCompositeQueryFilter()
+					.setJoinOr()
+					.addCompareFilter(I_WEBUI_Board_RecordAssignment.COLUMN_SeqNo, CompareQueryFilter.Operator.GREATER, afterAssignment.getSeqNo())
+					.addFilter(queryBL.createCompositeQueryFilter(I_WEBUI_Board_RecordAssignment.class)
+							.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_SeqNo, afterAssignment.getSeqNo())
+							.addCompareFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_RecordAssignment_ID, CompareQueryFilter.Operator.GREATER, afterAssignment.getWEBUI_Board_RecordAssignment_ID()));
+		}
+
+		return queryBuilder
+				.orderBy()
+				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_SeqNo)
+				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_RecordAssignment_ID)
+				.endOrderBy()
+				.setLimit(pageLength)
+				.create()
+				.list(I_WEBUI_Board_RecordAssignment.class)
+				.stream()
+				.map(I_WEBUI_Board_RecordAssignment::getRecord_ID)
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	private int getLaneIdForCardId(final int boardId, final int cardId)
 	{
 		return getCard(boardId, cardId).getLaneId();
@@ -667,10 +785,10 @@ public class BoardDescriptorRepository
 		return ITranslatableString.compose(": ", cardField.getCaption(), valueStr);
 	}
 
-	private LaneCardsSequence retrieveCardIdsOrdered(final int boardId, final int laneId)
+	private LaneCardsSequence retrieveCardIdsOrdered(final int boardId, final int laneId, final String trxName)
 	{
-		final List<Integer> cardIds = Services.get(IQueryBL.class)
-				.createQueryBuilder(I_WEBUI_Board_RecordAssignment.class)
+		final List<I_WEBUI_Board_RecordAssignment> assignments = Services.get(IQueryBL.class)
+				.createQueryBuilder(I_WEBUI_Board_RecordAssignment.class, Env.getCtx(), trxName)
 				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
 				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_Lane_ID, laneId)
 				.orderBy()
@@ -678,12 +796,31 @@ public class BoardDescriptorRepository
 				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_RecordAssignment_ID)
 				.endOrderBy()
 				.create()
-				.listDistinct(I_WEBUI_Board_RecordAssignment.COLUMNNAME_Record_ID, Integer.class);
-		return new LaneCardsSequence(laneId, cardIds);
+				.list(I_WEBUI_Board_RecordAssignment.class);
+
+		final LinkedHashSet<Integer> cardIds = new LinkedHashSet<>(assignments.size());
+		boolean seqNosNormalized = true;
+		for (final I_WEBUI_Board_RecordAssignment assignment : assignments)
+		{
+			if (assignment.getSeqNo() != cardIds.size())
+			{
+				seqNosNormalized = false;
+			}
+			cardIds.add(assignment.getRecord_ID());
+		}
+
+		return new LaneCardsSequence(laneId, cardIds, seqNosNormalized);
 	}
 
-	private final void updateCardsOrder(final int boardId, final int laneId, final List<Integer> cardIds)
+	/**
+	 * Updates the SeqNo of those cards whose position was changed.
+	 */
+	private final void updateCardsOrder(final int boardId, final LaneCardsSequence orderedCardIdsOld, final LaneCardsSequence orderedCardIdsNew)
 	{
+		final int laneId = orderedCardIdsNew.getLaneId();
+		final List<Integer> cardIdsOld = orderedCardIdsOld.getCardIds();
+		final List<Integer> cardIds = orderedCardIdsNew.getCardIds();
+
 		final String sql = "UPDATE " + I_WEBUI_Board_RecordAssignment.Table_Name
 				+ " SET " + I_WEBUI_Board_RecordAssignment.COLUMNNAME_SeqNo + "=?"
 				+ " WHERE " + I_WEBUI_Board_RecordAssignment.COLUMNNAME_WEBUI_Board_ID + "=?"
@@ -695,6 +832,10 @@ public class BoardDescriptorRepository
 			for (int newSeqNo = 0; newSeqNo < cardIds.size(); newSeqNo++)
 			{
 				final int cardId = cardIds.get(newSeqNo);
+				if (orderedCardIdsOld.isSeqNosNormalized() && newSeqNo < cardIdsOld.size() && cardIdsOld.get(newSeqNo) == cardId)
+				{
+					continue; // position not changed
+				}
 
 				if (pstmt == null)
 				{
@@ -723,12 +864,23 @@ public class BoardDescriptorRepository
 
 	private final LaneCardsSequence changeCardsOrder(final int boardId, final int laneId, final Consumer<LaneCardsSequence> reorderCards)
 	{
-		final LaneCardsSequence orderedCardIdsOld = retrieveCardIdsOrdered(boardId, laneId);
+		// NOTE: always start from the database (in current transaction),
+		// because the cards might be changed by concurrent transactions.
+		final LaneCardsSequence orderedCardIdsOld = retrieveCardIdsOrdered(boardId, laneId, ITrx.TRXNAME_ThreadInherited);
 		final LaneCardsSequence orderedCardIdsNew = orderedCardIdsOld.copy();
 
 		reorderCards.accept(orderedCardIdsNew);
 
-		updateCardsOrder(boardId, laneId, orderedCardIdsNew.getCardIds());
+		updateCardsOrder(boardId, orderedCardIdsOld, orderedCardIdsNew);
+
+		//
+		// Invalidate the cached count, also after commit, in case it was reloaded in meantime
+		final ArrayKey laneKey = ArrayKey.of(boardId, laneId);
+		laneCardsCounts.remove(laneKey);
+		Services.get(ITrxManager.class)
+				.getCurrentTrxListenerManagerOrAutoCommit()
+				.newEventListener(TrxEventTiming.AFTER_COMMIT)
+				.registerHandlingMethod(trx -> laneCardsCounts.remove(laneKey));
 
 		return orderedCardIdsNew;
 	}
@@ -763,6 +915,12 @@ public class BoardDescriptorRepository
 
 			final LaneCardsSequence orderedCardIds = changeCardsOrder(boardId, laneId, cardIds -> cardIds.addCardIdAtPosition(cardId, position));
 			eventsCollector.event(JSONBoardLaneChangedEvent.of(boardId, laneId, orderedCardIds.getCardIds()));
+			eventsCollector.event(JSONBoardCardChangedEvent.builder()
+					.boardId(boardId)
+					.cardId(cardId)
+					.laneId(laneId)
+					.position(orderedCardIds.getPosition(cardId))
+					.build());
 		});
 
 		final BoardCard card = getCard(boardId, cardId);
@@ -791,6 +949,11 @@ public class BoardDescriptorRepository
 			{
 				final LaneCardsSequence orderedCardIds = changeCardsOrder(boardId, laneId, cardIds -> cardIds.removeCardId(cardId));
 				eventsCollector.event(JSONBoardLaneChangedEvent.of(boardId, laneId, orderedCardIds.getCardIds()));
+				eventsCollector.event(JSONBoardCardChangedEvent.builder()
+						.boardId(boardId)
+						.cardId(cardId)
+						.oldLaneId(laneId)
+						.build());
 			}
 		});
 
@@ -820,6 +983,13 @@ public class BoardDescriptorRepository
 
 						final LaneCardsSequence newLane_cardIds = changeCardsOrder(boardId, newLaneId, cardIds -> cardIds.addCardIdAtPosition(cardId, request.getNewPosition())); // update cards order in new lane
 						eventsCollector.event(JSONBoardLaneChangedEvent.of(boardId, newLane_cardIds.getLaneId(), newLane_cardIds.getCardIds()));
+						eventsCollector.event(JSONBoardCardChangedEvent.builder()
+								.boardId(boardId)
+								.cardId(cardId)
+								.oldLaneId(oldLaneId)
+								.laneId(newLaneId)
+								.position(newLane_cardIds.getPosition(cardId))
+								.build());
 
 						laneIdEffective = newLaneId;
 						positionChanged = true;
@@ -830,6 +1000,13 @@ public class BoardDescriptorRepository
 						final int newPosition = request.getNewPosition();
 						final LaneCardsSequence laneCardIds = changeCardsOrder(boardId, laneIdEffective, cardIds -> cardIds.addCardIdAtPosition(cardId, newPosition)); // update card's order
 						eventsCollector.event(JSONBoardLaneChangedEvent.of(boardId, laneCardIds.getLaneId(), laneCardIds.getCardIds()));
+						eventsCollector.event(JSONBoardCardChangedEvent.builder()
+								.boardId(boardId)
+								.cardId(cardId)
+								.oldLaneId(laneIdEffective)
+								.laneId(laneIdEffective)
+								.position(laneCardIds.getPosition(cardId))
+								.build());
 
 						positionChanged = true;
 					}
@@ -865,16 +1042,26 @@ public class BoardDescriptorRepository
 	{
 		private final int laneId;
 		private final List<Integer> cardIds;
+		/** true if each card's SeqNo in database is the same as it's position in {@link #cardIds} */
+		private final boolean seqNosNormalized;
 
-		public LaneCardsSequence(final int laneId, final List<Integer> cardIds)
+		public LaneCardsSequence(final int laneId, final Collection<Integer> cardIds, final boolean seqNosNormalized)
 		{
 			this.laneId = laneId;
 			this.cardIds = new ArrayList<>(cardIds);
+			this.seqNosNormalized = seqNosNormalized;
 		}
 
+		/** @return a copy which is expected to be saved to database using {@link BoardDescriptorRepository#updateCardsOrder(int, LaneCardsSequence, LaneCardsSequence)} */
 		public LaneCardsSequence copy()
 		{
-			return new LaneCardsSequence(laneId, cardIds);
+			final boolean seqNosNormalized = true;
+			return new LaneCardsSequence(laneId, cardIds, seqNosNormalized);
+		}
+
+		public boolean isSeqNosNormalized()
+		{
+			return seqNosNormalized;
 		}
 
 		public int getLaneId()
@@ -887,6 +1074,11 @@ public class BoardDescriptorRepository
 			return cardIds;
 		}
 
+		public int getPosition(final int cardId)
+		{
+			return cardIds.indexOf(cardId);
+		}
+
 		public void addCardIdAtPosition(final int cardId, final int position)
 		{
 			Preconditions.checkArgument(cardId > 0, "cardId > 0");
@@ -1,5 +1,6 @@
 package de.metas.ui.web.board;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -129,14 +130,20 @@ public class BoardRestController
 	}
 
 	@GetMapping("/{boardId}")
-	public JSONBoard getBoard(@PathVariable("boardId") final int boardId)
+	public JSONBoard getBoard(
+			@PathVariable("boardId") final int boardId,
+			@RequestParam(name = "lanePageLength", required = false) @ApiParam("if set, only the first cards of each lane are returned. The rest can be fetched using the lane cards endpoint.") final Integer lanePageLength)
 	{
 		userSession.assertLoggedIn();
 
 		final String adLanguage = userSession.getAD_Language();
 		final BoardDescriptor boardDescriptor = boardsRepo.getBoardDescriptor(boardId);
 
-		final Multimap<Integer, JSONBoardCard> cardsByLaneId = boardsRepo.getCards(boardId)
+		final boolean paged = lanePageLength != null && lanePageLength > 0;
+		final Collection<BoardCard> cards = paged
+				? boardsRepo.getLanesCards(boardId, boardDescriptor.getLanes().keySet(), lanePageLength).values()
+				: boardsRepo.getCards(boardId);
+		final Multimap<Integer, JSONBoardCard> cardsByLaneId = cards
 				.stream()
 				.map(card -> JSONBoardCard.of(card, adLanguage))
 				.collect(GuavaCollectors.toImmutableListMultimap(JSONBoardCard::getLaneId));
@@ -152,12 +159,32 @@ public class BoardRestController
 						.laneId(lane.getLaneId())
 						.caption(lane.getCaption().translate(adLanguage))
 						.cards(cardsByLaneId.get(lane.getLaneId()))
+						.totalCardsCount(paged ? boardsRepo.getLaneCardsCount(boardId, lane.getLaneId()) : null)
 						.build())
 				.forEach(jsonBoard::lane);
 
 		return jsonBoard.build();
 	}
 
+	@GetMapping("/{boardId}/lane/{laneId}/card")
+	@ApiOperation("gets lane cards, ordered by their position in lane, using keyset paging")
+	public List<JSONBoardCard> getLaneCards(
+			@PathVariable("boardId") final int boardId,
+			@PathVariable("laneId") final int laneId,
+			@RequestParam(name = "afterCardId", required = false, defaultValue = "-1") @ApiParam("last cardId of the previous page") final int afterCardId,
+			@RequestParam(name = "pageLength", required = false, defaultValue = "50") final int pageLength)
+	{
+		userSession.assertLoggedIn();
+
+		boardsRepo.getBoardDescriptor(boardId).assertLaneIdExists(laneId);
+
+		final String adLanguage = userSession.getAD_Language();
+		return boardsRepo.getLaneCards(boardId, laneId, afterCardId, pageLength)
+				.stream()
+				.map(card -> JSONBoardCard.of(card, adLanguage))
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	@PostMapping("/{boardId}/card")
 	public JSONBoardCard addCard(@PathVariable("boardId") final int boardId, @RequestBody final JSONBoardCardAddRequest request)
 	{
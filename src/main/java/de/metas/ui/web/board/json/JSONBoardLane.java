@@ -2,6 +2,7 @@ package de.metas.ui.web.board.json;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.google.common.collect.ImmutableList;
 
 import lombok.Builder;
@@ -39,4 +40,8 @@ public class JSONBoardLane
 	private final String caption;
 	@Singular
 	private final ImmutableList<JSONBoardCard> cards;
+
+	/** Total number of cards in this lane. Set only if {@link #cards} is just the first page. */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Integer totalCardsCount;
 }
@@ -0,0 +1,67 @@
+package de.metas.ui.web.board.json.events;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Incremental board event: notifies that a single card was added, removed or moved (in the same lane or to another lane).
+ * Frontend can apply it on it's local lanes, without reloading the whole board.
+ * <p>
+ * NOTE: it's sent together with the {@link JSONBoardLaneChangedEvent}s of the affected lanes, which existing clients are relying on.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class JSONBoardCardChangedEvent extends JSONBoardChangedEvent
+{
+	private final int cardId;
+
+	/** lane from where the card was moved/removed; null if the card was just added */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Integer oldLaneId;
+
+	/** lane where the card is now; null if the card was removed */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Integer laneId;
+
+	/** card's position in {@link #laneId}; null if the card was removed */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Integer position;
+
+	@Builder
+	private JSONBoardCardChangedEvent(final int boardId, final int cardId, final Integer oldLaneId, final Integer laneId, final Integer position)
+	{
+		super(ChangeType.cardChanged, boardId);
+		this.cardId = cardId;
+		this.oldLaneId = oldLaneId;
+		this.laneId = laneId;
+		this.position = position;
+	}
+}
@@ -1,20 +1,26 @@
 package de.metas.ui.web.cache;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.lang.ExtendedMemorizingSupplier;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
 
 import com.google.common.collect.ImmutableMap;
 
 import de.metas.i18n.ADLanguageList;
+import de.metas.ui.web.cache.JSONResponsesCache.CachedJSON;
+import de.metas.ui.web.cache.JSONResponsesCache.JSONResponseCacheKey;
+import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import lombok.NonNull;
 
@@ -121,6 +127,71 @@ public class ETagResponseEntityBuilder<T extends ETagAware, R>
 		return toResponseEntity((responseBuilder, result) -> responseBuilder.body(toJsonMapper.apply(result, getJSONOptions())));
 	}
 
+	/**
+	 * Same as {@link #toJson(BiFunction)} but the serialized JSON is fetched from given cache.
+	 * If the client accepts it, the pre-gzipped JSON is sent.
+	 * 
+	 * @param resultId identifies what kind of result is cached (e.g. header layout, tab layout etc)
+	 * @param permissionsKey user role permissions fingerprint
+	 */
+	public ResponseEntity<byte[]> toCachedJson(
+			@NonNull final JSONResponsesCache cache,
+			@NonNull final String resultId,
+			@NonNull final Object permissionsKey,
+			@NonNull final BiFunction<R, JSONOptions, ?> toJsonMapper)
+	{
+		return toResponseEntity((responseBuilder, result) -> {
+			final JSONOptions jsonOptions = getJSONOptions();
+			final CachedJSON cachedJSON;
+			if (WindowConstants.isProtocolDebugging())
+			{
+				// don't cache because debugging informations are included
+				cachedJSON = toCachedJSONNoCache(cache, toJsonMapper.apply(result, jsonOptions));
+			}
+			else
+			{
+				final JSONResponseCacheKey cacheKey = JSONResponseCacheKey.builder()
+						.resultId(resultId)
+						.etag(getETag().toETagString())
+						.showAdvancedFields(jsonOptions.isShowAdvancedFields())
+						.debugShowColumnNamesForCaption(jsonOptions.isDebugShowColumnNamesForCaption())
+						.permissionsKey(permissionsKey)
+						.build();
+				cachedJSON = cache.getOrLoad(cacheKey, () -> toJsonMapper.apply(result, jsonOptions));
+			}
+
+			responseBuilder.contentType(MediaType.APPLICATION_JSON_UTF8);
+			responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			if (cachedJSON.isGzippedAvailable() && isGzipAccepted())
+			{
+				responseBuilder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+				return responseBuilder.body(cachedJSON.getGzippedJson());
+			}
+			else
+			{
+				return responseBuilder.body(cachedJSON.getJson());
+			}
+		});
+	}
+
+	private static CachedJSON toCachedJSONNoCache(final JSONResponsesCache cache, final Object json)
+	{
+		try
+		{
+			return cache.toCachedJSON(json);
+		}
+		catch (final IOException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+
+	private boolean isGzipAccepted()
+	{
+		final String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+	}
+
 	public <BodyType> ResponseEntity<BodyType> toResponseEntity(final BiFunction<ResponseEntity.BodyBuilder, R, ResponseEntity<BodyType>> toJsonMapper)
 	{
 		// Check ETag
@@ -0,0 +1,184 @@
+package de.metas.ui.web.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.logging.LogManager;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Cache of serialized (and optionally pre-gzipped) JSON responses.
+ * 
+ * Used for big responses which are identical for many users (e.g. layouts), so we don't have to build and serialize them on each request.
+ * The cache key shall contain everything the JSON depends on (see {@link JSONResponseCacheKey}).
+ * 
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class JSONResponsesCache
+{
+	private static final Logger logger = LogManager.getLogger(JSONResponsesCache.class);
+
+	private final ObjectMapper jsonObjectMapper;
+	private final boolean gzipEnabled;
+	private final Cache<JSONResponseCacheKey, CachedJSON> cache;
+
+	public JSONResponsesCache(
+			@NonNull final ObjectMapper jsonObjectMapper,
+			@Value("${metasfresh.webui.cache.jsonResponses.maxSizeMB:50}") final int maxSizeMB,
+			@Value("${metasfresh.webui.cache.jsonResponses.gzip:true}") final boolean gzipEnabled)
+	{
+		this.jsonObjectMapper = jsonObjectMapper;
+		this.gzipEnabled = gzipEnabled;
+		cache = CacheBuilder.newBuilder()
+				.maximumWeight(Math.max(maxSizeMB, 1) * 1024L * 1024L)
+				.weigher((final JSONResponseCacheKey key, final CachedJSON value) -> value.getWeight())
+				.expireAfterAccess(1, TimeUnit.HOURS) // entries for outdated ETags are no longer accessed
+				.recordStats()
+				.build();
+
+		logger.info("Configured: maxSizeMB={}, gzipEnabled={}", maxSizeMB, gzipEnabled);
+	}
+
+	public CachedJSON getOrLoad(@NonNull final JSONResponseCacheKey key, @NonNull final JSONSupplier jsonSupplier)
+	{
+		try
+		{
+			return cache.get(key, () -> toCachedJSON(jsonSupplier.get()));
+		}
+		catch (final Exception ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause() != null ? ex.getCause() : ex);
+		}
+	}
+
+	/**
+	 * Serializes given JSON object without caching it.
+	 */
+	public CachedJSON toCachedJSON(final Object json) throws IOException
+	{
+		final byte[] jsonBytes = jsonObjectMapper.writeValueAsBytes(json);
+		final byte[] gzippedBytes = gzipEnabled ? gzip(jsonBytes) : null;
+		return new CachedJSON(jsonBytes, gzippedBytes);
+	}
+
+	private static byte[] gzip(final byte[] data) throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(data.length / 4, 256));
+		try (final GZIPOutputStream gzipOut = new GZIPOutputStream(out))
+		{
+			gzipOut.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	public void reset()
+	{
+		cache.invalidateAll();
+	}
+
+	public Map<String, Object> getStats()
+	{
+		final CacheStats stats = cache.stats();
+		return ImmutableMap.<String, Object> builder()
+				.put("size", cache.size())
+				.put("hitCount", stats.hitCount())
+				.put("missCount", stats.missCount())
+				.put("evictionCount", stats.evictionCount())
+				.put("totalLoadTimeMillis", stats.totalLoadTime() / 1_000_000)
+				.build();
+	}
+
+	@FunctionalInterface
+	public static interface JSONSupplier
+	{
+		Object get() throws Exception;
+	}
+
+	@lombok.Value
+	@Builder
+	public static final class JSONResponseCacheKey
+	{
+		/** what is cached, e.g. window layout, tab layout, view layout etc */
+		@NonNull
+		String resultId;
+		/** ETag of the source descriptor, including the language */
+		@NonNull
+		String etag;
+		boolean showAdvancedFields;
+		boolean debugShowColumnNamesForCaption;
+		/** user role permissions fingerprint (e.g. UserRolePermissionsKey) */
+		@NonNull
+		Object permissionsKey;
+	}
+
+	public static final class CachedJSON
+	{
+		private final byte[] json;
+		private final byte[] gzippedJson;
+
+		private CachedJSON(@NonNull final byte[] json, final byte[] gzippedJson)
+		{
+			this.json = json;
+			this.gzippedJson = gzippedJson;
+		}
+
+		private int getWeight()
+		{
+			return json.length + (gzippedJson != null ? gzippedJson.length : 0);
+		}
+
+		public byte[] getJson()
+		{
+			return json;
+		}
+
+		public boolean isGzippedAvailable()
+		{
+			return gzippedJson != null;
+		}
+
+		public byte[] getGzippedJson()
+		{
+			return gzippedJson;
+		}
+	}
+}
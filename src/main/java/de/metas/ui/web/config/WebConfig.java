@@ -10,11 +10,15 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import de.metas.ui.web.metrics.MetricsHandlerInterceptor;
+
 /*
  * #%L
  * metasfresh-webui-api
@@ -50,6 +54,9 @@ public class WebConfig extends WebMvcConfigurerAdapter
 	public static final String PARAM_TabId = "tabid";
 	public static final String PARAM_RowId = "rowId";
 
+	@Autowired
+	private MetricsHandlerInterceptor metricsHandlerInterceptor;
+
 	@Override
 	public void addCorsMappings(final CorsRegistry registry)
 	{
@@ -63,6 +70,12 @@ public class WebConfig extends WebMvcConfigurerAdapter
 		registry.addMapping("/**");
 	}
 
+	@Override
+	public void addInterceptors(final InterceptorRegistry registry)
+	{
+		registry.addInterceptor(metricsHandlerInterceptor).addPathPatterns(ENDPOINT_ROOT + "/**");
+	}
+
 	@Bean
 	public Filter addMissingHeadersFilter()
 	{
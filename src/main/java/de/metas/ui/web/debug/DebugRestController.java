@@ -44,11 +44,16 @@ import de.metas.notification.UserNotificationRequest;
 import de.metas.notification.UserNotificationRequest.TargetRecordAction;
 import de.metas.notification.UserNotificationRequest.UserNotificationRequestBuilder;
 import de.metas.notification.UserNotificationTargetType;
+import de.metas.ui.web.cache.JSONResponsesCache;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.menu.MenuTreeRepository;
+import de.metas.ui.web.metrics.SqlAccountingService;
+import de.metas.ui.web.metrics.json.JSONSqlAccountingRecord;
 import de.metas.ui.web.process.ProcessRestController;
+import de.metas.ui.web.session.SessionInfo;
 import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.session.UserSessionRepository;
 import de.metas.ui.web.view.IViewsRepository;
 import de.metas.ui.web.view.SqlViewFactory;
 import de.metas.ui.web.view.ViewProfileId;
@@ -61,6 +66,7 @@ import de.metas.ui.web.websocket.WebsocketSender;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.model.DocumentCollection;
+import de.metas.ui.web.window.model.DocumentReferencesService;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
 import de.metas.ui.web.window.model.sql.SqlDocumentsRepository;
 import io.swagger.annotations.ApiParam;
@@ -96,6 +102,9 @@ public class DebugRestController
 	@Autowired
 	private UserSession userSession;
 
+	@Autowired
+	private UserSessionRepository userSessionRepo;
+
 	@Autowired
 	private DocumentCollection documentCollection;
 
@@ -121,6 +130,18 @@ public class DebugRestController
 	@Lazy
 	private WebsocketSender websocketSender;
 
+	@Autowired
+	@Lazy
+	private JSONResponsesCache jsonResponsesCache;
+
+	@Autowired
+	@Lazy
+	private SqlAccountingService sqlAccountingService;
+
+	@Autowired
+	@Lazy
+	private DocumentReferencesService documentReferencesService;
+
 	@RequestMapping(value = "/cacheReset", method = RequestMethod.GET)
 	public void cacheReset()
 	{
@@ -129,6 +150,8 @@ public class DebugRestController
 		menuTreeRepo.cacheReset();
 		processesController.cacheReset();
 		ViewColumnHelper.cacheReset();
+		jsonResponsesCache.reset();
+		documentReferencesService.cacheReset();
 		Services.get(IUserRolePermissionsDAO.class).resetLocalCache();
 
 		System.gc();
@@ -167,6 +190,18 @@ public class DebugRestController
 		}
 	}
 
+	@GetMapping("/sqlAccounting")
+	public List<JSONSqlAccountingRecord> getSqlAccountingRecords()
+	{
+		return sqlAccountingService.getRecords();
+	}
+
+	@GetMapping("/sqlAccounting/clear")
+	public void clearSqlAccountingRecords()
+	{
+		sqlAccountingService.clearRecords();
+	}
+
 	@RequestMapping(value = "/debugProtocol", method = RequestMethod.GET)
 	public void setDebugProtocol(@RequestParam("enabled") final boolean enabled)
 	{
@@ -200,6 +235,25 @@ public class DebugRestController
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
+	@GetMapping("/process/preconditionsLatency")
+	public Map<String, Object> getProcessPreconditionsLatencyHistograms()
+	{
+		return processesController.getPreconditionsLatencyHistograms();
+	}
+
+	@GetMapping("/sessions")
+	public List<SessionInfo> getSessionsInfo(@RequestParam(name = "limit", defaultValue = "20") final int limit)
+	{
+		userSession.assertLoggedInAsSysAdmin();
+		return userSessionRepo.getSessionsInfo(limit);
+	}
+
+	@GetMapping("/process/instances/stats")
+	public Map<String, Object> getProcessInstancesStats()
+	{
+		return processesController.getProcessInstancesStats();
+	}
+
 	@RequestMapping(value = "/eventBus/postEvent", method = RequestMethod.GET)
 	public void postEvent(
 			@RequestParam(name = "topicName", defaultValue = "de.metas.event.GeneralNotifications") final String topicName //
@@ -1,5 +1,7 @@
 package de.metas.ui.web.devices;
 
+import java.util.Objects;
+
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 import org.springframework.stereotype.Component;
@@ -117,5 +119,20 @@ public class DeviceWebSocketProducerFactory implements WebSocketProducerFactory
 			final JSONDeviceValueChangedEvent event = JSONDeviceValueChangedEvent.of(deviceId, valueJson);
 			return event;
 		}
+
+		@Override
+		public boolean isSameEvent(final Object previousEvent, final Object event)
+		{
+			if (!(previousEvent instanceof JSONDeviceValueChangedEvent) || !(event instanceof JSONDeviceValueChangedEvent))
+			{
+				return false;
+			}
+
+			// NOTE: don't compare the timestamp because it's different on each call
+			final JSONDeviceValueChangedEvent previousDeviceEvent = (JSONDeviceValueChangedEvent)previousEvent;
+			final JSONDeviceValueChangedEvent deviceEvent = (JSONDeviceValueChangedEvent)event;
+			return Objects.equals(previousDeviceEvent.getDeviceId(), deviceEvent.getDeviceId())
+					&& Objects.equals(previousDeviceEvent.getValue(), deviceEvent.getValue());
+		}
 	}
 }
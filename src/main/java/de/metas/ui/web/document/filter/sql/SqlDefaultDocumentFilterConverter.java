@@ -2,6 +2,8 @@ package de.metas.ui.web.document.filter.sql;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 
 import org.adempiere.ad.dao.IQueryFilterModifier;
 import org.adempiere.ad.dao.impl.DateTruncQueryFilterModifier;
@@ -9,9 +11,14 @@ import org.adempiere.ad.dao.impl.NullQueryFilterModifier;
 import org.adempiere.db.DBConstants;
 import org.adempiere.exceptions.AdempiereException;
 import org.compiere.util.DB;
+import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 
+import de.metas.logging.LogManager;
 import de.metas.printing.esb.base.util.Check;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.DocumentFilterParam;
@@ -64,8 +71,18 @@ import lombok.NonNull;
 		return new SqlDefaultDocumentFilterConverter(entityBinding);
 	}
 
+	private static final transient Logger logger = LogManager.getLogger(SqlDefaultDocumentFilterConverter.class);
+
 	private final SqlEntityBinding entityBinding;
 
+	/**
+	 * Compiled filters, indexed by filter shape.
+	 * NOTE: this cache lives as long as this converter, which is kept by the entity binding (see {@link SqlEntityBinding#getDefaultFilterConverter()}), so it's dropped together with the window/filter descriptors.
+	 */
+	private final Cache<CompiledFilterKey, CompiledFilter> compiledFilters = CacheBuilder.newBuilder()
+			.maximumSize(200)
+			.build();
+
 	private SqlDefaultDocumentFilterConverter(final @NonNull SqlEntityBinding entityBinding)
 	{
 		this.entityBinding = entityBinding;
@@ -86,6 +103,31 @@ import lombok.NonNull;
 			@NonNull final DocumentFilter filter,
 			@NonNull final SqlOptions sqlOpts,
 			@NonNull final SqlDocumentFilterConverterContext context)
+	{
+		//
+		// Try using the compiled SQL.
+		// NOTE: when not collecting, the values are rendered directly in SQL so there is nothing to compile.
+		if (sqlParams.isCollecting())
+		{
+			final BoundFilter boundFilter = bindOrNull(filter);
+			if (boundFilter != null)
+			{
+				final String compiledSql = getCompiledSqlOrNull(boundFilter, filter, sqlOpts);
+				if (compiledSql != null)
+				{
+					sqlParams.collectAll(boundFilter.getSqlParams());
+					return compiledSql;
+				}
+			}
+		}
+
+		return buildSql(sqlParams, filter, sqlOpts);
+	}
+
+	private String buildSql(
+			final SqlParamsCollector sqlParams,
+			final DocumentFilter filter,
+			final SqlOptions sqlOpts)
 	{
 		final String filterId = filter.getFilterId();
 
@@ -109,6 +151,158 @@ import lombok.NonNull;
 		return sql.toString();
 	}
 
+	private String getCompiledSqlOrNull(final BoundFilter boundFilter, final DocumentFilter filter, final SqlOptions sqlOpts)
+	{
+		final CompiledFilterKey key = CompiledFilterKey.of(filter.getFilterId(), boundFilter.getParamShapes(), sqlOpts);
+		try
+		{
+			return compiledFilters.get(key, () -> compile(boundFilter, filter, sqlOpts)).getSql();
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause());
+		}
+	}
+
+	/**
+	 * Renders the SQL of given filter, which will be used as a template for all filters having the same shape.
+	 *
+	 * @return compiled filter or {@link CompiledFilter#NOT_COMPILABLE} if the rendered SQL parameters are not matching the bound ones
+	 */
+	private CompiledFilter compile(final BoundFilter boundFilter, final DocumentFilter filter, final SqlOptions sqlOpts)
+	{
+		final SqlParamsCollector sqlParams = SqlParamsCollector.newInstance();
+		final String sql = buildSql(sqlParams, filter, sqlOpts);
+		if (!Objects.equals(sqlParams.toList(), boundFilter.getSqlParams()))
+		{
+			logger.warn("Cannot compile {} because the rendered SQL parameters {} are not matching the bound ones {}", filter, sqlParams.toList(), boundFilter.getSqlParams());
+			return CompiledFilter.NOT_COMPILABLE;
+		}
+
+		return CompiledFilter.of(sql);
+	}
+
+	/**
+	 * Converts the filter parameters values to SQL values, in the same order in which they would be collected by {@link #buildSql(SqlParamsCollector, DocumentFilter, SqlOptions)}.
+	 *
+	 * @return bound filter or <code>null</code> if the filter has parameters which cannot be compiled (e.g. SQL filters, labels, IN arrays)
+	 */
+	private BoundFilter bindOrNull(final DocumentFilter filter)
+	{
+		final List<DocumentFilterParam> filterParams = filter.getParameters();
+		final ImmutableList.Builder<BoundFilterParamShape> paramShapes = ImmutableList.builder();
+		final List<Object> sqlParams = new ArrayList<>();
+		for (final DocumentFilterParam filterParam : filterParams)
+		{
+			if (!bindOrFalse(filterParam, paramShapes, sqlParams))
+			{
+				return null;
+			}
+		}
+
+		return new BoundFilter(paramShapes.build(), sqlParams);
+	}
+
+	private boolean bindOrFalse(final DocumentFilterParam filterParam, final ImmutableList.Builder<BoundFilterParamShape> paramShapes, final List<Object> sqlParams)
+	{
+		if (filterParam.isSqlFilter())
+		{
+			return false;
+		}
+
+		final SqlEntityFieldBinding paramBinding = getParameterBinding(filterParam.getFieldName());
+		final DocumentFieldWidgetType widgetType = paramBinding.getWidgetType();
+		if (widgetType == DocumentFieldWidgetType.Labels)
+		{
+			return false;
+		}
+
+		final IQueryFilterModifier valueModifier = extractValueModifier(widgetType);
+		final ValueShape valueShape;
+
+		final Operator operator = filterParam.getOperator();
+		switch (operator)
+		{
+			case EQUAL:
+			case NOT_EQUAL:
+			{
+				final Object sqlValue = convertToSqlValue(filterParam.getValue(), paramBinding, valueModifier);
+				if (sqlValue == null)
+				{
+					valueShape = ValueShape.NULL;
+				}
+				else
+				{
+					valueShape = ValueShape.VALUE;
+					sqlParams.add(sqlValue);
+				}
+				break;
+			}
+			case GREATER:
+			case GREATER_OR_EQUAL:
+			case LESS:
+			case LESS_OR_EQUAL:
+			{
+				final Object sqlValue = convertToSqlValue(filterParam.getValue(), paramBinding, valueModifier);
+				valueShape = ValueShape.VALUE;
+				sqlParams.add(sqlValue);
+				break;
+			}
+			case LIKE:
+			case NOT_LIKE:
+			case LIKE_I:
+			case NOT_LIKE_I:
+			{
+				final Object sqlValue = convertToSqlValue(filterParam.getValue(), paramBinding, valueModifier);
+				if (sqlValue == null)
+				{
+					valueShape = ValueShape.NULL;
+				}
+				else if (sqlValue.toString().isEmpty())
+				{
+					valueShape = ValueShape.EMPTY;
+				}
+				else
+				{
+					valueShape = ValueShape.VALUE;
+					sqlParams.add(toLikeSqlValue(sqlValue.toString()));
+				}
+				break;
+			}
+			case BETWEEN:
+			{
+				final Object sqlValue = convertToSqlValue(filterParam.getValue(), paramBinding, valueModifier);
+				final Object sqlValueTo = convertToSqlValue(filterParam.getValueTo(), paramBinding, valueModifier);
+				if (sqlValue == null)
+				{
+					valueShape = sqlValueTo == null ? ValueShape.EMPTY : ValueShape.VALUE_TO_ONLY;
+				}
+				else
+				{
+					valueShape = sqlValueTo == null ? ValueShape.VALUE_FROM_ONLY : ValueShape.VALUE;
+				}
+
+				if (sqlValue != null)
+				{
+					sqlParams.add(sqlValue);
+				}
+				if (sqlValueTo != null)
+				{
+					sqlParams.add(sqlValueTo);
+				}
+				break;
+			}
+			default:
+			{
+				// e.g. IN_ARRAY, whose SQL depends on the values
+				return false;
+			}
+		}
+
+		paramShapes.add(BoundFilterParamShape.of(filterParam.getFieldName(), operator, filterParam.isJoinAnd(), valueShape));
+		return true;
+	}
+
 	/** Build document filter parameter where clause */
 	private String buildSqlWhereClause(final SqlParamsCollector sqlParams, final String filterId, final DocumentFilterParam filterParam, final SqlOptions sqlOpts)
 	{
@@ -364,7 +558,7 @@ import lombok.NonNull;
 			return buildSqlWhereClause_IsNull(sqlColumnExpr, negate);
 		}
 
-		String sqlValueStr = sqlValue.toString();
+		final String sqlValueStr = sqlValue.toString();
 		if (sqlValueStr.isEmpty())
 		{
 			// NO value supplied, it's pointless to enforce a LIKE on that...
@@ -372,24 +566,29 @@ import lombok.NonNull;
 			return "";
 		}
 
-		if (!sqlValueStr.startsWith("%"))
-		{
-			sqlValueStr = "%" + sqlValueStr;
-		}
-		if (!sqlValueStr.endsWith("%"))
-		{
-			sqlValueStr = sqlValueStr + "%";
-		}
-
 		final String sqlOperator = (negate ? " NOT " : " ") + (ignoreCase ? "ILIKE " : "LIKE ");
 
 		return new StringBuilder()
 				.append(DBConstants.FUNCNAME_unaccent_string).append("(").append(sqlColumnExpr).append(", 1)")
 				.append(sqlOperator)
-				.append(DBConstants.FUNCNAME_unaccent_string).append("(").append(sqlParams.placeholder(sqlValueStr)).append(", 1)")
+				.append(DBConstants.FUNCNAME_unaccent_string).append("(").append(sqlParams.placeholder(toLikeSqlValue(sqlValueStr))).append(", 1)")
 				.toString();
 	}
 
+	private static String toLikeSqlValue(final String sqlValueStr)
+	{
+		String sqlValueStrEffective = sqlValueStr;
+		if (!sqlValueStrEffective.startsWith("%"))
+		{
+			sqlValueStrEffective = "%" + sqlValueStrEffective;
+		}
+		if (!sqlValueStrEffective.endsWith("%"))
+		{
+			sqlValueStrEffective = sqlValueStrEffective + "%";
+		}
+		return sqlValueStrEffective;
+	}
+
 	private static final String buildSqlWhereClause_Between(final String sqlColumnExpr, final Object sqlValue, final Object sqlValueTo, final SqlParamsCollector sqlParams)
 	{
 		if (sqlValue == null)
@@ -477,4 +676,42 @@ import lombok.NonNull;
 		}
 	}
 
+	private static enum ValueShape
+	{
+		VALUE, NULL, EMPTY, VALUE_FROM_ONLY, VALUE_TO_ONLY
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class BoundFilterParamShape
+	{
+		String fieldName;
+		Operator operator;
+		boolean joinAnd;
+		ValueShape valueShape;
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class CompiledFilterKey
+	{
+		String filterId;
+		ImmutableList<BoundFilterParamShape> paramShapes;
+		SqlOptions sqlOpts;
+	}
+
+	@lombok.Value
+	private static final class BoundFilter
+	{
+		ImmutableList<BoundFilterParamShape> paramShapes;
+		/** SQL parameters, in the order in which they are used in compiled SQL (might contain nulls) */
+		List<Object> sqlParams;
+	}
+
+	@lombok.Value(staticConstructor = "of")
+	private static final class CompiledFilter
+	{
+		public static final CompiledFilter NOT_COMPILABLE = of(null);
+
+		/** SQL template, having the "?" placeholders in the same order as {@link BoundFilter#getSqlParams()} */
+		String sql;
+	}
 }
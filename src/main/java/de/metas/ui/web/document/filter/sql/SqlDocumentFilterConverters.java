@@ -48,7 +48,7 @@ public final class SqlDocumentFilterConverters
 	public static final SqlDocumentFilterConverter createEntityBindingEffectiveConverter(@NonNull final SqlEntityBinding entityBinding)
 	{
 		final SqlDocumentFilterConvertersList converters = entityBinding.getFilterConverters();
-		final SqlDocumentFilterConverter fallBackConverter = SqlDefaultDocumentFilterConverter.newInstance(entityBinding);
+		final SqlDocumentFilterConverter fallBackConverter = entityBinding.getDefaultFilterConverter();
 
 		final SqlDocumentFilterConvertersListWithFallback sqlDocumentFilterConverter = //
 				SqlDocumentFilterConvertersListWithFallback.newInstance(converters, fallBackConverter);
@@ -61,6 +61,14 @@ public final class SqlDocumentFilterConverters
 		return decoratorOrNull.decorate(sqlDocumentFilterConverter);
 	}
 
+	/**
+	 * Creates a new {@link SqlDefaultDocumentFilterConverter}. Please use {@link SqlEntityBinding#getDefaultFilterConverter()} instead, because it's reusing the SQL compiled for that binding.
+	 */
+	public static final SqlDocumentFilterConverter createDefaultConverter(@NonNull final SqlEntityBinding entityBinding)
+	{
+		return SqlDefaultDocumentFilterConverter.newInstance(entityBinding);
+	}
+
 	public static final SqlDocumentFilterConvertersList.Builder listBuilder()
 	{
 		return SqlDocumentFilterConvertersList.builder();
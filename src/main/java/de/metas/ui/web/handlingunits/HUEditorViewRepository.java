@@ -1,10 +1,14 @@
 package de.metas.ui.web.handlingunits;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import org.adempiere.util.collections.PagedIterator.Page;
 
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableList;
+
 import de.metas.handlingunits.HuId;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
@@ -58,6 +62,20 @@ public interface HUEditorViewRepository
 	 */
 	HUEditorRow retrieveForHUId(HuId huId);
 
+	/**
+	 * Retrieves the {@link HUEditorRow} hierarchies for given M_HU_IDs, even if they are not in scope.
+	 * Implementations shall load the HUs in one go, instead of calling {@link #retrieveForHUId(HuId)} for each of them.
+	 *
+	 * @return rows, in the same order as the given HU IDs
+	 */
+	default List<HUEditorRow> retrieveForHUIds(final Collection<HuId> huIds)
+	{
+		return huIds.stream()
+				.map(this::retrieveForHUId)
+				.filter(Predicates.notNull())
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	List<Integer> retrieveHUIdsEffective(HUIdsFilterData huIdsFilter,
 			List<DocumentFilter> filters,
 			SqlDocumentFilterConverterContext context);
@@ -2,24 +2,31 @@ package de.metas.ui.web.handlingunits;
 
 import static org.adempiere.model.InterfaceWrapperHelper.loadOutOfTrx;
 
+import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.service.IADReferenceDAO;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.DBException;
+import org.adempiere.mm.attributes.api.IAttributeDAO;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.PlainContextAware;
 import org.adempiere.util.Check;
@@ -27,20 +34,28 @@ import org.adempiere.util.GuavaCollectors;
 import org.adempiere.util.Services;
 import org.adempiere.util.collections.PagedIterator.Page;
 import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_Attribute;
 import org.compiere.model.I_M_Product;
 import org.compiere.util.DB;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
 
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.IHUQueryBuilder;
 import de.metas.handlingunits.IHandlingUnitsBL;
 import de.metas.handlingunits.IHandlingUnitsDAO;
+import de.metas.handlingunits.attribute.Constants;
 import de.metas.handlingunits.exceptions.HUException;
 import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Attribute;
+import de.metas.handlingunits.model.I_M_HU_Item;
+import de.metas.handlingunits.model.I_M_HU_Storage;
 import de.metas.handlingunits.model.I_M_Locator;
 import de.metas.handlingunits.model.I_M_Warehouse;
 import de.metas.handlingunits.model.X_M_HU;
@@ -48,10 +63,10 @@ import de.metas.handlingunits.model.X_M_HU_PI_Version;
 import de.metas.handlingunits.reservation.HUReservationService;
 import de.metas.handlingunits.storage.IHUProductStorage;
 import de.metas.handlingunits.storage.IHUStorage;
-import de.metas.handlingunits.storage.IHUStorageFactory;
 import de.metas.i18n.IMsgBL;
 import de.metas.logging.LogManager;
 import de.metas.order.OrderLineId;
+import de.metas.quantity.Quantity;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
@@ -59,6 +74,7 @@ import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverters;
 import de.metas.ui.web.handlingunits.HUIdsFilterHelper.HUIdsFilterData;
 import de.metas.ui.web.handlingunits.util.HUPackingInfoFormatter;
 import de.metas.ui.web.handlingunits.util.HUPackingInfos;
+import de.metas.ui.web.handlingunits.util.IHUPackingInfo;
 import de.metas.ui.web.view.SqlViewRowIdsOrderedSelectionFactory;
 import de.metas.ui.web.view.ViewEvaluationCtx;
 import de.metas.ui.web.view.ViewId;
@@ -78,6 +94,7 @@ import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.ui.web.window.model.sql.SqlOptions;
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -164,10 +181,13 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 	{
 		huReservationService.warmup(huIds);
 
+		final List<I_M_HU> hus = retrieveTopLevelHUs(huIds, filter);
+		final HUsDataProvider husDataProvider = HUsDataProvider.prefetchFor(hus, isShowBestBeforeDateEffective());
+
 		final int topLevelHUId = -1;
-		return retrieveTopLevelHUs(huIds, filter)
+		return hus
 				.stream()
-				.map(hu -> createHUEditorRow(hu, topLevelHUId))
+				.map(hu -> createHUEditorRow(hu, topLevelHUId, husDataProvider))
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
@@ -183,7 +203,35 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 
 		final I_M_HU hu = loadOutOfTrx(huId, I_M_HU.class);
 		final int topLevelHUId = -1; // assume given huId is a top level HU
-		return createHUEditorRow(hu, topLevelHUId);
+		return createHUEditorRow(hu, topLevelHUId, HUsDataProvider.NOT_PREFETCHED);
+	}
+
+	@Override
+	public List<HUEditorRow> retrieveForHUIds(@NonNull final Collection<HuId> huIds)
+	{
+		if (huIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final ImmutableSet<HuId> huIdsSet = ImmutableSet.copyOf(huIds);
+		huReservationService.warmup(huIdsSet);
+
+		final List<I_M_HU> hus = Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_M_HU.class)
+				.addInArrayFilter(I_M_HU.COLUMN_M_HU_ID, huIdsSet)
+				.create()
+				.list(I_M_HU.class);
+		final Map<Integer, I_M_HU> husById = hus.stream()
+				.collect(GuavaCollectors.toImmutableMapByKey(I_M_HU::getM_HU_ID));
+		final HUsDataProvider husDataProvider = HUsDataProvider.prefetchFor(hus, isShowBestBeforeDateEffective());
+
+		final int topLevelHUId = -1; // assume given HUs are top level HUs
+		return huIdsSet.stream()
+				.map(huId -> husById.get(huId.getRepoId()))
+				.filter(Predicates.notNull())
+				.map(hu -> createHUEditorRow(hu, topLevelHUId, husDataProvider))
+				.collect(GuavaCollectors.toImmutableList());
 	}
 
 	private static List<I_M_HU> retrieveTopLevelHUs(@NonNull final Collection<HuId> huIds, @NonNull final HUEditorRowFilter filter)
@@ -209,9 +257,15 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 				.list();
 	}
 
+	private boolean isShowBestBeforeDateEffective()
+	{
+		return showBestBeforeDate && attributesProvider != null;
+	}
+
 	private HUEditorRow createHUEditorRow(
 			@NonNull final I_M_HU hu,
-			final int topLevelHUId)
+			final int topLevelHUId,
+			@NonNull final HUsDataProvider husDataProvider)
 	{
 		// final Stopwatch stopwatch = Stopwatch.createStarted();
 
@@ -251,13 +305,13 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 				.setHUStatus(hu.getHUStatus())
 				.setReservedForOrderLine(orderLineIdWithReservation.orElse(null))
 
-				.setPackingInfo(extractPackingInfo(hu, huRecordType));
+				.setPackingInfo(extractPackingInfo(hu, huRecordType, husDataProvider));
 
 		//
 		// Acquire Best Before Date if required
-		if (showBestBeforeDate)
+		if (isShowBestBeforeDateEffective())
 		{
-			huEditorRow.setBestBeforeDate(extractBestBeforeDate(attributesProvider, rowId));
+			huEditorRow.setBestBeforeDate(husDataProvider.getBestBeforeDate(hu, () -> extractBestBeforeDate(attributesProvider, rowId)));
 		}
 
 		//
@@ -269,12 +323,12 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 
 		//
 		// Product/UOM/Qty if there is only one product stored
-		final IHUProductStorage singleProductStorage = getSingleProductStorage(hu);
+		final HUProductStorageData singleProductStorage = husDataProvider.getSingleProductStorageOrNull(hu);
 		if (singleProductStorage != null)
 		{
 			huEditorRow
-					.setProduct(createProductLookupValue(singleProductStorage.getM_Product()))
-					.setUOM(createUOMLookupValue(singleProductStorage.getC_UOM()))
+					.setProduct(createProductLookupValue(singleProductStorage.getProduct()))
+					.setUOM(createUOMLookupValue(singleProductStorage.getUom()))
 					.setQtyCU(singleProductStorage.getQty());
 		}
 
@@ -283,10 +337,7 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		final int topLevelHUIdEffective = topLevelHUId > 0 ? topLevelHUId : huId;
 		if (aggregatedTU)
 		{
-			final IHUStorageFactory storageFactory = handlingUnitsBL.getStorageFactory();
-			storageFactory
-					.getStorage(hu)
-					.getProductStorages()
+			husDataProvider.getProductStorages(hu)
 					.stream()
 					.map(huStorage -> createHUEditorRow(huId, topLevelHUIdEffective, huStorage, processed))
 					.forEach(huEditorRow::addIncludedRow);
@@ -294,20 +345,16 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_LoadLogistiqueUnit.equals(huUnitTypeCode))
 		{
-			final IHandlingUnitsDAO handlingUnitsDAO = Services.get(IHandlingUnitsDAO.class);
-			handlingUnitsDAO.retrieveIncludedHUs(hu)
+			husDataProvider.getIncludedHUs(hu)
 					.stream()
-					.map(includedHU -> createHUEditorRow(includedHU, topLevelHUIdEffective))
+					.map(includedHU -> createHUEditorRow(includedHU, topLevelHUIdEffective, husDataProvider))
 					.forEach(huEditorRow::addIncludedRow);
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit.equals(huUnitTypeCode))
 		{
-			final IHandlingUnitsDAO handlingUnitsDAO = Services.get(IHandlingUnitsDAO.class);
-			final IHUStorageFactory storageFactory = handlingUnitsBL.getStorageFactory();
-			handlingUnitsDAO.retrieveIncludedHUs(hu)
+			husDataProvider.getIncludedHUs(hu)
 					.stream()
-					.map(includedVHU -> storageFactory.getStorage(includedVHU))
-					.flatMap(vhuStorage -> vhuStorage.getProductStorages().stream())
+					.flatMap(includedVHU -> husDataProvider.getProductStorages(includedVHU).stream())
 					.map(vhuProductStorage -> createHUEditorRow(huId, topLevelHUIdEffective, vhuProductStorage, processed))
 					.forEach(huEditorRow::addIncludedRow);
 		}
@@ -328,7 +375,7 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		return huEditorRowBuilt;
 	}
 
-	private static final String extractPackingInfo(final I_M_HU hu, final HUEditorRowType huUnitType)
+	private static final String extractPackingInfo(final I_M_HU hu, final HUEditorRowType huUnitType, final HUsDataProvider husDataProvider)
 	{
 		if (!huUnitType.isPureHU())
 		{
@@ -343,7 +390,7 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		{
 			return HUPackingInfoFormatter.newInstance()
 					.setShowLU(true)
-					.format(HUPackingInfos.of(hu));
+					.format(husDataProvider.getPackingInfo(hu));
 		}
 		catch (final Exception ex)
 		{
@@ -352,32 +399,17 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		}
 	}
 
-	private IHUProductStorage getSingleProductStorage(final I_M_HU hu)
-	{
-		final IHUStorage huStorage = Services.get(IHandlingUnitsBL.class).getStorageFactory()
-				.getStorage(hu);
-
-		final I_M_Product product = huStorage.getSingleProductOrNull();
-		if (product == null)
-		{
-			return null;
-		}
-
-		final IHUProductStorage productStorage = huStorage.getProductStorage(product);
-		return productStorage;
-	}
-
 	private HUEditorRow createHUEditorRow(
 			final int parent_HU_ID,
 			final int topLevelHUId,
-			@NonNull final IHUProductStorage huStorage,
+			@NonNull final HUProductStorageData huStorage,
 			final boolean processed)
 	{
 		// final Stopwatch stopwatch = Stopwatch.createStarted();
 
-		final I_M_HU hu = huStorage.getM_HU();
+		final I_M_HU hu = huStorage.getHu();
 		final HuId huId = HuId.ofRepoId(hu.getM_HU_ID());
-		final I_M_Product product = huStorage.getM_Product();
+		final I_M_Product product = huStorage.getProduct();
 		final HUEditorRowAttributesProvider attributesProviderEffective = huId.getRepoId() != parent_HU_ID ? attributesProvider : null;
 
 		final Optional<OrderLineId> reservedForOrderLineId = huReservationService.getReservedForOrderLineId(huId);
@@ -397,7 +429,7 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 				.setHUStatusDisplay(createHUStatusDisplayLookupValue(hu))
 				//
 				.setProduct(createProductLookupValue(product))
-				.setUOM(createUOMLookupValue(huStorage.getC_UOM()))
+				.setUOM(createUOMLookupValue(huStorage.getUom()))
 				.setQtyCU(huStorage.getQty())
 				//
 				.build();
@@ -666,4 +698,253 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		huReservationService.warmup(huIds);
 	}
 
+	/**
+	 * Product storage of an HU, either prefetched from {@link I_M_HU_Storage} or taken from {@link IHUProductStorage}.
+	 */
+	@Value
+	@Builder
+	private static final class HUProductStorageData
+	{
+		public static HUProductStorageData of(@NonNull final IHUProductStorage huProductStorage)
+		{
+			return builder()
+					.hu(huProductStorage.getM_HU())
+					.product(huProductStorage.getM_Product())
+					.uom(huProductStorage.getC_UOM())
+					.qty(huProductStorage.getQty())
+					.build();
+		}
+
+		@NonNull
+		I_M_HU hu;
+		@NonNull
+		I_M_Product product;
+		@NonNull
+		I_C_UOM uom;
+		@NonNull
+		BigDecimal qty;
+	}
+
+	/**
+	 * Provides the included HUs, the product storages and the best before dates of given HUs.
+	 * When prefetched, the data of the HUs of all levels is loaded with a fixed number of queries per level, instead of some queries per HU.
+	 */
+	private static final class HUsDataProvider
+	{
+		public static final HUsDataProvider NOT_PREFETCHED = new HUsDataProvider(ImmutableSet.of(), ImmutableListMultimap.of(), ImmutableListMultimap.of(), ImmutableMap.of(), false);
+
+		public static HUsDataProvider prefetchFor(@NonNull final Collection<I_M_HU> hus, final boolean prefetchBestBeforeDates)
+		{
+			final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+			final ImmutableListMultimap.Builder<Integer, I_M_HU> includedHUsByParentHUId = ImmutableListMultimap.builder();
+			final Map<Integer, I_M_HU> allHUsById = new LinkedHashMap<>();
+
+			//
+			// Included HUs: same as IHandlingUnitsDAO.retrieveIncludedHUs(), i.e. the active HUs of the active HU items, ordered by item and HU
+			Collection<I_M_HU> currentLevelHUs = hus;
+			while (!currentLevelHUs.isEmpty())
+			{
+				currentLevelHUs.forEach(hu -> allHUsById.put(hu.getM_HU_ID(), hu));
+				final ImmutableSet<Integer> huIds = currentLevelHUs.stream()
+						.map(I_M_HU::getM_HU_ID)
+						.collect(ImmutableSet.toImmutableSet());
+
+				final Map<Integer, Integer> huIdsByItemId = queryBL.createQueryBuilderOutOfTrx(I_M_HU_Item.class)
+						.addInArrayFilter(I_M_HU_Item.COLUMN_M_HU_ID, huIds)
+						.addOnlyActiveRecordsFilter()
+						.create()
+						.list(I_M_HU_Item.class)
+						.stream()
+						.collect(ImmutableMap.toImmutableMap(I_M_HU_Item::getM_HU_Item_ID, I_M_HU_Item::getM_HU_ID));
+				if (huIdsByItemId.isEmpty())
+				{
+					break;
+				}
+
+				final List<I_M_HU> includedHUs = queryBL.createQueryBuilderOutOfTrx(I_M_HU.class)
+						.addInArrayFilter(I_M_HU.COLUMN_M_HU_Item_Parent_ID, huIdsByItemId.keySet())
+						.addOnlyActiveRecordsFilter()
+						.orderBy()
+						.addColumn(I_M_HU.COLUMN_M_HU_Item_Parent_ID)
+						.addColumn(I_M_HU.COLUMN_M_HU_ID)
+						.endOrderBy()
+						.create()
+						.list(I_M_HU.class);
+				includedHUs.forEach(includedHU -> includedHUsByParentHUId.put(huIdsByItemId.get(includedHU.getM_HU_Item_Parent_ID()), includedHU));
+
+				currentLevelHUs = includedHUs;
+			}
+
+			final ImmutableSet<Integer> allHUIds = ImmutableSet.copyOf(allHUsById.keySet());
+			if (allHUIds.isEmpty())
+			{
+				return NOT_PREFETCHED;
+			}
+
+			//
+			// Product storages
+			final List<I_M_HU_Storage> storages = queryBL.createQueryBuilderOutOfTrx(I_M_HU_Storage.class)
+					.addInArrayFilter(I_M_HU_Storage.COLUMN_M_HU_ID, allHUIds)
+					.orderBy()
+					.addColumn(I_M_HU_Storage.COLUMN_M_HU_Storage_ID)
+					.endOrderBy()
+					.create()
+					.list(I_M_HU_Storage.class);
+			final Map<Integer, I_M_Product> productsById = retrieveByIds(
+					I_M_Product.class,
+					I_M_Product.COLUMNNAME_M_Product_ID,
+					storages.stream().map(I_M_HU_Storage::getM_Product_ID).collect(ImmutableSet.toImmutableSet()),
+					I_M_Product::getM_Product_ID);
+			final Map<Integer, I_C_UOM> uomsById = retrieveByIds(
+					I_C_UOM.class,
+					I_C_UOM.COLUMNNAME_C_UOM_ID,
+					storages.stream().map(I_M_HU_Storage::getC_UOM_ID).collect(ImmutableSet.toImmutableSet()),
+					I_C_UOM::getC_UOM_ID);
+			final ImmutableListMultimap<Integer, HUProductStorageData> productStoragesByHUId = storages.stream()
+					.collect(ImmutableListMultimap.toImmutableListMultimap(
+							I_M_HU_Storage::getM_HU_ID,
+							storage -> HUProductStorageData.builder()
+									.hu(allHUsById.get(storage.getM_HU_ID()))
+									.product(productsById.get(storage.getM_Product_ID()))
+									.uom(uomsById.get(storage.getC_UOM_ID()))
+									.qty(storage.getQty())
+									.build()));
+
+			//
+			// Best before dates
+			final ImmutableMap<Integer, Date> bestBeforeDatesByHUId = prefetchBestBeforeDates ? retrieveBestBeforeDates(allHUIds) : ImmutableMap.of();
+
+			return new HUsDataProvider(allHUIds, includedHUsByParentHUId.build(), productStoragesByHUId, bestBeforeDatesByHUId, prefetchBestBeforeDates);
+		}
+
+		private static <T> Map<Integer, T> retrieveByIds(final Class<T> modelClass, final String keyColumnName, final Set<Integer> ids, final Function<T, Integer> idExtractor)
+		{
+			if (ids.isEmpty())
+			{
+				return ImmutableMap.of();
+			}
+
+			return Services.get(IQueryBL.class)
+					.createQueryBuilderOutOfTrx(modelClass)
+					.addInArrayFilter(keyColumnName, ids)
+					.create()
+					.list(modelClass)
+					.stream()
+					.collect(GuavaCollectors.toImmutableMapByKey(idExtractor));
+		}
+
+		private static ImmutableMap<Integer, Date> retrieveBestBeforeDates(final Set<Integer> huIds)
+		{
+			final I_M_Attribute bestBeforeDateAttribute = Services.get(IAttributeDAO.class).retrieveAttributeByValue(Constants.ATTR_BestBeforeDate);
+			if (bestBeforeDateAttribute == null)
+			{
+				return ImmutableMap.of();
+			}
+
+			return Services.get(IQueryBL.class)
+					.createQueryBuilderOutOfTrx(I_M_HU_Attribute.class)
+					.addInArrayFilter(I_M_HU_Attribute.COLUMN_M_HU_ID, huIds)
+					.addEqualsFilter(I_M_HU_Attribute.COLUMN_M_Attribute_ID, bestBeforeDateAttribute.getM_Attribute_ID())
+					.addOnlyActiveRecordsFilter()
+					.create()
+					.list(I_M_HU_Attribute.class)
+					.stream()
+					.filter(huAttribute -> huAttribute.getValueDate() != null)
+					.collect(ImmutableMap.toImmutableMap(I_M_HU_Attribute::getM_HU_ID, I_M_HU_Attribute::getValueDate));
+		}
+
+		private final ImmutableSet<Integer> prefetchedHUIds;
+		private final ImmutableListMultimap<Integer, I_M_HU> includedHUsByParentHUId;
+		private final ImmutableListMultimap<Integer, HUProductStorageData> productStoragesByHUId;
+		private final ImmutableMap<Integer, Date> bestBeforeDatesByHUId;
+		private final boolean bestBeforeDatesPrefetched;
+
+		private HUsDataProvider(
+				final ImmutableSet<Integer> prefetchedHUIds,
+				final ImmutableListMultimap<Integer, I_M_HU> includedHUsByParentHUId,
+				final ImmutableListMultimap<Integer, HUProductStorageData> productStoragesByHUId,
+				final ImmutableMap<Integer, Date> bestBeforeDatesByHUId,
+				final boolean bestBeforeDatesPrefetched)
+		{
+			this.prefetchedHUIds = prefetchedHUIds;
+			this.includedHUsByParentHUId = includedHUsByParentHUId;
+			this.productStoragesByHUId = productStoragesByHUId;
+			this.bestBeforeDatesByHUId = bestBeforeDatesByHUId;
+			this.bestBeforeDatesPrefetched = bestBeforeDatesPrefetched;
+		}
+
+		private boolean isPrefetched(@NonNull final I_M_HU hu)
+		{
+			return prefetchedHUIds.contains(hu.getM_HU_ID());
+		}
+
+		public List<I_M_HU> getIncludedHUs(@NonNull final I_M_HU hu)
+		{
+			if (isPrefetched(hu))
+			{
+				return includedHUsByParentHUId.get(hu.getM_HU_ID());
+			}
+
+			return Services.get(IHandlingUnitsDAO.class).retrieveIncludedHUs(hu);
+		}
+
+		public List<HUProductStorageData> getProductStorages(@NonNull final I_M_HU hu)
+		{
+			if (isPrefetched(hu))
+			{
+				return productStoragesByHUId.get(hu.getM_HU_ID());
+			}
+
+			return Services.get(IHandlingUnitsBL.class)
+					.getStorageFactory()
+					.getStorage(hu)
+					.getProductStorages()
+					.stream()
+					.map(HUProductStorageData::of)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		/** @return the product storage of given HU if it stores exactly one product, {@code null} otherwise */
+		public HUProductStorageData getSingleProductStorageOrNull(@NonNull final I_M_HU hu)
+		{
+			if (isPrefetched(hu))
+			{
+				final List<HUProductStorageData> productStorages = productStoragesByHUId.get(hu.getM_HU_ID());
+				return productStorages.size() == 1 ? productStorages.get(0) : null;
+			}
+
+			final IHUStorage huStorage = Services.get(IHandlingUnitsBL.class).getStorageFactory().getStorage(hu);
+			final I_M_Product product = huStorage.getSingleProductOrNull();
+			if (product == null)
+			{
+				return null;
+			}
+
+			return HUProductStorageData.of(huStorage.getProductStorage(product));
+		}
+
+		public IHUPackingInfo getPackingInfo(@NonNull final I_M_HU hu)
+		{
+			if (isPrefetched(hu))
+			{
+				return HUPackingInfos.of(hu, () -> {
+					final HUProductStorageData singleProductStorage = getSingleProductStorageOrNull(hu);
+					return singleProductStorage != null ? Quantity.of(singleProductStorage.getQty(), singleProductStorage.getUom()) : null;
+				});
+			}
+
+			return HUPackingInfos.of(hu);
+		}
+
+		public Date getBestBeforeDate(@NonNull final I_M_HU hu, @NonNull final Supplier<Date> loader)
+		{
+			if (bestBeforeDatesPrefetched && isPrefetched(hu))
+			{
+				return bestBeforeDatesByHUId.get(hu.getM_HU_ID());
+			}
+
+			return loader.get();
+		}
+	}
 }
@@ -139,6 +139,12 @@ final class HUReportProcessInstance implements IProcessInstanceController
 		return instanceId;
 	}
 
+	@Override
+	public ViewId getViewId()
+	{
+		return viewRowIdsSelection.getViewId();
+	}
+
 	@Override
 	public synchronized ProcessInstanceResult startProcess(@NonNull final ProcessExecutionContext context)
 	{
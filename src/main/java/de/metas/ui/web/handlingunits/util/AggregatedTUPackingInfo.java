@@ -2,7 +2,6 @@ package de.metas.ui.web.handlingunits.util;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.List;
 
 import org.adempiere.util.Services;
 import org.compiere.model.I_C_UOM;
@@ -17,8 +16,9 @@ import de.metas.handlingunits.exceptions.HUException;
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.model.I_M_HU_Item;
 import de.metas.handlingunits.model.I_M_HU_PI;
-import de.metas.handlingunits.storage.IHUProductStorage;
 import de.metas.logging.LogManager;
+import de.metas.quantity.Quantity;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -47,25 +47,15 @@ class AggregatedTUPackingInfo implements IHUPackingInfo
 	private static final Logger logger = LogManager.getLogger(AggregatedTUPackingInfo.class);
 
 	private final I_M_HU aggregatedTU;
-	private final Supplier<IHUProductStorage> huProductStorageSupplier;
+	private final Supplier<Quantity> singleProductStorageQtySupplier;
 
-	public AggregatedTUPackingInfo(final I_M_HU aggregatedTU)
+	/**
+	 * @param singleProductStorageQtySupplier provides the qty of the aggregated TU's single product storage, or {@code null} if it does not have exactly one product storage
+	 */
+	public AggregatedTUPackingInfo(@NonNull final I_M_HU aggregatedTU, @NonNull final Supplier<Quantity> singleProductStorageQtySupplier)
 	{
 		this.aggregatedTU = aggregatedTU;
-		huProductStorageSupplier = Suppliers.memoize(() -> {
-			final List<IHUProductStorage> productStorages = Services.get(IHandlingUnitsBL.class)
-					.getStorageFactory()
-					.getStorage(aggregatedTU)
-					.getProductStorages();
-			if (productStorages.size() == 1)
-			{
-				return productStorages.get(0);
-			}
-			else
-			{
-				return null;
-			}
-		});
+		this.singleProductStorageQtySupplier = Suppliers.memoize(singleProductStorageQtySupplier);
 	}
 
 	@Override
@@ -74,9 +64,9 @@ class AggregatedTUPackingInfo implements IHUPackingInfo
 		return MoreObjects.toStringHelper(this).addValue(aggregatedTU).toString();
 	}
 
-	private IHUProductStorage getHUProductStorage()
+	private Quantity getSingleProductStorageQty()
 	{
-		return huProductStorageSupplier.get();
+		return singleProductStorageQtySupplier.get();
 	}
 
 	@Override
@@ -126,8 +116,8 @@ class AggregatedTUPackingInfo implements IHUPackingInfo
 	@Override
 	public BigDecimal getQtyCUsPerTU()
 	{
-		final IHUProductStorage huProductStorage = getHUProductStorage();
-		if (huProductStorage == null)
+		final Quantity qtyCUTotal = getSingleProductStorageQty();
+		if (qtyCUTotal == null)
 		{
 			return null;
 		}
@@ -138,22 +128,20 @@ class AggregatedTUPackingInfo implements IHUPackingInfo
 			return null;
 		}
 
-		final BigDecimal qtyCUTotal = huProductStorage.getQty();
-
-		final BigDecimal qtyCUsPerTU = qtyCUTotal.divide(qtyTUsPerLU, 0, RoundingMode.HALF_UP);
+		final BigDecimal qtyCUsPerTU = qtyCUTotal.getAsBigDecimal().divide(qtyTUsPerLU, 0, RoundingMode.HALF_UP);
 		return qtyCUsPerTU;
 	}
 
 	@Override
 	public I_C_UOM getQtyCUsPerTU_UOM()
 	{
-		final IHUProductStorage huProductStorage = getHUProductStorage();
-		if (huProductStorage == null)
+		final Quantity qtyCUTotal = getSingleProductStorageQty();
+		if (qtyCUTotal == null)
 		{
 			return null;
 		}
 
-		return huProductStorage.getC_UOM();
+		return qtyCUTotal.getUOM();
 	}
 
 }
@@ -1,13 +1,19 @@
 package de.metas.ui.web.handlingunits.util;
 
+import java.util.List;
+
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 
+import com.google.common.base.Supplier;
+
 import de.metas.handlingunits.IHandlingUnitsBL;
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.model.I_M_HU_LUTU_Configuration;
 import de.metas.handlingunits.model.X_M_HU_PI_Version;
 import de.metas.handlingunits.storage.IHUProductStorage;
+import de.metas.quantity.Quantity;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -45,12 +51,21 @@ public final class HUPackingInfos
 	public static final IHUPackingInfo of(final I_M_HU hu)
 	{
 		Check.assumeNotNull(hu, "Parameter hu is not null");
+		return of(hu, () -> retrieveSingleProductStorageQty(hu));
+	}
 
+	/**
+	 * Same as {@link #of(I_M_HU)}, but the qty of the HU's single product storage is taken from given supplier (e.g. when the HU storages were already loaded).
+	 *
+	 * @param singleProductStorageQtySupplier provides the qty of the HU's single product storage, or {@code null} if the HU does not have exactly one product storage
+	 */
+	public static final IHUPackingInfo of(@NonNull final I_M_HU hu, @NonNull final Supplier<Quantity> singleProductStorageQtySupplier)
+	{
 		final IHandlingUnitsBL handlingUnitsBL = Services.get(IHandlingUnitsBL.class);
 		
 		if (handlingUnitsBL.isAggregateHU(hu))
 		{
-			return new AggregatedTUPackingInfo(hu);
+			return new AggregatedTUPackingInfo(hu, singleProductStorageQtySupplier);
 		}
 
 		final String huUnitType = handlingUnitsBL.getHU_UnitType(hu);
@@ -60,7 +75,7 @@ public final class HUPackingInfos
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit.equals(huUnitType))
 		{
-			return new TUPackingInfo(hu);
+			return new TUPackingInfo(hu, singleProductStorageQtySupplier);
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_VirtualPI.equals(huUnitType))
 		{
@@ -71,6 +86,21 @@ public final class HUPackingInfos
 				+ "\n HU: " + hu);
 	}
 
+	private static Quantity retrieveSingleProductStorageQty(final I_M_HU hu)
+	{
+		final List<IHUProductStorage> productStorages = Services.get(IHandlingUnitsBL.class)
+				.getStorageFactory()
+				.getStorage(hu)
+				.getProductStorages();
+		if (productStorages.size() != 1)
+		{
+			return null;
+		}
+
+		final IHUProductStorage productStorage = productStorages.get(0);
+		return Quantity.of(productStorage.getQty(), productStorage.getC_UOM());
+	}
+
 	public IHUPackingInfo of(final IHUProductStorage huProductStorage)
 	{
 		return new VHUPackingInfo(huProductStorage);
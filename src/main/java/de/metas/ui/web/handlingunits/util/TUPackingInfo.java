@@ -1,7 +1,6 @@
 package de.metas.ui.web.handlingunits.util;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 import org.adempiere.util.Services;
 import org.compiere.model.I_C_UOM;
@@ -13,7 +12,7 @@ import com.google.common.base.Suppliers;
 import de.metas.handlingunits.IHandlingUnitsBL;
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.model.I_M_HU_PI;
-import de.metas.handlingunits.storage.IHUProductStorage;
+import de.metas.quantity.Quantity;
 import lombok.NonNull;
 
 /*
@@ -41,26 +40,15 @@ import lombok.NonNull;
 class TUPackingInfo implements IHUPackingInfo
 {
 	private final I_M_HU tuHU;
-	private final Supplier<IHUProductStorage> huProductStorageSupplier;
+	private final Supplier<Quantity> singleProductStorageQtySupplier;
 
-	TUPackingInfo(@NonNull final I_M_HU tuHU)
+	/**
+	 * @param singleProductStorageQtySupplier provides the qty of the TU's single product storage, or {@code null} if the TU does not have exactly one product storage
+	 */
+	TUPackingInfo(@NonNull final I_M_HU tuHU, @NonNull final Supplier<Quantity> singleProductStorageQtySupplier)
 	{
 		this.tuHU = tuHU;
-
-		huProductStorageSupplier = Suppliers.memoize(() -> {
-			final List<IHUProductStorage> productStorages = Services.get(IHandlingUnitsBL.class)
-					.getStorageFactory()
-					.getStorage(tuHU)
-					.getProductStorages();
-			if (productStorages.size() == 1)
-			{
-				return productStorages.get(0);
-			}
-			else
-			{
-				return null;
-			}
-		});
+		this.singleProductStorageQtySupplier = Suppliers.memoize(singleProductStorageQtySupplier);
 	}
 
 	@Override
@@ -69,9 +57,9 @@ class TUPackingInfo implements IHUPackingInfo
 		return MoreObjects.toStringHelper(this).addValue(tuHU).toString();
 	}
 
-	private IHUProductStorage getHUProductStorage()
+	private Quantity getSingleProductStorageQty()
 	{
-		return huProductStorageSupplier.get();
+		return singleProductStorageQtySupplier.get();
 	}
 
 	@Override
@@ -107,15 +95,15 @@ class TUPackingInfo implements IHUPackingInfo
 	@Override
 	public BigDecimal getQtyCUsPerTU()
 	{
-		final IHUProductStorage huProductStorage = getHUProductStorage();
-		return huProductStorage == null ? null : huProductStorage.getQty();
+		final Quantity qty = getSingleProductStorageQty();
+		return qty == null ? null : qty.getAsBigDecimal();
 	}
 
 	@Override
 	public I_C_UOM getQtyCUsPerTU_UOM()
 	{
-		final IHUProductStorage huProductStorage = getHUProductStorage();
-		return huProductStorage == null ? null : huProductStorage.getC_UOM();
+		final Quantity qty = getSingleProductStorageQty();
+		return qty == null ? null : qty.getUOM();
 	}
 
 }
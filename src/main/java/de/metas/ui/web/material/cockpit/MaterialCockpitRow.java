@@ -17,7 +17,6 @@ import org.compiere.util.Util;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.adempiere.model.I_M_Product;
@@ -155,7 +154,7 @@ public class MaterialCockpitRow implements IViewRow
 	@Getter
 	private final Set<Integer> allIncludedStockRecordIds;
 
-	private transient ImmutableMap<String, Object> _fieldNameAndJsonValues;
+	private transient Map<String, Object> _fieldNameAndJsonValues;
 
 	@lombok.Builder(builderClassName = "MainRowBuilder", builderMethodName = "mainRowBuilder")
 	private MaterialCockpitRow(
@@ -0,0 +1,230 @@
+package de.metas.ui.web.menu;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.adempiere.ad.security.IUserRolePermissions;
+import org.slf4j.Logger;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.process.ProcessId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Menu tree of a given AD_Tree_ID and language, containing all active nodes, regardless of role permissions.
+ * <p>
+ * It is loaded once and shared by all roles which are using the same menu tree.
+ * A role's {@link MenuTree} is created by computing the role's visible nodes (see {@link #computeVisibleNodes(IUserRolePermissions)})
+ * and then copying only the visible nodes (see {@link #createRootNode(BitSet, int)}).
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+final class MenuBaseTree
+{
+	/**
+	 * @param inactiveMenuIds AD_Menu_IDs of inactive menus or tree nodes; those nodes, including their children, are excluded
+	 */
+	public static MenuBaseTree of(final MenuNode rootNode, final Set<Integer> inactiveMenuIds)
+	{
+		return new MenuBaseTree(rootNode, inactiveMenuIds);
+	}
+
+	private static final Logger logger = LogManager.getLogger(MenuBaseTree.class);
+
+	/** Nodes in pre-order, so the root node is at index zero and parents always come before their children */
+	private final MenuNode[] nodes;
+	private final int[][] childrenIndexes;
+	/** grouping node index, indexed by AD_Menu_ID */
+	private final Map<Integer, Integer> groupNodeIndexesByMenuId;
+
+	private MenuBaseTree(@NonNull final MenuNode rootNode, @NonNull final Set<Integer> inactiveMenuIds)
+	{
+		final List<MenuNode> nodesList = new ArrayList<>();
+		nodesList.add(rootNode);
+		rootNode.getChildren().forEach(child -> collectActiveNodes(child, inactiveMenuIds, nodesList));
+
+		final int nodesCount = nodesList.size();
+		nodes = nodesList.toArray(new MenuNode[nodesCount]);
+		childrenIndexes = new int[nodesCount][];
+		groupNodeIndexesByMenuId = new HashMap<>();
+
+		final Map<MenuNode, Integer> indexesByNode = new IdentityHashMap<>(nodesCount);
+		for (int i = 0; i < nodesCount; i++)
+		{
+			indexesByNode.put(nodes[i], i);
+		}
+
+		for (int i = 0; i < nodesCount; i++)
+		{
+			final MenuNode node = nodes[i];
+
+			childrenIndexes[i] = node.getChildren()
+					.stream()
+					.map(indexesByNode::get)
+					.filter(Objects::nonNull) // skip inactive children
+					.mapToInt(Integer::intValue)
+					.toArray();
+
+			if (node.isGroupingNode())
+			{
+				groupNodeIndexesByMenuId.putIfAbsent(node.getAD_Menu_ID(), i);
+			}
+		}
+	}
+
+	/** Collects given node and its children, in pre-order, skipping the inactive ones */
+	private static void collectActiveNodes(final MenuNode node, final Set<Integer> inactiveMenuIds, final List<MenuNode> result)
+	{
+		if (inactiveMenuIds.contains(node.getAD_Menu_ID()))
+		{
+			logger.trace("Skip inactive node: {}", node);
+			return;
+		}
+
+		result.add(node);
+		node.getChildren().forEach(child -> collectActiveNodes(child, inactiveMenuIds, result));
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("rootNode", nodes[0])
+				.add("nodesCount", nodes.length)
+				.toString();
+	}
+
+	/**
+	 * @return visible node indexes: leafs which are accessible for given role and grouping nodes which contain at least one visible node
+	 */
+	public BitSet computeVisibleNodes(@NonNull final IUserRolePermissions permissions)
+	{
+		final BitSet visible = new BitSet(nodes.length);
+
+		// NOTE: iterate backwards, so the children are evaluated before their parents
+		for (int i = nodes.length - 1; i >= 0; i--)
+		{
+			final MenuNode node = nodes[i];
+			if (node.isGroupingNode())
+			{
+				if (i == 0 || hasVisibleChildren(i, visible))
+				{
+					visible.set(i);
+				}
+			}
+			else if (isAccessible(node, permissions))
+			{
+				visible.set(i);
+			}
+		}
+
+		return visible;
+	}
+
+	private boolean hasVisibleChildren(final int nodeIndex, final BitSet visible)
+	{
+		for (final int childIndex : childrenIndexes[nodeIndex])
+		{
+			if (visible.get(childIndex))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isAccessible(final MenuNode node, final IUserRolePermissions permissions)
+	{
+		switch (node.getType())
+		{
+			case Window:
+			case NewRecord:
+				return permissions.checkWindowAccess(node.getElementId().toInt()) != null;
+			case Process:
+			case Report:
+				final ProcessId processId = ProcessId.fromJson(node.getElementId().toJson());
+				return permissions.checkProcessAccess(processId.getProcessIdAsInt()) != null;
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Creates a copy of this tree, containing only the visible nodes.
+	 *
+	 * @param visible visible nodes, see {@link #computeVisibleNodes(IUserRolePermissions)}
+	 * @param rootMenuId role's root AD_Menu_ID; if not set or not found, this tree's root node will be used
+	 */
+	public MenuNode createRootNode(@NonNull final BitSet visible, final int rootMenuId)
+	{
+		int rootIndex = 0;
+		if (rootMenuId > 0)
+		{
+			final Integer rootMenuIndex = groupNodeIndexesByMenuId.get(rootMenuId);
+			if (rootMenuIndex != null)
+			{
+				rootIndex = rootMenuIndex;
+			}
+			else
+			{
+				logger.warn("Cannot find Root_Menu_ID={} in {}", rootMenuId, this);
+			}
+		}
+
+		return copy(rootIndex, visible, true);
+	}
+
+	private MenuNode copy(final int nodeIndex, final BitSet visible, final boolean isRoot)
+	{
+		final ImmutableList.Builder<MenuNode> childrenCopy = ImmutableList.builder();
+		for (final int childIndex : childrenIndexes[nodeIndex])
+		{
+			if (!visible.get(childIndex))
+			{
+				continue;
+			}
+
+			final MenuNode child = nodes[childIndex];
+			if (isRoot && !child.isGroupingNode())
+			{
+				logger.trace("Skip leaf node of root: {}", child);
+				continue;
+			}
+
+			childrenCopy.add(copy(childIndex, visible, false));
+		}
+
+		return nodes[nodeIndex].copy(childrenCopy.build(), false);
+	}
+}
@@ -296,6 +296,12 @@ public final class MenuNode
 		return ImmutablePair.of(thisCopy, resolution);
 	}
 
+	/** @return a copy of this node (without parent) having given children */
+	/* package */ MenuNode copy(final List<MenuNode> children, final boolean matchedByFilter)
+	{
+		return new MenuNode(this, children, matchedByFilter);
+	}
+
 	public boolean isRoot()
 	{
 		return parent == null;
@@ -1,6 +1,5 @@
 package de.metas.ui.web.menu;
 
-import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -65,6 +64,8 @@ public final class MenuTree
 	private final ListMultimap<ArrayKey, MenuNode> nodesByTypeAndElementId;
 	private final ListMultimap<String, MenuNode> nodesByMainTableName;
 
+	private final MenuTreeSearchIndex searchIndex;
+
 	private MenuTree(final long version, final MenuNode rootNode)
 	{
 		super();
@@ -88,6 +89,8 @@ public final class MenuTree
 		nodesById = nodesByIdBuilder.build();
 		nodesByTypeAndElementId = nodesByTypeAndElementIdBuilder.build();
 		nodesByMainTableName = nodesByMainTableNameBuilder.build();
+
+		searchIndex = MenuTreeSearchIndex.of(rootNode);
 	}
 
 	private static final ArrayKey mkTypeAndElementIdKey(final MenuNodeType type, final DocumentId elementId)
@@ -234,7 +237,7 @@ public final class MenuTree
 	 *            <li><code>false</code> populate groups only with the leafs that match (default)
 	 *            <li><code>true</code> if groups that were matched shall be populated with it's leafs, even if those leafs are not matching
 	 *            </ul>
-	 * @return a new copy with all matching nodes.
+	 * @return a new copy with all matching nodes; on each level, the best matching nodes come first
 	 */
 	public MenuNode filter(final String nameQuery, final boolean includeLeafsIfGroupAccepted)
 	{
@@ -243,54 +246,8 @@ public final class MenuTree
 			throw new IllegalArgumentException("Invalid name query '" + nameQuery + "'");
 		}
 
-		final String nameQueryLC = nameQuery.toLowerCase();
-		logger.trace("Filtering using nameQueryLC={}", nameQueryLC);
-
-		return getRootNode()
-				.deepCopy(node -> {
-					if (node.isRoot())
-					{
-						logger.trace("Filter: accept root node: {}", node);
-						return MenuNodeFilterResolution.Accept;
-					}
-
-					final boolean matches = matchesNameQuery(node, nameQueryLC);
-					if (matches)
-					{
-						logger.trace("Filter: accept node because matches: {}", node);
-						return MenuNodeFilterResolution.Accept;
-					}
-
-					if (node.isGroupingNode())
-					{
-						logger.trace("Filter: accept node (if has children!) because does matches and it's a groupping node: {}", node);
-						return MenuNodeFilterResolution.AcceptIfHasChildren;
-					}
-					else if (includeLeafsIfGroupAccepted)
-					{
-						logger.trace("Filter: accept node if parent is accepted because does not match and we were asked to populate matching groups with its leafs: {}", node);
-						return MenuNodeFilterResolution.AcceptIfParentIsAccepted;
-					}
-					else
-					{
-						logger.trace("Filter: reject node because does not match and it's leaf node: {}", node);
-						return MenuNodeFilterResolution.Reject;
-					}
-				});
-	}
-
-	private static final boolean matchesNameQuery(final MenuNode node, final String nameQueryLC)
-	{
-		final String captionNorm = stripDiacritics(node.getCaption().toLowerCase());
-		final String queryNorm = stripDiacritics(nameQueryLC);
-		return captionNorm.indexOf(queryNorm) >= 0;
-	}
-
-	private static final String stripDiacritics(final String string)
-	{
-		String s = Normalizer.normalize(string, Normalizer.Form.NFD);
-		s = s.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
-		return s;
+		logger.trace("Filtering using nameQuery={}", nameQuery);
+		return searchIndex.filter(nameQuery, includeLeafsIfGroupAccepted);
 	}
 
 	public MenuNode getRootNodeWithFavoritesOnly(@NonNull final MenuNodeFavoriteProvider menuNodeFavoriteProvider)
@@ -1,7 +1,11 @@
 package de.metas.ui.web.menu;
 
+import java.util.BitSet;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.security.IUserRolePermissions;
 import org.adempiere.ad.security.IUserRolePermissionsDAO;
 import org.adempiere.ad.security.UserRolePermissionsKey;
@@ -10,12 +14,16 @@ import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
+import org.compiere.model.I_AD_Menu;
+import org.compiere.model.I_AD_TreeNodeMM;
 import org.compiere.model.MTree;
 import org.compiere.model.MTreeNode;
 import org.compiere.model.X_AD_Menu;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
 
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.logging.LogManager;
 import de.metas.ui.web.menu.MenuNode.MenuNodeType;
 import de.metas.ui.web.process.ProcessId;
@@ -55,9 +63,6 @@ final class MenuTreeLoader
 	private static final transient Logger logger = LogManager.getLogger(MenuTreeLoader.class);
 	private final transient IUserRolePermissionsDAO userRolePermissionsDAO = Services.get(IUserRolePermissionsDAO.class);
 
-	private static final int DEPTH_Root = 0;
-	private static final int DEPTH_RootChildren = 1;
-
 	private UserRolePermissionsKey _userRolePermissionsKey;
 	private IUserRolePermissions _userRolePermissions; // lazy
 	private String _adLanguage;
@@ -90,27 +95,91 @@ final class MenuTreeLoader
 		return _userRolePermissions;
 	}
 
-	public MenuTree load()
+	/**
+	 * @return the key of the role independent menu tree which shall be used for role's menu tree
+	 */
+	public MenuBaseTreeKey getBaseTreeKey()
 	{
+		final UserMenuInfo userMenuInfo = getUserMenuInfo();
+		final int adTreeId = userMenuInfo.getAD_Tree_ID();
+		if (adTreeId < 0)
+		{
+			throw new AdempiereException("Menu tree not found");
+		}
+
+		return MenuBaseTreeKey.builder()
+				.adClientId(Env.getAD_Client_ID(Env.getCtx()))
+				.adTreeId(adTreeId)
+				.adLanguage(getAD_Language())
+				.build();
+	}
+
+	/**
+	 * Loads the menu tree of the role, by applying role's permissions on the (shared) base menu tree.
+	 *
+	 * @param baseTree the base menu tree of {@link #getBaseTreeKey()}
+	 */
+	public MenuTree load(@NonNull final MenuBaseTree baseTree)
+	{
+		final IUserRolePermissions userRolePermissions = getUserRolePermissions();
 		if (logger.isTraceEnabled())
 		{
-			logger.trace("Loading menu tree for {}", getUserRolePermissions());
+			logger.trace("Loading menu tree for {}", userRolePermissions);
 		}
 
-		final MTreeNode rootNodeModel = retrieveRootNodeModel();
-		final MenuNode rootNode = createMenuNodeRecursivelly(rootNodeModel, DEPTH_Root);
+		final BitSet visibleNodes = baseTree.computeVisibleNodes(userRolePermissions);
+		final MenuNode rootNode = baseTree.createRootNode(visibleNodes, getUserMenuInfo().getRoot_Menu_ID());
+
+		final long version = getVersion();
+		return MenuTree.of(version, rootNode);
+	}
+
+	/**
+	 * Loads all active menu nodes of given tree, regardless of role permissions.
+	 */
+	public static MenuBaseTree loadBaseTree(@NonNull final MenuBaseTreeKey key)
+	{
+		logger.trace("Loading menu base tree for {}", key);
+
+		final MTreeNode rootNodeModel = retrieveRootNodeModel(key);
+		final MenuNode rootNode = createMenuNodeRecursivelly(rootNodeModel);
 		if (rootNode == null)
 		{
 			throw new IllegalStateException("No root menu node available"); // shall not happen
 		}
 
-		final long version = getVersion();
-		return MenuTree.of(version, rootNode);
+		final Set<Integer> inactiveMenuIds = retrieveInactiveMenuIds(key.getAdTreeId());
+		return MenuBaseTree.of(rootNode, inactiveMenuIds);
 	}
 
-	private MenuNode createMenuNodeRecursivelly(final MTreeNode nodeModel, final int depth)
+	/**
+	 * @return IDs of inactive AD_Menu records and of inactive menu tree nodes.
+	 *         We need them because the tree is loaded as editable, so {@link MTree} is not filtering them out.
+	 */
+	private static Set<Integer> retrieveInactiveMenuIds(final int adTreeId)
 	{
-		final MenuNode.Builder nodeBuilder = createMenuNodeBuilder(nodeModel, depth);
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+		final List<Integer> inactiveMenuIds = queryBL.createQueryBuilderOutOfTrx(I_AD_Menu.class)
+				.addEqualsFilter(I_AD_Menu.COLUMNNAME_IsActive, false)
+				.create()
+				.listIds();
+
+		final List<Integer> inactiveNodeIds = queryBL.createQueryBuilderOutOfTrx(I_AD_TreeNodeMM.class)
+				.addEqualsFilter(I_AD_TreeNodeMM.COLUMNNAME_AD_Tree_ID, adTreeId)
+				.addEqualsFilter(I_AD_TreeNodeMM.COLUMNNAME_IsActive, false)
+				.create()
+				.listDistinct(I_AD_TreeNodeMM.COLUMNNAME_Node_ID, Integer.class);
+
+		return ImmutableSet.<Integer> builder()
+				.addAll(inactiveMenuIds)
+				.addAll(inactiveNodeIds)
+				.build();
+	}
+
+	private static MenuNode createMenuNodeRecursivelly(final MTreeNode nodeModel)
+	{
+		final MenuNode.Builder nodeBuilder = createMenuNodeBuilder(nodeModel);
 		if (nodeBuilder == null)
 		{
 			logger.trace("Skip creating menu node for {}", nodeModel);
@@ -122,7 +191,7 @@ final class MenuTreeLoader
 		{
 			final MTreeNode childModel = (MTreeNode)childModels.nextElement();
 
-			final MenuNode childNode = createMenuNodeRecursivelly(childModel, depth + 1);
+			final MenuNode childNode = createMenuNodeRecursivelly(childModel);
 			if (childNode == null)
 			{
 				continue;
@@ -143,7 +212,7 @@ final class MenuTreeLoader
 		return nodeBuilder.build();
 	}
 
-	private MenuNode.Builder createMenuNodeBuilder(final MTreeNode nodeModel, final int depth)
+	private static MenuNode.Builder createMenuNodeBuilder(final MTreeNode nodeModel)
 	{
 		final String captionBreadcrumb = nodeModel.getName(); // shall not be empty
 
@@ -164,11 +233,6 @@ final class MenuTreeLoader
 		{
 			builder.setTypeGroup();
 		}
-		else if (depth == DEPTH_RootChildren)
-		{
-			logger.warn("Skip creating leaf nodes for root: {}", nodeModel);
-			return null;
-		}
 		else if (X_AD_Menu.ACTION_Window.equals(action))
 		{
 			final DocumentId elementId = DocumentId.of(nodeModel.getAD_Window_ID());
@@ -197,7 +261,7 @@ final class MenuTreeLoader
 		return builder;
 	}
 
-	private MenuNode createNewRecordNode(final MenuNode node, final String caption, String captionBreadcrumb)
+	private static MenuNode createNewRecordNode(final MenuNode node, final String caption, String captionBreadcrumb)
 	{
 		if (node.getType() != MenuNodeType.Window)
 		{
@@ -229,42 +293,23 @@ final class MenuTreeLoader
 				.build();
 	}
 
-	private MTreeNode retrieveRootNodeModel()
+	private static MTreeNode retrieveRootNodeModel(final MenuBaseTreeKey key)
 	{
-		final UserMenuInfo userMenuInfo = getUserMenuInfo();
-		final int adTreeId = userMenuInfo.getAD_Tree_ID();
-		if (adTreeId < 0)
-		{
-			throw new AdempiereException("Menu tree not found");
-		}
-
+		// NOTE: we are loading the tree as editable, so nodes are not filtered by the current role's permissions.
+		// Role's permissions are applied later, see MenuBaseTree.computeVisibleNodes.
+		// An editable tree does not filter out the inactive nodes either, so we do it explicitly, see retrieveInactiveMenuIds.
 		final MTree mTree = MTree.builder()
 				.setCtx(Env.getCtx())
 				.setTrxName(ITrx.TRXNAME_None)
-				.setAD_Tree_ID(adTreeId)
-				.setEditable(false)
+				.setAD_Tree_ID(key.getAdTreeId())
+				.setEditable(true)
 				.setClientTree(true)
-				.setLanguage(getAD_Language())
+				.setLanguage(key.getAdLanguage())
 				.build();
 
-		final MTreeNode rootNodeModel = mTree.getRoot();
-		int rootMenuIdEffective = userMenuInfo.getRoot_Menu_ID();
-		if (rootMenuIdEffective > 0)
-		{
-			final MTreeNode rootNodeModelEffective = rootNodeModel.findNode(rootMenuIdEffective);
-			if (rootNodeModelEffective != null)
-			{
-				return rootNodeModelEffective;
-			}
-			else
-			{
-				logger.warn("Cannot find Root_Menu_ID={} in {}", rootMenuIdEffective, mTree);
-			}
-		}
-
-		return rootNodeModel;
+		return mTree.getRoot();
 	}
-	
+
 	private UserMenuInfo getUserMenuInfo()
 	{
 		final IUserRolePermissions userRolePermissions = getUserRolePermissions();
@@ -13,6 +13,10 @@ import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.user.api.IUserMenuFavoritesDAO;
 import org.adempiere.util.Services;
+import org.compiere.model.I_AD_Menu;
+import org.compiere.model.I_AD_Menu_Trl;
+import org.compiere.model.I_AD_TreeNodeMM;
+import org.compiere.util.CCache;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -24,6 +28,7 @@ import com.google.common.cache.LoadingCache;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.session.UserSession;
+import lombok.Value;
 
 /*
  * #%L
@@ -55,13 +60,18 @@ public class MenuTreeRepository implements MenuNodeFavoriteProvider
 	@Autowired
 	private UserSession userSession;
 
-	private final LoadingCache<MenuTreeKey, MenuTree> menuTrees = CacheBuilder.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).build(new CacheLoader<MenuTreeKey, MenuTree>()
+	/** Role independent menu trees, shared by all roles. The role menu trees are created from them. */
+	private final CCache<MenuBaseTreeKey, MenuBaseTree> menuBaseTrees = CCache.<MenuBaseTreeKey, MenuBaseTree> newCache(I_AD_Menu.Table_Name + "#MenuBaseTree", 10, 0)
+			.addResetForTableName(I_AD_Menu_Trl.Table_Name)
+			.addResetForTableName(I_AD_TreeNodeMM.Table_Name);
+
+	private final LoadingCache<MenuTreeKey, MenuTreeAndBaseTree> menuTrees = CacheBuilder.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).build(new CacheLoader<MenuTreeKey, MenuTreeAndBaseTree>()
 	{
 
 		@Override
-		public MenuTree load(final MenuTreeKey key)
+		public MenuTreeAndBaseTree load(final MenuTreeKey key)
 		{
-			return MenuTreeLoader.newInstance().setUserRolePermissionsKey(key.getUserRolePermissionsKey()).setAD_Language(key.getAD_Language()).load();
+			return loadMenuTree(key);
 		}
 	});
 
@@ -87,26 +97,23 @@ public class MenuTreeRepository implements MenuNodeFavoriteProvider
 		try
 		{
 			final MenuTreeKey key = new MenuTreeKey(userRolePermissionsKey, adLanguage);
-			MenuTree menuTree = menuTrees.get(key);
+			final MenuTreeAndBaseTree menuTreeAndBaseTree = menuTrees.get(key);
+			final MenuTree menuTree = menuTreeAndBaseTree.getMenuTree();
 
 			//
-			// If menuTree's version is not the current one, try re-acquiring it.
-			int retry = 3;
+			// If menuTree's version is not the current one (i.e. permissions changed), recompute it.
+			// Same if the base menu tree it was created from was reset (i.e. menu changed).
+			// NOTE: in the first case that's cheap because only role's visible nodes are recomputed, the base menu tree is not reloaded.
 			final long currentVersion = Services.get(IUserRolePermissionsDAO.class).getCacheVersion();
-			while (menuTree.getVersion() != currentVersion)
+			if (menuTree.getVersion() != currentVersion
+					|| menuBaseTrees.get(menuTreeAndBaseTree.getBaseTreeKey()) != menuTreeAndBaseTree.getBaseTree())
 			{
-				menuTrees.invalidate(key);
-				menuTree = menuTrees.get(key);
+				final MenuTreeAndBaseTree menuTreeAndBaseTreeNew = loadMenuTree(key);
+				final MenuTree menuTreeNew = menuTreeAndBaseTreeNew.getMenuTree();
+				logger.trace("Menu tree recomputed because version changed from {} to {} or menu changed: {}", menuTree.getVersion(), menuTreeNew.getVersion(), key);
 
-				retry--;
-				if (retry <= 0)
-				{
-					break;
-				}
-			}
-			if (menuTree.getVersion() != currentVersion)
-			{
-				logger.warn("Could not acquire menu tree version {}. Returning what we got... \nmenuTree: {}\nkey={}", currentVersion, menuTree, key);
+				menuTrees.put(key, menuTreeAndBaseTreeNew);
+				return menuTreeNew;
 			}
 
 			return menuTree;
@@ -117,8 +124,27 @@ public class MenuTreeRepository implements MenuNodeFavoriteProvider
 		}
 	}
 
+	private MenuTreeAndBaseTree loadMenuTree(final MenuTreeKey key)
+	{
+		final MenuTreeLoader loader = MenuTreeLoader.newInstance()
+				.setUserRolePermissionsKey(key.getUserRolePermissionsKey())
+				.setAD_Language(key.getAD_Language());
+
+		final MenuBaseTreeKey baseTreeKey = loader.getBaseTreeKey();
+		final MenuBaseTree baseTree = getMenuBaseTree(baseTreeKey);
+		final MenuTree menuTree = loader.load(baseTree);
+		return MenuTreeAndBaseTree.of(menuTree, baseTreeKey, baseTree);
+	}
+
+	private MenuBaseTree getMenuBaseTree(final MenuBaseTreeKey key)
+	{
+		return menuBaseTrees.getOrLoad(key, () -> MenuTreeLoader.loadBaseTree(key));
+	}
+
 	public void cacheReset()
 	{
+		menuBaseTrees.reset();
+
 		menuTrees.invalidateAll();
 		menuTrees.cleanUp();
 
@@ -233,6 +259,15 @@ public class MenuTreeRepository implements MenuNodeFavoriteProvider
 		}
 	}
 
+	/** Role's menu tree, together with the base menu tree it was created from */
+	@Value(staticConstructor = "of")
+	private static final class MenuTreeAndBaseTree
+	{
+		MenuTree menuTree;
+		MenuBaseTreeKey baseTreeKey;
+		MenuBaseTree baseTree;
+	}
+
 	private static final class UserMenuFavorites
 	{
 		private static final Builder builder()
@@ -0,0 +1,259 @@
+package de.metas.ui.web.menu;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Search index of a {@link MenuTree}'s node captions.
+ * <p>
+ * Captions are lowercased and diacritics-stripped once, when the index is built, and their trigrams are indexed.
+ * So, searching does not have to normalize all captions and deep-copy the whole tree on each keystroke,
+ * but it just has to verify the candidates of the least frequent query trigram and copy the paths to the matching nodes.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+final class MenuTreeSearchIndex
+{
+	public static MenuTreeSearchIndex of(final MenuNode rootNode)
+	{
+		return new MenuTreeSearchIndex(rootNode);
+	}
+
+	private static final Pattern PATTERN_CombiningDiacriticalMarks = Pattern.compile("[\\p{InCombiningDiacriticalMarks}]");
+	private static final int NGRAM_LENGTH = 3;
+
+	private static final int RANK_NotMatched = Integer.MAX_VALUE;
+	private static final int RANK_Equals = 0;
+	private static final int RANK_StartsWith = 1;
+	private static final int RANK_WordStartsWith = 2;
+	private static final int RANK_Contains = 3;
+
+	/** Nodes in pre-order, so the root node is at index zero and parents always come before their children */
+	private final MenuNode[] nodes;
+	private final String[] captionsNorm;
+	private final int[] parentIndexes;
+	private final int[][] childrenIndexes;
+	/** node indexes (ascending), indexed by trigram */
+	private final ImmutableMap<String, int[]> nodeIndexesByNGram;
+
+	private MenuTreeSearchIndex(final MenuNode rootNode)
+	{
+		final List<MenuNode> nodesList = new ArrayList<>();
+		rootNode.iterate(nodesList::add);
+
+		final int nodesCount = nodesList.size();
+		nodes = nodesList.toArray(new MenuNode[nodesCount]);
+		captionsNorm = new String[nodesCount];
+		parentIndexes = new int[nodesCount];
+		childrenIndexes = new int[nodesCount][];
+
+		final Map<MenuNode, Integer> indexesByNode = new IdentityHashMap<>(nodesCount);
+		for (int i = 0; i < nodesCount; i++)
+		{
+			indexesByNode.put(nodes[i], i);
+		}
+
+		final Map<String, List<Integer>> nodeIndexesByNGramBuilder = new HashMap<>();
+		for (int i = 0; i < nodesCount; i++)
+		{
+			final MenuNode node = nodes[i];
+
+			final MenuNode parent = i == 0 ? null : node.getParent();
+			parentIndexes[i] = parent == null ? -1 : indexesByNode.get(parent);
+
+			final List<MenuNode> children = node.getChildren();
+			childrenIndexes[i] = new int[children.size()];
+			for (int c = 0; c < children.size(); c++)
+			{
+				childrenIndexes[i][c] = indexesByNode.get(children.get(c));
+			}
+
+			final String captionNorm = normalize(node.getCaption());
+			captionsNorm[i] = captionNorm;
+
+			if (i == 0)
+			{
+				continue; // don't index the root node, it's never matched
+			}
+
+			for (final String ngram : extractNGrams(captionNorm))
+			{
+				nodeIndexesByNGramBuilder.computeIfAbsent(ngram, k -> new ArrayList<>()).add(i);
+			}
+		}
+
+		final ImmutableMap.Builder<String, int[]> nodeIndexesByNGram = ImmutableMap.builder();
+		nodeIndexesByNGramBuilder.forEach((ngram, nodeIndexes) -> nodeIndexesByNGram.put(ngram, Ints.toArray(nodeIndexes)));
+		this.nodeIndexesByNGram = nodeIndexesByNGram.build();
+	}
+
+	private static String normalize(final String string)
+	{
+		if (string == null || string.isEmpty())
+		{
+			return "";
+		}
+
+		final String stringNFD = Normalizer.normalize(string.toLowerCase(), Normalizer.Form.NFD);
+		return PATTERN_CombiningDiacriticalMarks.matcher(stringNFD).replaceAll("");
+	}
+
+	private static Set<String> extractNGrams(final String stringNorm)
+	{
+		if (stringNorm.length() < NGRAM_LENGTH)
+		{
+			return ImmutableSet.of();
+		}
+
+		final Set<String> ngrams = new LinkedHashSet<>();
+		for (int i = 0, last = stringNorm.length() - NGRAM_LENGTH; i <= last; i++)
+		{
+			ngrams.add(stringNorm.substring(i, i + NGRAM_LENGTH));
+		}
+		return ngrams;
+	}
+
+	/**
+	 * @see MenuTree#filter(String, boolean)
+	 */
+	public MenuNode filter(final String nameQuery, final boolean includeLeafsIfGroupAccepted)
+	{
+		final String queryNorm = normalize(nameQuery);
+
+		//
+		// Rank the matching nodes and propagate the best rank to their ancestors
+		final BitSet matched = new BitSet(nodes.length);
+		final int[] ranks = new int[nodes.length];
+		Arrays.fill(ranks, RANK_NotMatched);
+		for (final int nodeIndex : getCandidateNodeIndexes(queryNorm))
+		{
+			final int rank = rank(captionsNorm[nodeIndex], queryNorm);
+			if (rank == RANK_NotMatched)
+			{
+				continue;
+			}
+
+			matched.set(nodeIndex);
+			for (int i = nodeIndex; i >= 0 && ranks[i] > rank; i = parentIndexes[i])
+			{
+				ranks[i] = rank;
+			}
+		}
+
+		matched.set(0); // root node is always accepted
+		return copy(0, matched, ranks, includeLeafsIfGroupAccepted);
+	}
+
+	private int[] getCandidateNodeIndexes(final String queryNorm)
+	{
+		final Set<String> queryNGrams = extractNGrams(queryNorm);
+		if (queryNGrams.isEmpty())
+		{
+			// query too short to use the index => all nodes, except root, are candidates
+			final int[] allNodeIndexes = new int[nodes.length - 1];
+			Arrays.setAll(allNodeIndexes, i -> i + 1);
+			return allNodeIndexes;
+		}
+
+		int[] candidates = null;
+		for (final String ngram : queryNGrams)
+		{
+			final int[] nodeIndexes = nodeIndexesByNGram.get(ngram);
+			if (nodeIndexes == null)
+			{
+				return new int[] {}; // no caption contains this trigram, so for sure nothing will match
+			}
+			if (candidates == null || nodeIndexes.length < candidates.length)
+			{
+				candidates = nodeIndexes;
+			}
+		}
+		return candidates;
+	}
+
+	private static int rank(final String captionNorm, final String queryNorm)
+	{
+		int idx = captionNorm.indexOf(queryNorm);
+		if (idx < 0)
+		{
+			return RANK_NotMatched;
+		}
+		else if (idx == 0)
+		{
+			return captionNorm.length() == queryNorm.length() ? RANK_Equals : RANK_StartsWith;
+		}
+
+		while (idx > 0)
+		{
+			if (!Character.isLetterOrDigit(captionNorm.charAt(idx - 1)))
+			{
+				return RANK_WordStartsWith;
+			}
+			idx = captionNorm.indexOf(queryNorm, idx + 1);
+		}
+		return RANK_Contains;
+	}
+
+	private MenuNode copy(final int nodeIndex, final BitSet matched, final int[] ranks, final boolean includeLeafsIfGroupAccepted)
+	{
+		final ImmutableList.Builder<MenuNode> childrenCopy = ImmutableList.builder();
+
+		// Children which are matching or which have matching descendants, best ranked first
+		Arrays.stream(childrenIndexes[nodeIndex])
+				.filter(childIndex -> ranks[childIndex] != RANK_NotMatched)
+				.boxed()
+				.sorted(Comparator.comparing(childIndex -> ranks[childIndex]))
+				.map(childIndex -> copy(childIndex, matched, ranks, includeLeafsIfGroupAccepted))
+				.forEach(childrenCopy::add);
+
+		// Not matching leafs, if asked
+		if (includeLeafsIfGroupAccepted)
+		{
+			Arrays.stream(childrenIndexes[nodeIndex])
+					.filter(childIndex -> ranks[childIndex] == RANK_NotMatched)
+					.mapToObj(childIndex -> nodes[childIndex])
+					.filter(child -> !child.isGroupingNode())
+					.map(child -> child.copy(ImmutableList.of(), false))
+					.forEach(childrenCopy::add);
+		}
+
+		return nodes[nodeIndex].copy(childrenCopy.build(), matched.get(nodeIndex));
+	}
+}
@@ -0,0 +1,147 @@
+package de.metas.ui.web.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ImmutableMap;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Lock free latency histogram with fixed buckets.
+ * <p>
+ * Percentiles are approximated by the upper bound of the bucket in which they fall, which is precise enough to spot slow endpoints.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+public final class LatencyHistogram
+{
+	/** Buckets upper bounds (inclusive), in milliseconds. The last bucket is unbounded. */
+	private static final long[] BUCKET_UPPER_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000 };
+
+	private final LongAdder[] bucketCounts;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sumMillis = new LongAdder();
+	private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram()
+	{
+		bucketCounts = new LongAdder[BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+		for (int i = 0; i < bucketCounts.length; i++)
+		{
+			bucketCounts[i] = new LongAdder();
+		}
+	}
+
+	public void record(final Duration duration)
+	{
+		record(duration.toMillis());
+	}
+
+	public void record(final long durationMillis)
+	{
+		final long durationMillisNorm = Math.max(durationMillis, 0);
+		bucketCounts[getBucketIndex(durationMillisNorm)].increment();
+		count.increment();
+		sumMillis.add(durationMillisNorm);
+		maxMillis.accumulate(durationMillisNorm);
+	}
+
+	private static int getBucketIndex(final long durationMillis)
+	{
+		int bucketIndex = 0;
+		while (bucketIndex < BUCKET_UPPER_BOUNDS_MILLIS.length && durationMillis > BUCKET_UPPER_BOUNDS_MILLIS[bucketIndex])
+		{
+			bucketIndex++;
+		}
+		return bucketIndex;
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	public long getMaxMillis()
+	{
+		return maxMillis.get();
+	}
+
+	public long getAverageMillis()
+	{
+		final long count = getCount();
+		return count > 0 ? sumMillis.sum() / count : 0;
+	}
+
+	/**
+	 * @param percentile percentile, between 0 and 100 (e.g. 99 for p99)
+	 * @return the upper bound of the bucket where given percentile falls or the max recorded value if it's lower
+	 */
+	public long getPercentileMillis(final double percentile)
+	{
+		final long[] counts = new long[bucketCounts.length];
+		long total = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			counts[i] = bucketCounts[i].sum();
+			total += counts[i];
+		}
+		if (total <= 0)
+		{
+			return 0;
+		}
+
+		final long max = getMaxMillis();
+		final long rank = (long)Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+		long cumulated = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			cumulated += counts[i];
+			if (cumulated >= rank && counts[i] > 0)
+			{
+				return i < BUCKET_UPPER_BOUNDS_MILLIS.length ? Math.min(BUCKET_UPPER_BOUNDS_MILLIS[i], max) : max;
+			}
+		}
+		return max;
+	}
+
+	public Map<String, Object> toMap()
+	{
+		final ImmutableMap.Builder<String, Object> buckets = ImmutableMap.builder();
+		for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++)
+		{
+			buckets.put("<=" + BUCKET_UPPER_BOUNDS_MILLIS[i] + "ms", bucketCounts[i].sum());
+		}
+		buckets.put(">" + BUCKET_UPPER_BOUNDS_MILLIS[BUCKET_UPPER_BOUNDS_MILLIS.length - 1] + "ms", bucketCounts[BUCKET_UPPER_BOUNDS_MILLIS.length].sum());
+
+		return ImmutableMap.<String, Object> builder()
+				.put("count", getCount())
+				.put("avgMillis", getAverageMillis())
+				.put("p99Millis", getPercentileMillis(99))
+				.put("maxMillis", getMaxMillis())
+				.put("buckets", buckets.build())
+				.build();
+	}
+}
@@ -0,0 +1,38 @@
+package de.metas.ui.web.metrics;
+
+import de.metas.ui.web.metrics.json.JSONMetrics;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports metrics snapshots to an external system (e.g. a time series database).
+ * <p>
+ * To plug in an exporter, just register an implementation in spring context. {@link MetricsRegistry} will call it periodically.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@FunctionalInterface
+public interface MetricsExporter
+{
+	void export(JSONMetrics metrics);
+}
@@ -0,0 +1,103 @@
+package de.metas.ui.web.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Records request metrics in {@link MetricsRegistry}.
+ * <p>
+ * The requests are grouped by HTTP method and by the matched route template (e.g. <code>GET /rest/api/window/{windowId}/{documentId}</code>),
+ * so the number of routes is bounded by the number of endpoints and not by the number of documents.
+ * <p>
+ * For asynchronous requests (e.g. SSE), the request is counted once, from the initial dispatch until the completion of the async dispatch.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class MetricsHandlerInterceptor extends HandlerInterceptorAdapter implements AsyncHandlerInterceptor
+{
+	private static final String ATTR_RouteMetrics = MetricsHandlerInterceptor.class.getName() + ".routeMetrics";
+	private static final String ATTR_StartTimeNanos = MetricsHandlerInterceptor.class.getName() + ".startTimeNanos";
+
+	private static final String ROUTE_Unknown = "unknown";
+
+	private final MetricsRegistry metricsRegistry;
+
+	public MetricsHandlerInterceptor(@NonNull final MetricsRegistry metricsRegistry)
+	{
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	@Override
+	public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+	{
+		// Async dispatch of a request which was already started
+		if (request.getAttribute(ATTR_RouteMetrics) != null)
+		{
+			return true;
+		}
+
+		final String route = extractRoute(request);
+		final RouteMetrics routeMetrics = metricsRegistry.requestStarted(route);
+		request.setAttribute(ATTR_RouteMetrics, routeMetrics);
+		request.setAttribute(ATTR_StartTimeNanos, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex)
+	{
+		final RouteMetrics routeMetrics = (RouteMetrics)request.getAttribute(ATTR_RouteMetrics);
+		final Long startTimeNanos = (Long)request.getAttribute(ATTR_StartTimeNanos);
+		if (routeMetrics == null || startTimeNanos == null)
+		{
+			return;
+		}
+		request.removeAttribute(ATTR_RouteMetrics);
+
+		final long durationMillis = (System.nanoTime() - startTimeNanos) / 1_000_000;
+		metricsRegistry.requestCompleted(routeMetrics, durationMillis, response.getStatus(), ex != null);
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+	{
+		// Nothing to do: the request is still in flight.
+		// It will be completed by afterCompletion, after the async dispatch.
+	}
+
+	private static String extractRoute(final HttpServletRequest request)
+	{
+		final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return request.getMethod() + " " + (pattern != null ? pattern.toString() : ROUTE_Unknown);
+	}
+}
@@ -0,0 +1,200 @@
+package de.metas.ui.web.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.metrics.json.JSONMetrics;
+import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-process metrics registry.
+ * <p>
+ * Collects:
+ * <ul>
+ * <li>latency histograms, in-flight requests and error counters for each normalized route (see {@link MetricsHandlerInterceptor})
+ * <li>gauges registered by other components (e.g. cache sizes), see {@link #registerGauge(String, Supplier)}
+ * </ul>
+ * The metrics are available via {@link MetricsRestController} and they are periodically pushed to all {@link MetricsExporter}s from spring context.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class MetricsRegistry
+{
+	private static final Logger logger = LogManager.getLogger(MetricsRegistry.class);
+
+	private final long startTimeMillis = System.currentTimeMillis();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+
+	private final ImmutableList<MetricsExporter> exporters;
+	private final ScheduledExecutorService exportScheduler;
+
+	public MetricsRegistry(
+			@NonNull final Optional<List<MetricsExporter>> exporters,
+			@Value("${metasfresh.webui.metrics.exportIntervalSeconds:60}") final int exportIntervalSeconds)
+	{
+		this.exporters = exporters.map(ImmutableList::copyOf).orElseGet(ImmutableList::of);
+		if (!this.exporters.isEmpty() && exportIntervalSeconds > 0)
+		{
+			exportScheduler = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+					.setThreadNamePrefix(getClass().getName() + "-export")
+					.setDaemon(true)
+					.build());
+			exportScheduler.scheduleAtFixedRate(this::exportNow, exportIntervalSeconds, exportIntervalSeconds, TimeUnit.SECONDS);
+			logger.info("Exporting metrics each {}sec to {}", exportIntervalSeconds, this.exporters);
+		}
+		else
+		{
+			exportScheduler = null;
+		}
+
+		registerStandardGauges();
+	}
+
+	private void registerStandardGauges()
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		registerGauge("jvm.memory.used", () -> runtime.totalMemory() - runtime.freeMemory());
+		registerGauge("jvm.memory.max", runtime::maxMemory);
+
+		registerGauge("lookups.dataSources.count", LookupDataSourceFactory.instance::getLookupDataSourcesCount);
+	}
+
+	@PreDestroy
+	private void shutdown()
+	{
+		if (exportScheduler != null)
+		{
+			exportScheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Registers (or replaces) a gauge. The value supplier shall be cheap because it's called each time the metrics are collected.
+	 */
+	public void registerGauge(@NonNull final String name, @NonNull final Supplier<? extends Number> valueSupplier)
+	{
+		gauges.put(name, valueSupplier);
+	}
+
+	public RouteMetrics getRouteMetrics(@NonNull final String route)
+	{
+		return routes.computeIfAbsent(route, RouteMetrics::new);
+	}
+
+	/** @return route metrics after the request was started */
+	public RouteMetrics requestStarted(@NonNull final String route)
+	{
+		inFlight.incrementAndGet();
+
+		final RouteMetrics routeMetrics = getRouteMetrics(route);
+		routeMetrics.requestStarted();
+		return routeMetrics;
+	}
+
+	public void requestCompleted(@NonNull final RouteMetrics routeMetrics, final long durationMillis, final int httpStatus, final boolean failed)
+	{
+		inFlight.decrementAndGet();
+		routeMetrics.requestCompleted(durationMillis, httpStatus, failed);
+	}
+
+	public void reset()
+	{
+		// NOTE: keep the routes which have requests in progress, so their in-flight counters remain accurate
+		routes.values().removeIf(routeMetrics -> routeMetrics.getInFlight() <= 0);
+	}
+
+	public JSONMetrics getSnapshot()
+	{
+		final long now = System.currentTimeMillis();
+		final JSONMetrics.JSONMetricsBuilder snapshot = JSONMetrics.builder()
+				.timestamp(now)
+				.uptimeMillis(now - startTimeMillis)
+				.inFlight(inFlight.get());
+
+		routes.values()
+				.stream()
+				.sorted(Comparator.comparing(RouteMetrics::getRoute))
+				.map(RouteMetrics::toJson)
+				.forEach(snapshot::route);
+
+		gauges.entrySet()
+				.stream()
+				.sorted(Comparator.comparing(entry -> entry.getKey()))
+				.forEach(entry -> snapshot.gauge(entry.getKey(), getGaugeValue(entry.getKey(), entry.getValue())));
+
+		return snapshot.build();
+	}
+
+	private static Number getGaugeValue(final String name, final Supplier<? extends Number> valueSupplier)
+	{
+		try
+		{
+			final Number value = valueSupplier.get();
+			return value != null ? value : -1;
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed getting the value of gauge {}. Returning -1.", name, ex);
+			return -1;
+		}
+	}
+
+	private void exportNow()
+	{
+		final JSONMetrics snapshot = getSnapshot();
+		for (final MetricsExporter exporter : exporters)
+		{
+			try
+			{
+				exporter.export(snapshot);
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Failed exporting metrics to {}. Ignored.", exporter, ex);
+			}
+		}
+	}
+}
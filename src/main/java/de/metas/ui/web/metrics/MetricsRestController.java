@@ -0,0 +1,67 @@
+package de.metas.ui.web.metrics;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import de.metas.ui.web.config.WebConfig;
+import de.metas.ui.web.metrics.json.JSONMetrics;
+import de.metas.ui.web.session.UserSession;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@RestController
+@RequestMapping(value = MetricsRestController.ENDPOINT)
+public class MetricsRestController
+{
+	public static final String ENDPOINT = WebConfig.ENDPOINT_ROOT + "/metrics";
+
+	private final UserSession userSession;
+	private final MetricsRegistry metricsRegistry;
+
+	public MetricsRestController(
+			@NonNull final UserSession userSession,
+			@NonNull final MetricsRegistry metricsRegistry)
+	{
+		this.userSession = userSession;
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	@GetMapping
+	public JSONMetrics getMetrics()
+	{
+		userSession.assertLoggedIn();
+
+		return metricsRegistry.getSnapshot();
+	}
+
+	@PostMapping("/reset")
+	public void reset()
+	{
+		userSession.assertLoggedInAsSysAdmin();
+
+		metricsRegistry.reset();
+	}
+}
@@ -0,0 +1,97 @@
+package de.metas.ui.web.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.metas.ui.web.metrics.json.JSONRouteMetrics;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Metrics of one normalized route (e.g. <code>GET /rest/api/window/{windowId}/{documentId}</code>).
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+public final class RouteMetrics
+{
+	private final String route;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder clientErrors = new LongAdder();
+	private final LongAdder serverErrors = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	RouteMetrics(@NonNull final String route)
+	{
+		this.route = route;
+	}
+
+	public String getRoute()
+	{
+		return route;
+	}
+
+	public void requestStarted()
+	{
+		inFlight.incrementAndGet();
+	}
+
+	public void requestCompleted(final long durationMillis, final int httpStatus, final boolean failed)
+	{
+		inFlight.decrementAndGet();
+		latency.record(durationMillis);
+
+		if (failed || httpStatus >= 500)
+		{
+			serverErrors.increment();
+		}
+		else if (httpStatus >= 400)
+		{
+			clientErrors.increment();
+		}
+	}
+
+	public int getInFlight()
+	{
+		return inFlight.get();
+	}
+
+	public JSONRouteMetrics toJson()
+	{
+		final long count = latency.getCount();
+		final long serverErrorsCount = serverErrors.sum();
+		return JSONRouteMetrics.builder()
+				.route(route)
+				.count(count)
+				.inFlight(getInFlight())
+				.clientErrors(clientErrors.sum())
+				.serverErrors(serverErrorsCount)
+				.errorRate(count > 0 ? (double)serverErrorsCount / count : 0)
+				.avgMillis(latency.getAverageMillis())
+				.p50Millis(latency.getPercentileMillis(50))
+				.p95Millis(latency.getPercentileMillis(95))
+				.p99Millis(latency.getPercentileMillis(99))
+				.maxMillis(latency.getMaxMillis())
+				.build();
+	}
+}
@@ -0,0 +1,176 @@
+package de.metas.ui.web.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.util.lang.IAutoCloseable;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.metrics.json.JSONSqlStatementInfo;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Request scoped SQL statements accounting: counts the SQL statements executed by current request, their total duration and keeps the slowest of them.
+ * <p>
+ * The statements are fed by {@link SqlAccountingQueryStatisticsCollector}, which is called by the core statements layer for each executed SQL.
+ * <p>
+ * To account the statements which are executed by worker threads on behalf of current request, capture the accounting using {@link #getCurrentOrNull()}
+ * and activate it in the worker using {@link #temporarySetCurrent(SqlAccounting)}.
+ * <p>
+ * When there is no accounting running for current thread (see {@link SqlAccountingFilter}), the overhead is one thread local lookup.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+public final class SqlAccounting
+{
+	private static final ThreadLocal<SqlAccounting> current = new ThreadLocal<>();
+
+	private static final IAutoCloseable NOP = () -> {
+	};
+
+	public static IAutoCloseable recordStatement(final String sql)
+	{
+		final SqlAccounting accounting = current.get();
+		if (accounting == null)
+		{
+			return NOP;
+		}
+
+		final long startNanos = System.nanoTime();
+		return () -> accounting.record(sql, System.nanoTime() - startNanos);
+	}
+
+	/* package */ static void recordStatement(final String sql, final long durationNanos)
+	{
+		final SqlAccounting accounting = current.get();
+		if (accounting == null || sql == null)
+		{
+			return;
+		}
+
+		accounting.record(sql, durationNanos);
+	}
+
+	/**
+	 * Makes given accounting the current one, until the returned closeable is closed.
+	 *
+	 * @param accounting accounting captured using {@link #getCurrentOrNull()}; if null, nothing happens
+	 */
+	public static IAutoCloseable temporarySetCurrent(@Nullable final SqlAccounting accounting)
+	{
+		if (accounting == null)
+		{
+			return NOP;
+		}
+
+		final SqlAccounting previousAccounting = current.get();
+		current.set(accounting);
+		return () -> {
+			if (previousAccounting != null)
+			{
+				current.set(previousAccounting);
+			}
+			else
+			{
+				current.remove();
+			}
+		};
+	}
+
+	/**
+	 * Starts accounting the statements of current thread. Used by {@link SqlAccountingFilter}, but also useful for counting the statements in tests.
+	 */
+	public static SqlAccounting start(final int slowestStatementsToKeep)
+	{
+		final SqlAccounting accounting = new SqlAccounting(slowestStatementsToKeep);
+		current.set(accounting);
+		return accounting;
+	}
+
+	public static void stop()
+	{
+		current.remove();
+	}
+
+	public static SqlAccounting getCurrentOrNull()
+	{
+		return current.get();
+	}
+
+	private final int slowestStatementsToKeep;
+
+	private int count = 0;
+	private long totalNanos = 0;
+	private final List<JSONSqlStatementInfo> slowestStatements = new ArrayList<>();
+
+	private SqlAccounting(final int slowestStatementsToKeep)
+	{
+		this.slowestStatementsToKeep = Math.max(slowestStatementsToKeep, 0);
+	}
+
+	private synchronized void record(@NonNull final String sql, final long durationNanos)
+	{
+		count++;
+		totalNanos += durationNanos;
+
+		if (slowestStatementsToKeep <= 0)
+		{
+			return;
+		}
+
+		final long durationMillis = durationNanos / 1_000_000;
+		if (slowestStatements.size() >= slowestStatementsToKeep)
+		{
+			final JSONSqlStatementInfo fastest = slowestStatements.get(slowestStatements.size() - 1);
+			if (fastest.getDurationMillis() >= durationMillis)
+			{
+				return;
+			}
+			slowestStatements.remove(slowestStatements.size() - 1);
+		}
+
+		slowestStatements.add(JSONSqlStatementInfo.of(sql, durationMillis));
+		slowestStatements.sort(Comparator.comparing(JSONSqlStatementInfo::getDurationMillis).reversed());
+	}
+
+	public synchronized int getCount()
+	{
+		return count;
+	}
+
+	public synchronized long getTotalMillis()
+	{
+		return totalNanos / 1_000_000;
+	}
+
+	public synchronized List<JSONSqlStatementInfo> getSlowestStatements()
+	{
+		return ImmutableList.copyOf(slowestStatements);
+	}
+}
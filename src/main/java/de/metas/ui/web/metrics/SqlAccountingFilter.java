@@ -0,0 +1,94 @@
+package de.metas.ui.web.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Stopwatch;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Starts the {@link SqlAccounting} for each request and reports it to {@link SqlAccountingService} when the request completes.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class SqlAccountingFilter implements Filter
+{
+	private final SqlAccountingService sqlAccountingService;
+
+	public SqlAccountingFilter(@NonNull final SqlAccountingService sqlAccountingService)
+	{
+		this.sqlAccountingService = sqlAccountingService;
+	}
+
+	@Override
+	public void init(final FilterConfig filterConfig) throws ServletException
+	{
+	}
+
+	@Override
+	public void destroy()
+	{
+	}
+
+	@Override
+	public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain) throws IOException, ServletException
+	{
+		if (!sqlAccountingService.isEnabled() || !(request instanceof HttpServletRequest))
+		{
+			chain.doFilter(request, response);
+			return;
+		}
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final SqlAccounting accounting = SqlAccounting.start(sqlAccountingService.getSlowestStatementsToKeep());
+		try
+		{
+			chain.doFilter(request, response);
+		}
+		finally
+		{
+			SqlAccounting.stop();
+			sqlAccountingService.onRequestCompleted(extractRequestInfo((HttpServletRequest)request), accounting, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	private static String extractRequestInfo(final HttpServletRequest httpRequest)
+	{
+		final String queryString = httpRequest.getQueryString();
+		return httpRequest.getMethod() + " " + httpRequest.getRequestURI() + (queryString != null ? "?" + queryString : "");
+	}
+}
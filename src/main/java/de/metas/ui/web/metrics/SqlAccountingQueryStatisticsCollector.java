@@ -0,0 +1,56 @@
+package de.metas.ui.web.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.ad.dao.IQueryStatisticsCollector;
+
+import com.google.common.base.Stopwatch;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Hooks {@link SqlAccounting} into the core statements layer, so that all SQL statements executed on behalf of a request are accounted,
+ * including the ones which are executed by core services.
+ * <p>
+ * Forwards all statements to the collector which was registered before.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+final class SqlAccountingQueryStatisticsCollector implements IQueryStatisticsCollector
+{
+	private final IQueryStatisticsCollector delegate;
+
+	SqlAccountingQueryStatisticsCollector(@NonNull final IQueryStatisticsCollector delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void collect(final String sql, final Stopwatch duration)
+	{
+		delegate.collect(sql, duration);
+		SqlAccounting.recordStatement(sql, duration.elapsed(TimeUnit.NANOSECONDS));
+	}
+}
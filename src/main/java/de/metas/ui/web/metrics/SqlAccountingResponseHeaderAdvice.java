@@ -0,0 +1,74 @@
+package de.metas.ui.web.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Adds the {@link SqlAccountingService#HEADER_SqlAccounting} response header when the request exceeded the SQL accounting thresholds.
+ * <p>
+ * NOTE: we have to do it before the body is written, because after that the response headers are already committed.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@ControllerAdvice
+public class SqlAccountingResponseHeaderAdvice implements ResponseBodyAdvice<Object>
+{
+	private final SqlAccountingService sqlAccountingService;
+
+	public SqlAccountingResponseHeaderAdvice(@NonNull final SqlAccountingService sqlAccountingService)
+	{
+		this.sqlAccountingService = sqlAccountingService;
+	}
+
+	@Override
+	public boolean supports(final MethodParameter returnType, final Class<? extends HttpMessageConverter<?>> converterType)
+	{
+		return sqlAccountingService.isEnabled();
+	}
+
+	@Override
+	public Object beforeBodyWrite(
+			final Object body,
+			final MethodParameter returnType,
+			final MediaType selectedContentType,
+			final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+			final ServerHttpRequest request,
+			final ServerHttpResponse response)
+	{
+		final String headerValue = sqlAccountingService.getResponseHeaderValueOrNull();
+		if (headerValue != null)
+		{
+			response.getHeaders().set(SqlAccountingService.HEADER_SqlAccounting, headerValue);
+		}
+		return body;
+	}
+}
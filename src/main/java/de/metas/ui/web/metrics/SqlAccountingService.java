@@ -0,0 +1,177 @@
+package de.metas.ui.web.metrics;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.adempiere.ad.dao.IQueryStatisticsCollector;
+import org.adempiere.util.Services;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.metrics.json.JSONSqlAccountingRecord;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Configuration and results of request scoped {@link SqlAccounting}.
+ * <p>
+ * The requests which exceeded the configured SQL count or SQL time thresholds are kept in a ring buffer, which is available via debug endpoints.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class SqlAccountingService
+{
+	public static final String HEADER_SqlAccounting = "X-SQL-Accounting";
+
+	private static final Logger logger = LogManager.getLogger(SqlAccountingService.class);
+
+	private final boolean enabled;
+	private final int thresholdCount;
+	private final long thresholdMillis;
+	private final int slowestStatementsToKeep;
+	private final int bufferSize;
+	private final boolean responseHeaderEnabled;
+
+	private final ArrayDeque<JSONSqlAccountingRecord> records;
+
+	public SqlAccountingService(
+			@Value("${metasfresh.webui.sqlAccounting.enabled:true}") final boolean enabled,
+			@Value("${metasfresh.webui.sqlAccounting.thresholdCount:200}") final int thresholdCount,
+			@Value("${metasfresh.webui.sqlAccounting.thresholdMillis:2000}") final long thresholdMillis,
+			@Value("${metasfresh.webui.sqlAccounting.slowestStatements:5}") final int slowestStatementsToKeep,
+			@Value("${metasfresh.webui.sqlAccounting.bufferSize:100}") final int bufferSize,
+			@Value("${metasfresh.webui.sqlAccounting.responseHeader:true}") final boolean responseHeaderEnabled)
+	{
+		this.enabled = enabled;
+		this.thresholdCount = thresholdCount;
+		this.thresholdMillis = thresholdMillis;
+		this.slowestStatementsToKeep = slowestStatementsToKeep;
+		this.bufferSize = Math.max(bufferSize, 1);
+		this.responseHeaderEnabled = responseHeaderEnabled;
+
+		records = new ArrayDeque<>(this.bufferSize);
+
+		logger.info("SQL accounting: enabled={}, thresholdCount={}, thresholdMillis={}, slowestStatementsToKeep={}, bufferSize={}, responseHeader={}",
+				enabled, thresholdCount, thresholdMillis, slowestStatementsToKeep, bufferSize, responseHeaderEnabled);
+	}
+
+	@PostConstruct
+	private void registerQueryStatisticsCollector()
+	{
+		if (!enabled)
+		{
+			return;
+		}
+
+		final IQueryStatisticsCollector delegate = Services.get(IQueryStatisticsCollector.class);
+		Services.registerService(IQueryStatisticsCollector.class, new SqlAccountingQueryStatisticsCollector(delegate));
+	}
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/* package */ int getSlowestStatementsToKeep()
+	{
+		return slowestStatementsToKeep;
+	}
+
+	private boolean isThresholdExceeded(@NonNull final SqlAccounting accounting)
+	{
+		return (thresholdCount > 0 && accounting.getCount() >= thresholdCount)
+				|| (thresholdMillis > 0 && accounting.getTotalMillis() >= thresholdMillis);
+	}
+
+	/**
+	 * @return response header value if the SQL accounting of current request exceeded the thresholds, else null
+	 */
+	public String getResponseHeaderValueOrNull()
+	{
+		if (!responseHeaderEnabled)
+		{
+			return null;
+		}
+
+		final SqlAccounting accounting = SqlAccounting.getCurrentOrNull();
+		if (accounting == null || !isThresholdExceeded(accounting))
+		{
+			return null;
+		}
+
+		return "count=" + accounting.getCount() + "; totalMillis=" + accounting.getTotalMillis();
+	}
+
+	/* package */ void onRequestCompleted(@NonNull final String request, @NonNull final SqlAccounting accounting, final long requestMillis)
+	{
+		if (!isThresholdExceeded(accounting))
+		{
+			return;
+		}
+
+		final JSONSqlAccountingRecord record = JSONSqlAccountingRecord.builder()
+				.timestamp(System.currentTimeMillis())
+				.request(request)
+				.sqlCount(accounting.getCount())
+				.sqlTotalMillis(accounting.getTotalMillis())
+				.requestMillis(requestMillis)
+				.slowestStatements(accounting.getSlowestStatements())
+				.build();
+
+		synchronized (records)
+		{
+			while (records.size() >= bufferSize)
+			{
+				records.removeFirst();
+			}
+			records.addLast(record);
+		}
+
+		logger.info("Request exceeded SQL accounting thresholds: {}", record);
+	}
+
+	/** @return requests which exceeded the thresholds, most recent first */
+	public List<JSONSqlAccountingRecord> getRecords()
+	{
+		synchronized (records)
+		{
+			return ImmutableList.copyOf(records.descendingIterator());
+		}
+	}
+
+	public void clearRecords()
+	{
+		synchronized (records)
+		{
+			records.clear();
+		}
+	}
+}
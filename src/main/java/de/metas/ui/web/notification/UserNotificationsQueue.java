@@ -3,6 +3,7 @@ package de.metas.ui.web.notification;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.adempiere.util.Check;
 import org.slf4j.Logger;
@@ -46,6 +47,9 @@ public class UserNotificationsQueue
 {
 	private static final Logger logger = LogManager.getLogger(UserNotificationsQueue.class);
 
+	/** How often the in-memory counters are reconciled with the database */
+	private static final long COUNTERS_RECONCILE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
 	private final int adUserId;
 	private String adLanguage;
 
@@ -56,6 +60,13 @@ public class UserNotificationsQueue
 	private final WebsocketSender websocketSender;
 	private final String websocketEndpoint;
 
+	//
+	// Counters (lazy initialized)
+	private boolean countersLoaded = false;
+	private long countersLoadedMillis;
+	private int totalCount;
+	private int unreadCount;
+
 	@Builder
 	private UserNotificationsQueue(
 			final int adUserId,
@@ -102,7 +113,8 @@ public class UserNotificationsQueue
 	public UserNotificationsList getNotificationsAsList(final int limit)
 	{
 		final List<UserNotification> notifications = notificationsRepo.getByUserId(adUserId, limit);
-		final boolean fullyLoaded = limit <= 0 || notifications.size() <= limit;
+		// NOTE: if we got exactly "limit" notifications, there might be more, so we cannot count them
+		final boolean fullyLoaded = limit <= 0 || notifications.size() < limit;
 
 		final int totalCount;
 		final int unreadCount;
@@ -110,16 +122,54 @@ public class UserNotificationsQueue
 		{
 			totalCount = notifications.size();
 			unreadCount = (int)notifications.stream().filter(UserNotification::isNotRead).count();
+			setCounters(totalCount, unreadCount);
 		}
 		else
 		{
-			totalCount = notificationsRepo.getTotalCountByUserId(adUserId);
-			unreadCount = notificationsRepo.getUnreadCountByUserId(adUserId);
+			synchronized (this)
+			{
+				loadCountersIfNeeded();
+				totalCount = this.totalCount;
+				unreadCount = this.unreadCount;
+			}
 		}
 
 		return UserNotificationsList.of(notifications, totalCount, unreadCount);
 	}
 
+	private synchronized void loadCountersIfNeeded()
+	{
+		if (countersLoaded && System.currentTimeMillis() - countersLoadedMillis < COUNTERS_RECONCILE_INTERVAL_MILLIS)
+		{
+			return;
+		}
+
+		setCounters(
+				notificationsRepo.getTotalCountByUserId(adUserId),
+				notificationsRepo.getUnreadCountByUserId(adUserId));
+		logger.trace("Loaded counters for {}: totalCount={}, unreadCount={}", this, totalCount, unreadCount);
+	}
+
+	private synchronized void setCounters(final int totalCount, final int unreadCount)
+	{
+		this.totalCount = totalCount;
+		this.unreadCount = unreadCount;
+		countersLoaded = true;
+		countersLoadedMillis = System.currentTimeMillis();
+	}
+
+	private synchronized void adjustCounters(final int totalCountDelta, final int unreadCountDelta)
+	{
+		if (!countersLoaded)
+		{
+			// nothing to adjust; they will be loaded when needed
+			return;
+		}
+
+		totalCount = Math.max(totalCount + totalCountDelta, 0);
+		unreadCount = Math.max(Math.min(unreadCount + unreadCountDelta, totalCount), 0);
+	}
+
 	public void addActiveSessionId(final String sessionId)
 	{
 		Check.assumeNotNull(sessionId, "Parameter sessionId is not null");
@@ -143,13 +193,19 @@ public class UserNotificationsQueue
 		final int adUserId = getAD_User_ID();
 		Check.assume(notification.getRecipientUserId() == adUserId, "notification's recipient user ID shall be {}: {}", adUserId, notification);
 
+		adjustCounters(+1, notification.isNotRead() ? +1 : 0);
+
 		final JSONNotification jsonNotification = JSONNotification.of(notification, adLanguage);
 		fireEventOnWebsocket(JSONNotificationEvent.eventNew(jsonNotification, getUnreadCount()));
 	}
 
 	public void markAsRead(final String notificationId)
 	{
-		notificationsRepo.markAsReadById(Integer.parseInt(notificationId));
+		final boolean markedAsRead = notificationsRepo.markAsReadById(Integer.parseInt(notificationId));
+		if (markedAsRead)
+		{
+			adjustCounters(0, -1);
+		}
 		fireEventOnWebsocket(JSONNotificationEvent.eventRead(notificationId, getUnreadCount()));
 	}
 
@@ -157,12 +213,20 @@ public class UserNotificationsQueue
 	{
 		logger.trace("Marking all notifications as read (if any) for {}...", this);
 		notificationsRepo.markAllAsReadByUserId(getAD_User_ID());
+		synchronized (this)
+		{
+			if (countersLoaded)
+			{
+				unreadCount = 0;
+			}
+		}
 		fireEventOnWebsocket(JSONNotificationEvent.eventReadAll());
 	}
 
-	public int getUnreadCount()
+	public synchronized int getUnreadCount()
 	{
-		return notificationsRepo.getUnreadCountByUserId(getAD_User_ID());
+		loadCountersIfNeeded();
+		return unreadCount;
 	}
 
 	public void setLanguage(@NonNull final String adLanguage)
@@ -173,12 +237,20 @@ public class UserNotificationsQueue
 	public void delete(final String notificationId)
 	{
 		notificationsRepo.deleteById(Integer.parseInt(notificationId));
+
+		// NOTE: we don't know if the deleted notification was read or not, so we reload the counters
+		synchronized (this)
+		{
+			countersLoaded = false;
+		}
+
 		fireEventOnWebsocket(JSONNotificationEvent.eventDeleted(notificationId, getUnreadCount()));
 	}
-	
+
 	public void deleteAll()
 	{
 		notificationsRepo.deleteAllByUserId(getAD_User_ID());
+		setCounters(0, 0);
 		fireEventOnWebsocket(JSONNotificationEvent.eventDeletedAll());
 	}
 
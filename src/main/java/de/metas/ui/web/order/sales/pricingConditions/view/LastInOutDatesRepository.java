@@ -0,0 +1,157 @@
+package de.metas.ui.web.order.sales.pricingConditions.view;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.compiere.model.I_M_InOut;
+import org.compiere.model.I_M_InOutLine;
+import org.compiere.model.X_M_InOut;
+import org.compiere.util.DB;
+import org.compiere.util.DisplayType;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.lang.SOTrx;
+import de.metas.product.ProductId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Bulk version of {@link de.metas.inout.IInOutDAO#getLastInOutDate(BPartnerId, ProductId, SOTrx)}.
+ * <p>
+ * For each business partner, product and SO/PO transaction it fetches the movement date of the last active, completed or closed shipment/receipt
+ * which has an active line with that product.
+ * The requests are fetched in chunks of {@value #CHUNK_SIZE}, one SQL query per chunk.
+ */
+/* package */ class LastInOutDatesRepository
+{
+	@VisibleForTesting
+	static final int CHUNK_SIZE = 500;
+
+	/**
+	 * @return last InOut date for each request which has one; requests without shipments/receipts are not contained
+	 */
+	public Map<LastInOutDateRequest, LocalDate> getLastInOutDates(@NonNull final Collection<LastInOutDateRequest> requests)
+	{
+		final Map<LastInOutDateRequest, LocalDate> result = new HashMap<>();
+		for (final List<LastInOutDateRequest> requestsChunk : Iterables.partition(ImmutableList.copyOf(requests), CHUNK_SIZE))
+		{
+			retrieveLastInOutDates(requestsChunk, result);
+		}
+		return result;
+	}
+
+	private static void retrieveLastInOutDates(final List<LastInOutDateRequest> requests, final Map<LastInOutDateRequest, LocalDate> result)
+	{
+		final List<Object> sqlParams = new ArrayList<>();
+		final String sql = buildSql(requests, sqlParams);
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			while (rs.next())
+			{
+				final Timestamp movementDate = rs.getTimestamp(I_M_InOut.COLUMNNAME_MovementDate);
+				if (movementDate == null)
+				{
+					continue;
+				}
+
+				final LastInOutDateRequest request = LastInOutDateRequest.builder()
+						.bpartnerId(BPartnerId.ofRepoId(rs.getInt(I_M_InOut.COLUMNNAME_C_BPartner_ID)))
+						.productId(ProductId.ofRepoId(rs.getInt(I_M_InOutLine.COLUMNNAME_M_Product_ID)))
+						.soTrx(SOTrx.ofBoolean(DisplayType.toBoolean(rs.getString(I_M_InOut.COLUMNNAME_IsSOTrx))))
+						.build();
+				result.put(request, movementDate.toLocalDateTime().toLocalDate());
+			}
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	@VisibleForTesting
+	static String buildSql(final List<LastInOutDateRequest> requests, final List<Object> sqlParams)
+	{
+		final StringBuilder sqlRequests = new StringBuilder();
+		for (final LastInOutDateRequest request : requests)
+		{
+			if (sqlRequests.length() > 0)
+			{
+				sqlRequests.append(", ");
+			}
+			sqlRequests.append("(?, ?, ?)");
+			sqlParams.add(request.getBpartnerId().getRepoId());
+			sqlParams.add(request.getProductId().getRepoId());
+			sqlParams.add(request.getSoTrx().isSales() ? "Y" : "N");
+		}
+
+		return "SELECT "
+				+ "\n io." + I_M_InOut.COLUMNNAME_C_BPartner_ID
+				+ "\n, iol." + I_M_InOutLine.COLUMNNAME_M_Product_ID
+				+ "\n, io." + I_M_InOut.COLUMNNAME_IsSOTrx
+				+ "\n, MAX(io." + I_M_InOut.COLUMNNAME_MovementDate + ") AS " + I_M_InOut.COLUMNNAME_MovementDate
+				+ "\n FROM " + I_M_InOut.Table_Name + " io"
+				+ "\n INNER JOIN " + I_M_InOutLine.Table_Name + " iol ON (iol." + I_M_InOutLine.COLUMNNAME_M_InOut_ID + "=io." + I_M_InOut.COLUMNNAME_M_InOut_ID + ")"
+				+ "\n WHERE io." + I_M_InOut.COLUMNNAME_IsActive + "='Y'"
+				+ "\n AND iol." + I_M_InOutLine.COLUMNNAME_IsActive + "='Y'"
+				+ "\n AND io." + I_M_InOut.COLUMNNAME_DocStatus + " IN ('" + X_M_InOut.DOCSTATUS_Completed + "', '" + X_M_InOut.DOCSTATUS_Closed + "')"
+				+ "\n AND (io." + I_M_InOut.COLUMNNAME_C_BPartner_ID + ", iol." + I_M_InOutLine.COLUMNNAME_M_Product_ID + ", io." + I_M_InOut.COLUMNNAME_IsSOTrx + ") IN (" + sqlRequests + ")"
+				+ "\n GROUP BY io." + I_M_InOut.COLUMNNAME_C_BPartner_ID + ", iol." + I_M_InOutLine.COLUMNNAME_M_Product_ID + ", io." + I_M_InOut.COLUMNNAME_IsSOTrx;
+	}
+
+	@lombok.Value
+	@lombok.Builder
+	public static final class LastInOutDateRequest
+	{
+		@NonNull
+		BPartnerId bpartnerId;
+		@NonNull
+		ProductId productId;
+		@NonNull
+		SOTrx soTrx;
+	}
+}
@@ -188,7 +188,7 @@ public class PricingConditionsRow implements IViewRow
 	@Getter
 	private final PricingConditionsBreakId copiedFromPricingConditionsBreakId;
 
-	private transient ImmutableMap<String, Object> _fieldNameAndJsonValues; // lazy
+	private transient Map<String, Object> _fieldNameAndJsonValues; // lazy
 	private final ImmutableMap<String, ViewEditorRenderMode> viewEditorRenderModeByFieldName;
 
 	@Builder(toBuilder = true)
@@ -22,6 +22,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 
 import de.metas.bpartner.BPartnerId;
@@ -44,6 +45,7 @@ import de.metas.pricing.conditions.service.IPricingConditionsRepository;
 import de.metas.product.ProductCategoryId;
 import de.metas.product.ProductId;
 import de.metas.ui.web.document.filter.DocumentFiltersList;
+import de.metas.ui.web.order.sales.pricingConditions.view.LastInOutDatesRepository.LastInOutDateRequest;
 import de.metas.ui.web.window.datatypes.LookupValue;
 import lombok.Builder;
 import lombok.NonNull;
@@ -78,6 +80,7 @@ class PricingConditionsRowsLoader
 	private final IBPartnerBL bpartnerBL = Services.get(IBPartnerBL.class);
 	private final IPricingConditionsRepository pricingConditionsRepo = Services.get(IPricingConditionsRepository.class);
 	private final IInOutDAO inoutsRepo = Services.get(IInOutDAO.class);
+	private final LastInOutDatesRepository lastInOutDatesRepo = new LastInOutDatesRepository();
 
 	private static final Comparator<PricingConditionsRow> ROWS_SORTING = Comparator.<PricingConditionsRow, Integer> comparing(row -> row.isEditable() ? 0 : 1)
 			.thenComparing(row -> row.getBpartnerDisplayName())
@@ -121,10 +124,15 @@ class PricingConditionsRowsLoader
 	{
 		final Set<PricingConditionsId> pricingConditionsIds = getAllPricingConditionsId();
 
-		final List<PricingConditionsRow> rows = pricingConditionsRepo.getPricingConditionsByIds(pricingConditionsIds)
+		final List<PricingConditionsBreak> pricingConditionsBreaks = pricingConditionsRepo.getPricingConditionsByIds(pricingConditionsIds)
 				.stream()
 				.flatMap(pricingConditionsBreaksExtractor::streamPricingConditionsBreaks)
 				.filter(Predicates.notNull())
+				.collect(ImmutableList.toImmutableList());
+
+		prefetchLastInOutDates(pricingConditionsBreaks);
+
+		final List<PricingConditionsRow> rows = pricingConditionsBreaks.stream()
 				.flatMap(this::createPricingConditionsRows)
 				.sorted(ROWS_SORTING)
 				.collect(ImmutableList.toImmutableList());
@@ -276,6 +284,25 @@ class PricingConditionsRowsLoader
 	}
 
 	private LocalDate getLastInOutDate(final BPartnerId bpartnerId, final SOTrx soTrx, final PricingConditionsBreak pricingConditionsBreak)
+	{
+		final LastInOutDateRequest request = createLastInOutDateRequestOrNull(bpartnerId, soTrx, pricingConditionsBreak);
+		if (request == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return lastInOutDates.get(request).orElse(null);
+		}
+		catch (ExecutionException ex)
+		{
+			logger.warn("Failed fetching last InOut date for {}. Returning null.", request, ex);
+			return null;
+		}
+	}
+
+	private static LastInOutDateRequest createLastInOutDateRequestOrNull(final BPartnerId bpartnerId, final SOTrx soTrx, final PricingConditionsBreak pricingConditionsBreak)
 	{
 		final ProductId productId = pricingConditionsBreak.getMatchCriteria().getProductId();
 		if (productId == null)
@@ -283,20 +310,44 @@ class PricingConditionsRowsLoader
 			return null;
 		}
 
-		final LastInOutDateRequest request = LastInOutDateRequest.builder()
+		return LastInOutDateRequest.builder()
 				.bpartnerId(bpartnerId)
 				.productId(productId)
 				.soTrx(soTrx)
 				.build();
+	}
+
+	/**
+	 * Loads the last InOut dates of all rows in one go, instead of one query for each business partner and product.
+	 */
+	private void prefetchLastInOutDates(final List<PricingConditionsBreak> pricingConditionsBreaks)
+	{
+		final Set<LastInOutDateRequest> requests = pricingConditionsBreaks.stream()
+				.flatMap(pricingConditionsBreak -> getPricingConditionsInfos(pricingConditionsBreak.getPricingConditionsId())
+						.stream()
+						.map(pricingConditionsInfo -> createLastInOutDateRequestOrNull(
+								pricingConditionsInfo.getBPartnerId(),
+								pricingConditionsInfo.getBpartnerType().getSOTrx(),
+								pricingConditionsBreak)))
+				.filter(Predicates.notNull())
+				.collect(ImmutableSet.toImmutableSet());
+		if (requests.isEmpty())
+		{
+			return;
+		}
 
 		try
 		{
-			return lastInOutDates.get(request).orElse(null);
+			final Map<LastInOutDateRequest, LocalDate> lastInOutDatesByRequest = lastInOutDatesRepo.getLastInOutDates(requests);
+			for (final LastInOutDateRequest request : requests)
+			{
+				lastInOutDates.put(request, Optional.ofNullable(lastInOutDatesByRequest.get(request)));
+			}
 		}
-		catch (ExecutionException ex)
+		catch (final Exception ex)
 		{
-			logger.warn("Failed fetching last InOut date for {}. Returning null.", request, ex);
-			return null;
+			// not critical, the dates will be loaded one by one
+			logger.warn("Failed prefetching the last InOut dates for {} requests. Ignored.", requests.size(), ex);
 		}
 	}
 
@@ -345,18 +396,6 @@ class PricingConditionsRowsLoader
 		PricingConditionsBreakId pricingConditionsBreakId;
 	}
 
-	@lombok.Value
-	@lombok.Builder
-	private static final class LastInOutDateRequest
-	{
-		@NonNull
-		BPartnerId bpartnerId;
-		@NonNull
-		ProductId productId;
-		@NonNull
-		SOTrx soTrx;
-	}
-
 	//
 	//
 	//
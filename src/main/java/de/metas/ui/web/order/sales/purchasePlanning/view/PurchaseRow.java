@@ -132,7 +132,7 @@ public final class PurchaseRow implements IViewRow
 	@Getter(AccessLevel.PRIVATE)
 	private PurchaseCandidatesGroup purchaseCandidatesGroup;
 
-	private transient ImmutableMap<String, Object> _fieldNameAndJsonValues; // lazy
+	private transient Map<String, Object> _fieldNameAndJsonValues; // lazy
 
 	private static final ImmutableMap<String, ViewEditorRenderMode> ViewEditorRenderModeByFieldName_ReadOnly = //
 			ImmutableMap.<String, ViewEditorRenderMode> builder()
@@ -1,22 +1,39 @@
 package de.metas.ui.web.order.sales.purchasePlanning.view;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
 import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.Services;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.compiere.util.Env;
-import org.compiere.util.Util;
 import org.slf4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import de.metas.bpartner.BPartnerId;
 import de.metas.logging.LogManager;
 import de.metas.purchasecandidate.PurchaseCandidatesGroup;
 import de.metas.purchasecandidate.PurchaseDemand;
@@ -65,6 +82,35 @@ class PurchaseRowsLoader
 	private final AvailabilityCheckService availabilityCheckService;
 
 	private static final String SYSCONFIG_ASYNC_AVAILIABILITY_CHECK = "de.metas.ui.web.order.sales.purchasePlanning.view.SalesOrder2PurchaseViewFactory.AsyncAvailiabilityCheck";
+	private static final String SYSCONFIG_ASYNC_AVAILIABILITY_CHECK_VENDOR_TIMEOUT_MILLIS = "de.metas.ui.web.order.sales.purchasePlanning.view.SalesOrder2PurchaseViewFactory.AsyncAvailiabilityCheck.VendorTimeoutMillis";
+	private static final int DEFAULT_ASYNC_AVAILIABILITY_CHECK_VENDOR_TIMEOUT_MILLIS = 30 * 1000;
+
+	private static final int VENDOR_AVAILABILITY_CHECK_THREADS = 10;
+	private static final int VENDOR_AVAILABILITY_CHECK_QUEUE_CAPACITY = 100;
+
+	/**
+	 * Runs the per-vendor availability checks, so that one slow vendor gateway does not hold back the others.
+	 * The pool and its queue are bounded; checks which can't be queued are reported as failed.
+	 */
+	private static final ThreadPoolExecutor vendorAvailabilityCheckExecutor = new ThreadPoolExecutor(
+			VENDOR_AVAILABILITY_CHECK_THREADS,
+			VENDOR_AVAILABILITY_CHECK_THREADS,
+			60L, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(VENDOR_AVAILABILITY_CHECK_QUEUE_CAPACITY),
+			CustomizableThreadFactory.builder()
+					.setThreadNamePrefix(PurchaseRowsLoader.class.getSimpleName() + "-vendorAvailabilityCheck")
+					.setDaemon(true)
+					.build(),
+			new ThreadPoolExecutor.AbortPolicy());
+	static
+	{
+		vendorAvailabilityCheckExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	private static final ScheduledExecutorService vendorAvailabilityCheckTimeoutScheduler = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+			.setThreadNamePrefix(PurchaseRowsLoader.class.getSimpleName() + "-vendorAvailabilityCheckTimeout")
+			.setDaemon(true)
+			.build());
 
 	// parameters
 	private final Supplier<IView> viewSupplier;
@@ -95,7 +141,7 @@ class PurchaseRowsLoader
 		final PurchaseRowsList rows = load();
 		if (isMakeAsynchronousAvailiabilityCheck())
 		{
-			createAndAddAvailabilityResultRowsAsync(rows);
+			createAndAddAvailabilityResultRowsAsync(rows, getVendorAvailabilityCheckTimeoutMillis());
 		}
 		else
 		{
@@ -147,6 +193,22 @@ class PurchaseRowsLoader
 		return PurchaseCandidatesAvailabilityRequest.of(rows.getPurchaseCandidatesGroups());
 	}
 
+	/**
+	 * @return one availability request for each vendor, so that each vendor's gateway can be asked independently
+	 */
+	@VisibleForTesting
+	ImmutableMap<BPartnerId, PurchaseCandidatesAvailabilityRequest> createAvailabilityRequestsByVendorId(@NonNull final PurchaseRowsList rows)
+	{
+		final Map<BPartnerId, Map<TrackingId, PurchaseCandidatesGroup>> groupsByVendorId = new LinkedHashMap<>();
+		rows.getPurchaseCandidatesGroups().forEach((trackingId, purchaseCandidatesGroup) -> groupsByVendorId
+				.computeIfAbsent(purchaseCandidatesGroup.getVendorId(), vendorId -> new LinkedHashMap<>())
+				.put(trackingId, purchaseCandidatesGroup));
+
+		final ImmutableMap.Builder<BPartnerId, PurchaseCandidatesAvailabilityRequest> result = ImmutableMap.builder();
+		groupsByVendorId.forEach((vendorId, purchaseCandidatesGroups) -> result.put(vendorId, PurchaseCandidatesAvailabilityRequest.of(purchaseCandidatesGroups)));
+		return result.build();
+	}
+
 	private boolean isMakeAsynchronousAvailiabilityCheck()
 	{
 		final Properties ctx = Env.getCtx();
@@ -160,6 +222,17 @@ class PurchaseRowsLoader
 		return result;
 	}
 
+	private int getVendorAvailabilityCheckTimeoutMillis()
+	{
+		final Properties ctx = Env.getCtx();
+
+		return sysConfigBL.getIntValue(
+				SYSCONFIG_ASYNC_AVAILIABILITY_CHECK_VENDOR_TIMEOUT_MILLIS,
+				DEFAULT_ASYNC_AVAILIABILITY_CHECK_VENDOR_TIMEOUT_MILLIS,
+				Env.getAD_Client_ID(ctx),
+				Env.getAD_Org_ID(ctx));
+	}
+
 	@VisibleForTesting
 	void createAndAddAvailabilityResultRows(final PurchaseRowsList rows)
 	{
@@ -174,26 +247,119 @@ class PurchaseRowsLoader
 		}
 	}
 
-	private void createAndAddAvailabilityResultRowsAsync(final PurchaseRowsList rows)
+	/**
+	 * Checks the availability of each vendor's candidates concurrently and applies each vendor's results to the view as soon as they arrive.
+	 * A vendor which does not answer in time gets error rows and its check is interrupted, while the other vendors' results are not affected.
+	 *
+	 * @return future which is completed when the results (or errors) of all vendors were applied
+	 */
+	@VisibleForTesting
+	CompletableFuture<Void> createAndAddAvailabilityResultRowsAsync(final PurchaseRowsList rows, final int vendorTimeoutMillis)
 	{
-		availabilityCheckService.checkAvailabilityAsync(
-				createAvailabilityRequest(rows),
-				(result, error) -> handleResultForAsyncAvailabilityCheck(rows, result, error));
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+
+		final List<CompletableFuture<Void>> vendorResultsApplied = new ArrayList<>();
+		createAvailabilityRequestsByVendorId(rows).forEach((vendorId, request) -> {
+			final CompletableFuture<Void> resultApplied = new CompletableFuture<>();
+			vendorResultsApplied.add(resultApplied);
+
+			// makes sure that either the vendor's result or the timeout error is applied, but not both
+			final AtomicBoolean resultTaken = new AtomicBoolean(false);
+
+			final Future<?> future;
+			try
+			{
+				future = vendorAvailabilityCheckExecutor.submit(() -> {
+					AvailabilityMultiResult result = null;
+					Throwable error = null;
+					try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+					{
+						result = availabilityCheckService.checkAvailability(request);
+					}
+					catch (final Throwable ex)
+					{
+						error = ex;
+					}
+
+					if (resultTaken.compareAndSet(false, true))
+					{
+						handleResultForAsyncAvailabilityCheck(rows, request, result, error);
+						resultApplied.complete(null);
+					}
+				});
+			}
+			catch (final RejectedExecutionException ex)
+			{
+				handleResultForAsyncAvailabilityCheck(rows, request, null, ex);
+				resultApplied.complete(null);
+				return;
+			}
+
+			if (vendorTimeoutMillis > 0)
+			{
+				final ScheduledFuture<?> timeoutFuture = vendorAvailabilityCheckTimeoutScheduler.schedule(
+						() -> {
+							if (resultTaken.compareAndSet(false, true))
+							{
+								future.cancel(true); // interrupt the vendor call
+								handleResultForAsyncAvailabilityCheck(rows, request, null, new TimeoutException("Availability check for vendor " + vendorId + " timed out after " + vendorTimeoutMillis + "ms"));
+								resultApplied.complete(null);
+							}
+						},
+						vendorTimeoutMillis,
+						TimeUnit.MILLISECONDS);
+				resultApplied.thenRun(() -> timeoutFuture.cancel(false));
+			}
+		});
+
+		return CompletableFuture.allOf(vendorResultsApplied.toArray(new CompletableFuture<?>[vendorResultsApplied.size()]));
 	}
 
 	private void handleResultForAsyncAvailabilityCheck(
 			@NonNull final PurchaseRowsList rows,
+			@NonNull final PurchaseCandidatesAvailabilityRequest request,
 			@Nullable final AvailabilityMultiResult availabilityMultiResult,
 			@Nullable final Throwable error)
 	{
-		if (availabilityMultiResult != null)
+		try
+		{
+			if (availabilityMultiResult != null)
+			{
+				handleResultForAsyncAvailabilityCheck_Success(rows, availabilityMultiResult);
+			}
+			if (error != null)
+			{
+				final Throwable cause = unwrapAsyncException(error);
+				if (cause instanceof AvailabilityException)
+				{
+					handleResultForAsyncAvailabilityCheck_Error(rows, cause);
+				}
+				else
+				{
+					handleResultForAsyncAvailabilityCheck_RequestFailed(rows, request, cause);
+				}
+			}
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed applying the availability results of {}. Ignored.", request, ex);
+		}
+	}
+
+	/**
+	 * @return the cause of the given error if it's just a wrapper from async processing; the error itself otherwise (e.g. an {@link AvailabilityException} which has a cause)
+	 */
+	private static Throwable unwrapAsyncException(@NonNull final Throwable error)
+	{
+		if (error instanceof AvailabilityException)
 		{
-			handleResultForAsyncAvailabilityCheck_Success(rows, availabilityMultiResult);
+			return error;
 		}
-		if (error != null)
+		if ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null)
 		{
-			handleResultForAsyncAvailabilityCheck_Error(rows, Util.coalesce(error.getCause(), error));
+			return error.getCause();
 		}
+		return error;
 	}
 
 	private void handleResultForAsyncAvailabilityCheck_Success(
@@ -263,6 +429,38 @@ class PurchaseRowsLoader
 		}
 	}
 
+	/** Sets the given error on all line rows of the given request, e.g. because the vendor's gateway timed out. */
+	private void handleResultForAsyncAvailabilityCheck_RequestFailed(
+			final PurchaseRowsList rows,
+			final PurchaseCandidatesAvailabilityRequest request,
+			final Throwable throwable)
+	{
+		logger.warn("Availability check failed for {}", request, throwable);
+
+		final List<DocumentId> changedRowIds = new ArrayList<>();
+
+		for (final TrackingId trackingId : request.getTrackingIds())
+		{
+			final PurchaseRow lineRow = rows.getPurchaseRowByTrackingId(trackingId);
+			if (lineRow == null)
+			{
+				logger.warn("No line row found for {}. Skip updating the row with availability error", trackingId);
+				continue;
+			}
+
+			final PurchaseRow availabilityResultRow = purchaseRowFactory.availabilityDetailErrorBuilder()
+					.lineRow(lineRow)
+					.throwable(throwable)
+					.build();
+
+			lineRow.setAvailabilityInfoRow(availabilityResultRow);
+
+			changedRowIds.add(rows.getTopLevelDocumentIdByTrackingId(trackingId, lineRow.getId()));
+		}
+
+		notifyViewOfChanges(changedRowIds);
+	}
+
 	private void notifyViewOfChanges(final List<DocumentId> changedRowIds)
 	{
 		final IView view = viewSupplier.get();
@@ -1,16 +1,22 @@
 package de.metas.ui.web.pattribute;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.mm.attributes.api.IAttributeDAO;
 import org.adempiere.mm.attributes.util.ASIEditingInfo;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.model.I_M_Attribute;
 import org.compiere.model.I_M_AttributeInstance;
+import org.compiere.model.I_M_AttributeSet;
+import org.compiere.model.I_M_AttributeSetInstance;
 import org.compiere.model.MAttributeSetInstance;
 import org.compiere.util.CCache;
 import org.slf4j.Logger;
@@ -18,6 +24,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.logging.LogManager;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.pattribute.ASIDescriptorFactory.ASIAttributeFieldBinding;
@@ -34,6 +44,7 @@ import de.metas.ui.web.window.model.IDocumentChangesCollector;
 import de.metas.ui.web.window.model.IDocumentChangesCollector.ReasonSupplier;
 import de.metas.ui.web.window.model.IDocumentFieldView;
 import de.metas.ui.web.window.model.NullDocumentChangesCollector;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -71,7 +82,23 @@ public class ASIRepository
 	private final Supplier<DocumentId> nextASIDocId = DocumentId.supplier("N", 1);
 	private final CCache<DocumentId, ASIDocument> id2asiDoc = CCache.newLRUCache("ASIDocuments", 500, 0);
 
+	/** Readonly ASI documents, indexed by M_AttributeSetInstance_ID */
+	private final CCache<Integer, ASIDocument> readonlyASIDocuments = newReadonlyASIDocumentsCache();
+	private final CCache<Integer, List<I_M_AttributeInstance>> attributeInstancesByASIId = CCache.newLRUCache(I_M_AttributeInstance.Table_Name + "#by#M_AttributeSetInstance_ID", 5000, 0);
+
 	private static final String VERSION_DEFAULT = "0";
+
+	/**
+	 * @return readonly ASI documents cache, which is invalidated when the attribute instances, the ASI itself, its attribute set or the attributes are changed
+	 */
+	@VisibleForTesting
+	static CCache<Integer, ASIDocument> newReadonlyASIDocumentsCache()
+	{
+		return CCache.<Integer, ASIDocument> newLRUCache(I_M_AttributeInstance.Table_Name + "#ReadonlyASIDocuments", 2000, 0)
+				.addResetForTableName(I_M_AttributeSetInstance.Table_Name)
+				.addResetForTableName(I_M_AttributeSet.Table_Name)
+				.addResetForTableName(I_M_Attribute.Table_Name);
+	}
 	private static final ReasonSupplier REASON_ProcessASIDocumentChanges = () -> "process ASI document changes";
 
 	public ASIDocument createNewFrom(final JSONCreateASIRequest request)
@@ -113,7 +140,7 @@ public class ASIRepository
 	/**
 	 * Retrieves {@link ASIDocument} for given ASI. The document will be readonly and not save-able.
 	 *
-	 * IMPORTANT: the retrieved document is not cached, so next time it will be retrieved again
+	 * The readonly document is built once and cached until the ASI's attribute instances are changed.
 	 *
 	 * @param attributeSetInstanceId
 	 * @return ASI document
@@ -125,6 +152,15 @@ public class ASIRepository
 			throw new EntityNotFoundException("ASI " + attributeSetInstanceId);
 		}
 
+		final ASIDocument asiDoc = readonlyASIDocuments.getOrLoad(attributeSetInstanceId, () -> createReadonly(attributeSetInstanceId));
+		try (final IAutoCloseable readLock = asiDoc.lockForReading())
+		{
+			return asiDoc.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+		}
+	}
+
+	private ASIDocument createReadonly(final int attributeSetInstanceId)
+	{
 		final ASIEditingInfo info = ASIEditingInfo.readonlyASI(attributeSetInstanceId);
 
 		//
@@ -138,9 +174,8 @@ public class ASIRepository
 				.build();
 
 		//
-		// If we have a template ASI, populate the ASI document from it
-		final MAttributeSetInstance templateASI = info.getM_AttributeSetInstance();
-		for (final I_M_AttributeInstance fromAI : Services.get(IAttributeDAO.class).retrieveAttributeInstances(templateASI))
+		// Populate the ASI document from ASI's attribute instances
+		for (final I_M_AttributeInstance fromAI : getAttributeInstances(attributeSetInstanceId))
 		{
 			loadASIDocumentField(asiDocData, fromAI);
 		}
@@ -148,12 +183,49 @@ public class ASIRepository
 		//
 		// Validate, log and add the new ASI document to our index
 		asiDocData.checkAndGetValidStatus();
-		logger.trace("Created from ASI={}: {}", templateASI, asiDocData);
+		logger.trace("Created from ASI={}: {}", attributeSetInstanceId, asiDocData);
 
 		final ASIDocument asiDoc = new ASIDocument(asiDescriptor, asiDocData);
 		return asiDoc.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
 	}
 
+	private List<I_M_AttributeInstance> getAttributeInstances(final int attributeSetInstanceId)
+	{
+		return attributeInstancesByASIId.getOrLoad(attributeSetInstanceId, () -> retrieveAttributeInstances(ImmutableSet.of(attributeSetInstanceId)).get(attributeSetInstanceId));
+	}
+
+	/**
+	 * Loads the attribute instances of given ASIs in one query, so building their readonly documents later won't hit the database again.
+	 */
+	public void warmupAttributeInstances(@NonNull final Collection<Integer> attributeSetInstanceIds)
+	{
+		final ImmutableSet<Integer> asiIdsToLoad = attributeSetInstanceIds.stream()
+				.filter(asiId -> asiId > 0)
+				.filter(asiId -> attributeInstancesByASIId.get(asiId) == null)
+				.collect(ImmutableSet.toImmutableSet());
+		if (asiIdsToLoad.isEmpty())
+		{
+			return;
+		}
+
+		final ImmutableListMultimap<Integer, I_M_AttributeInstance> attributeInstancesByASIIdLoaded = retrieveAttributeInstances(asiIdsToLoad);
+		asiIdsToLoad.forEach(asiId -> attributeInstancesByASIId.put(asiId, attributeInstancesByASIIdLoaded.get(asiId)));
+	}
+
+	private static ImmutableListMultimap<Integer, I_M_AttributeInstance> retrieveAttributeInstances(final Set<Integer> attributeSetInstanceIds)
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_M_AttributeInstance.class)
+				.addInArrayFilter(I_M_AttributeInstance.COLUMNNAME_M_AttributeSetInstance_ID, attributeSetInstanceIds)
+				.orderBy()
+				.addColumn(I_M_AttributeInstance.COLUMN_M_AttributeSetInstance_ID)
+				.addColumn(I_M_AttributeInstance.COLUMN_M_Attribute_ID)
+				.endOrderBy()
+				.create()
+				.stream(I_M_AttributeInstance.class)
+				.collect(ImmutableListMultimap.toImmutableListMultimap(I_M_AttributeInstance::getM_AttributeSetInstance_ID, ai -> ai));
+	}
+
 	private ASIEditingInfo createASIEditingInfo(final JSONCreateASIRequest request)
 	{
 		final DocumentPath documentPath = request.getDocumentPath();
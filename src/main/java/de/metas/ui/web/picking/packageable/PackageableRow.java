@@ -10,7 +10,6 @@ import org.adempiere.util.Check;
 import org.adempiere.util.lang.impl.TableRecordReference;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 
 import de.metas.inoutcandidate.model.I_M_Packageable_V;
 import de.metas.order.OrderLineId;
@@ -105,7 +104,7 @@ public final class PackageableRow implements IViewRow
 
 	private final ViewId includedViewId;
 
-	private transient ImmutableMap<String, Object> _fieldNameAndJsonValues;
+	private transient Map<String, Object> _fieldNameAndJsonValues;
 
 	public static PackageableRow cast(final IViewRow row)
 	{
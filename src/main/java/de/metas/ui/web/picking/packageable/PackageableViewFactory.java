@@ -4,6 +4,9 @@ import java.util.Set;
 
 import javax.annotation.Nullable;
 
+import org.compiere.util.CCache;
+import org.compiere.util.Util.ArrayKey;
+
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.handlingunits.picking.PickingCandidateService;
@@ -56,6 +59,8 @@ public class PackageableViewFactory implements IViewFactory
 
 	private final PickingCandidateService pickingCandidateService;
 
+	private final CCache<ArrayKey, ViewLayout> viewLayoutCache = CCache.newCache("PackageableViewLayout", 2, CCache.EXPIREMINUTES_Never);
+
 	/**
 	 *
 	 * @param pickingViewRepo
@@ -74,6 +79,12 @@ public class PackageableViewFactory implements IViewFactory
 			@NonNull final WindowId windowId,
 			@NonNull final JSONViewDataType viewDataType,
 			@Nullable final ViewProfileId profileId)
+	{
+		final ArrayKey cacheKey = ArrayKey.of(windowId, viewDataType);
+		return viewLayoutCache.getOrLoad(cacheKey, () -> createViewLayout(viewDataType));
+	}
+
+	private ViewLayout createViewLayout(final JSONViewDataType viewDataType)
 	{
 		return ViewLayout.builder()
 				.setWindowId(PickingConstants.WINDOWID_PickingView)
@@ -2,11 +2,14 @@ package de.metas.ui.web.picking.pickingslot;
 
 import static org.adempiere.model.InterfaceWrapperHelper.load;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.exceptions.AdempiereException;
@@ -20,6 +23,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableListMultimap.Builder;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.SetMultimap;
@@ -122,6 +126,44 @@ public class PickingHURowsRepository
 	public List<HUEditorRow> retrieveSourceHUs(@NonNull final PickingSlotRepoQuery query)
 	{
 		final MatchingSourceHusQuery matchingSourceHUsQuery = createMatchingSourceHusQuery(query);
+		return retrieveSourceHUs(matchingSourceHUsQuery);
+	}
+
+	/**
+	 * Batch variant of {@link #retrieveSourceHUs(PickingSlotRepoQuery)}. Retrieves the source HUs for each of the given current shipment schedules, as if each of them was the current one.
+	 * <p>
+	 * The source HUs only depend on the products of all shipment schedules and on the current shipment schedule's warehouse,
+	 * so they are loaded only once per warehouse.
+	 *
+	 * @param allShipmentSchedules all shipment schedules of the picking view
+	 * @param currentShipmentSchedules the shipment schedules for which we want the source HUs; has to be a subset of {@code allShipmentSchedules}
+	 * @return source HU rows, indexed by {@code M_ShipmentSchedule_ID}
+	 */
+	public ImmutableMap<Integer, List<HUEditorRow>> retrieveSourceHUsIndexedByShipmentScheduleId(
+			@NonNull final Collection<I_M_ShipmentSchedule> allShipmentSchedules,
+			@NonNull final Collection<I_M_ShipmentSchedule> currentShipmentSchedules)
+	{
+		final List<Integer> productIds = allShipmentSchedules.stream()
+				.map(I_M_ShipmentSchedule::getM_Product_ID)
+				.distinct()
+				.collect(ImmutableList.toImmutableList());
+
+		final Map<Integer, List<HUEditorRow>> sourceHUsByWarehouseId = new HashMap<>();
+		final ImmutableMap.Builder<Integer, List<HUEditorRow>> result = ImmutableMap.builder();
+		for (final I_M_ShipmentSchedule currentShipmentSchedule : currentShipmentSchedules)
+		{
+			final MatchingSourceHusQuery matchingSourceHUsQuery = createMatchingSourceHusQuery(currentShipmentSchedule, productIds);
+			final List<HUEditorRow> sourceHUs = sourceHUsByWarehouseId.computeIfAbsent(
+					matchingSourceHUsQuery.getWarehouseId(),
+					warehouseId -> retrieveSourceHUs(matchingSourceHUsQuery));
+
+			result.put(currentShipmentSchedule.getM_ShipmentSchedule_ID(), sourceHUs);
+		}
+		return result.build();
+	}
+
+	private List<HUEditorRow> retrieveSourceHUs(@NonNull final MatchingSourceHusQuery matchingSourceHUsQuery)
+	{
 		final Set<HuId> sourceHUIds = SourceHUsService.get().retrieveMatchingSourceHUIds(matchingSourceHUsQuery);
 		return huEditorRepo.retrieveHUEditorRows(sourceHUIds, HUEditorRowFilter.ALL);
 	}
@@ -149,6 +191,13 @@ public class PickingHURowsRepository
 					.listDistinct(I_M_ShipmentSchedule.COLUMNNAME_M_Product_ID, Integer.class);
 		}
 
+		return createMatchingSourceHusQuery(currentShipmentSchedule, productIds);
+	}
+
+	private static MatchingSourceHusQuery createMatchingSourceHusQuery(
+			@Nullable final I_M_ShipmentSchedule currentShipmentSchedule,
+			@NonNull final List<Integer> productIds)
+	{
 		final MatchingSourceHusQueryBuilder builder = MatchingSourceHusQuery.builder()
 				.productIds(productIds);
 
@@ -237,6 +286,11 @@ public class PickingHURowsRepository
 	{
 		final Map<Integer, PickedHUEditorRow> huId2huRow = new HashMap<>();
 
+		// load all picked HUs in one go, instead of one by one in the loop below
+		huEditorRepo.warmUp(pickingCandidates.stream()
+				.map(pickingCandidate -> HuId.ofRepoId(pickingCandidate.getM_HU_ID()))
+				.collect(ImmutableSet.toImmutableSet()));
+
 		final Builder<Integer, PickedHUEditorRow> builder = ImmutableListMultimap.builder();
 
 		for (final I_M_Picking_Candidate pickingCandidate : pickingCandidates)
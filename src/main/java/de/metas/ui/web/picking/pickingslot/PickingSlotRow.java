@@ -71,7 +71,7 @@ public final class PickingSlotRow implements IViewRow
 	private final DocumentPath documentPath;
 	private final boolean processed;
 	private final ImmutableMap<PickingSlotRowId, PickingSlotRow> includedHURows;
-	private transient ImmutableMap<String, Object> _fieldNameAndJsonValues; // lazy
+	private transient Map<String, Object> _fieldNameAndJsonValues; // lazy
 
 	private final ViewId includedViewId;
 
@@ -1,6 +1,9 @@
 package de.metas.ui.web.picking.pickingslot;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -14,6 +17,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
 
 import de.metas.printing.esb.base.util.Check;
 import de.metas.process.IADProcessDAO;
@@ -130,15 +136,71 @@ public class PickingSlotViewFactory implements IViewFactory
 			@NonNull final CreateViewRequest request,
 			@Nullable final List<Integer> allShipmentScheduleIds)
 	{
-		final CreateViewRequest requestEffective = request.unwrapFiltersAndCopy(getFilterDescriptorsProvider());
+		return createViews(ImmutableList.of(request), allShipmentScheduleIds).get(0);
+	}
+
+	/**
+	 * Creates the picking slot views for many picking view rows at once.
+	 * <p>
+	 * The views' rows are loaded right away, together for all views, so that e.g. the picked and source HUs are loaded only once.
+	 * When a view is invalidated later, it reloads only its own rows.
+	 *
+	 * @param requests one request per picking view row
+	 * @param allShipmentScheduleIds see {@link #createView(CreateViewRequest, List)}
+	 * @return the views, in the same order as the given {@code requests}
+	 */
+	public List<PickingSlotView> createViews(
+			@NonNull final List<CreateViewRequest> requests,
+			@Nullable final List<Integer> allShipmentScheduleIds)
+	{
+		final List<CreateViewRequest> requestsEffective = requests.stream()
+				.map(request -> request.unwrapFiltersAndCopy(getFilterDescriptorsProvider()))
+				.collect(ImmutableList.toImmutableList());
+
+		// the rows of views whose queries differ only by their current shipment schedule are loaded together
+		final ImmutableListMultimap<ArrayKey, CreateViewRequest> requestsByBatchKey = Multimaps.index(requestsEffective, request -> {
+			final PickingSlotRepoQuery query = createPickingSlotRowsQuery(request, allShipmentScheduleIds);
+			return ArrayKey.of(query.getShipmentScheduleIds(), query.getPickingCandidates(), query.getPickingSlotBarcode());
+		});
+
+		final Map<DocumentId, PickingSlotView> viewsByPickingRowId = new HashMap<>();
+		for (final List<CreateViewRequest> batchRequests : Multimaps.asMap(requestsByBatchKey).values())
+		{
+			final PickingSlotRepoQuery batchQuery = createPickingSlotRowsQuery(batchRequests.get(0), allShipmentScheduleIds);
+			final ImmutableSet<Integer> currentShipmentScheduleIds = batchRequests.stream()
+					.map(PickingSlotViewFactory::extractCurrentShipmentScheduleId)
+					.collect(ImmutableSet.toImmutableSet());
+			final Map<Integer, List<PickingSlotRow>> rowsByShipmentScheduleId = pickingSlotRepo.retrieveRowsIndexedByShipmentScheduleId(batchQuery, currentShipmentScheduleIds);
+
+			for (final CreateViewRequest request : batchRequests)
+			{
+				final List<PickingSlotRow> initialRows = rowsByShipmentScheduleId.getOrDefault(extractCurrentShipmentScheduleId(request), ImmutableList.of());
+				viewsByPickingRowId.put(request.getParentRowId(), createView(request, allShipmentScheduleIds, initialRows));
+			}
+		}
 
+		return requestsEffective.stream()
+				.map(request -> viewsByPickingRowId.get(request.getParentRowId()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private PickingSlotView createView(
+			@NonNull final CreateViewRequest requestEffective,
+			@Nullable final List<Integer> allShipmentScheduleIds,
+			@NonNull final List<PickingSlotRow> initialRows)
+	{
 		final ViewId pickingViewId = requestEffective.getParentViewId();
 		final DocumentId pickingRowId = requestEffective.getParentRowId();
 		final ViewId pickingSlotViewId = PickingSlotViewsIndexStorage.createViewId(pickingViewId, pickingRowId);
 		final int shipmentScheduleId = extractCurrentShipmentScheduleId(requestEffective);
 
+		// the first time, provide the initial rows which were loaded together with the other views' rows; after that, reload only this view's rows
 		final PickingSlotRepoQuery query = createPickingSlotRowsQuery(requestEffective, allShipmentScheduleIds);
-		final Supplier<List<PickingSlotRow>> rowsSupplier = () -> pickingSlotRepo.retrieveRows(query);
+		final AtomicReference<List<PickingSlotRow>> initialRowsRef = new AtomicReference<>(initialRows);
+		final Supplier<List<PickingSlotRow>> rowsSupplier = () -> {
+			final List<PickingSlotRow> rows = initialRowsRef.getAndSet(null);
+			return rows != null ? rows : pickingSlotRepo.retrieveRows(query);
+		};
 
 		return PickingSlotView.builder()
 				.viewId(pickingSlotViewId)
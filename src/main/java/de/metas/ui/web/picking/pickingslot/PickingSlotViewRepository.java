@@ -2,23 +2,33 @@ package de.metas.ui.web.picking.pickingslot;
 
 import static org.adempiere.model.InterfaceWrapperHelper.loadOutOfTrx;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.util.GuavaCollectors;
 import org.adempiere.util.Services;
+import org.compiere.util.CCache;
 import org.compiere.util.DisplayType;
+import org.compiere.util.Util.ArrayKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Predicates;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 
+import de.metas.handlingunits.model.I_M_ShipmentSchedule;
 import de.metas.inoutcandidate.api.IShipmentScheduleEffectiveBL;
-import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.picking.api.IPickingSlotDAO;
 import de.metas.picking.api.IPickingSlotDAO.PickingSlotQuery;
 import de.metas.picking.model.I_M_PickingSlot;
@@ -30,7 +40,9 @@ import de.metas.ui.web.window.descriptor.LookupDescriptorProvider.LookupScope;
 import de.metas.ui.web.window.descriptor.sql.SqlLookupDescriptor;
 import de.metas.ui.web.window.model.lookup.LookupDataSource;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -69,6 +81,12 @@ public class PickingSlotViewRepository
 	private final Supplier<LookupDataSource> bpartnerLookup;
 	private final Supplier<LookupDataSource> bpartnerLocationLookup;
 
+	/**
+	 * Picking slot topology: the picking slots which are available for a given BPartner, BPartner location, warehouse and barcode.<br>
+	 * Picking slots rarely change, so we don't want to query them each time a picking slot view is created.
+	 */
+	private final CCache<ArrayKey, ImmutableList<PickingSlotInfo>> pickingSlotsByTopologyKey = CCache.newLRUCache(I_M_PickingSlot.Table_Name + "#by#BPartner#Location#Warehouse#Barcode", 500, 0);
+
 	/**
 	 * @param pickingHUsRepo the "backend" repo to be used by this instance.
 	 */
@@ -161,15 +179,73 @@ public class PickingSlotViewRepository
 				sourceHUPickingSlotRows));
 	}
 
+	/**
+	 * Batch variant of {@link #retrieveRows(PickingSlotRepoQuery)}: retrieves the rows for each of the given shipment schedules, as if each of them was the query's current one.
+	 * <p>
+	 * The shipment schedules, the picked HUs and the source HUs (per warehouse) are loaded only once for all of them.
+	 *
+	 * @param currentShipmentScheduleIds the shipment schedules for which we want the rows; each of them has to be one of the query's {@code shipmentScheduleIds}
+	 * @return rows indexed by {@code M_ShipmentSchedule_ID}
+	 */
+	public ImmutableMap<Integer, List<PickingSlotRow>> retrieveRowsIndexedByShipmentScheduleId(
+			@NonNull final PickingSlotRepoQuery query,
+			@NonNull final Collection<Integer> currentShipmentScheduleIds)
+	{
+		Check.errorIf(query.getShipmentScheduleIds().isEmpty(), "Given query has no shipmentScheduleIds; query={}", query);
+		Check.errorUnless(query.getShipmentScheduleIds().containsAll(currentShipmentScheduleIds),
+				"All currentShipmentScheduleIds={} shall be part of the given query's shipmentScheduleIds; query={}", currentShipmentScheduleIds, query);
+
+		final Map<Integer, I_M_ShipmentSchedule> shipmentSchedulesById = Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_M_ShipmentSchedule.class)
+				.addInArrayFilter(I_M_ShipmentSchedule.COLUMNNAME_M_ShipmentSchedule_ID, query.getShipmentScheduleIds())
+				.create()
+				.list(I_M_ShipmentSchedule.class)
+				.stream()
+				.collect(GuavaCollectors.toImmutableMapByKey(I_M_ShipmentSchedule::getM_ShipmentSchedule_ID));
+		final List<I_M_ShipmentSchedule> currentShipmentSchedules = currentShipmentScheduleIds.stream()
+				.map(shipmentSchedulesById::get)
+				.filter(Predicates.notNull())
+				.collect(ImmutableList.toImmutableList());
+
+		final ImmutableMap<Integer, List<HUEditorRow>> sourceHUEditorRowsByShipmentScheduleId = pickingHUsRepo.retrieveSourceHUsIndexedByShipmentScheduleId(shipmentSchedulesById.values(), currentShipmentSchedules);
+
+		// the picked HUs only depend on all shipment schedules, but not on the current one
+		final ListMultimap<Integer, PickedHUEditorRow> huEditorRowsByPickingSlotId = pickingHUsRepo.retrievePickedHUsIndexedByPickingSlotId(query);
+
+		final ImmutableMap.Builder<Integer, List<PickingSlotRow>> result = ImmutableMap.builder();
+		for (final I_M_ShipmentSchedule currentShipmentSchedule : currentShipmentSchedules)
+		{
+			final int shipmentScheduleId = currentShipmentSchedule.getM_ShipmentSchedule_ID();
+
+			final List<PickingSlotRow> pickingSlotRows = retrievePickingSlotsForShipmentSchedule(currentShipmentSchedule, query.getPickingSlotBarcode())
+					.stream()
+					.map(pickingSlot -> createPickingSlotRow(pickingSlot, huEditorRowsByPickingSlotId))
+					.collect(ImmutableList.toImmutableList());
+
+			final List<PickingSlotRow> sourceHUPickingSlotRows = sourceHUEditorRowsByShipmentScheduleId
+					.getOrDefault(shipmentScheduleId, ImmutableList.of())
+					.stream()
+					.map(sourceHuEditorRow -> createSourceHURow(sourceHuEditorRow))
+					.collect(ImmutableList.toImmutableList());
+
+			result.put(shipmentScheduleId, ImmutableList.copyOf(Iterables.concat(
+					pickingSlotRows,
+					sourceHUPickingSlotRows)));
+		}
+
+		return result.build();
+	}
+
 	@VisibleForTesting
 	ImmutableList<PickingSlotRow> retrievePickingSlotRows(@NonNull final PickingSlotRepoQuery query)
 	{
-		final List<I_M_PickingSlot> pickingSlots = retrievePickingSlotsForShipmentSchedule(query);
+		final I_M_ShipmentSchedule shipmentSchedule = loadOutOfTrx(query.getCurrentShipmentScheduleId(), I_M_ShipmentSchedule.class);
+		final List<PickingSlotInfo> pickingSlots = retrievePickingSlotsForShipmentSchedule(shipmentSchedule, query.getPickingSlotBarcode());
 
 		// retrieve picked HU rows (if any) to be displayed below there respective picking slots
 		final ListMultimap<Integer, PickedHUEditorRow> huEditorRowsByPickingSlotId = pickingHUsRepo.retrievePickedHUsIndexedByPickingSlotId(query);
 
-		final ImmutableList<PickingSlotRow> result = pickingSlots.stream() // get stream of I_M_PickingSlot
+		final ImmutableList<PickingSlotRow> result = pickingSlots.stream() // get stream of PickingSlotInfo
 				.map(pickingSlot -> createPickingSlotRow(pickingSlot, huEditorRowsByPickingSlotId)) // create the actual PickingSlotRows
 				.collect(ImmutableList.toImmutableList());
 		return result;
@@ -180,24 +256,31 @@ public class PickingSlotViewRepository
 	 * Assumes that all shipment schedules have the same partner and location (needs to be made sure) before starting all this stuff
 	 * 
 	 * @param shipmentSchedule
+	 * @param barcode optional picking slot barcode
 	 * @return
 	 */
-	private static List<I_M_PickingSlot> retrievePickingSlotsForShipmentSchedule(@NonNull final PickingSlotRepoQuery repoQuery)
+	private List<PickingSlotInfo> retrievePickingSlotsForShipmentSchedule(@NonNull final I_M_ShipmentSchedule shipmentSchedule, @Nullable final String barcode)
 	{
-		final I_M_ShipmentSchedule shipmentSchedule = loadOutOfTrx(repoQuery.getCurrentShipmentScheduleId(), I_M_ShipmentSchedule.class);
-
 		final IShipmentScheduleEffectiveBL shipmentScheduleEffectiveBL = Services.get(IShipmentScheduleEffectiveBL.class);
-
-		final PickingSlotQuery pickingSlotQuery = PickingSlotQuery.builder()
-				.availableForBPartnerId(shipmentScheduleEffectiveBL.getC_BPartner_ID(shipmentSchedule))
-				.availableForBPartnerLocationId(shipmentScheduleEffectiveBL.getC_BP_Location_ID(shipmentSchedule))
-				.warehouseId(shipmentScheduleEffectiveBL.getWarehouseId(shipmentSchedule))
-				.barcode(repoQuery.getPickingSlotBarcode())
-				.build();
-
-		final IPickingSlotDAO pickingSlotDAO = Services.get(IPickingSlotDAO.class);
-		final List<I_M_PickingSlot> pickingSlots = pickingSlotDAO.retrievePickingSlots(pickingSlotQuery);
-		return pickingSlots;
+		final int bpartnerId = shipmentScheduleEffectiveBL.getC_BPartner_ID(shipmentSchedule);
+		final int bpartnerLocationId = shipmentScheduleEffectiveBL.getC_BP_Location_ID(shipmentSchedule);
+		final int warehouseId = shipmentScheduleEffectiveBL.getWarehouseId(shipmentSchedule);
+
+		final ArrayKey topologyKey = ArrayKey.of(bpartnerId, bpartnerLocationId, warehouseId, barcode);
+		return pickingSlotsByTopologyKey.getOrLoad(topologyKey, () -> {
+			final PickingSlotQuery pickingSlotQuery = PickingSlotQuery.builder()
+					.availableForBPartnerId(bpartnerId)
+					.availableForBPartnerLocationId(bpartnerLocationId)
+					.warehouseId(warehouseId)
+					.barcode(barcode)
+					.build();
+
+			final IPickingSlotDAO pickingSlotDAO = Services.get(IPickingSlotDAO.class);
+			return pickingSlotDAO.retrievePickingSlots(pickingSlotQuery)
+					.stream()
+					.map(PickingSlotInfo::of)
+					.collect(ImmutableList.toImmutableList());
+		});
 	}
 
 	@VisibleForTesting
@@ -217,7 +300,7 @@ public class PickingSlotViewRepository
 	}
 
 	private PickingSlotRow createPickingSlotRow(
-			@NonNull final I_M_PickingSlot pickingSlot,
+			@NonNull final PickingSlotInfo pickingSlot,
 			@NonNull final ListMultimap<Integer, PickedHUEditorRow> huEditorRowsByPickingSlotId)
 	{
 		final List<PickingSlotRow> pickedHuRows = retrieveHuRowsToIncludeInPickingSlotRow(pickingSlot, huEditorRowsByPickingSlotId);
@@ -225,10 +308,10 @@ public class PickingSlotViewRepository
 	}
 
 	private static List<PickingSlotRow> retrieveHuRowsToIncludeInPickingSlotRow(
-			@NonNull final I_M_PickingSlot pickingSlot,
+			@NonNull final PickingSlotInfo pickingSlot,
 			@NonNull final ListMultimap<Integer, PickedHUEditorRow> huEditorRowsByPickingSlotId)
 	{
-		final int pickingSlotId = pickingSlot.getM_PickingSlot_ID();
+		final int pickingSlotId = pickingSlot.getPickingSlotId();
 
 		// create picking slot rows for included/picked HUs
 		final List<PickingSlotRow> pickedHuRows = huEditorRowsByPickingSlotId.get(pickingSlotId)
@@ -278,17 +361,17 @@ public class PickingSlotViewRepository
 	}
 
 	private PickingSlotRow createPickingSlotRowWithIncludedRows(
-			@NonNull final I_M_PickingSlot pickingSlot,
+			@NonNull final PickingSlotInfo pickingSlot,
 			@NonNull final List<PickingSlotRow> pickedHuRows)
 	{
 		return PickingSlotRow.fromPickingSlotBuilder()
-				.pickingSlotId(pickingSlot.getM_PickingSlot_ID())
+				.pickingSlotId(pickingSlot.getPickingSlotId())
 				//
-				.pickingSlotName(pickingSlot.getPickingSlot())
-				.pickingSlotWarehouse(warehouseLookup.get().findById(pickingSlot.getM_Warehouse_ID()))
-				.pickingSlotLocatorId(pickingSlot.getM_Locator_ID())
-				.pickingSlotBPartner(bpartnerLookup.get().findById(pickingSlot.getC_BPartner_ID()))
-				.pickingSlotBPLocation(bpartnerLocationLookup.get().findById(pickingSlot.getC_BPartner_Location_ID()))
+				.pickingSlotName(pickingSlot.getPickingSlotName())
+				.pickingSlotWarehouse(warehouseLookup.get().findById(pickingSlot.getWarehouseId()))
+				.pickingSlotLocatorId(pickingSlot.getLocatorId())
+				.pickingSlotBPartner(bpartnerLookup.get().findById(pickingSlot.getBpartnerId()))
+				.pickingSlotBPLocation(bpartnerLocationLookup.get().findById(pickingSlot.getBpartnerLocationId()))
 				.includedHURows(pickedHuRows)
 				//
 				.build();
@@ -301,7 +384,35 @@ public class PickingSlotViewRepository
 		final ListMultimap<Integer, PickedHUEditorRow> huEditorRowsByPickingSlotId = pickingHUsRepo.retrieveAllPickedHUsIndexedByPickingSlotId(pickingSlots);
 
 		return pickingSlots.stream() // get stream of I_M_PickingSlot
+				.map(PickingSlotInfo::of)
 				.map(pickingSlot -> createPickingSlotRow(pickingSlot, huEditorRowsByPickingSlotId)) // create the actual PickingSlotRows
 				.collect(ImmutableList.toImmutableList());
 	}
+
+	/**
+	 * Immutable picking slot data, so it can be cached and shared between threads.
+	 */
+	@Value
+	@Builder
+	private static class PickingSlotInfo
+	{
+		public static PickingSlotInfo of(@NonNull final I_M_PickingSlot pickingSlot)
+		{
+			return builder()
+					.pickingSlotId(pickingSlot.getM_PickingSlot_ID())
+					.pickingSlotName(pickingSlot.getPickingSlot())
+					.warehouseId(pickingSlot.getM_Warehouse_ID())
+					.locatorId(pickingSlot.getM_Locator_ID())
+					.bpartnerId(pickingSlot.getC_BPartner_ID())
+					.bpartnerLocationId(pickingSlot.getC_BPartner_Location_ID())
+					.build();
+		}
+
+		private final int pickingSlotId;
+		private final String pickingSlotName;
+		private final int warehouseId;
+		private final int locatorId;
+		private final int bpartnerId;
+		private final int bpartnerLocationId;
+	}
 }
@@ -8,6 +8,8 @@ import org.adempiere.exceptions.AdempiereException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.ui.web.picking.PickingConstants;
 import de.metas.ui.web.picking.packageable.PackageableRow;
 import de.metas.ui.web.picking.packageable.PackageableView;
@@ -136,25 +138,7 @@ public class PickingSlotViewsIndexStorage implements IViewsIndexStorage
 
 		if (create)
 		{
-			return packageableView.computePickingSlotViewIfAbsent(
-					packageableRowId,
-					() -> {
-						final PackageableRow packageableRow = packageableView.getById(packageableRowId);
-						final CreateViewRequest createViewRequest = CreateViewRequest
-								.builder(PickingConstants.WINDOWID_PickingSlotView, JSONViewDataType.includedView)
-								.setParentViewId(packageableView.getViewId())
-								.setParentRowId(packageableRow.getId())
-								.build();
-
-						// provide all pickingView's M_ShipmentSchedule_IDs to the factory, because we want to show the same picking slots and picked HU-rows for all of them.
-						final List<Integer> allShipmentScheduleIds = packageableView
-								.streamByIds(DocumentIdsSelection.ALL)
-								.map(PackageableRow::cast)
-								.map(PackageableRow::getShipmentScheduleId)
-								.collect(Collectors.toList());
-
-						return pickingSlotViewFactory.createView(createViewRequest, allShipmentScheduleIds);
-					});
+			return getOrCreatePickingSlotViews(packageableView, ImmutableList.of(packageableRowId)).get(0);
 		}
 		else
 		{
@@ -162,6 +146,42 @@ public class PickingSlotViewsIndexStorage implements IViewsIndexStorage
 		}
 	}
 
+	/**
+	 * Gets the picking slot views of the given packageable rows. The missing ones are created together, so they share the loading of their rows (see {@link PickingSlotViewFactory#createViews(List, List)}).
+	 * <p>
+	 * Only the views of the given rows are created; the views of other rows are created when they are requested.
+	 *
+	 * @return the picking slot views, in the same order as the given {@code packageableRowIds}
+	 */
+	public List<PickingSlotView> getOrCreatePickingSlotViews(@NonNull final PackageableView packageableView, @NonNull final List<DocumentId> packageableRowIds)
+	{
+		final List<CreateViewRequest> createViewRequests = packageableRowIds.stream()
+				.distinct()
+				.filter(packageableRowId -> packageableView.getPickingSlotViewOrNull(packageableRowId) == null)
+				.map(packageableRowId -> CreateViewRequest
+						.builder(PickingConstants.WINDOWID_PickingSlotView, JSONViewDataType.includedView)
+						.setParentViewId(packageableView.getViewId())
+						.setParentRowId(packageableView.getById(packageableRowId).getId())
+						.build())
+				.collect(ImmutableList.toImmutableList());
+		if (!createViewRequests.isEmpty())
+		{
+			// provide all pickingView's M_ShipmentSchedule_IDs to the factory, because we want to show the same picking slots and picked HU-rows for all of them.
+			final List<Integer> allShipmentScheduleIds = packageableView
+					.streamByIds(DocumentIdsSelection.ALL)
+					.map(PackageableRow::cast)
+					.map(PackageableRow::getShipmentScheduleId)
+					.collect(Collectors.toList());
+
+			pickingSlotViewFactory.createViews(createViewRequests, allShipmentScheduleIds)
+					.forEach(pickingSlotView -> packageableView.computePickingSlotViewIfAbsent(pickingSlotView.getParentRowId(), () -> pickingSlotView));
+		}
+
+		return packageableRowIds.stream()
+				.map(packageableView::getPickingSlotViewOrNull)
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	@Override
 	public void removeById(@NonNull final ViewId pickingSlotViewId)
 	{
@@ -8,6 +8,7 @@ import org.adempiere.ad.window.api.IADWindowDAO;
 import org.adempiere.util.Check;
 import org.adempiere.util.Services;
 import org.compiere.util.CCache;
+import org.compiere.util.Util.ArrayKey;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.google.common.collect.ImmutableList;
@@ -73,13 +74,18 @@ public class PickingSlotsClearingViewFactory implements IViewFactory
 	@Autowired
 	private PickingSlotViewRepository pickingSlotRepo;
 
+	private final CCache<ArrayKey, ViewLayout> viewLayoutCache = CCache.newCache("PickingSlotsClearingViewLayout", 2, CCache.EXPIREMINUTES_Never);
 	private final CCache<Integer, DocumentFilterDescriptorsProvider> filterDescriptorsProviderCache = CCache.newCache("PickingSlotsClearingViewFactory.FilterDescriptorsProvider", 1, CCache.EXPIREMINUTES_Never);
 
 	@Override
 	public ViewLayout getViewLayout(final WindowId windowId, final JSONViewDataType viewDataType, @Nullable final ViewProfileId profileId)
 	{
-		// TODO: cache it
+		final ArrayKey cacheKey = ArrayKey.of(windowId, viewDataType);
+		return viewLayoutCache.getOrLoad(cacheKey, () -> createViewLayout(viewDataType));
+	}
 
+	private ViewLayout createViewLayout(final JSONViewDataType viewDataType)
+	{
 		return ViewLayout.builder()
 				.setWindowId(WINDOW_ID)
 				.setCaption(Services.get(IADWindowDAO.class).retrieveWindowName(WINDOW_ID.toInt()))
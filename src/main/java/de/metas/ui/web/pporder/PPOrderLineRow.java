@@ -13,7 +13,6 @@ import org.eevolution.model.I_PP_Order;
 import org.eevolution.model.I_PP_Order_BOMLine;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 
 import de.metas.handlingunits.model.I_PP_Order_Qty;
 import de.metas.handlingunits.model.X_M_HU;
@@ -103,7 +102,7 @@ public class PPOrderLineRow implements IViewRow
 	@ViewColumn(captionKey = "HUStatus", widgetType = DocumentFieldWidgetType.Lookup, layouts = @ViewColumnLayout(when = JSONViewDataType.grid, seqNo = 80))
 	private final JSONLookupValue huStatus;
 
-	private transient ImmutableMap<String, Object> _values;
+	private transient Map<String, Object> _values;
 
 	public static final PPOrderLineRow cast(final IViewRow viewRecord)
 	{
@@ -357,7 +356,7 @@ public class PPOrderLineRow implements IViewRow
 	@Override
 	public Map<String, Object> getFieldNameAndJsonValues()
 	{
-		ImmutableMap<String, Object> values = _values;
+		Map<String, Object> values = _values;
 		if (values == null)
 		{
 			values = _values = ViewColumnHelper.extractJsonMap(this);
@@ -3,6 +3,7 @@ package de.metas.ui.web.pporder;
 import static org.adempiere.model.InterfaceWrapperHelper.loadOutOfTrx;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
@@ -18,6 +19,7 @@ import org.compiere.util.Util;
 import org.eevolution.model.X_PP_Order;
 import org.eevolution.model.X_PP_Order_BOMLine;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
@@ -97,13 +99,21 @@ class PPOrderLinesLoader
 			@NonNull final SqlViewBinding huSQLViewBinding,
 			@NonNull final HUReservationService huReservationService)
 	{
-		huEditorRepo = SqlHUEditorViewRepository.builder()
+		this(SqlHUEditorViewRepository.builder()
 				.windowId(viewWindowId)
 				.attributesProvider(HUEditorRowAttributesProvider.builder().readonly(false).build())
 				.sqlViewBinding(huSQLViewBinding)
 				.huReservationService(huReservationService)
-				.build();
+				.build(),
+				asiAttributesProvider);
+	}
 
+	@VisibleForTesting
+	PPOrderLinesLoader(
+			@NonNull final HUEditorViewRepository huEditorRepo,
+			final ASIViewRowAttributesProvider asiAttributesProvider)
+	{
+		this.huEditorRepo = huEditorRepo;
 		this.asiAttributesProvider = asiAttributesProvider;
 	}
 
@@ -158,7 +168,10 @@ class PPOrderLinesLoader
 						isReadOnly(ppOrder),
 						ppOrderQtysByBOMLineId.get(ppOrderBOMLine.getPP_Order_BOMLine_ID()));
 
-		final ImmutableList<PPOrderLineRow> bomLineRows = ppOrderBOMDAO.retrieveOrderBOMLines(ppOrder, I_PP_Order_BOMLine.class)
+		final List<I_PP_Order_BOMLine> ppOrderBOMLines = ppOrderBOMDAO.retrieveOrderBOMLines(ppOrder, I_PP_Order_BOMLine.class);
+		warmupASIs(ppOrder, ppOrderBOMLines);
+
+		final ImmutableList<PPOrderLineRow> bomLineRows = ppOrderBOMLines
 				.stream()
 				.map(ppOrderBomLineRowCreator)
 				.sorted(ppOrderBomLineRowSorter)
@@ -166,6 +179,21 @@ class PPOrderLinesLoader
 		return bomLineRows;
 	}
 
+	/** Loads the attribute instances of all rows in one go, instead of one query for each row when its attributes are displayed. */
+	private void warmupASIs(final I_PP_Order ppOrder, final List<I_PP_Order_BOMLine> ppOrderBOMLines)
+	{
+		if (asiAttributesProvider == null)
+		{
+			return;
+		}
+
+		final ImmutableSet.Builder<Integer> asiIds = ImmutableSet.builder();
+		asiIds.add(ppOrder.getM_AttributeSetInstance_ID());
+		ppOrderBOMLines.forEach(ppOrderBOMLine -> asiIds.add(ppOrderBOMLine.getM_AttributeSetInstance_ID()));
+
+		asiAttributesProvider.warmup(asiIds.build());
+	}
+
 	private List<PPOrderLineRow> createRowsForIssueProductSourceHUs(int m_Warehouse_ID, @NonNull final List<PPOrderLineRow> bomLineRows)
 	{
 		final ImmutableSet<Integer> issueProductIds = bomLineRows.stream()
@@ -173,19 +201,29 @@ class PPOrderLinesLoader
 				.map(PPOrderLineRow::getM_Product_ID)
 				.collect(ImmutableSet.toImmutableSet());
 
-		final ImmutableList.Builder<PPOrderLineRow> result = ImmutableList.builder();
-
 		final MatchingSourceHusQuery sourceHusQuery = MatchingSourceHusQuery.builder()
 				.productIds(issueProductIds)
 				.warehouseId(m_Warehouse_ID).build();
 
-		for (final HuId sourceHUId : SourceHUsService.get().retrieveMatchingSourceHUIds(sourceHusQuery))
+		final Collection<HuId> sourceHUIds = SourceHUsService.get().retrieveMatchingSourceHUIds(sourceHusQuery);
+		return createRowsForSourceHUs(sourceHUIds);
+	}
+
+	/**
+	 * Creates the source HU rows by loading all HUs in one go, i.e. the number of queries does not depend on how many source HUs we have.
+	 */
+	@VisibleForTesting
+	List<PPOrderLineRow> createRowsForSourceHUs(@NonNull final Collection<HuId> sourceHUIds)
+	{
+		if (sourceHUIds.isEmpty())
 		{
-			final HUEditorRow huEditorRow = huEditorRepo.retrieveForHUId(sourceHUId);
-			result.add(createRowForSourceHU(huEditorRow));
+			return ImmutableList.of();
 		}
 
-		return result.build();
+		return huEditorRepo.retrieveForHUIds(sourceHUIds)
+				.stream()
+				.map(this::createRowForSourceHU)
+				.collect(ImmutableList.toImmutableList());
 	}
 
 	private static final ITranslatableString extractDescription(final I_PP_Order ppOrder)
@@ -3,6 +3,9 @@ package de.metas.ui.web.process;
 import java.util.Collection;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
+import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
@@ -46,6 +49,12 @@ public interface IProcessInstanceController
 {
 	DocumentId getInstanceId();
 
+	/**
+	 * @return the view on which this process instance was created or <code>null</code>
+	 */
+	@Nullable
+	ViewId getViewId();
+
 	ProcessInstanceResult startProcess(ProcessExecutionContext context);
 
 	/**
@@ -1,8 +1,11 @@
 package de.metas.ui.web.process;
 
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import com.google.common.collect.ImmutableMap;
+
 import de.metas.ui.web.process.descriptor.ProcessDescriptor;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -85,4 +88,10 @@ public interface IProcessInstancesRepository
 	 * Resets internal caches.
 	 */
 	void cacheReset();
+
+	/** @return statistics about the process instances currently held by this repository (e.g. count, evictions) */
+	default Map<String, Object> getStats()
+	{
+		return ImmutableMap.of();
+	}
 }
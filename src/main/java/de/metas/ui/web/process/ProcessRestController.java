@@ -2,6 +2,7 @@ package de.metas.ui.web.process;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
@@ -23,12 +24,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 import de.metas.logging.LogManager;
 import de.metas.ui.web.cache.ETagResponseEntityBuilder;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.process.ProcessInstanceResult.OpenReportAction;
 import de.metas.ui.web.process.descriptor.ProcessDescriptor;
+import de.metas.ui.web.process.descriptor.ProcessPreconditionsEvaluator;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONCreateProcessInstanceRequest;
 import de.metas.ui.web.process.json.JSONProcessInstance;
@@ -92,6 +97,8 @@ public class ProcessRestController
 	private IViewsRepository viewsRepo;
 	@Autowired
 	private DocumentCollection documentsCollection;
+	@Autowired
+	private ProcessPreconditionsEvaluator preconditionsEvaluator;
 
 	private final ConcurrentHashMap<String, IProcessInstancesRepository> pinstancesRepositoriesByHandlerType = new ConcurrentHashMap<>();
 
@@ -117,9 +124,12 @@ public class ProcessRestController
 
 	public Stream<WebuiRelatedProcessDescriptor> streamDocumentRelatedProcesses(final WebuiPreconditionsContext preconditionsContext)
 	{
-		return getAllRepositories()
+		final List<WebuiRelatedProcessDescriptor> descriptors = getAllRepositories()
 				.stream()
-				.flatMap(repo -> repo.streamDocumentRelatedProcesses(preconditionsContext));
+				.flatMap(repo -> repo.streamDocumentRelatedProcesses(preconditionsContext))
+				.collect(ImmutableList.toImmutableList());
+
+		return preconditionsEvaluator.evaluate(preconditionsContext, descriptors).stream();
 	}
 
 	private final IProcessInstancesRepository getRepository(@NonNull final ProcessId processId)
@@ -258,13 +268,25 @@ public class ProcessRestController
 				.outOfTransaction()
 				.execute(() -> {
 					return instancesRepository.forProcessInstanceWritable(pinstanceId, NullDocumentChangesCollector.instance, processInstance -> {
-						final ProcessInstanceResult result = processInstance.startProcess(ProcessExecutionContext.builder()
-								.ctx(Env.getCtx())
-								.adLanguage(userSession.getAD_Language())
-								.viewsRepo(viewsRepo)
-								.documentsCollection(documentsCollection)
-								.build());
-						return JSONProcessInstanceResult.of(result);
+						try
+						{
+							final ProcessInstanceResult result = processInstance.startProcess(ProcessExecutionContext.builder()
+									.ctx(Env.getCtx())
+									.adLanguage(userSession.getAD_Language())
+									.viewsRepo(viewsRepo)
+									.documentsCollection(documentsCollection)
+									.build());
+							return JSONProcessInstanceResult.of(result);
+						}
+						finally
+						{
+							// the process might have changed the view's data on which the cached preconditions were evaluated
+							final ViewId viewId = processInstance.getViewId();
+							if (viewId != null)
+							{
+								preconditionsEvaluator.notifyViewChanged(viewId);
+							}
+						}
 					});
 				});
 	}
@@ -339,5 +361,18 @@ public class ProcessRestController
 	public void cacheReset()
 	{
 		getAllRepositories().forEach(IProcessInstancesRepository::cacheReset);
+		preconditionsEvaluator.cacheReset();
+	}
+
+	public Map<String, Object> getPreconditionsLatencyHistograms()
+	{
+		return preconditionsEvaluator.getLatencyHistograms();
+	}
+
+	public Map<String, Object> getProcessInstancesStats()
+	{
+		return getAllRepositories()
+				.stream()
+				.collect(ImmutableMap.toImmutableMap(IProcessInstancesRepository::getProcessHandlerType, IProcessInstancesRepository::getStats));
 	}
 }
@@ -151,6 +151,7 @@ import lombok.NonNull;
 		return instanceId;
 	}
 
+	@Override
 	public ViewId getViewId()
 	{
 		return viewId;
@@ -237,6 +238,22 @@ import lombok.NonNull;
 		return executed;
 	}
 
+	/**
+	 * @return how many parameters this instance holds. Used to weight the instance when it's kept in memory.
+	 */
+	/* package */ int getParametersCount()
+	{
+		return parameters.getFieldViews().size();
+	}
+
+	/**
+	 * @return true if this instance was started and it has an execution result. Such an instance cannot be reloaded from database.
+	 */
+	/* package */ boolean hasExecutionResult()
+	{
+		return executionResult != null;
+	}
+
 	/* package */ final void assertNotExecuted()
 	{
 		if (isExecuted())
@@ -1,5 +1,6 @@
 package de.metas.ui.web.process.adprocess;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -16,14 +17,20 @@ import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.model.I_AD_Process;
 import org.compiere.util.Env;
+import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import de.metas.logging.LogManager;
 import de.metas.printing.esb.base.util.Check;
 import de.metas.process.IADPInstanceDAO;
 import de.metas.process.IProcessDefaultParametersProvider;
@@ -87,6 +94,8 @@ import lombok.NonNull;
 @Component
 public class ADProcessInstancesRepository implements IProcessInstancesRepository
 {
+	private static final Logger logger = LogManager.getLogger(ADProcessInstancesRepository.class);
+
 	//
 	// Services
 	@Autowired
@@ -100,9 +109,53 @@ public class ADProcessInstancesRepository implements IProcessInstancesRepository
 	//
 	private final ADProcessDescriptorsFactory processDescriptorFactory = new ADProcessDescriptorsFactory();
 
-	private final Cache<DocumentId, ADProcessInstanceController> processInstances = CacheBuilder.newBuilder()
-			.expireAfterAccess(10, TimeUnit.MINUTES)
-			.build();
+	/**
+	 * In-memory process instances, bounded by their weight (i.e. number of parameters) and idle time.
+	 * <p>
+	 * Instances which are not yet executed have their parameters saved in {@code AD_PInstance_Para}, so when evicted they are reloaded on demand by {@link #retrieveProcessInstance(DocumentId)}.
+	 * Instances having an execution result cannot be reloaded from database, so they are never evicted because of their weight, but only after they were idle.
+	 */
+	private final Cache<DocumentId, ADProcessInstanceController> processInstances;
+
+	public ADProcessInstancesRepository(
+			@Value("${metasfresh.webui.process.instances.maxWeight:20000}") final long maxWeight,
+			@Value("${metasfresh.webui.process.instances.expireAfterAccessMinutes:10}") final int expireAfterAccessMinutes)
+	{
+		processInstances = createProcessInstancesCache(maxWeight, expireAfterAccessMinutes);
+		logger.info("maxWeight={}, expireAfterAccessMinutes={}", maxWeight, expireAfterAccessMinutes);
+	}
+
+	@VisibleForTesting
+	static Cache<DocumentId, ADProcessInstanceController> createProcessInstancesCache(final long maxWeight, final int expireAfterAccessMinutes)
+	{
+		return CacheBuilder.newBuilder()
+				.maximumWeight(maxWeight)
+				.weigher(ADProcessInstancesRepository::weigh)
+				.expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+				.recordStats()
+				.build();
+	}
+
+	private static int weigh(final DocumentId pinstanceId, final ADProcessInstanceController pinstance)
+	{
+		if (pinstance.hasExecutionResult())
+		{
+			return 0; // zero weight entries are never evicted by size
+		}
+		return 1 + pinstance.getParametersCount();
+	}
+
+	@Override
+	public Map<String, Object> getStats()
+	{
+		final CacheStats stats = processInstances.stats();
+		return ImmutableMap.<String, Object> builder()
+				.put("count", processInstances.size())
+				.put("evictions", stats.evictionCount())
+				.put("hits", stats.hitCount())
+				.put("loads", stats.loadCount())
+				.build();
+	}
 
 	@Override
 	public String getProcessHandlerType()
@@ -188,6 +241,9 @@ public class ADProcessInstancesRepository implements IProcessInstancesRepository
 					.contextSingleDocumentPath(request.getSingleDocumentPath())
 					.viewId(request.getViewRowIdsSelection() != null ? request.getViewRowIdsSelection().getViewId() : null)
 					.build();
+
+			// Save the default parameters, so the instance can be reloaded from database in case it's evicted from our internal cache
+			pinstance.saveIfValidAndHasChanges(false); // throwEx=false
 			processInstances.put(adPInstanceId, pinstance.copyReadonly());
 			return pinstance;
 		}
@@ -0,0 +1,470 @@
+package de.metas.ui.web.process.descriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+
+import org.adempiere.ad.security.UserRolePermissionsKey;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
+import org.adempiere.util.Services;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Striped;
+
+import de.metas.i18n.ImmutableTranslatableString;
+import de.metas.logging.LogManager;
+import de.metas.process.ProcessPreconditionsResolution;
+import de.metas.ui.web.metrics.LatencyHistogram;
+import de.metas.ui.web.metrics.SqlAccounting;
+import de.metas.ui.web.process.ProcessId;
+import de.metas.ui.web.process.ViewAsPreconditionsContext;
+import de.metas.ui.web.process.WebuiPreconditionsContext;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRowIdsSelection;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Evaluates the {@link ProcessPreconditionsResolution}s of view related processes.
+ * <ul>
+ * <li>results are cached per user role permissions, process, view, selected rows and view versions. A view's version is increased each time the view notifies its changes.
+ * <li>processes which are not cached are evaluated in background, one after the other, by a single worker at a time per view (because the view is not thread safe), within a total time budget.
+ * When the time budget is exceeded (or when all workers are busy), the evaluation is cancelled and the processes which were not evaluated yet
+ * are returned as disabled, with a "not yet known" reason. They are not evaluated in the current thread and their resolution is not cached.
+ * <li>if the current thread runs in a thread inherited transaction, everything is evaluated in the current thread, because the transaction cannot be shared with the workers
+ * <li>a latency histogram is maintained for each process
+ * </ul>
+ * Other contexts (e.g. single documents) are not touched.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class ProcessPreconditionsEvaluator
+{
+	private static final Logger logger = LogManager.getLogger(ProcessPreconditionsEvaluator.class);
+
+	private static final ProcessPreconditionsResolution RESOLUTION_NotYetKnown = ProcessPreconditionsResolution.reject(ImmutableTranslatableString.constant("Not yet known, please try again"));
+
+	private final long timeBudgetMillis;
+	private final ExecutorService executor;
+
+	private final Cache<PreconditionsResolutionKey, ProcessPreconditionsResolution> resolutionsCache;
+	private final LoadingCache<ViewId, AtomicLong> viewVersions = CacheBuilder.newBuilder()
+			.expireAfterAccess(1, TimeUnit.HOURS)
+			.build(CacheLoader.from(viewId -> new AtomicLong(0)));
+
+	/** makes sure a view is evaluated by only one worker at a time */
+	private final Striped<Lock> viewEvaluationLocks = Striped.lazyWeakLock(64);
+
+	private final ConcurrentHashMap<ProcessId, LatencyHistogram> latencyHistogramsByProcessId = new ConcurrentHashMap<>();
+
+	public ProcessPreconditionsEvaluator(
+			@Value("${metasfresh.webui.process.preconditions.timeBudgetMillis:2000}") final long timeBudgetMillis,
+			@Value("${metasfresh.webui.process.preconditions.threads:4}") final int threads,
+			@Value("${metasfresh.webui.process.preconditions.queueCapacity:100}") final int queueCapacity,
+			@Value("${metasfresh.webui.process.preconditions.cacheSize:5000}") final int cacheSize,
+			@Value("${metasfresh.webui.process.preconditions.cacheExpireSeconds:60}") final int cacheExpireSeconds)
+	{
+		this.timeBudgetMillis = timeBudgetMillis;
+
+		// NOTE: when all workers are busy and the queue is full, the evaluation is rejected and the processes are reported as not yet known
+		final int threadsEffective = Math.max(threads, 1);
+		this.executor = new ThreadPoolExecutor(
+				threadsEffective,
+				threadsEffective,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix("webui-process-preconditions")
+						.setDaemon(true)
+						.build(),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.resolutionsCache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(cacheExpireSeconds, TimeUnit.SECONDS)
+				.build();
+
+		logger.info("timeBudgetMillis={}, threads={}, queueCapacity={}, cacheSize={}, cacheExpireSeconds={}", timeBudgetMillis, threads, queueCapacity, cacheSize, cacheExpireSeconds);
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return the given descriptors, in the same order, having their preconditions already evaluated (if the context is a view context).
+	 *         Descriptors which could not be evaluated in time are returned as disabled, with a "not yet known" reason.
+	 *         Descriptors whose evaluation failed are returned as they are, so the caller will evaluate them again and get the error.
+	 */
+	public List<WebuiRelatedProcessDescriptor> evaluate(
+			@NonNull final WebuiPreconditionsContext preconditionsContext,
+			@NonNull final List<WebuiRelatedProcessDescriptor> descriptors)
+	{
+		final ViewAsPreconditionsContext viewContext = ViewAsPreconditionsContext.castOrNull(preconditionsContext);
+		if (viewContext == null || descriptors.isEmpty())
+		{
+			return descriptors;
+		}
+
+		final Properties ctx = Env.getCtx();
+		final String permissionsKey = UserRolePermissionsKey.toPermissionsKeyString(ctx);
+		final long viewVersion = getViewVersion(viewContext.getViewRowIdsSelection());
+		final long parentViewVersion = getViewVersion(viewContext.getParentViewRowIdsSelection());
+		final long childViewVersion = getViewVersion(viewContext.getChildViewRowIdsSelection());
+		final boolean evaluateInCurrentThread = isThreadInheritedTrxActive();
+
+		final List<WebuiRelatedProcessDescriptor> result = new ArrayList<>(descriptors);
+		final List<PendingEvaluation> pendingEvaluations = new ArrayList<>();
+
+		for (int i = 0, size = descriptors.size(); i < size; i++)
+		{
+			final WebuiRelatedProcessDescriptor descriptor = descriptors.get(i);
+			final PreconditionsResolutionKey key = PreconditionsResolutionKey.builder()
+					.permissionsKey(permissionsKey)
+					.processId(descriptor.getProcessId())
+					.viewRowIdsSelection(viewContext.getViewRowIdsSelection())
+					.parentViewRowIdsSelection(viewContext.getParentViewRowIdsSelection())
+					.childViewRowIdsSelection(viewContext.getChildViewRowIdsSelection())
+					.viewVersion(viewVersion)
+					.parentViewVersion(parentViewVersion)
+					.childViewVersion(childViewVersion)
+					.build();
+
+			final ProcessPreconditionsResolution cachedResolution = resolutionsCache.getIfPresent(key);
+			if (cachedResolution != null)
+			{
+				result.set(i, descriptor.withPreconditionsResolution(cachedResolution));
+			}
+			else if (evaluateInCurrentThread)
+			{
+				descriptor.getPreconditionsResolution(); // evaluate and memorize
+				onEvaluated(key, descriptor);
+			}
+			else
+			{
+				pendingEvaluations.add(new PendingEvaluation(i, key, descriptor));
+			}
+		}
+
+		if (!pendingEvaluations.isEmpty())
+		{
+			evaluateInWorker(viewContext.getViewRowIdsSelection().getViewId(), pendingEvaluations, result);
+		}
+
+		return result;
+	}
+
+	private static boolean isThreadInheritedTrxActive()
+	{
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		final ITrx trx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
+		return !trxManager.isNull(trx);
+	}
+
+	/**
+	 * Evaluates given descriptors in a single worker, one after the other, and waits for them within the time budget.
+	 * The descriptors which were not evaluated in time are set to {@link #RESOLUTION_NotYetKnown} in the result.
+	 */
+	private void evaluateInWorker(
+			final ViewId viewId,
+			final List<PendingEvaluation> pendingEvaluations,
+			final List<WebuiRelatedProcessDescriptor> result)
+	{
+		final EvaluationTask task = new EvaluationTask(
+				viewEvaluationLocks.get(viewId),
+				Env.copyCtx(Env.getCtx()),
+				RequestContextHolder.getRequestAttributes(),
+				SqlAccounting.getCurrentOrNull(),
+				pendingEvaluations);
+
+		try
+		{
+			final Future<?> future = executor.submit(task);
+			waitFor(future, task);
+		}
+		catch (final RejectedExecutionException ex)
+		{
+			logger.debug("Preconditions evaluation was rejected because all workers are busy. Reporting them as not yet known.");
+		}
+		finally
+		{
+			task.cancel();
+		}
+
+		for (final PendingEvaluation pendingEvaluation : pendingEvaluations)
+		{
+			final int index = pendingEvaluation.getIndex();
+			if (task.isEvaluated(index) || task.isFailed(index))
+			{
+				// evaluated: the descriptor has its resolution memorized
+				// failed: will be evaluated again by the caller, and the error will be propagated as before
+				continue;
+			}
+
+			result.set(index, pendingEvaluation.getDescriptor().withPreconditionsResolution(RESOLUTION_NotYetKnown));
+		}
+	}
+
+	/**
+	 * Waits for given task's future to complete, within the time budget. If it did not complete in time, the task is cancelled.
+	 */
+	private void waitFor(final Future<?> future, final EvaluationTask task)
+	{
+		try
+		{
+			future.get(timeBudgetMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (final TimeoutException ex)
+		{
+			logger.debug("Preconditions evaluation exceeded the time budget of {}ms. Cancelling it.", timeBudgetMillis);
+			task.cancel(); // flag it first, so the interrupted evaluation is not considered failed
+			future.cancel(true);
+		}
+		catch (final ExecutionException ex)
+		{
+			// shall not happen because the evaluation errors are caught by the task
+			logger.warn("Preconditions evaluation failed", ex);
+		}
+		catch (final InterruptedException ex)
+		{
+			task.cancel();
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void onEvaluated(final PreconditionsResolutionKey key, final WebuiRelatedProcessDescriptor evaluatedDescriptor)
+	{
+		resolutionsCache.put(key, evaluatedDescriptor.getPreconditionsResolution());
+
+		latencyHistogramsByProcessId
+				.computeIfAbsent(key.getProcessId(), processId -> new LatencyHistogram())
+				.record(evaluatedDescriptor.getPreconditionsResolutionCalcDuration());
+	}
+
+	private long getViewVersion(final ViewRowIdsSelection viewRowIdsSelection)
+	{
+		if (viewRowIdsSelection == null)
+		{
+			return -1;
+		}
+		return viewVersions.getUnchecked(viewRowIdsSelection.getViewId()).get();
+	}
+
+	/**
+	 * Advises this evaluator that the given view has changed, so the cached preconditions of it (and of the views having it as parent or child) are no longer valid.
+	 */
+	public void notifyViewChanged(@NonNull final ViewId viewId)
+	{
+		viewVersions.getUnchecked(viewId).incrementAndGet();
+	}
+
+	public void cacheReset()
+	{
+		resolutionsCache.invalidateAll();
+	}
+
+	@VisibleForTesting
+	long getCachedResolutionsCount()
+	{
+		resolutionsCache.cleanUp();
+		return resolutionsCache.size();
+	}
+
+	/**
+	 * @return latency histogram for each process which was evaluated
+	 */
+	public Map<String, Object> getLatencyHistograms()
+	{
+		final ImmutableMap.Builder<String, Object> result = ImmutableMap.builder();
+		latencyHistogramsByProcessId.forEach((processId, histogram) -> result.put(processId.toJson(), histogram.toMap()));
+		return result.build();
+	}
+
+	@lombok.Value
+	private static final class PendingEvaluation
+	{
+		int index;
+		PreconditionsResolutionKey key;
+		WebuiRelatedProcessDescriptor descriptor;
+	}
+
+	/**
+	 * Evaluates the pending descriptors one after the other, until all are evaluated or the task is cancelled.
+	 */
+	private final class EvaluationTask implements Runnable
+	{
+		private final Lock viewLock;
+		private final Properties ctx;
+		private final RequestAttributes requestAttributes;
+		private final SqlAccounting sqlAccounting;
+		private final List<PendingEvaluation> pendingEvaluations;
+
+		private volatile boolean cancelled = false;
+		private final Set<Integer> evaluatedIndexes = ConcurrentHashMap.newKeySet();
+		private final Set<Integer> failedIndexes = ConcurrentHashMap.newKeySet();
+
+		private EvaluationTask(
+				final Lock viewLock,
+				final Properties ctx,
+				@Nullable final RequestAttributes requestAttributes,
+				@Nullable final SqlAccounting sqlAccounting,
+				final List<PendingEvaluation> pendingEvaluations)
+		{
+			this.viewLock = viewLock;
+			this.ctx = ctx;
+			this.requestAttributes = requestAttributes;
+			this.sqlAccounting = sqlAccounting;
+			this.pendingEvaluations = pendingEvaluations;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				viewLock.lockInterruptibly();
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			try
+			{
+				evaluateAll();
+			}
+			finally
+			{
+				viewLock.unlock();
+			}
+		}
+
+		private void evaluateAll()
+		{
+			final RequestAttributes requestAttributesToRestore = RequestContextHolder.getRequestAttributes();
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx);
+					final IAutoCloseable sqlAccountingRestorer = SqlAccounting.temporarySetCurrent(sqlAccounting))
+			{
+				RequestContextHolder.setRequestAttributes(requestAttributes);
+
+				for (final PendingEvaluation pendingEvaluation : pendingEvaluations)
+				{
+					if (cancelled)
+					{
+						break;
+					}
+					evaluate(pendingEvaluation);
+				}
+			}
+			finally
+			{
+				RequestContextHolder.setRequestAttributes(requestAttributesToRestore);
+			}
+		}
+
+		private void evaluate(final PendingEvaluation pendingEvaluation)
+		{
+			final WebuiRelatedProcessDescriptor descriptor = pendingEvaluation.getDescriptor();
+			try
+			{
+				descriptor.getPreconditionsResolution(); // evaluate and memorize
+				onEvaluated(pendingEvaluation.getKey(), descriptor);
+				evaluatedIndexes.add(pendingEvaluation.getIndex());
+			}
+			catch (final RuntimeException ex)
+			{
+				// NOTE: errors caused by cancelling are not failures, the descriptor was just not evaluated in time
+				if (!cancelled)
+				{
+					failedIndexes.add(pendingEvaluation.getIndex());
+				}
+			}
+		}
+
+		public void cancel()
+		{
+			cancelled = true;
+		}
+
+		public boolean isEvaluated(final int index)
+		{
+			return evaluatedIndexes.contains(index);
+		}
+
+		public boolean isFailed(final int index)
+		{
+			return failedIndexes.contains(index);
+		}
+	}
+
+	@lombok.Value
+	@lombok.Builder
+	private static final class PreconditionsResolutionKey
+	{
+		String permissionsKey;
+		ProcessId processId;
+		ViewRowIdsSelection viewRowIdsSelection;
+		ViewRowIdsSelection parentViewRowIdsSelection;
+		ViewRowIdsSelection childViewRowIdsSelection;
+		long viewVersion;
+		long parentViewVersion;
+		long childViewVersion;
+	}
+}
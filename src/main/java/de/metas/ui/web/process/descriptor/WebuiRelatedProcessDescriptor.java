@@ -115,11 +115,27 @@ public final class WebuiRelatedProcessDescriptor
 		return defaultQuickAction;
 	}
 
-	private ProcessPreconditionsResolution getPreconditionsResolution()
+	/* package */ ProcessPreconditionsResolution getPreconditionsResolution()
 	{
 		return preconditionsResolutionSupplier.get().getValue();
 	}
 
+	/**
+	 * @return a copy of this descriptor which has the given, already known, preconditions resolution
+	 */
+	/* package */ WebuiRelatedProcessDescriptor withPreconditionsResolution(@NonNull final ProcessPreconditionsResolution preconditionsResolution)
+	{
+		return builder()
+				.processId(processId)
+				.processCaption(processCaption)
+				.processDescription(processDescription)
+				.quickAction(quickAction)
+				.defaultQuickAction(defaultQuickAction)
+				.preconditionsResolutionSupplier(() -> preconditionsResolution)
+				.debugProcessClassname(debugProcessClassname)
+				.build();
+	}
+
 	public Duration getPreconditionsResolutionCalcDuration()
 	{
 		return preconditionsResolutionSupplier.get().getDuration();
@@ -24,6 +24,7 @@ import de.metas.ui.web.process.ProcessInstanceResult.ResultAction;
 import de.metas.ui.web.process.adprocess.DocumentFieldAsProcessInstanceParameter;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewsRepository;
+import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.LookupValuesList;
@@ -65,6 +66,7 @@ import lombok.ToString;
 
 	private final ProcessId processId;
 	private final DocumentId pinstanceId;
+	private final ViewId viewId;
 	private final WeakReference<IView> viewRef;
 	private final ViewActionDescriptor viewActionDescriptor;
 	private final DocumentIdsSelection selectedDocumentIds;
@@ -83,6 +85,7 @@ import lombok.ToString;
 	{
 		processId = ViewProcessInstancesRepository.buildProcessId(view.getViewId(), viewActionDescriptor.getActionId());
 		this.pinstanceId = pinstanceId;
+		viewId = view.getViewId();
 
 		viewRef = new WeakReference<>(view);
 		this.viewActionDescriptor = viewActionDescriptor;
@@ -122,6 +125,12 @@ import lombok.ToString;
 		return pinstanceId;
 	}
 
+	@Override
+	public ViewId getViewId()
+	{
+		return viewId;
+	}
+
 	@Override
 	public Collection<IProcessInstanceParameter> getParameters()
 	{
@@ -1,6 +1,6 @@
 package de.metas.ui.web.process.view;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -11,6 +11,9 @@ import org.compiere.util.CCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.process.CreateProcessInstanceRequest;
 import de.metas.ui.web.process.IProcessInstanceController;
@@ -199,7 +202,11 @@ public class ViewProcessInstancesRepository implements IProcessInstancesReposito
 	{
 		private final String viewId;
 		private final AtomicInteger nextIdSupplier = new AtomicInteger(1);
-		private final ConcurrentHashMap<DocumentId, ViewActionInstance> instances = new ConcurrentHashMap<>();
+		/** Bounded, because view action instances are not persisted and a view can live for a long time */
+		private final Cache<DocumentId, ViewActionInstance> instances = CacheBuilder.newBuilder()
+				.maximumSize(100)
+				.expireAfterAccess(30, TimeUnit.MINUTES)
+				.build();
 
 		public ViewActionInstancesList(@NonNull final String viewId)
 		{
@@ -208,7 +215,7 @@ public class ViewProcessInstancesRepository implements IProcessInstancesReposito
 
 		public ViewActionInstance getByInstanceId(final DocumentId pinstanceId)
 		{
-			final ViewActionInstance actionInstance = instances.get(pinstanceId);
+			final ViewActionInstance actionInstance = instances.getIfPresent(pinstanceId);
 			if (actionInstance == null)
 			{
 				throw new EntityNotFoundException("No view action instance found for " + pinstanceId);
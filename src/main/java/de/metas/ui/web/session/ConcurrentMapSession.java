@@ -0,0 +1,195 @@
+package de.metas.ui.web.session;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.session.ExpiringSession;
+import org.springframework.session.MapSession;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * {@link ExpiringSession} implementation which is safe to be shared between concurrent requests of the same session,
+ * so the session repository can return it directly, without copying it (like {@link MapSession} based repositories do).
+ * 
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@ToString(of = { "id", "creationTime", "lastAccessedTime", "maxInactiveIntervalInSeconds" })
+/* package */final class ConcurrentMapSession implements ExpiringSession
+{
+	private final String id;
+	private final ConcurrentHashMap<String, Object> attributes = new ConcurrentHashMap<>();
+	private final long creationTime;
+	private volatile long lastAccessedTime;
+	private volatile int maxInactiveIntervalInSeconds = MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS;
+
+	/** Incremented each time the session is accessed or it's attributes are changed */
+	private final AtomicLong version = new AtomicLong(0);
+	/** Last size estimation, valid as long as the {@link #version} was not changed */
+	private volatile SessionSizeEstimation sizeEstimation;
+
+	/* package */ ConcurrentMapSession()
+	{
+		id = UUID.randomUUID().toString();
+		creationTime = System.currentTimeMillis();
+		lastAccessedTime = creationTime;
+	}
+
+	/** Copy constructor, used when a foreign session implementation is saved */
+	/* package */ ConcurrentMapSession(@NonNull final ExpiringSession from)
+	{
+		id = from.getId();
+		creationTime = from.getCreationTime();
+		lastAccessedTime = from.getLastAccessedTime();
+		maxInactiveIntervalInSeconds = from.getMaxInactiveIntervalInSeconds();
+		for (final String attributeName : from.getAttributeNames())
+		{
+			final Object value = from.getAttribute(attributeName);
+			if (value != null)
+			{
+				attributes.put(attributeName, value);
+			}
+		}
+	}
+
+	@Override
+	public String getId()
+	{
+		return id;
+	}
+
+	@Override
+	public long getCreationTime()
+	{
+		return creationTime;
+	}
+
+	@Override
+	public void setLastAccessedTime(final long lastAccessedTime)
+	{
+		this.lastAccessedTime = lastAccessedTime;
+		version.incrementAndGet();
+	}
+
+	@Override
+	public long getLastAccessedTime()
+	{
+		return lastAccessedTime;
+	}
+
+	@Override
+	public void setMaxInactiveIntervalInSeconds(final int interval)
+	{
+		this.maxInactiveIntervalInSeconds = interval;
+	}
+
+	@Override
+	public int getMaxInactiveIntervalInSeconds()
+	{
+		return maxInactiveIntervalInSeconds;
+	}
+
+	@Override
+	public boolean isExpired()
+	{
+		return isExpired(System.currentTimeMillis());
+	}
+
+	/* package */ boolean isExpired(final long now)
+	{
+		final int maxInactiveIntervalInSeconds = this.maxInactiveIntervalInSeconds;
+		if (maxInactiveIntervalInSeconds < 0)
+		{
+			return false;
+		}
+
+		return now - TimeUnit.SECONDS.toMillis(maxInactiveIntervalInSeconds) >= lastAccessedTime;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getAttribute(final String attributeName)
+	{
+		return (T)attributes.get(attributeName);
+	}
+
+	@Override
+	public Set<String> getAttributeNames()
+	{
+		return ImmutableSet.copyOf(attributes.keySet());
+	}
+
+	@Override
+	public void setAttribute(final String attributeName, final Object attributeValue)
+	{
+		if (attributeValue == null)
+		{
+			removeAttribute(attributeName);
+		}
+		else
+		{
+			attributes.put(attributeName, attributeValue);
+			version.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void removeAttribute(final String attributeName)
+	{
+		attributes.remove(attributeName);
+		version.incrementAndGet();
+	}
+
+	/* package */ int getAttributesCount()
+	{
+		return attributes.size();
+	}
+
+	/* package */ long getVersion()
+	{
+		return version.get();
+	}
+
+	/**
+	 * @return last size estimation if the session was not accessed or changed since then, else <code>null</code>
+	 */
+	/* package */ SessionSizeEstimation getSizeEstimationIfUpToDate()
+	{
+		final SessionSizeEstimation sizeEstimation = this.sizeEstimation;
+		return sizeEstimation != null && sizeEstimation.getSessionVersion() == version.get() ? sizeEstimation : null;
+	}
+
+	/* package */ void setSizeEstimation(@NonNull final SessionSizeEstimation sizeEstimation)
+	{
+		this.sizeEstimation = sizeEstimation;
+	}
+}
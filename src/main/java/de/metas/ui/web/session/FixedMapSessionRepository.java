@@ -1,6 +1,10 @@
 package de.metas.ui.web.session;
 
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -10,7 +14,6 @@ import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.session.ExpiringSession;
-import org.springframework.session.MapSession;
 import org.springframework.session.MapSessionRepository;
 import org.springframework.session.SessionRepository;
 import org.springframework.session.events.SessionCreatedEvent;
@@ -18,6 +21,10 @@ import org.springframework.session.events.SessionDeletedEvent;
 import org.springframework.session.events.SessionExpiredEvent;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 
 import de.metas.logging.LogManager;
 import lombok.Builder;
@@ -57,7 +64,7 @@ import lombok.ToString;
 {
 	private static final Logger logger = LogManager.getLogger(FixedMapSessionRepository.class);
 
-	private final Map<String, ExpiringSession> sessions = new ConcurrentHashMap<>();
+	private final Map<String, ConcurrentMapSession> sessions = new ConcurrentHashMap<>();
 
 	private final ApplicationEventPublisher applicationEventPublisher;
 	private final Integer defaultMaxInactiveInterval;
@@ -74,13 +81,15 @@ import lombok.ToString;
 	@Override
 	public void save(final ExpiringSession session)
 	{
-		sessions.put(session.getId(), new MapSession(session));
+		// NOTE: our sessions are safe to be shared between concurrent requests, so we don't have to copy them
+		final ConcurrentMapSession sessionToSave = session instanceof ConcurrentMapSession ? (ConcurrentMapSession)session : new ConcurrentMapSession(session);
+		sessions.put(sessionToSave.getId(), sessionToSave);
 	}
 
 	@Override
 	public ExpiringSession getSession(final String id)
 	{
-		final ExpiringSession saved = sessions.get(id);
+		final ConcurrentMapSession saved = sessions.get(id);
 		if (saved == null)
 		{
 			return null;
@@ -92,7 +101,7 @@ import lombok.ToString;
 			return null;
 		}
 
-		return new MapSession(saved);
+		return saved;
 	}
 
 	@Override
@@ -123,7 +132,7 @@ import lombok.ToString;
 	@Override
 	public ExpiringSession createSession()
 	{
-		final ExpiringSession result = new MapSession();
+		final ConcurrentMapSession result = new ConcurrentMapSession();
 		if (defaultMaxInactiveInterval != null)
 		{
 			result.setMaxInactiveIntervalInSeconds(defaultMaxInactiveInterval);
@@ -152,10 +161,11 @@ import lombok.ToString;
 		final Stopwatch stopwatch = Stopwatch.createStarted();
 		int countExpiredSessions = 0;
 
-		final List<ExpiringSession> sessionsToCheck = new ArrayList<>(sessions.values());
-		for (final ExpiringSession session : sessionsToCheck)
+		final long now = System.currentTimeMillis();
+		final List<ConcurrentMapSession> sessionsToCheck = new ArrayList<>(sessions.values());
+		for (final ConcurrentMapSession session : sessionsToCheck)
 		{
-			if (session.isExpired())
+			if (session.isExpired(now))
 			{
 				deleteAndFireEvent(session.getId(), true /* expired */);
 				countExpiredSessions++;
@@ -164,4 +174,103 @@ import lombok.ToString;
 
 		logger.debug("Purged {}/{} expired sessions in {}", countExpiredSessions, sessionsToCheck.size(), stopwatch);
 	}
+
+	/**
+	 * @param limit max number of sessions to report
+	 * @return memory report of the biggest <code>limit</code> sessions, biggest first
+	 */
+	public List<SessionInfo> getSessionsInfo(final int limit)
+	{
+		final long now = System.currentTimeMillis();
+		return sessions.values()
+				.stream()
+				.map(session -> createSessionInfo(session, now))
+				.sorted(Comparator.comparing(SessionInfo::getEstimatedSizeBytes).reversed())
+				.limit(Math.max(limit, 0))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static SessionInfo createSessionInfo(final ConcurrentMapSession session, final long now)
+	{
+		final SessionSizeEstimation sizeEstimation = getSizeEstimation(session);
+
+		return SessionInfo.builder()
+				.sessionIdHash(hashSessionId(session.getId()))
+				.creationTime(session.getCreationTime())
+				.lastAccessedTime(session.getLastAccessedTime())
+				.maxInactiveIntervalInSeconds(session.getMaxInactiveIntervalInSeconds())
+				.expired(session.isExpired(now))
+				.attributesCount(session.getAttributesCount())
+				.estimatedSizeBytes(sizeEstimation.getEstimatedSizeBytes())
+				.notSerializableAttributes(sizeEstimation.getNotSerializableAttributes())
+				.build();
+	}
+
+	private static String hashSessionId(final String sessionId)
+	{
+		return Hashing.sha256()
+				.hashString(sessionId, StandardCharsets.UTF_8)
+				.toString()
+				.substring(0, 16);
+	}
+
+	/**
+	 * Gets the session's size estimation. The attributes are serialized only if the session was accessed or changed since the last estimation.
+	 */
+	private static SessionSizeEstimation getSizeEstimation(final ConcurrentMapSession session)
+	{
+		final SessionSizeEstimation existingSizeEstimation = session.getSizeEstimationIfUpToDate();
+		if (existingSizeEstimation != null)
+		{
+			return existingSizeEstimation;
+		}
+
+		final SessionSizeEstimation.SessionSizeEstimationBuilder sizeEstimation = SessionSizeEstimation.builder()
+				.sessionVersion(session.getVersion());
+
+		long estimatedSizeBytes = 0;
+		for (final String attributeName : session.getAttributeNames())
+		{
+			final Object value = session.getAttribute(attributeName);
+			final long size = estimateSerializedSize(value);
+			if (size < 0)
+			{
+				sizeEstimation.notSerializableAttribute(attributeName);
+			}
+			else
+			{
+				estimatedSizeBytes += size;
+			}
+		}
+
+		final SessionSizeEstimation newSizeEstimation = sizeEstimation.estimatedSizeBytes(estimatedSizeBytes).build();
+		session.setSizeEstimation(newSizeEstimation);
+		return newSizeEstimation;
+	}
+
+	/**
+	 * @return serialized size or <code>-1</code> if the value is not serializable
+	 */
+	private static long estimateSerializedSize(final Object value)
+	{
+		if (value == null)
+		{
+			return 0;
+		}
+		if (!(value instanceof Serializable))
+		{
+			return -1;
+		}
+
+		final CountingOutputStream out = new CountingOutputStream(ByteStreams.nullOutputStream());
+		try (final ObjectOutputStream oos = new ObjectOutputStream(out))
+		{
+			oos.writeObject(value);
+		}
+		catch (final Exception ex)
+		{
+			return -1;
+		}
+		return out.getCount();
+	}
 }
@@ -0,0 +1,56 @@
+package de.metas.ui.web.session;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+
+import lombok.Builder;
+import lombok.Singular;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Session memory report, used for debugging.
+ * 
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@lombok.Value
+@Builder
+public class SessionInfo
+{
+	/** Hash of the session ID, so sessions can be told apart without exposing the ID (which is the session cookie value) */
+	String sessionIdHash;
+	long creationTime;
+	long lastAccessedTime;
+	int maxInactiveIntervalInSeconds;
+	boolean expired;
+
+	int attributesCount;
+	/** Estimated size of the serializable attributes */
+	long estimatedSizeBytes;
+	@Singular
+	List<String> notSerializableAttributes;
+}
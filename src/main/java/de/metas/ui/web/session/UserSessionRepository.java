@@ -1,5 +1,6 @@
 package de.metas.ui.web.session;
 
+import java.util.List;
 import java.util.Objects;
 
 import org.adempiere.ad.modelvalidator.IModelInterceptorRegistry;
@@ -13,9 +14,12 @@ import org.compiere.Adempiere;
 import org.compiere.model.ModelValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.session.ExpiringSession;
+import org.springframework.session.SessionRepository;
 import org.springframework.stereotype.Component;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 
 import de.metas.adempiere.model.I_AD_User;
 import de.metas.ui.web.session.json.JSONUserSessionChangesEvent;
@@ -52,6 +56,8 @@ public class UserSessionRepository
 {
 	@Autowired
 	private WebsocketSender websocketSender;
+	@Autowired
+	private SessionRepository<ExpiringSession> sessionRepository;
 
 	private UserSessionRepository()
 	{
@@ -162,6 +168,21 @@ public class UserSessionRepository
 		return fullname.toString();
 	}
 
+	/**
+	 * @return memory report of the biggest <code>limit</code> HTTP sessions, biggest first
+	 */
+	public List<SessionInfo> getSessionsInfo(final int limit)
+	{
+		if (sessionRepository instanceof FixedMapSessionRepository)
+		{
+			return ((FixedMapSessionRepository)sessionRepository).getSessionsInfo(limit);
+		}
+		else
+		{
+			return ImmutableList.of();
+		}
+	}
+
 	public void setAD_Language(final int adUserId, final String adLanguage)
 	{
 		final I_AD_User user = Services.get(IUserDAO.class).retrieveUserInTrx(adUserId);
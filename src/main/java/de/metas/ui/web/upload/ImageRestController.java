@@ -12,6 +12,7 @@ import org.compiere.model.MImage;
 import org.compiere.util.Env;
 import org.compiere.util.MimeType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -34,6 +35,7 @@ import de.metas.ui.web.cache.ETagResponseEntityBuilder;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.upload.WebuiImagesRepository.ImageInfo;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import lombok.NonNull;
 
@@ -70,6 +72,9 @@ public class ImageRestController
 	@Autowired
 	private UserSession userSession;
 
+	@Autowired
+	private WebuiImagesRepository imagesRepo;
+
 	private JSONOptions newJSONOptions()
 	{
 		return JSONOptions.builder(userSession).build();
@@ -91,7 +96,10 @@ public class ImageRestController
 		// TODO: introduce adImage.setTemporary(true);
 		InterfaceWrapperHelper.save(adImage);
 
-		return adImage.getAD_Image_ID();
+		final int imageId = adImage.getAD_Image_ID();
+		imagesRepo.pregenerateScaledImages(imageId);
+
+		return imageId;
 	}
 
 	private static final String normalizeUploadFilename(final String name, final String contentType)
@@ -115,7 +123,7 @@ public class ImageRestController
 
 	@GetMapping("/{imageId}")
 	@ResponseBody
-	public ResponseEntity<byte[]> getImage(@PathVariable final int imageId,
+	public ResponseEntity<Resource> getImage(@PathVariable final int imageId,
 			@RequestParam(name = "maxWidth", required = false, defaultValue = "-1") final int maxWidth,
 			@RequestParam(name = "maxHeight", required = false, defaultValue = "-1") final int maxHeight,
 			final WebRequest request)
@@ -128,54 +136,43 @@ public class ImageRestController
 				.jsonOptions(() -> newJSONOptions())
 				.toResponseEntity((responseBuilder, webuiImage) -> responseBuilder
 						.contentType(MediaType.parseMediaType(webuiImage.getContentType()))
+						.lastModified(webuiImage.getLastModified())
 						.header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + webuiImage.getImageName() + "\"")
 						.body(webuiImage.getImageData()));
 	}
 
 	private WebuiImage getWebuiImage(final int imageId, final int maxWidth, final int maxHeight)
 	{
-		if (imageId <= 0)
-		{
-			throw new IllegalArgumentException("Invalid image id");
-		}
+		final ImageInfo imageInfo = imagesRepo.getImageInfo(imageId);
 
-		final MImage adImage = MImage.get(Env.getCtx(), imageId);
-		if (adImage == null || adImage.getAD_Image_ID() <= 0)
-		{
-			throw new EntityNotFoundException("Image id not found: " + imageId);
-		}
-
-		final boolean hasAccess = userSession.getUserRolePermissions().canView(adImage.getAD_Client_ID(), adImage.getAD_Org_ID(), I_AD_Image.Table_ID, adImage.getAD_Image_ID());
+		final boolean hasAccess = userSession.getUserRolePermissions().canView(imageInfo.getAdClientId(), imageInfo.getAdOrgId(), I_AD_Image.Table_ID, imageInfo.getImageId());
 		if (!hasAccess)
 		{
 			throw new EntityNotFoundException("Image id not found: " + imageId);
 		}
 
-		return WebuiImage.of(adImage, maxWidth, maxHeight);
+		return new WebuiImage(imagesRepo, imageInfo, maxWidth, maxHeight);
 	}
 
 	private static final class WebuiImage implements ETagAware
 	{
-		public static final WebuiImage of(final MImage adImage, final int maxWidth, final int maxHeight)
-		{
-			return new WebuiImage(adImage, maxWidth, maxHeight);
-		}
-
-		private final MImage adImage;
+		private final WebuiImagesRepository imagesRepo;
+		private final ImageInfo imageInfo;
 		private final int maxWidth;
 		private final int maxHeight;
 		private final ETag etag;
 
-		private WebuiImage(@NonNull final MImage adImage, final int maxWidth, final int maxHeight)
+		private WebuiImage(@NonNull final WebuiImagesRepository imagesRepo, @NonNull final ImageInfo imageInfo, final int maxWidth, final int maxHeight)
 		{
-			this.adImage = adImage;
+			this.imagesRepo = imagesRepo;
+			this.imageInfo = imageInfo;
 			this.maxWidth = maxWidth > 0 ? maxWidth : 0;
 			this.maxHeight = maxHeight > 0 ? maxHeight : 0;
 
-			etag = ETag.of(adImage.getUpdated().getTime(), ImmutableMap.<String, String> builder()
+			etag = ETag.of(imageInfo.getLastModified(), ImmutableMap.<String, String> builder()
 					.put("maxWidth", String.valueOf(maxWidth))
 					.put("maxHeight", String.valueOf(maxHeight))
-					.put("imageId", String.valueOf(adImage.getAD_Image_ID()))
+					.put("imageId", String.valueOf(imageInfo.getImageId()))
 					.build());
 		}
 
@@ -187,17 +184,23 @@ public class ImageRestController
 
 		public String getImageName()
 		{
-			return adImage.getName();
+			return imageInfo.getName();
 		}
 
 		public String getContentType()
 		{
-			return adImage.getContentType();
+			return imageInfo.getContentType();
+		}
+
+		public long getLastModified()
+		{
+			return imageInfo.getLastModified();
 		}
 
-		public byte[] getImageData()
+		/** @return scaled image data; loaded only if the client's ETag does not match */
+		public Resource getImageData()
 		{
-			return adImage.getScaledImageData(maxWidth, maxHeight);
+			return imagesRepo.getScaledImageData(imageInfo, maxWidth, maxHeight);
 		}
 	}
 
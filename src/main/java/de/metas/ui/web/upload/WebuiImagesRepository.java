@@ -0,0 +1,425 @@
+package de.metas.ui.web.upload;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.Check;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.model.I_AD_Image;
+import org.compiere.model.MImage;
+import org.compiere.util.CCache;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.MimeType;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.exceptions.EntityNotFoundException;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Provides {@link I_AD_Image} infos (without loading the image data) and scaled image renditions.
+ * <p>
+ * Scaled renditions are cached on disk and, if they are small, also in memory.
+ * The caching key contains the image's Updated timestamp, so an image change produces new renditions and the old ones are just aging out.
+ * <p>
+ * Concurrent requests for the same rendition are waiting for the one which is already generating it.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class WebuiImagesRepository implements InitializingBean
+{
+	private static final Logger logger = LogManager.getLogger(WebuiImagesRepository.class);
+
+	private static final String PROPERTY_CacheDir = "metasfresh.webui.image.cacheDir";
+	@Value("${metasfresh.webui.image.cacheDir:}")
+	private String cacheDirPath;
+	@Value("${metasfresh.webui.image.cacheDirMaxSizeMB:500}")
+	private long cacheDirMaxSizeMB;
+	@Value("${metasfresh.webui.image.memoryCacheMaxSizeMB:50}")
+	private long memoryCacheMaxSizeMB;
+	@Value("${metasfresh.webui.image.memoryCacheMaxImageSizeKB:256}")
+	private int memoryCacheMaxImageSizeKB;
+	/** Comma separated list of WIDTHxHEIGHT, which will be generated when an image is uploaded */
+	@Value("${metasfresh.webui.image.pregenerateSizes:50x50,100x100,200x200}")
+	private String pregenerateSizesStr;
+
+	private File cacheDir; // lazy
+	private final AtomicLong cacheDirSize = new AtomicLong();
+	private Cache<String, byte[]> memoryCache; // lazy
+	private List<ImageSize> pregenerateSizes; // lazy
+
+	private final CCache<Integer, ImageInfo> imageInfosById = CCache.newLRUCache(I_AD_Image.Table_Name + "#ImageInfo", 1000, 0);
+	private final ConcurrentHashMap<String, CompletableFuture<byte[]>> generatingByKey = new ConcurrentHashMap<>();
+
+	private final ExecutorService pregenerateExecutor;
+
+	public WebuiImagesRepository()
+	{
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(WebuiImagesRepository.class.getSimpleName());
+		threadFactory.setDaemon(true);
+		pregenerateExecutor = Executors.newSingleThreadExecutor(threadFactory);
+	}
+
+	@Override
+	public void afterPropertiesSet()
+	{
+		cacheDir = checkCreateCacheDir(cacheDirPath);
+		cacheDirSize.set(computeDirSize(cacheDir));
+
+		memoryCache = CacheBuilder.newBuilder()
+				.maximumWeight(memoryCacheMaxSizeMB * 1024 * 1024)
+				.weigher((final String key, final byte[] data) -> data.length)
+				.build();
+
+		pregenerateSizes = Splitter.on(",").trimResults().omitEmptyStrings()
+				.splitToList(pregenerateSizesStr)
+				.stream()
+				.map(ImageSize::ofString)
+				.collect(ImmutableList.toImmutableList());
+
+		logger.info("Scaled images cache directory: {} ({} bytes, max {}MB)", cacheDir, cacheDirSize.get(), cacheDirMaxSizeMB);
+	}
+
+	private static File checkCreateCacheDir(final String cacheDirPath)
+	{
+		final File cacheDir;
+		if (Check.isEmpty(cacheDirPath, true))
+		{
+			logger.info("Using default scaled images cache directory. To configure it, please set '{}' property.", PROPERTY_CacheDir);
+			final String tmpdir = System.getProperty("java.io.tmpdir");
+			cacheDir = new File(tmpdir, "metasfresh-webui/scaled_images");
+		}
+		else
+		{
+			cacheDir = new File(cacheDirPath);
+		}
+
+		if (!cacheDir.exists() && !cacheDir.mkdirs())
+		{
+			throw new AdempiereException("Cannot create " + cacheDir);
+		}
+
+		return cacheDir;
+	}
+
+	private static long computeDirSize(final File dir)
+	{
+		final File[] files = dir.listFiles();
+		if (files == null)
+		{
+			return 0;
+		}
+		return Arrays.stream(files).mapToLong(File::length).sum();
+	}
+
+	/**
+	 * @return image info, loaded without the image data
+	 */
+	public ImageInfo getImageInfo(final int imageId)
+	{
+		if (imageId <= 0)
+		{
+			throw new IllegalArgumentException("Invalid image id");
+		}
+
+		return imageInfosById.getOrLoad(imageId, () -> retrieveImageInfo(imageId));
+	}
+
+	private static ImageInfo retrieveImageInfo(final int imageId)
+	{
+		final String sql = "SELECT " + I_AD_Image.COLUMNNAME_AD_Client_ID
+				+ ", " + I_AD_Image.COLUMNNAME_AD_Org_ID
+				+ ", " + I_AD_Image.COLUMNNAME_Name
+				+ ", " + I_AD_Image.COLUMNNAME_Updated
+				+ " FROM " + I_AD_Image.Table_Name
+				+ " WHERE " + I_AD_Image.COLUMNNAME_AD_Image_ID + "=?";
+		final Object[] sqlParams = new Object[] { imageId };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			if (!rs.next())
+			{
+				throw new EntityNotFoundException("Image id not found: " + imageId);
+			}
+
+			final String name = rs.getString(I_AD_Image.COLUMNNAME_Name);
+			return ImageInfo.builder()
+					.imageId(imageId)
+					.adClientId(rs.getInt(I_AD_Image.COLUMNNAME_AD_Client_ID))
+					.adOrgId(rs.getInt(I_AD_Image.COLUMNNAME_AD_Org_ID))
+					.name(name)
+					.contentType(MimeType.getMimeType(name))
+					.lastModified(rs.getTimestamp(I_AD_Image.COLUMNNAME_Updated).getTime())
+					.build();
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/**
+	 * @return scaled image data, served from memory or disk if was already generated
+	 */
+	public Resource getScaledImageData(@NonNull final ImageInfo imageInfo, final int maxWidth, final int maxHeight)
+	{
+		final String key = createCacheKey(imageInfo, maxWidth, maxHeight);
+
+		//
+		// Memory
+		final byte[] dataFromMemory = memoryCache.getIfPresent(key);
+		if (dataFromMemory != null)
+		{
+			return new ByteArrayResource(dataFromMemory);
+		}
+
+		//
+		// Disk
+		final File file = new File(cacheDir, key);
+		if (file.exists())
+		{
+			return new FileSystemResource(file);
+		}
+
+		//
+		// Generate it (or wait for the request which is already generating it)
+		final byte[] data = generateScaledImageDataOrWait(imageInfo, maxWidth, maxHeight, key);
+		return new ByteArrayResource(data);
+	}
+
+	private byte[] generateScaledImageDataOrWait(final ImageInfo imageInfo, final int maxWidth, final int maxHeight, final String key)
+	{
+		final CompletableFuture<byte[]> future = new CompletableFuture<>();
+		final CompletableFuture<byte[]> futureInProgress = generatingByKey.putIfAbsent(key, future);
+		if (futureInProgress != null)
+		{
+			try
+			{
+				return futureInProgress.join();
+			}
+			catch (final CompletionException ex)
+			{
+				throw AdempiereException.wrapIfNeeded(ex.getCause() != null ? ex.getCause() : ex);
+			}
+		}
+
+		try
+		{
+			final byte[] data = generateScaledImageData(imageInfo, maxWidth, maxHeight, key);
+			future.complete(data);
+			return data;
+		}
+		catch (final RuntimeException ex)
+		{
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		finally
+		{
+			generatingByKey.remove(key, future);
+		}
+	}
+
+	private byte[] generateScaledImageData(final ImageInfo imageInfo, final int maxWidth, final int maxHeight, final String key)
+	{
+		final MImage adImage = MImage.get(Env.getCtx(), imageInfo.getImageId());
+		if (adImage == null || adImage.getAD_Image_ID() <= 0)
+		{
+			throw new EntityNotFoundException("Image id not found: " + imageInfo.getImageId());
+		}
+
+		final byte[] data = adImage.getScaledImageData(maxWidth, maxHeight);
+		if (data == null)
+		{
+			return new byte[] {};
+		}
+
+		if (data.length <= memoryCacheMaxImageSizeKB * 1024)
+		{
+			memoryCache.put(key, data);
+		}
+		writeToCacheDir(key, data);
+
+		return data;
+	}
+
+	private void writeToCacheDir(final String key, final byte[] data)
+	{
+		try
+		{
+			final Path tempFile = Files.createTempFile(cacheDir.toPath(), key, ".tmp");
+			Files.write(tempFile, data);
+			Files.move(tempFile, new File(cacheDir, key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (final IOException ex)
+		{
+			logger.warn("Failed writing scaled image {} to cache directory. Ignored.", key, ex);
+			return;
+		}
+
+		if (cacheDirSize.addAndGet(data.length) > cacheDirMaxSizeMB * 1024 * 1024)
+		{
+			shrinkCacheDir();
+		}
+	}
+
+	/**
+	 * Deletes the oldest files until the cache directory is back to 80% of it's max size.
+	 */
+	private synchronized void shrinkCacheDir()
+	{
+		final long targetSize = cacheDirMaxSizeMB * 1024 * 1024 * 8 / 10;
+
+		final File[] files = cacheDir.listFiles();
+		if (files == null)
+		{
+			return;
+		}
+		Arrays.sort(files, Comparator.comparing(File::lastModified));
+
+		long size = Arrays.stream(files).mapToLong(File::length).sum();
+		for (final File file : files)
+		{
+			if (size <= targetSize)
+			{
+				break;
+			}
+
+			final long fileSize = file.length();
+			if (file.delete())
+			{
+				size -= fileSize;
+			}
+		}
+
+		cacheDirSize.set(size);
+		logger.debug("Scaled images cache directory shrinked to {} bytes", size);
+	}
+
+	private static String createCacheKey(final ImageInfo imageInfo, final int maxWidth, final int maxHeight)
+	{
+		return imageInfo.getImageId()
+				+ "_" + imageInfo.getLastModified()
+				+ "_" + Math.max(maxWidth, 0) + "x" + Math.max(maxHeight, 0);
+	}
+
+	/**
+	 * Asynchronously generates the renditions for the configured common sizes (e.g. thumbnails).
+	 */
+	public void pregenerateScaledImages(final int imageId)
+	{
+		if (pregenerateSizes.isEmpty())
+		{
+			return;
+		}
+
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		pregenerateExecutor.execute(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				final ImageInfo imageInfo = getImageInfo(imageId);
+				for (final ImageSize size : pregenerateSizes)
+				{
+					getScaledImageData(imageInfo, size.getWidth(), size.getHeight());
+				}
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Failed pre-generating scaled images for AD_Image_ID={}. Ignored.", imageId, ex);
+			}
+		});
+	}
+
+	@lombok.Value
+	@Builder
+	public static class ImageInfo
+	{
+		private final int imageId;
+		private final int adClientId;
+		private final int adOrgId;
+		private final String name;
+		private final String contentType;
+		private final long lastModified;
+	}
+
+	@lombok.Value
+	private static class ImageSize
+	{
+		public static ImageSize ofString(final String sizeStr)
+		{
+			final List<String> parts = Splitter.on("x").trimResults().splitToList(sizeStr.toLowerCase());
+			if (parts.size() != 2)
+			{
+				throw new AdempiereException("Invalid image size: " + sizeStr + ". Expected WIDTHxHEIGHT.");
+			}
+			return new ImageSize(Integer.parseInt(parts.get(0)), Integer.parseInt(parts.get(1)));
+		}
+
+		private final int width;
+		private final int height;
+	}
+}
@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -52,6 +53,14 @@ public class ASIViewRowAttributesProvider implements IViewRowAttributesProvider
 		return attributesById.computeIfAbsent(asiId, this::createAttributes);
 	}
 	
+	/**
+	 * Advises the provider that the attributes of given ASIs might be requested, so it can bulk load them.
+	 */
+	public void warmup(@NonNull final Collection<Integer> asiIds)
+	{
+		asiRepository.warmupAttributeInstances(asiIds);
+	}
+
 	private final ASIViewRowAttributes createAttributes(final DocumentId asiId)
 	{
 		final ASIDocument asiDoc = asiRepository.loadReadonly(asiId.toInt());
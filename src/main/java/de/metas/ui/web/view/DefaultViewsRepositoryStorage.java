@@ -90,4 +90,9 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 		return views.asMap().values().stream();
 	}
 
+	public long size()
+	{
+		return views.size();
+	}
+
 }
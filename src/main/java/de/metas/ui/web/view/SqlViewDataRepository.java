@@ -88,6 +88,7 @@ class SqlViewDataRepository implements IViewDataRepository
 
 	private final boolean hasIncludedRows;
 	private final ImmutableMap<String, SqlViewRowFieldLoader> rowFieldLoaders;
+	private final ViewRowFieldNamesSchema rowFieldNamesSchema;
 	private final ViewRowCustomizer rowCustomizer;
 
 	private final SqlDocumentFilterConverter filterConverters;
@@ -107,6 +108,7 @@ class SqlViewDataRepository implements IViewDataRepository
 		this.rowFieldLoaders = sqlBindings.getFields()
 				.stream()
 				.collect(ImmutableMap.toImmutableMap(SqlViewRowFieldBinding::getFieldName, SqlViewRowFieldBinding::getFieldLoader));
+		this.rowFieldNamesSchema = ViewRowFieldNamesSchema.ofFieldNames(rowFieldLoaders.keySet());
 		this.rowCustomizer = sqlBindings.getRowCustomizer();
 
 		this.filterConverters = SqlDocumentFilterConverters.createEntityBindingEffectiveConverter(sqlBindings);
@@ -315,7 +317,7 @@ class SqlViewDataRepository implements IViewDataRepository
 			return null;
 		}
 
-		final ViewRow.Builder viewRowBuilder = ViewRow.builder(windowId);
+		final ViewRow.Builder viewRowBuilder = ViewRow.builder(windowId, rowFieldNamesSchema);
 
 		final DocumentId parentRowId = keyColumnNamesMap.retrieveRowId(rs, SqlViewSelectData.COLUMNNAME_Paging_Parent_Prefix, false);
 		if (parentRowId != null)
@@ -27,6 +27,7 @@ import org.springframework.web.context.request.WebRequest;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.ui.web.cache.ETagResponseEntityBuilder;
+import de.metas.ui.web.cache.JSONResponsesCache;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.process.ProcessRestController;
 import de.metas.ui.web.process.ViewAsPreconditionsContext;
@@ -37,11 +38,11 @@ import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.descriptor.ViewLayout;
 import de.metas.ui.web.view.json.JSONCreateViewRequest;
 import de.metas.ui.web.view.json.JSONFilterViewRequest;
+import de.metas.ui.web.view.json.JSONStreamedViewRow;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.view.json.JSONViewLayout;
 import de.metas.ui.web.view.json.JSONViewProfilesList;
 import de.metas.ui.web.view.json.JSONViewResult;
-import de.metas.ui.web.view.json.JSONViewRow;
 import de.metas.ui.web.window.controller.WindowRestController;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -106,6 +107,9 @@ public class ViewRestController
 	@Autowired
 	private WindowRestController windowRestController;
 
+	@Autowired
+	private JSONResponsesCache jsonResponsesCache;
+
 	public ViewRestController()
 	{
 	}
@@ -221,7 +225,7 @@ public class ViewRestController
 	}
 
 	@GetMapping("/layout")
-	public ResponseEntity<JSONViewLayout> getViewLayout(
+	public ResponseEntity<byte[]> getViewLayout(
 			@PathVariable(PARAM_WindowId) final String windowIdStr,
 			@RequestParam(name = PARAM_ViewDataType, required = true) final JSONViewDataType viewDataType,
 			@RequestParam(name = "profileId", required = false) final String profileIdStr,
@@ -230,13 +234,14 @@ public class ViewRestController
 		userSession.assertLoggedIn();
 
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
-		final ViewLayout viewLayout = viewsRepo.getViewLayout(windowId, viewDataType, ViewProfileId.fromJson(profileIdStr));
+		final ViewProfileId profileId = ViewProfileId.fromJson(profileIdStr);
+		final ViewLayout viewLayout = viewsRepo.getViewLayout(windowId, viewDataType, profileId);
 
 		return ETagResponseEntityBuilder.ofETagAware(request, viewLayout)
 				.includeLanguageInETag()
 				.cacheMaxAge(userSession.getHttpCacheMaxAge())
 				.jsonOptions(() -> newJSONOptions())
-				.toJson(JSONViewLayout::of);
+				.toCachedJson(jsonResponsesCache, "viewLayout:" + windowId + "/" + viewDataType + "/" + (profileId != null ? profileId.toJson() : ""), userSession.getUserRolePermissionsKey(), JSONViewLayout::of);
 	}
 
 	@GetMapping("/availableProfiles")
@@ -250,7 +255,7 @@ public class ViewRestController
 	}
 
 	@GetMapping("/{viewId}/byIds")
-	public List<JSONViewRow> getByIds(
+	public List<JSONStreamedViewRow> getByIds(
 			@PathVariable(PARAM_WindowId) final String windowId //
 			, @PathVariable("viewId") final String viewIdStr //
 			, @RequestParam("ids") @ApiParam("comma separated IDs") final String idsListStr //
@@ -268,7 +273,7 @@ public class ViewRestController
 		final IView view = viewsRepo.getView(viewId);
 		final List<? extends IViewRow> result = view.streamByIds(rowIds).collect(ImmutableList.toImmutableList());
 		final IViewRowOverrides rowOverrides = ViewRowOverridesHelper.getViewRowOverrides(view);
-		return JSONViewRow.ofViewRows(result, rowOverrides, userSession.getAD_Language());
+		return JSONStreamedViewRow.ofViewRows(result, rowOverrides, userSession.getAD_Language());
 	}
 
 	@GetMapping("/{viewId}/filter/{filterId}/field/{parameterName}/typeahead")
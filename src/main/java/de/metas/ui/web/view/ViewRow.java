@@ -1,20 +1,17 @@
 package de.metas.ui.web.view;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.handlingunits.HUEditorRowType;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.WindowId;
-import de.metas.ui.web.window.datatypes.json.JSONNullValue;
 import lombok.NonNull;
 import lombok.ToString;
 
@@ -44,7 +41,15 @@ public final class ViewRow implements IViewRow
 {
 	public static final Builder builder(final WindowId windowId)
 	{
-		return new Builder(windowId);
+		return new Builder(windowId, ViewRowFieldNamesSchema.newInstance());
+	}
+
+	/**
+	 * @param fieldNamesSchema schema to be shared by all rows of the same view, so each row will keep only an array of values
+	 */
+	public static final Builder builder(final WindowId windowId, final ViewRowFieldNamesSchema fieldNamesSchema)
+	{
+		return new Builder(windowId, fieldNamesSchema);
 	}
 
 	public static final ViewRow cast(final IViewRow row)
@@ -80,7 +85,7 @@ public final class ViewRow implements IViewRow
 	private final IViewRowType type;
 	private final boolean processed;
 
-	private final Map<String, Object> values;
+	private final ViewRowFieldNameAndJsonValues values;
 
 	private final List<IViewRow> includedRows;
 
@@ -92,7 +97,7 @@ public final class ViewRow implements IViewRow
 		type = builder.getType();
 		processed = builder.isProcessed();
 
-		values = ImmutableMap.copyOf(builder.getValues());
+		values = builder.buildValues();
 
 		includedRows = builder.buildIncludedRows();
 	}
@@ -178,12 +183,13 @@ public final class ViewRow implements IViewRow
 		private DocumentId parentRowId;
 		private IViewRowType type;
 		private Boolean processed;
-		private final Map<String, Object> values = new LinkedHashMap<>(); // preserve the insertion order of fields
+		private final ViewRowFieldNameAndJsonValues.Builder values;
 		private List<IViewRow> includedRows = null;
 
-		private Builder(@NonNull final WindowId windowId)
+		private Builder(@NonNull final WindowId windowId, @NonNull final ViewRowFieldNamesSchema fieldNamesSchema)
 		{
 			this.windowId = windowId;
+			this.values = ViewRowFieldNameAndJsonValues.builder(fieldNamesSchema);
 		}
 
 		public ViewRow build()
@@ -280,21 +286,13 @@ public final class ViewRow implements IViewRow
 
 		public Builder putFieldValue(final String fieldName, final Object jsonValue)
 		{
-			if (JSONNullValue.isNull(jsonValue))
-			{
-				values.remove(fieldName);
-			}
-			else
-			{
-				values.put(fieldName, jsonValue);
-			}
-
+			values.put(fieldName, jsonValue);
 			return this;
 		}
 
-		private Map<String, Object> getValues()
+		private ViewRowFieldNameAndJsonValues buildValues()
 		{
-			return values;
+			return values.build();
 		}
 		
 		public Object getFieldValue(final String fieldName)
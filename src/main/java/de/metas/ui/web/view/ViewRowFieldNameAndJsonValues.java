@@ -0,0 +1,238 @@
+package de.metas.ui.web.view;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Compact, immutable map of a view row's field name to JSON value.
+ * <p>
+ * Instead of having a hash map for each row, the field names are indexed by a {@link ViewRowFieldNamesSchema} which is shared by all rows of a view
+ * and each row keeps only an array of values. Missing (null) values are not part of the map.
+ * <p>
+ * Entries are iterated in schema order.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public final class ViewRowFieldNameAndJsonValues extends AbstractMap<String, Object>
+{
+	public static Builder builder(@NonNull final ViewRowFieldNamesSchema schema)
+	{
+		return new Builder(schema);
+	}
+
+	private static final Object[] EMPTY_VALUES = new Object[0];
+
+	private final ViewRowFieldNamesSchema schema;
+	private final Object[] values;
+	private final int size;
+
+	private transient Set<Map.Entry<String, Object>> _entrySet; // lazy
+
+	private ViewRowFieldNameAndJsonValues(final ViewRowFieldNamesSchema schema, final Object[] values, final int size)
+	{
+		this.schema = schema;
+		this.values = values;
+		this.size = size;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(final Object fieldName)
+	{
+		return get(fieldName) != null;
+	}
+
+	@Override
+	public Object get(final Object fieldName)
+	{
+		final int index = schema.getIndex(fieldName);
+		if (index < 0 || index >= values.length)
+		{
+			return null;
+		}
+		return values[index];
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet()
+	{
+		Set<Map.Entry<String, Object>> entrySet = _entrySet;
+		if (entrySet == null)
+		{
+			entrySet = _entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, Object>>
+	{
+		@Override
+		public int size()
+		{
+			return size;
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator()
+		{
+			return new EntryIterator();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<String, Object>>
+	{
+		private int nextIndex = findNextIndex(0);
+
+		private int findNextIndex(final int fromIndex)
+		{
+			for (int index = fromIndex; index < values.length; index++)
+			{
+				if (values[index] != null)
+				{
+					return index;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return nextIndex >= 0;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next()
+		{
+			if (nextIndex < 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			final int index = nextIndex;
+			nextIndex = findNextIndex(index + 1);
+			return new SimpleImmutableEntry<>(schema.getFieldName(index), values[index]);
+		}
+	}
+
+	//
+	//
+	//
+	//
+	//
+	public static final class Builder
+	{
+		private final ViewRowFieldNamesSchema schema;
+		private Object[] values;
+
+		private Builder(final ViewRowFieldNamesSchema schema)
+		{
+			this.schema = schema;
+			this.values = new Object[schema.size()];
+		}
+
+		@Override
+		public String toString()
+		{
+			return build().toString();
+		}
+
+		public ViewRowFieldNameAndJsonValues build()
+		{
+			int lastIndex = -1;
+			int size = 0;
+			for (int index = 0; index < values.length; index++)
+			{
+				if (values[index] != null)
+				{
+					lastIndex = index;
+					size++;
+				}
+			}
+
+			if (size == 0)
+			{
+				return new ViewRowFieldNameAndJsonValues(schema, EMPTY_VALUES, 0);
+			}
+
+			return new ViewRowFieldNameAndJsonValues(schema, Arrays.copyOf(values, lastIndex + 1), size);
+		}
+
+		/**
+		 * Sets the field's JSON value. If the value is null or {@link JSONNullValue}, the field will be removed.
+		 */
+		public Builder put(@NonNull final String fieldName, final Object jsonValue)
+		{
+			if (JSONNullValue.isNull(jsonValue))
+			{
+				remove(fieldName);
+				return this;
+			}
+
+			final int index = schema.getOrCreateIndex(fieldName);
+			if (index >= values.length)
+			{
+				values = Arrays.copyOf(values, Math.max(index + 1, schema.size()));
+			}
+			values[index] = jsonValue;
+
+			return this;
+		}
+
+		public Builder remove(final String fieldName)
+		{
+			final int index = schema.getIndex(fieldName);
+			if (index >= 0 && index < values.length)
+			{
+				values[index] = null;
+			}
+			return this;
+		}
+
+		public Object get(final String fieldName)
+		{
+			final int index = schema.getIndex(fieldName);
+			if (index < 0 || index >= values.length)
+			{
+				return null;
+			}
+			return values[index];
+		}
+	}
+}
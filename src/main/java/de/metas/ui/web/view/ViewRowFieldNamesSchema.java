@@ -0,0 +1,115 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Field name to index mapping which is shared by all {@link ViewRowFieldNameAndJsonValues} of a view (or of a row class).
+ * <p>
+ * The schema is append only: once a field name got an index, that index never changes, so row values which were built against an older (smaller) version of the schema remain valid.
+ * <p>
+ * Lookups are lock free, adding a new field name is synchronized (copy on write).
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public final class ViewRowFieldNamesSchema
+{
+	public static ViewRowFieldNamesSchema newInstance()
+	{
+		return new ViewRowFieldNamesSchema();
+	}
+
+	public static ViewRowFieldNamesSchema ofFieldNames(@NonNull final Collection<String> fieldNames)
+	{
+		final ViewRowFieldNamesSchema schema = new ViewRowFieldNamesSchema();
+		fieldNames.forEach(schema::getOrCreateIndex);
+		return schema;
+	}
+
+	private volatile ImmutableMap<String, Integer> indexesByFieldName = ImmutableMap.of();
+	private volatile ImmutableList<String> fieldNames = ImmutableList.of();
+
+	private ViewRowFieldNamesSchema()
+	{
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.addValue(fieldNames)
+				.toString();
+	}
+
+	public int size()
+	{
+		return fieldNames.size();
+	}
+
+	/**
+	 * @return index of given field name or <code>-1</code> if the field name is not part of this schema
+	 */
+	public int getIndex(final Object fieldName)
+	{
+		final Integer index = indexesByFieldName.get(fieldName);
+		return index != null ? index : -1;
+	}
+
+	public int getOrCreateIndex(@NonNull final String fieldName)
+	{
+		final int index = getIndex(fieldName);
+		if (index >= 0)
+		{
+			return index;
+		}
+
+		return addFieldName(fieldName);
+	}
+
+	private synchronized int addFieldName(final String fieldName)
+	{
+		final Integer existingIndex = indexesByFieldName.get(fieldName);
+		if (existingIndex != null)
+		{
+			return existingIndex;
+		}
+
+		final int index = fieldNames.size();
+		fieldNames = ImmutableList.<String> builder().addAll(fieldNames).add(fieldName).build();
+		indexesByFieldName = ImmutableMap.<String, Integer> builder().putAll(indexesByFieldName).put(fieldName, index).build();
+		return index;
+	}
+
+	public String getFieldName(final int index)
+	{
+		return fieldNames.get(index);
+	}
+}
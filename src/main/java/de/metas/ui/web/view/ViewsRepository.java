@@ -35,6 +35,7 @@ import de.metas.ui.web.base.model.I_T_WEBUI_ViewSelectionLine;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.menu.MenuNode;
 import de.metas.ui.web.menu.MenuTreeRepository;
+import de.metas.ui.web.metrics.MetricsRegistry;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.descriptor.ViewLayout;
 import de.metas.ui.web.view.json.JSONFilterViewRequest;
@@ -81,7 +82,7 @@ public class ViewsRepository implements IViewsRepository
 	private boolean truncateSelectionOnStartUp;
 
 	private final ConcurrentHashMap<WindowId, IViewsIndexStorage> viewsIndexStorages = new ConcurrentHashMap<>();
-	private final IViewsIndexStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage();
+	private final DefaultViewsRepositoryStorage defaultViewsIndexStorage = new DefaultViewsRepositoryStorage();
 
 	/**
 	 * 
@@ -90,10 +91,13 @@ public class ViewsRepository implements IViewsRepository
 	 */
 	public ViewsRepository(
 			@NonNull final Adempiere neededForDBAccess,
-			@NonNull final Collection<IViewFactory> viewFactories)
+			@NonNull final Collection<IViewFactory> viewFactories,
+			@NonNull final MetricsRegistry metricsRegistry)
 	{
 		factories = createFactoriesMap(viewFactories);
 		logger.info("Registered following view factories: ", factories);
+
+		metricsRegistry.registerGauge("views.defaultStorage.size", defaultViewsIndexStorage::size);
 	}
 
 	@PostConstruct
@@ -17,6 +17,8 @@ import org.adempiere.util.Check;
 import org.adempiere.util.GuavaCollectors;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -89,6 +91,8 @@ public class SqlViewBinding implements SqlEntityBinding
 
 	private final IViewInvalidationAdvisor viewInvalidationAdvisor;
 
+	private final Supplier<SqlDocumentFilterConverter> defaultFilterConverterSupplier = Suppliers.memoize(() -> SqlDocumentFilterConverters.createDefaultConverter(this));
+
 	public static final Builder builder()
 	{
 		return new Builder();
@@ -241,6 +245,12 @@ public class SqlViewBinding implements SqlEntityBinding
 		return filterConverterDecorator;
 	}
 
+	@Override
+	public SqlDocumentFilterConverter getDefaultFilterConverter()
+	{
+		return defaultFilterConverterSupplier.get();
+	}
+
 	public SqlViewRowIdsConverter getRowIdsConverter()
 	{
 		return rowIdsConverter;
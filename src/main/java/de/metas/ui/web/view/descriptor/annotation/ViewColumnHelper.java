@@ -2,7 +2,6 @@ package de.metas.ui.web.view.descriptor.annotation;
 
 import java.lang.reflect.Field;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -26,10 +25,11 @@ import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
 import de.metas.printing.esb.base.util.Check;
 import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.ViewRowFieldNameAndJsonValues;
+import de.metas.ui.web.view.ViewRowFieldNamesSchema;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.MediaType;
 import de.metas.ui.web.window.datatypes.Values;
-import de.metas.ui.web.window.datatypes.json.JSONNullValue;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
@@ -244,22 +244,19 @@ public final class ViewColumnHelper
 	/**
 	 * This helper method is intended to support individual implementations of {@link IViewRow#getFieldNameAndJsonValues()}.
 	 */
-	public static <T extends IViewRow> ImmutableMap<String, Object> extractJsonMap(@NonNull final T row)
+	public static <T extends IViewRow> ViewRowFieldNameAndJsonValues extractJsonMap(@NonNull final T row)
 	{
 		final Class<? extends IViewRow> rowClass = row.getClass();
+		final ClassViewDescriptor descriptor = getDescriptor(rowClass);
 
-		final LinkedHashMap<String, Object> result = new LinkedHashMap<>();
-		getDescriptor(rowClass)
-				.getColumns()
+		final ViewRowFieldNameAndJsonValues.Builder result = ViewRowFieldNameAndJsonValues.builder(descriptor.getFieldNamesSchema());
+		descriptor.getColumns()
 				.forEach(column -> {
 					final Object value = extractFieldValueAsJson(row, column);
-					if (!JSONNullValue.isNull(value))
-					{
-						result.put(column.getFieldName(), value);
-					}
+					result.put(column.getFieldName(), value);
 				});
 
-		return ImmutableMap.copyOf(result);
+		return result.build();
 	}
 
 	private static final <T extends IViewRow> Object extractFieldValueAsJson(final T row, final ClassViewColumnDescriptor column)
@@ -285,8 +282,8 @@ public final class ViewColumnHelper
 		return getDescriptor(rowClass).getWidgetTypesByFieldName();
 	}
 
-	@ToString
-	@EqualsAndHashCode
+	@ToString(exclude = "fieldNamesSchema")
+	@EqualsAndHashCode(exclude = "fieldNamesSchema")
 	private static final class ClassViewDescriptor
 	{
 		public static final ClassViewDescriptor EMPTY = builder().build();
@@ -297,12 +294,17 @@ public final class ViewColumnHelper
 		@Getter
 		private final ImmutableMap<String, DocumentFieldWidgetType> widgetTypesByFieldName;
 
+		/** shared by all rows of this class */
+		@Getter
+		private final ViewRowFieldNamesSchema fieldNamesSchema;
+
 		@Builder
 		private ClassViewDescriptor(@Singular ImmutableList<ClassViewColumnDescriptor> columns)
 		{
 			this.columns = columns;
 			this.widgetTypesByFieldName = columns.stream()
 					.collect(ImmutableMap.toImmutableMap(ClassViewColumnDescriptor::getFieldName, ClassViewColumnDescriptor::getWidgetType));
+			this.fieldNamesSchema = ViewRowFieldNamesSchema.ofFieldNames(widgetTypesByFieldName.keySet());
 		}
 
 		public ClassViewColumnDescriptor getColumnByName(@NonNull final String fieldName)
@@ -19,6 +19,7 @@ import org.springframework.context.annotation.Lazy;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.process.descriptor.ProcessPreconditionsEvaluator;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.websocket.WebSocketConfig;
@@ -115,6 +116,9 @@ public class ViewChangesCollector implements AutoCloseable
 	@Autowired
 	@Lazy
 	private WebsocketSender websocketSender;
+	@Autowired(required = false)
+	@Lazy
+	private ProcessPreconditionsEvaluator processPreconditionsEvaluator;
 
 	private final boolean autoflush;
 
@@ -241,6 +245,7 @@ public class ViewChangesCollector implements AutoCloseable
 			logger.trace("Flushing {} to websocket", this);
 			changesList.stream()
 					.filter(ViewChanges::hasChanges)
+					.peek(this::notifyProcessPreconditionsEvaluator)
 					.map(JSONViewChanges::of)
 					.forEach(this::sendToWebsocket);
 		}
@@ -268,6 +273,14 @@ public class ViewChangesCollector implements AutoCloseable
 		return changesList;
 	}
 
+	private void notifyProcessPreconditionsEvaluator(final ViewChanges changes)
+	{
+		if (processPreconditionsEvaluator != null)
+		{
+			processPreconditionsEvaluator.notifyViewChanged(changes.getViewId());
+		}
+	}
+
 	private void sendToWebsocket(final JSONViewChanges jsonChangeEvent)
 	{
 		final String endpoint = WebSocketConfig.buildViewNotificationsTopicName(jsonChangeEvent.getViewId());
@@ -0,0 +1,88 @@
+package de.metas.ui.web.view.json;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * View row which is written to JSON straight from the underlying {@link IViewRow}, without building a {@link JSONViewRow} (and it's fields) first.
+ * The JSON output is exactly the same as {@link JSONViewRow}'s, see {@link JSONStreamedViewRowSerializer}.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@JsonSerialize(using = JSONStreamedViewRowSerializer.class)
+public final class JSONStreamedViewRow implements JSONViewRowBase
+{
+	public static List<JSONStreamedViewRow> ofViewRows(final List<? extends IViewRow> rows, final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		final ImmutableList.Builder<JSONStreamedViewRow> jsonRows = ImmutableList.builder();
+		for (final IViewRow row : rows)
+		{
+			jsonRows.add(new JSONStreamedViewRow(row, rowOverrides, adLanguage));
+		}
+		return jsonRows.build();
+	}
+
+	private final IViewRow row;
+	private final IViewRowOverrides rowOverrides;
+	private final String adLanguage;
+
+	private JSONStreamedViewRow(@NonNull final IViewRow row, final IViewRowOverrides rowOverrides, final String adLanguage)
+	{
+		this.row = row;
+		this.rowOverrides = rowOverrides;
+		this.adLanguage = adLanguage;
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("rowId", row.getId())
+				.toString();
+	}
+
+	/* package */ IViewRow getRow()
+	{
+		return row;
+	}
+
+	/* package */ IViewRowOverrides getRowOverrides()
+	{
+		return rowOverrides;
+	}
+
+	/* package */ String getAdLanguage()
+	{
+		return adLanguage;
+	}
+}
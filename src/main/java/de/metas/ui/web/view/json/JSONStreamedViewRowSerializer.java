@@ -0,0 +1,217 @@
+package de.metas.ui.web.view.json;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import de.metas.ui.web.view.IViewRowType;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentField;
+import de.metas.ui.web.window.datatypes.json.JSONLayoutWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.ViewEditorRenderMode;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Writes {@link JSONStreamedViewRow}s directly to the {@link JsonGenerator}.
+ * <p>
+ * The output has to be byte-compatible with {@link JSONViewRow}, i.e. the properties are written in the order Jackson writes {@link JSONViewRow}'s properties
+ * (first the {@link de.metas.ui.web.window.datatypes.json.JSONDocumentBase} ones, then {@link JSONViewRow}'s, in their declaration order)
+ * and they are skipped in the same cases the <code>@JsonInclude</code> rules would skip them.
+ * Fields are written like {@link JSONDocumentField#idField(Object)} and {@link JSONDocumentField#ofNameAndValue(String, Object)} fields would be written.
+ * <p>
+ * When changing {@link JSONViewRow} or {@link JSONDocumentField}, please also change this serializer (JSONStreamedViewRowSerializerTest will catch the differences).
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+public class JSONStreamedViewRowSerializer extends JsonSerializer<JSONStreamedViewRow>
+{
+	@Override
+	public void serialize(final JSONStreamedViewRow jsonRow, final JsonGenerator gen, final SerializerProvider serializers) throws IOException
+	{
+		writeRow(jsonRow.getRow(), jsonRow.getRowOverrides(), jsonRow.getAdLanguage(), gen, serializers);
+	}
+
+	private static void writeRow(
+			final IViewRow row,
+			final IViewRowOverrides rowOverrides,
+			final String adLanguage,
+			final JsonGenerator gen,
+			final SerializerProvider serializers) throws IOException
+	{
+		gen.writeStartObject();
+
+		//
+		// JSONDocumentBase: id, fieldsByName (windowId, tabId, rowId, deleted are never set for view rows)
+		final String rowIdJson = row.getId().toJson();
+		if (rowIdJson != null && !rowIdJson.isEmpty())
+		{
+			gen.writeStringField("id", rowIdJson);
+		}
+		writeFields(row, rowIdJson, gen, serializers);
+
+		//
+		// JSONViewRow
+		final IViewRowType type = row.getType();
+		if (type != null && type.getIconName() != null)
+		{
+			gen.writeStringField("type", type.getIconName());
+		}
+		if (row.isProcessed())
+		{
+			gen.writeBooleanField("processed", true);
+		}
+		gen.writeBooleanField(JSONViewLayout.PROPERTY_supportAttributes, row.hasAttributes());
+
+		if (ViewRowOverridesHelper.extractSupportIncludedViews(row, rowOverrides))
+		{
+			gen.writeBooleanField("supportIncludedViews", true);
+
+			final ViewId includedViewId = ViewRowOverridesHelper.extractIncludedViewId(row, rowOverrides);
+			if (includedViewId != null)
+			{
+				gen.writeObjectFieldStart("includedView");
+				serializers.defaultSerializeField("windowId", includedViewId.getWindowId(), gen);
+				gen.writeStringField("viewId", includedViewId.getViewId());
+				gen.writeEndObject();
+			}
+		}
+
+		final Collection<? extends IViewRow> includedRows = row.getIncludedRows();
+		if (!includedRows.isEmpty())
+		{
+			gen.writeArrayFieldStart("includedDocuments");
+			for (final IViewRow includedRow : includedRows)
+			{
+				writeRow(includedRow, rowOverrides, adLanguage, gen, serializers);
+			}
+			gen.writeEndArray();
+		}
+
+		if (row.isSingleColumn())
+		{
+			gen.writeBooleanField("colspan", true);
+
+			final String caption = row.getSingleColumnCaption().translate(adLanguage);
+			if (caption != null)
+			{
+				gen.writeStringField("caption", caption);
+			}
+		}
+
+		gen.writeEndObject();
+	}
+
+	private static void writeFields(
+			final IViewRow row,
+			final String rowIdJson,
+			final JsonGenerator gen,
+			final SerializerProvider serializers) throws IOException
+	{
+		final Map<String, Object> valuesByFieldName = row.getFieldNameAndJsonValues();
+		final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName = row.getWidgetTypesByFieldName();
+		final Map<String, ViewEditorRenderMode> viewEditorRenderModeByFieldName = row.getViewEditorRenderModeByFieldName();
+		final Set<String> fieldNames = row.getFieldNames();
+
+		gen.writeObjectFieldStart("fieldsByName");
+
+		//
+		// Pseudo "ID" field first.
+		// NOTE: if the row has an "ID" field, it replaces the pseudo field but keeps it's position (same as JSONViewRow's LinkedHashMap does)
+		final String idFieldName = JSONDocumentField.FIELD_VALUE_ID;
+		if (fieldNames.contains(idFieldName))
+		{
+			writeField(idFieldName, valuesByFieldName, widgetTypesByFieldName, viewEditorRenderModeByFieldName, gen, serializers);
+		}
+		else
+		{
+			gen.writeObjectFieldStart(idFieldName);
+			gen.writeStringField("field", idFieldName);
+			gen.writeStringField("value", rowIdJson);
+			serializers.defaultSerializeField("widgetType", JSONLayoutWidgetType.Integer, gen);
+			gen.writeEndObject();
+		}
+
+		//
+		// The other fields
+		for (final String fieldName : fieldNames)
+		{
+			if (idFieldName.equals(fieldName))
+			{
+				continue;
+			}
+			writeField(fieldName, valuesByFieldName, widgetTypesByFieldName, viewEditorRenderModeByFieldName, gen, serializers);
+		}
+
+		gen.writeEndObject();
+	}
+
+	private static void writeField(
+			final String fieldName,
+			final Map<String, Object> valuesByFieldName,
+			final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName,
+			final Map<String, ViewEditorRenderMode> viewEditorRenderModeByFieldName,
+			final JsonGenerator gen,
+			final SerializerProvider serializers) throws IOException
+	{
+		gen.writeObjectFieldStart(fieldName);
+
+		// JSONDocumentField properties, in @JsonPropertyOrder order: field, value, (reasons, readonly, mandatory etc are never set for view rows), widgetType, viewEditorRenderMode
+		gen.writeStringField("field", fieldName);
+
+		final Object value = valuesByFieldName.get(fieldName);
+		if (value == null)
+		{
+			gen.writeNullField("value");
+		}
+		else
+		{
+			serializers.defaultSerializeField("value", value, gen);
+		}
+
+		final JSONLayoutWidgetType widgetType = JSONLayoutWidgetType.fromNullable(widgetTypesByFieldName.get(fieldName));
+		if (widgetType != null)
+		{
+			serializers.defaultSerializeField("widgetType", widgetType, gen);
+		}
+
+		final ViewEditorRenderMode viewEditorRenderMode = viewEditorRenderModeByFieldName.get(fieldName);
+		final String viewEditorRenderModeJson = viewEditorRenderMode != null ? viewEditorRenderMode.toJson() : null;
+		if (viewEditorRenderModeJson != null)
+		{
+			gen.writeStringField("viewEditorRenderMode", viewEditorRenderModeJson);
+		}
+
+		gen.writeEndObject();
+	}
+}
@@ -53,7 +53,7 @@ public final class JSONViewResult
 		if (viewResult.isPageLoaded())
 		{
 			final List<IViewRow> rows = viewResult.getPage();
-			jsonRows = JSONViewRow.ofViewRows(rows, rowOverrides, adLanguage);
+			jsonRows = JSONStreamedViewRow.ofViewRows(rows, rowOverrides, adLanguage);
 		}
 		else
 		{
@@ -38,4 +38,17 @@ public interface WebSocketProducer
 	 * @return event (JSON friendly)
 	 */
 	Object produceEvent();
+
+	/**
+	 * Checks if the newly produced event is the same as the previously sent one, so it's not needed to send it again.
+	 * By default, events are considered always changed.
+	 * 
+	 * @param previousEvent previously sent event (never null)
+	 * @param event newly produced event
+	 * @return true if the event does not need to be sent again
+	 */
+	default boolean isSameEvent(final Object previousEvent, final Object event)
+	{
+		return false;
+	}
 }
\ No newline at end of file
@@ -2,12 +2,18 @@ package de.metas.ui.web.websocket;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 import javax.annotation.PostConstruct;
 
@@ -16,9 +22,11 @@ import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 
 import de.metas.logging.LogManager;
@@ -53,6 +61,7 @@ import lombok.NonNull;
  * <ul>
  * <li>automatically registering all {@link WebSocketProducerFactory} implementations which were found in spring context
  * <li>as soon as there is a subscriber for a websocket topic it will create/start a {@link WebSocketProducer} and it will call it on a given rate.
+ * Producers are called on a worker pool; stuck or failing producers are timed out and backed off, and unchanged events are sent only on heartbeat.
  * </ul>
  *
  * @author metas-dev <dev@metasfresh.com>
@@ -64,6 +73,8 @@ public final class WebSocketProducersRegistry
 	private static final Logger logger = LogManager.getLogger(WebSocketProducersRegistry.class);
 
 	private final ScheduledExecutorService scheduler;
+	private final ExecutorService workers;
+	private final ProducerSchedulingSettings settings;
 	@Autowired
 	private WebsocketSender websocketSender;
 	@Autowired
@@ -71,13 +82,45 @@ public final class WebSocketProducersRegistry
 
 	private final ConcurrentHashMap<String, WebSocketProducerFactory> _producerFactoriesByTopicNamePrefix = new ConcurrentHashMap<>();
 	private final ConcurrentHashMap<String, WebSocketProducerInstance> _producersByTopicName = new ConcurrentHashMap<>();
-
-	public WebSocketProducersRegistry()
+	private final ConcurrentHashMap<String, Set<String>> _topicNamesBySessionId = new ConcurrentHashMap<>();
+
+	public WebSocketProducersRegistry(
+			@Value("${metasfresh.webui.websocket.producers.schedulerThreads:2}") final int schedulerThreads,
+			@Value("${metasfresh.webui.websocket.producers.workerThreads:10}") final int workerThreads,
+			@Value("${metasfresh.webui.websocket.producers.workerQueueCapacity:1000}") final int workerQueueCapacity,
+			@Value("${metasfresh.webui.websocket.producers.periodMillis:1000}") final long periodMillis,
+			@Value("${metasfresh.webui.websocket.producers.timeoutMillis:5000}") final long timeoutMillis,
+			@Value("${metasfresh.webui.websocket.producers.heartbeatMillis:10000}") final long heartbeatMillis,
+			@Value("${metasfresh.webui.websocket.producers.maxBackoffMillis:60000}") final long maxBackoffMillis)
 	{
-		scheduler = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+		settings = ProducerSchedulingSettings.builder()
+				.periodMillis(Math.max(periodMillis, 100))
+				.timeoutMillis(Math.max(timeoutMillis, 100))
+				.heartbeatMillis(heartbeatMillis)
+				.maxBackoffMillis(Math.max(maxBackoffMillis, periodMillis))
+				.build();
+
+		// NOTE: the scheduler threads are only used to dispatch the producers to workers, so they will never get blocked by a slow producer
+		scheduler = Executors.newScheduledThreadPool(Math.max(schedulerThreads, 1), CustomizableThreadFactory.builder()
 				.setThreadNamePrefix(getClass().getName())
 				.setDaemon(true)
 				.build());
+		// NOTE: there is at most one running call per producer; if all workers are busy and the queue is full, the call is considered failed and retried later
+		final int workerThreadsEffective = Math.max(workerThreads, 1);
+		final ThreadPoolExecutor workersExecutor = new ThreadPoolExecutor(
+				workerThreadsEffective,
+				workerThreadsEffective,
+				60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(workerQueueCapacity, 1)),
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix(getClass().getName() + "-worker")
+						.setDaemon(true)
+						.build(),
+				new ThreadPoolExecutor.AbortPolicy());
+		workersExecutor.allowCoreThreadTimeOut(true);
+		this.workers = workersExecutor;
+
+		logger.info("Producer scheduling settings: {}, workerThreads={}, workerQueueCapacity={}", settings, workerThreads, workerQueueCapacity);
 	}
 
 	@PostConstruct
@@ -146,7 +189,7 @@ public final class WebSocketProducersRegistry
 
 		return _producersByTopicName.computeIfAbsent(topicName, k -> {
 			final WebSocketProducer producer = producerFactory.createProducer(topicName);
-			return new WebSocketProducerInstance(topicName, producer, scheduler, websocketSender);
+			return new WebSocketProducerInstance(topicName, producer, settings, scheduler, workers, websocketSender, System::currentTimeMillis);
 		});
 	}
 
@@ -155,12 +198,6 @@ public final class WebSocketProducersRegistry
 		return _producersByTopicName.get(topicName);
 	}
 
-	private void forEachExistingWebSocketProducerInstance(final Consumer<WebSocketProducerInstance> action)
-	{
-		final long parallelismThreshold = Long.MAX_VALUE;
-		_producersByTopicName.forEachValue(parallelismThreshold, action);
-	}
-
 	public void onTopicSubscribed(final String sessionId, final String topicName)
 	{
 		final WebSocketProducerInstance producer = getCreateWebSocketProducerInstanceOrNull(topicName);
@@ -169,6 +206,11 @@ public final class WebSocketProducersRegistry
 			return;
 		}
 
+		_topicNamesBySessionId.compute(sessionId, (k, sessionTopicNames) -> {
+			final Set<String> sessionTopicNamesEffective = sessionTopicNames != null ? sessionTopicNames : ConcurrentHashMap.newKeySet();
+			sessionTopicNamesEffective.add(topicName);
+			return sessionTopicNamesEffective;
+		});
 		producer.subscribe(sessionId);
 	}
 
@@ -186,36 +228,95 @@ public final class WebSocketProducersRegistry
 			return;
 		}
 
+		// NOTE: remove the session's entry when it has no topics left, so we don't accumulate empty sets
+		_topicNamesBySessionId.computeIfPresent(sessionId, (k, sessionTopicNames) -> {
+			sessionTopicNames.remove(topicName);
+			return sessionTopicNames.isEmpty() ? null : sessionTopicNames;
+		});
+
 		producer.unsubscribe(sessionId);
 	}
 
 	public void onSessionDisconnect(final String sessionId)
 	{
-		forEachExistingWebSocketProducerInstance(producer -> producer.unsubscribe(sessionId));
+		if (sessionId == null)
+		{
+			return;
+		}
+
+		final Set<String> sessionTopicNames = _topicNamesBySessionId.remove(sessionId);
+		if (sessionTopicNames == null || sessionTopicNames.isEmpty())
+		{
+			return;
+		}
+
+		for (final String topicName : sessionTopicNames)
+		{
+			final WebSocketProducerInstance producer = getExistingWebSocketProducerInstanceOrNull(topicName);
+			if (producer != null)
+			{
+				producer.unsubscribe(sessionId);
+			}
+		}
+	}
+
+	@lombok.Value
+	@lombok.Builder
+	@VisibleForTesting
+	static final class ProducerSchedulingSettings
+	{
+		/** How often a producer is called */
+		long periodMillis;
+		/** How long a producer is allowed to run until it's considered stuck and it's interrupted */
+		long timeoutMillis;
+		/** If an event was not changed, it will be sent again only after this interval. Zero or negative means always send. */
+		long heartbeatMillis;
+		/** Max time to wait before calling a failing/stuck producer again */
+		long maxBackoffMillis;
 	}
 
-	private static final class WebSocketProducerInstance
+	@VisibleForTesting
+	static final class WebSocketProducerInstance
 	{
 		// private static final transient Logger logger = LogManager.getLogger(WebSocketProducerInstance.class);
 
 		private final String topicName;
 		private final WebSocketProducer producer;
+		private final ProducerSchedulingSettings settings;
 		private final ScheduledExecutorService scheduler;
+		private final ExecutorService workers;
 		private final WebsocketSender websocketSender;
+		private final LongSupplier clock;
 
 		private final Set<String> subscribedSessionIds = new HashSet<>();
 		private ScheduledFuture<?> scheduledFuture;
 
-		private WebSocketProducerInstance(
+		/** Currently running producer call (if any); accessed only from scheduler tick and subscribe/unsubscribe */
+		private Future<?> runningFuture;
+		private long runningSinceMillis;
+
+		private volatile Object lastSentEvent;
+		private volatile long lastSentMillis;
+		private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+		private volatile long backoffUntilMillis;
+
+		@VisibleForTesting
+		WebSocketProducerInstance(
 				@NonNull final String topicName,
 				@NonNull final WebSocketProducer producer,
+				@NonNull final ProducerSchedulingSettings settings,
 				@NonNull final ScheduledExecutorService scheduler,
-				@NonNull final WebsocketSender websocketSender)
+				@NonNull final ExecutorService workers,
+				@NonNull final WebsocketSender websocketSender,
+				@NonNull final LongSupplier clock)
 		{
 			this.topicName = topicName;
 			this.producer = producer;
+			this.settings = settings;
 			this.scheduler = scheduler;
+			this.workers = workers;
 			this.websocketSender = websocketSender;
+			this.clock = clock;
 		}
 
 		@Override
@@ -239,6 +340,10 @@ public final class WebSocketProducersRegistry
 
 			logger.trace("{}: session {} subscribed", this, sessionId);
 
+			//
+			// Make sure the new subscriber gets the current value on next run, even if it was not changed
+			lastSentEvent = null;
+
 			//
 			// Check if the producer was already scheduled
 			if (scheduledFuture != null)
@@ -248,9 +353,11 @@ public final class WebSocketProducersRegistry
 
 			//
 			// Schedule producer
-			final long initialDelayMillis = 1000;
-			final long periodMillis = 1000;
-			scheduledFuture = scheduler.scheduleAtFixedRate(this::executeAndPublish, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+			consecutiveFailures.set(0);
+			backoffUntilMillis = 0;
+			final long initialDelayMillis = settings.getPeriodMillis();
+			final long periodMillis = settings.getPeriodMillis();
+			scheduledFuture = scheduler.scheduleAtFixedRate(this::tick, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
 			logger.trace("{}: start producing using initialDelayMillis={}, periodMillis={}", this, initialDelayMillis, periodMillis);
 		}
 
@@ -280,21 +387,108 @@ public final class WebSocketProducersRegistry
 			}
 			scheduledFuture = null;
 
+			if (runningFuture != null)
+			{
+				runningFuture.cancel(true);
+				runningFuture = null;
+			}
+			lastSentEvent = null;
+
 			logger.debug("{} stopped", this);
 		}
 
+		/**
+		 * Called by scheduler on each period. It only dispatches the producer call to a worker thread, so a slow producer will not block other producers.
+		 */
+		@VisibleForTesting
+		synchronized void tick()
+		{
+			final long now = clock.getAsLong();
+
+			//
+			// Check if previous call is still running
+			if (runningFuture != null && !runningFuture.isDone())
+			{
+				if (now - runningSinceMillis >= settings.getTimeoutMillis())
+				{
+					runningFuture.cancel(true);
+					runningFuture = null;
+					onProduceFailed("timeout after " + (now - runningSinceMillis) + "ms", null);
+				}
+				return;
+			}
+
+			//
+			// Check if we are backing off
+			if (now < backoffUntilMillis)
+			{
+				return;
+			}
+
+			runningSinceMillis = now;
+			try
+			{
+				runningFuture = workers.submit(this::executeAndPublish);
+			}
+			catch (final RejectedExecutionException ex)
+			{
+				runningFuture = null;
+				onProduceFailed("all workers are busy", ex);
+			}
+		}
+
 		private void executeAndPublish()
 		{
 			try
 			{
 				final Object event = producer.produceEvent();
+				if (Thread.currentThread().isInterrupted())
+				{
+					// timed out or stopped meanwhile
+					return;
+				}
+
+				consecutiveFailures.set(0);
+
+				//
+				// Skip unchanged events, unless the heartbeat interval elapsed
+				final long now = clock.getAsLong();
+				final Object lastSentEvent = this.lastSentEvent;
+				if (lastSentEvent != null
+						&& producer.isSameEvent(lastSentEvent, event)
+						&& (settings.getHeartbeatMillis() <= 0 || now - lastSentMillis < settings.getHeartbeatMillis()))
+				{
+					logger.trace("Skip sending unchanged event to {}: {}", topicName, event);
+					return;
+				}
+
 				websocketSender.convertAndSend(topicName, event);
+				this.lastSentEvent = event;
+				this.lastSentMillis = now;
 
 				logger.trace("Event sent to {}: {}", topicName, event);
 			}
 			catch (final Exception ex)
 			{
-				logger.warn("Failed producing event for {}. Ignored.", this, ex);
+				onProduceFailed(ex.getLocalizedMessage(), ex);
+			}
+		}
+
+		private void onProduceFailed(final String reason, final Exception ex)
+		{
+			final int failures = consecutiveFailures.incrementAndGet();
+
+			// exponential backoff: period * 2^(failures-1), capped to maxBackoffMillis
+			final long backoffMillis = Math.min(settings.getPeriodMillis() << Math.min(failures - 1, 16), settings.getMaxBackoffMillis());
+			backoffUntilMillis = clock.getAsLong() + backoffMillis;
+
+			if (failures == 1)
+			{
+				logger.warn("Failed producing event for {} ({}). Retrying in {}ms.", this, reason, backoffMillis, ex);
+			}
+			else
+			{
+				logger.debug("Failed producing event for {} ({}), failures={}. Retrying in {}ms.", this, reason, failures, backoffMillis, ex);
 			}
 		}
 	}
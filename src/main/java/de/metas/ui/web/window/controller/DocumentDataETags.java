@@ -0,0 +1,292 @@
+package de.metas.ui.web.window.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.adempiere.ad.expression.api.LogicExpressionResult;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.json.JSONDocument;
+import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.IDocumentFieldView;
+import de.metas.ui.web.window.model.IIncludedDocumentsCollection;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Computes ETags for document data responses and keeps snapshots of the sent fields, so we can send only the fields which were changed since client's version (delta mode).
+ * 
+ * The ETag is derived from the documents versions (i.e. Updated), the evaluated state of each field (value, lookup display name, readonly, mandatory, displayed, valid status),
+ * the included tabs status and the request "variant" (path, language, flags, permissions etc).
+ * So virtual columns, lookup display names or context dependent logic which changed without changing the Updated timestamp are producing a different ETag.
+ * If one of the documents is new or it has unsaved changes, no ETag is computed.
+ * 
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class DocumentDataETags
+{
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	/** fields fingerprints (indexed by document key and field name), indexed by ETag */
+	private final Cache<String, ImmutableMap<String, ImmutableMap<String, Long>>> snapshotsByETag = CacheBuilder.newBuilder()
+			.maximumSize(5000)
+			.expireAfterAccess(10, TimeUnit.MINUTES)
+			.build();
+
+	/**
+	 * Creates the response for given documents: 304 Not Modified if client's version is still current, else the documents,
+	 * having only the changed fields if <code>delta</code> was requested.
+	 * 
+	 * @param variant everything else the JSON depends on (e.g. document path, language, advanced flag, fields list, permissions)
+	 * @param jsonDocumentsSupplier converts the documents to JSON, in the same order; called only if the documents have to be sent
+	 */
+	public ResponseEntity<List<JSONDocument>> createResponse(
+			@NonNull final List<Document> documents,
+			@NonNull final String variant,
+			@NonNull final String adLanguage,
+			final boolean delta,
+			@NonNull final WebRequest request,
+			@NonNull final Supplier<List<JSONDocument>> jsonDocumentsSupplier)
+	{
+		final DocumentsSnapshot snapshot = computeSnapshot(documents, variant, adLanguage);
+		if (snapshot == null)
+		{
+			return ResponseEntity.ok(jsonDocumentsSupplier.get());
+		}
+
+		final String etag = snapshot.getEtag();
+		if (request.checkNotModified(etag))
+		{
+			// Response: 304 Not Modified
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+
+		final List<JSONDocument> jsonDocuments = jsonDocumentsSupplier.get();
+
+		//
+		// Delta mode: send only the fields which were changed since client's version
+		if (delta)
+		{
+			snapshotsByETag.asMap().putIfAbsent(etag, snapshot.getFieldFingerprintsByDocumentKey());
+			convertToDelta(request.getHeader(HttpHeaders.IF_NONE_MATCH), snapshot, jsonDocuments);
+		}
+
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.body(jsonDocuments);
+	}
+
+	/**
+	 * @return snapshot or <code>null</code> if the ETag cannot be computed
+	 */
+	@VisibleForTesting
+	static DocumentsSnapshot computeSnapshot(@NonNull final Collection<Document> documents, @NonNull final String variant, @NonNull final String adLanguage)
+	{
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		hasher.putString(variant, StandardCharsets.UTF_8);
+		hasher.putInt(documents.size());
+
+		final ImmutableMap.Builder<String, ImmutableMap<String, Long>> fieldFingerprintsByDocumentKey = ImmutableMap.builder();
+		for (final Document document : documents)
+		{
+			final String version = document.getVersionIfNotChanged();
+			if (version == null)
+			{
+				return null;
+			}
+
+			final String documentKey = document.getDocumentPath().toString();
+			hasher.putString(documentKey, StandardCharsets.UTF_8);
+			hasher.putString(version, StandardCharsets.UTF_8);
+			hasher.putString(String.valueOf(document.getValidStatus()), StandardCharsets.UTF_8);
+			hasher.putString(String.valueOf(document.getStandardActions()), StandardCharsets.UTF_8);
+
+			for (final IIncludedDocumentsCollection includedDocuments : document.getIncludedDocumentsCollections())
+			{
+				hasher.putString(includedDocuments.getDetailId().toJson(), StandardCharsets.UTF_8);
+				hasher.putBoolean(includedDocuments.isStale());
+				putLogicExpressionResult(hasher, includedDocuments.getAllowCreateNewDocument());
+				putLogicExpressionResult(hasher, includedDocuments.getAllowDeleteDocument());
+			}
+
+			final ImmutableMap.Builder<String, Long> fieldFingerprints = ImmutableMap.builder();
+			for (final IDocumentFieldView field : document.getFieldViews())
+			{
+				final long fieldFingerprint = computeFieldFingerprint(field, adLanguage);
+				fieldFingerprints.put(field.getFieldName(), fieldFingerprint);
+
+				hasher.putString(field.getFieldName(), StandardCharsets.UTF_8);
+				hasher.putLong(fieldFingerprint);
+			}
+			fieldFingerprintsByDocumentKey.put(documentKey, fieldFingerprints.build());
+		}
+
+		return new DocumentsSnapshot("d-" + hasher.hash().toString(), fieldFingerprintsByDocumentKey.build());
+	}
+
+	private static long computeFieldFingerprint(final IDocumentFieldView field, final String adLanguage)
+	{
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		putValue(hasher, field.getValue(), adLanguage);
+		putLogicExpressionResult(hasher, field.getReadonly());
+		putLogicExpressionResult(hasher, field.getMandatory());
+		putLogicExpressionResult(hasher, field.getDisplayed());
+		hasher.putBoolean(field.isLookupValuesStale());
+		hasher.putString(String.valueOf(field.getValidStatus()), StandardCharsets.UTF_8);
+		return hasher.hash().asLong();
+	}
+
+	private static void putValue(final Hasher hasher, final Object value, final String adLanguage)
+	{
+		if (value == null)
+		{
+			hasher.putBoolean(false);
+		}
+		else if (value instanceof LookupValue)
+		{
+			putLookupValue(hasher, (LookupValue)value, adLanguage);
+		}
+		else if (value instanceof LookupValuesList)
+		{
+			for (final LookupValue lookupValue : (LookupValuesList)value)
+			{
+				putLookupValue(hasher, lookupValue, adLanguage);
+			}
+		}
+		else
+		{
+			hasher.putBoolean(true);
+			hasher.putString(value.toString(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void putLookupValue(final Hasher hasher, final LookupValue lookupValue, final String adLanguage)
+	{
+		hasher.putString(String.valueOf(lookupValue.getId()), StandardCharsets.UTF_8);
+		hasher.putString(String.valueOf(lookupValue.getDisplayName(adLanguage)), StandardCharsets.UTF_8);
+	}
+
+	private static void putLogicExpressionResult(final Hasher hasher, final LogicExpressionResult result)
+	{
+		if (result == null)
+		{
+			hasher.putByte((byte)0);
+		}
+		else
+		{
+			hasher.putByte(result.booleanValue() ? (byte)1 : (byte)2);
+		}
+	}
+
+	/**
+	 * Removes from given documents all fields which were not changed since the snapshot identified by <code>previousETag</code>.
+	 * 
+	 * @param jsonDocuments JSON documents, in the same order as the documents from <code>snapshot</code>
+	 * @return true if the documents were converted to delta, false if there is no matching snapshot (in this case the documents are not changed)
+	 */
+	private boolean convertToDelta(final String previousETag, final DocumentsSnapshot snapshot, final List<JSONDocument> jsonDocuments)
+	{
+		if (previousETag == null)
+		{
+			return false;
+		}
+
+		final ImmutableMap<String, ImmutableMap<String, Long>> previousSnapshot = snapshotsByETag.getIfPresent(normalizeETag(previousETag));
+		if (previousSnapshot == null)
+		{
+			return false;
+		}
+
+		// If documents were added or removed, send everything because we cannot express removed documents in delta mode
+		final ImmutableMap<String, ImmutableMap<String, Long>> currentSnapshot = snapshot.getFieldFingerprintsByDocumentKey();
+		if (!previousSnapshot.keySet().equals(currentSnapshot.keySet()) || currentSnapshot.size() != jsonDocuments.size())
+		{
+			return false;
+		}
+
+		int index = 0;
+		for (final Map.Entry<String, ImmutableMap<String, Long>> documentKeyAndFingerprints : currentSnapshot.entrySet())
+		{
+			final ImmutableMap<String, Long> currentFingerprints = documentKeyAndFingerprints.getValue();
+			final ImmutableMap<String, Long> previousFingerprints = previousSnapshot.get(documentKeyAndFingerprints.getKey());
+
+			final JSONDocument jsonDocument = jsonDocuments.get(index);
+			jsonDocument.retainFields(field -> {
+				final Long currentFingerprint = currentFingerprints.get(field.getField());
+				return currentFingerprint == null || !currentFingerprint.equals(previousFingerprints.get(field.getField()));
+			});
+			jsonDocument.setDelta();
+
+			index++;
+		}
+
+		return true;
+	}
+
+	private static String normalizeETag(final String etag)
+	{
+		String etagNorm = etag.trim();
+		if (etagNorm.startsWith("W/"))
+		{
+			etagNorm = etagNorm.substring(2);
+		}
+		if (etagNorm.length() >= 2 && etagNorm.startsWith("\"") && etagNorm.endsWith("\""))
+		{
+			etagNorm = etagNorm.substring(1, etagNorm.length() - 1);
+		}
+		return etagNorm;
+	}
+
+	@Value
+	@VisibleForTesting
+	static final class DocumentsSnapshot
+	{
+		private final String etag;
+		/** fields fingerprints (indexed by field name), indexed by document key, in documents order */
+		private final ImmutableMap<String, ImmutableMap<String, Long>> fieldFingerprintsByDocumentKey;
+	}
+}
@@ -1,5 +1,6 @@
 package de.metas.ui.web.window.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -8,6 +9,7 @@ import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.Services;
 import org.adempiere.util.lang.impl.TableRecordReference;
+import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -23,12 +25,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.i18n.IMsgBL;
+import de.metas.logging.LogManager;
 import de.metas.ui.web.cache.ETagResponseEntityBuilder;
+import de.metas.ui.web.cache.JSONResponsesCache;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.menu.MenuTree;
@@ -101,10 +106,13 @@ import io.swagger.annotations.ApiParam;
 @RequestMapping(value = WindowRestController.ENDPOINT)
 public class WindowRestController
 {
+	private static final Logger logger = LogManager.getLogger(WindowRestController.class);
+
 	public static final String ENDPOINT = WebConfig.ENDPOINT_ROOT + "/window";
 	private static final String PARAM_Advanced = "advanced";
 	private static final String PARAM_Advanced_DefaultValue = "false";
 	private static final String PARAM_FieldsList = "fields";
+	private static final String PARAM_Delta = "delta";
 
 	private static final ReasonSupplier REASON_Value_DirectSetFromCommitAPI = () -> "direct set from commit API";
 
@@ -128,6 +136,12 @@ public class WindowRestController
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
 
+	@Autowired
+	private JSONResponsesCache jsonResponsesCache;
+
+	@Autowired
+	private DocumentDataETags documentDataETags;
+
 	private JSONOptions.Builder newJSONOptions()
 	{
 		return JSONOptions.builder(userSession)
@@ -135,7 +149,7 @@ public class WindowRestController
 	}
 
 	@GetMapping("/{windowId}/layout")
-	public ResponseEntity<JSONDocumentLayout> getLayout(
+	public ResponseEntity<byte[]> getLayout(
 			@PathVariable("windowId") final String windowIdStr,
 			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
 			final WebRequest request)
@@ -152,11 +166,11 @@ public class WindowRestController
 				.map(DocumentDescriptor::getLayout)
 				//
 				.jsonOptions(() -> newJSONOptions().setShowAdvancedFields(advanced).build())
-				.toJson(JSONDocumentLayout::ofHeaderLayout);
+				.toCachedJson(jsonResponsesCache, "layout:" + windowId, userSession.getUserRolePermissionsKey(), JSONDocumentLayout::ofHeaderLayout);
 	}
 
 	@GetMapping("/{windowId}/{tabId}/layout")
-	public ResponseEntity<JSONDocumentLayout> getLayout(
+	public ResponseEntity<byte[]> getLayout(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("tabId") final String tabIdStr,
 			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
@@ -176,56 +190,68 @@ public class WindowRestController
 				.map(desc -> desc.getLayout().getDetail(detailId))
 				//
 				.jsonOptions(() -> newJSONOptions().setShowAdvancedFields(advanced).build())
-				.toJson(JSONDocumentLayout::ofDetailTab);
+				.toCachedJson(jsonResponsesCache, "layout:" + windowId + "/" + detailId, userSession.getUserRolePermissionsKey(), JSONDocumentLayout::ofDetailTab);
 	}
 
 	@GetMapping("/{windowId}/{documentId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("documentId") final String documentIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
-			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced)
+			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
+			@RequestParam(name = PARAM_Delta, required = false, defaultValue = "false") @ApiParam("if true, only the fields changed since the version from If-None-Match are returned") final boolean delta,
+			final WebRequest request)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentIdStr);
 		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, delta, request);
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable("documentId") final String documentIdStr,
 			@PathVariable("tabId") final String tabIdStr,
 			@RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr,
 			@RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced,
-			@RequestParam(name = "orderBy", required = false) final String orderBysListStr)
+			@RequestParam(name = "orderBy", required = false) final String orderBysListStr,
+			@RequestParam(name = PARAM_Delta, required = false, defaultValue = "false") @ApiParam("if true, only the fields changed since the version from If-None-Match are returned") final boolean delta,
+			final WebRequest request)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentId documentId = DocumentId.of(documentIdStr);
 		final DetailId tabId = DetailId.fromJson(tabIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentId, tabId);
 		final List<DocumentQueryOrderBy> orderBys = DocumentQueryOrderBy.parseOrderBysList(orderBysListStr);
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, delta, request);
 	}
 
 	@GetMapping("/{windowId}/{documentId}/{tabId}/{rowId}")
-	public List<JSONDocument> getData(
+	public ResponseEntity<List<JSONDocument>> getData(
 			@PathVariable("windowId") final String windowIdStr //
 			, @PathVariable("documentId") final String documentIdStr //
 			, @PathVariable("tabId") final String tabIdStr //
 			, @PathVariable("rowId") final String rowIdStr //
 			, @RequestParam(name = PARAM_FieldsList, required = false) @ApiParam("comma separated field names") final String fieldsListStr //
 			, @RequestParam(name = PARAM_Advanced, required = false, defaultValue = PARAM_Advanced_DefaultValue) final boolean advanced //
+			, @RequestParam(name = PARAM_Delta, required = false, defaultValue = "false") @ApiParam("if true, only the fields changed since the version from If-None-Match are returned") final boolean delta //
+			, final WebRequest request //
 	)
 	{
 		final WindowId windowId = WindowId.fromJson(windowIdStr);
 		final DocumentPath documentPath = DocumentPath.includedDocumentPath(windowId, documentIdStr, tabIdStr, rowIdStr);
 		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of();
-		return getData(documentPath, fieldsListStr, advanced, orderBys);
+		return getData(documentPath, fieldsListStr, advanced, orderBys, delta, request);
 	}
 
-	private List<JSONDocument> getData(final DocumentPath documentPath, final String fieldsListStr, final boolean advanced, final List<DocumentQueryOrderBy> orderBys)
+	private ResponseEntity<List<JSONDocument>> getData(
+			final DocumentPath documentPath,
+			final String fieldsListStr,
+			final boolean advanced,
+			final List<DocumentQueryOrderBy> orderBys,
+			final boolean delta,
+			final WebRequest request)
 	{
 		userSession.assertLoggedIn();
 
@@ -235,7 +261,7 @@ public class WindowRestController
 				.build();
 
 		return documentCollection.forRootDocumentReadonly(documentPath, rootDocument -> {
-			List<Document> documents;
+			final List<Document> documents;
 			if (documentPath.isRootDocument())
 			{
 				documents = ImmutableList.of(rootDocument);
@@ -253,10 +279,27 @@ public class WindowRestController
 				throw new InvalidDocumentPathException(documentPath);
 			}
 
-			return JSONDocument.ofDocumentsList(documents, jsonOpts);
+			return documentDataETags.createResponse(
+					documents,
+					buildDataETagVariant(documentPath, jsonOpts, fieldsListStr, orderBys),
+					jsonOpts.getAD_Language(),
+					delta,
+					request,
+					() -> JSONDocument.ofDocumentsList(documents, jsonOpts));
 		});
 	}
 
+	private String buildDataETagVariant(final DocumentPath documentPath, final JSONOptions jsonOpts, final String fieldsListStr, final List<DocumentQueryOrderBy> orderBys)
+	{
+		return documentPath
+				+ "#" + jsonOpts.getAD_Language()
+				+ "#" + jsonOpts.isShowAdvancedFields()
+				+ "#" + jsonOpts.isDebugShowColumnNamesForCaption()
+				+ "#" + fieldsListStr
+				+ "#" + orderBys
+				+ "#" + userSession.getUserRolePermissionsKey();
+	}
+
 	/**
 	 * 
 	 * @param windowIdStr
@@ -706,6 +749,59 @@ public class WindowRestController
 		return JSONDocumentReferencesGroupList.of(documentReferences, menuTree, othersMenuCaption, jsonOpts);
 	}
 
+	/**
+	 * Streams the document references as server sent events, one {@link JSONDocumentReference} per event, as soon as each of them was computed.
+	 * The emitter completes after the last reference.
+	 */
+	@GetMapping(value = "/{windowId}/{documentId}/references/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamDocumentReferences(
+			@PathVariable("windowId") final String windowIdStr //
+			, @PathVariable("documentId") final String documentId //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final WindowId windowId = WindowId.fromJson(windowIdStr);
+		final DocumentPath documentPath = DocumentPath.rootDocumentPath(windowId, documentId);
+		final JSONOptions jsonOpts = newJSONOptions().build();
+
+		final SseEmitter emitter = new SseEmitter();
+		documentReferencesService.streamDocumentReferences(documentPath, documentReference -> sendDocumentReference(emitter, documentReference, jsonOpts))
+				.whenComplete((documentReferences, ex) -> {
+					if (ex != null)
+					{
+						emitter.completeWithError(ex);
+					}
+					else
+					{
+						emitter.complete();
+					}
+				});
+
+		return emitter;
+	}
+
+	private static void sendDocumentReference(final SseEmitter emitter, final DocumentReference documentReference, final JSONOptions jsonOpts)
+	{
+		final JSONDocumentReference jsonDocumentReference = JSONDocumentReference.of(documentReference, jsonOpts);
+		if (jsonDocumentReference == null)
+		{
+			return;
+		}
+
+		try
+		{
+			emitter.send(SseEmitter.event()
+					.name("reference")
+					.data(jsonDocumentReference, MediaType.APPLICATION_JSON));
+		}
+		catch (final IOException | IllegalStateException ex)
+		{
+			// the client is gone; we still continue computing the references because they will be cached
+			logger.debug("Failed sending {}. Ignored.", documentReference, ex);
+		}
+	}
+
 	@GetMapping("/{windowId}/{documentId}/print/{filename:.*}")
 	public ResponseEntity<byte[]> getDocumentPrint(
 			@PathVariable("windowId") final String windowIdStr //
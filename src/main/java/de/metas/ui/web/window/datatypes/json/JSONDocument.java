@@ -303,6 +303,11 @@ public final class JSONDocument extends JSONDocumentBase
 	@JsonProperty("timestamp")
 	@JsonInclude(JsonInclude.Include.NON_EMPTY)
 	private String timestamp;
+
+	/** true if only the fields which were changed since client's version are included */
+	@JsonProperty("delta")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Boolean delta;
 	
 	private JSONDocument(final DocumentPath documentPath)
 	{
@@ -330,6 +335,11 @@ public final class JSONDocument extends JSONDocumentBase
 		}
 	}
 
+	public void setDelta()
+	{
+		this.delta = Boolean.TRUE;
+	}
+
 	private void setValidStatus(final DocumentValidStatus validStatus)
 	{
 		this.validStatus = validStatus;
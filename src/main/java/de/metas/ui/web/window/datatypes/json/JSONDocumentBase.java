@@ -3,6 +3,7 @@ package de.metas.ui.web.window.datatypes.json;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
@@ -16,6 +17,7 @@ import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.exceptions.InvalidDocumentPathException;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -218,4 +220,24 @@ public abstract class JSONDocumentBase
 	{
 		return fieldsByName == null ? 0 : fieldsByName.size();
 	}
+
+	/**
+	 * Removes all fields which are not matching given filter (e.g. when only the changed fields shall be sent).
+	 */
+	public final void retainFields(@NonNull final Predicate<JSONDocumentField> filter)
+	{
+		if (fieldsByName == null || fieldsByName.isEmpty())
+		{
+			return;
+		}
+
+		final Map<String, JSONDocumentField> fieldsByNameNew = new LinkedHashMap<>();
+		fieldsByName.forEach((fieldName, field) -> {
+			if (filter.test(field))
+			{
+				fieldsByNameNew.put(fieldName, field);
+			}
+		});
+		this.fieldsByName = fieldsByNameNew;
+	}
 }
@@ -44,7 +44,8 @@ import de.metas.ui.web.window.model.DocumentReference;
 @JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
 public final class JSONDocumentReference
 {
-	static final JSONDocumentReference of(final DocumentReference documentReference, final JSONOptions jsonOpts)
+	/** @return JSON document reference or <code>null</code> if it could not be converted */
+	public static final JSONDocumentReference of(final DocumentReference documentReference, final JSONOptions jsonOpts)
 	{
 		try
 		{
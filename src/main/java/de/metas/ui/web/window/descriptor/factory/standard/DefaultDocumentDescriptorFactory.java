@@ -1,14 +1,22 @@
 package de.metas.ui.web.window.descriptor.factory.standard;
 
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.Nullable;
 
 import org.compiere.model.I_AD_Window;
 import org.compiere.util.CCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentDescriptor;
 import de.metas.ui.web.window.descriptor.factory.DocumentDescriptorFactory;
@@ -40,17 +48,24 @@ import lombok.NonNull;
 @Service
 public class DefaultDocumentDescriptorFactory implements DocumentDescriptorFactory
 {
-	private final CCache<WindowId, DocumentDescriptor> documentDescriptorsByWindowId = new CCache<>(I_AD_Window.Table_Name + "#DocumentDescriptor", 50);
+	private final CCache<WindowId, DocumentDescriptor> documentDescriptorsByWindowId;
 
 	private final Set<WindowId> unsupportedWindowIds = new HashSet<>();
 
-	/* package */ DefaultDocumentDescriptorFactory()
+	/** Usage counters, used to find out which descriptors shall be warmed up on next startup */
+	private final Map<WindowId, LongAdder> usageCountersByWindowId = new ConcurrentHashMap<>();
+
+	/* package */ DefaultDocumentDescriptorFactory(
+			@Value("${metasfresh.webui.descriptors.cacheSize:500}") final int cacheSize)
 	{
+		documentDescriptorsByWindowId = CCache.newLRUCache(I_AD_Window.Table_Name + "#DocumentDescriptor", Math.max(cacheSize, 50), 0);
 	}
 
 	@Override
 	public DocumentDescriptor getDocumentDescriptor(@NonNull final WindowId windowId)
 	{
+		usageCountersByWindowId.computeIfAbsent(windowId, k -> new LongAdder()).increment();
+
 		try
 		{
 			return documentDescriptorsByWindowId.getOrLoad(windowId, () -> new DefaultDocumentDescriptorLoader(windowId.toInt()).load());
@@ -84,4 +99,37 @@ public class DefaultDocumentDescriptorFactory implements DocumentDescriptorFacto
 	{
 		unsupportedWindowIds.add(windowId);
 	}
+
+	/**
+	 * Loads the descriptor into cache, without counting it as an usage.
+	 */
+	/* package */ void warmUp(@NonNull final WindowId windowId)
+	{
+		if (!isWindowIdSupported(windowId))
+		{
+			return;
+		}
+
+		try
+		{
+			documentDescriptorsByWindowId.getOrLoad(windowId, () -> new DefaultDocumentDescriptorLoader(windowId.toInt()).load());
+		}
+		catch (final Exception e)
+		{
+			throw DocumentLayoutBuildException.wrapIfNeeded(e);
+		}
+	}
+
+	/**
+	 * @return most used window IDs since startup, most used first
+	 */
+	/* package */ List<WindowId> getMostUsedWindowIds(final int limit)
+	{
+		return usageCountersByWindowId.entrySet()
+				.stream()
+				.sorted(Comparator.comparing((final Map.Entry<WindowId, LongAdder> entry) -> entry.getValue().sum()).reversed())
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.collect(ImmutableList.toImmutableList());
+	}
 }
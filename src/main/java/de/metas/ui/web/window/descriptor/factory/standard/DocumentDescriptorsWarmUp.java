@@ -0,0 +1,224 @@
+package de.metas.ui.web.window.descriptor.factory.standard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.adempiere.util.Check;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.window.datatypes.WindowId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Loads the document descriptors of the most used windows in background, right after the application started,
+ * so the first users opening those windows don't have to wait until the descriptors are built.
+ * 
+ * The most used windows are remembered in a local file when the application shuts down.
+ * 
+ * NOTE: we persist only the window IDs and not the descriptors themselves, because the descriptors are not serializable (lookups, callouts, expressions etc).
+ * 
+ * @author metas-dev <dev@metasfresh.com>
+ *
+ */
+@Component
+public class DocumentDescriptorsWarmUp
+{
+	private static final Logger logger = LogManager.getLogger(DocumentDescriptorsWarmUp.class);
+
+	private final DefaultDocumentDescriptorFactory documentDescriptorFactory;
+
+	private final boolean enabled;
+	private final File windowIdsFile;
+	private final int maxWindows;
+	private final int threads;
+
+	/** Window IDs which were loaded from file, most used first */
+	private volatile List<WindowId> previousMostUsedWindowIds = ImmutableList.of();
+
+	public DocumentDescriptorsWarmUp(
+			@NonNull final DefaultDocumentDescriptorFactory documentDescriptorFactory,
+			@Value("${metasfresh.webui.descriptors.warmUp.enabled:true}") final boolean enabled,
+			@Value("${metasfresh.webui.descriptors.warmUp.file:}") final String windowIdsFilePath,
+			@Value("${metasfresh.webui.descriptors.warmUp.maxWindows:100}") final int maxWindows,
+			@Value("${metasfresh.webui.descriptors.warmUp.threads:4}") final int threads)
+	{
+		this.documentDescriptorFactory = documentDescriptorFactory;
+		this.enabled = enabled;
+		this.windowIdsFile = !Check.isEmpty(windowIdsFilePath, true)
+				? new File(windowIdsFilePath.trim())
+				: new File(System.getProperty("java.io.tmpdir"), "metasfresh-webui-descriptors-warmup.txt");
+		this.maxWindows = Math.max(maxWindows, 0);
+		this.threads = Math.max(threads, 1);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady()
+	{
+		if (!enabled || maxWindows <= 0)
+		{
+			logger.info("Descriptors warm-up is disabled");
+			return;
+		}
+
+		final List<WindowId> windowIds = loadWindowIdsFromFile();
+		previousMostUsedWindowIds = windowIds;
+		if (windowIds.isEmpty())
+		{
+			logger.info("No windows to warm-up found in {}", windowIdsFile);
+			return;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, CustomizableThreadFactory.builder()
+				.setThreadNamePrefix(DocumentDescriptorsWarmUp.class.getSimpleName())
+				.setDaemon(true)
+				.build());
+
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		for (final WindowId windowId : windowIds)
+		{
+			executor.execute(() -> warmUp(windowId, ctx));
+		}
+		executor.shutdown(); // no new tasks; threads will end after all windows were loaded
+
+		logger.info("Started warming up {} descriptors using {} threads ({})", windowIds.size(), threads, stopwatch);
+	}
+
+	private void warmUp(final WindowId windowId, final Properties ctx)
+	{
+		try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+		{
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			documentDescriptorFactory.warmUp(windowId);
+			logger.debug("Warmed up descriptor for {} in {}", windowId, stopwatch);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed warming up descriptor for {}. Ignored.", windowId, ex);
+		}
+	}
+
+	@PreDestroy
+	public void saveMostUsedWindowIds()
+	{
+		if (!enabled || maxWindows <= 0)
+		{
+			return;
+		}
+
+		// Current most used windows first, then the ones from previous runs which were not used this time
+		final Set<WindowId> windowIds = new LinkedHashSet<>(documentDescriptorFactory.getMostUsedWindowIds(maxWindows));
+		for (final WindowId windowId : previousMostUsedWindowIds)
+		{
+			if (windowIds.size() >= maxWindows)
+			{
+				break;
+			}
+			windowIds.add(windowId);
+		}
+
+		if (windowIds.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			final File dir = windowIdsFile.getAbsoluteFile().getParentFile();
+			if (dir != null && !dir.exists())
+			{
+				dir.mkdirs();
+			}
+
+			final List<String> lines = windowIds.stream().map(WindowId::toJson).collect(ImmutableList.toImmutableList());
+			Files.write(windowIdsFile.toPath(), lines, StandardCharsets.UTF_8);
+			logger.info("Saved {} window IDs to be warmed up on next startup to {}", lines.size(), windowIdsFile);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed saving window IDs to {}. Ignored.", windowIdsFile, ex);
+		}
+	}
+
+	private List<WindowId> loadWindowIdsFromFile()
+	{
+		if (!windowIdsFile.isFile())
+		{
+			return ImmutableList.of();
+		}
+
+		try
+		{
+			return Files.readAllLines(windowIdsFile.toPath(), StandardCharsets.UTF_8)
+					.stream()
+					.map(String::trim)
+					.filter(line -> !line.isEmpty())
+					.map(this::toWindowIdOrNull)
+					.filter(windowId -> windowId != null && documentDescriptorFactory.isWindowIdSupported(windowId))
+					.distinct()
+					.limit(maxWindows)
+					.collect(ImmutableList.toImmutableList());
+		}
+		catch (final IOException ex)
+		{
+			logger.warn("Failed reading window IDs from {}. Ignored.", windowIdsFile, ex);
+			return ImmutableList.of();
+		}
+	}
+
+	private WindowId toWindowIdOrNull(final String windowIdStr)
+	{
+		try
+		{
+			return WindowId.fromJson(windowIdStr);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Invalid window ID '{}' in {}. Skipped.", windowIdStr, windowIdsFile);
+			return null;
+		}
+	}
+}
@@ -23,9 +23,13 @@ import org.compiere.model.POInfo;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverters;
 import de.metas.ui.web.window.descriptor.DetailId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldDataBindingDescriptor;
@@ -92,6 +96,8 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 
 	private final Optional<String> sqlSelectVersionById;
 
+	private final Supplier<SqlDocumentFilterConverter> defaultFilterConverterSupplier = Suppliers.memoize(() -> SqlDocumentFilterConverters.createDefaultConverter(this));
+
 	private SqlDocumentEntityDataBindingDescriptor(final Builder builder)
 	{
 		super();
@@ -228,6 +234,12 @@ public final class SqlDocumentEntityDataBindingDescriptor implements DocumentEnt
 		return sqlSelectVersionById;
 	}
 
+	@Override
+	public SqlDocumentFilterConverter getDefaultFilterConverter()
+	{
+		return defaultFilterConverterSupplier.get();
+	}
+
 	@Override
 	public boolean isVersioningSupported()
 	{
@@ -5,6 +5,7 @@ import java.util.regex.Pattern;
 import org.adempiere.ad.expression.api.IStringExpression;
 
 import de.metas.ui.web.document.filter.DocumentFilterDescriptorsProvider;
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterDecorator;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverters;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConvertersList;
@@ -65,6 +66,14 @@ public interface SqlEntityBinding
 		return null;
 	}
 
+	/**
+	 * @return default document filter to SQL converter. Implementations shall keep the instance, because it caches the SQL it compiled for this binding.
+	 */
+	default SqlDocumentFilterConverter getDefaultFilterConverter()
+	{
+		return SqlDocumentFilterConverters.createDefaultConverter(this);
+	}
+
 	default String replaceTableNameWithTableAlias(final String sql)
 	{
 		final String tableAlias = getTableAlias();
@@ -1921,6 +1921,28 @@ public final class Document
 		return _staleStatus.isStaled();
 	}
 
+	/**
+	 * @return document's version (i.e. the Updated timestamp) as it was loaded from repository,
+	 *         or <code>null</code> if versioning is not supported, the document is new, staled or it has unsaved changes
+	 */
+	public String getVersionIfNotChanged()
+	{
+		if (!getEntityDescriptor().getDataBinding().isVersioningSupported())
+		{
+			return null;
+		}
+		if (_staleStatus.isStaled())
+		{
+			return null;
+		}
+		if (hasChanges())
+		{
+			return null;
+		}
+
+		return _staleStatus.version;
+	}
+
 	public IAutoCloseable lockForReading()
 	{
 		// assume _lock is not null
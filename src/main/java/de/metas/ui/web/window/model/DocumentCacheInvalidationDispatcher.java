@@ -71,6 +71,9 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 	@Autowired
 	private IViewsRepository viewsRepository;
 
+	@Autowired
+	private DocumentReferencesService documentReferencesService;
+
 	private final Executor async;
 
 	public DocumentCacheInvalidationDispatcher()
@@ -163,8 +166,12 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 			// we are invalidating the whole root document to make sure that in case there were any virtual columns on header,
 			// those get refreshed too.
 			documents.invalidateDocumentByRecordId(rootTableName, rootRecordId);
+
+			documentReferencesService.invalidateByRecordId(childTableName, childRecordId);
 		}
 
+		documentReferencesService.invalidateByRecordId(rootTableName, rootRecordId);
+
 		viewsRepository.notifyRecordChanged(rootTableName, rootRecordId);
 	}
 
@@ -9,6 +9,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
 import javax.annotation.concurrent.Immutable;
 
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
@@ -50,6 +51,7 @@ import de.metas.logging.LogManager;
 import de.metas.process.ProcessExecutionResult;
 import de.metas.process.ProcessInfo;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.metrics.MetricsRegistry;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.WindowConstants;
 import de.metas.ui.web.window.controller.DocumentPermissionsHelper;
@@ -106,6 +108,9 @@ public class DocumentCollection
 	@Autowired
 	private DocumentWebsocketPublisher websocketPublisher;
 
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
 	private final Cache<DocumentKey, Document> rootDocuments = CacheBuilder.newBuilder().build();
 
 	private final ConcurrentHashMap<String, Set<WindowId>> tableName2windowIds = new ConcurrentHashMap<>();
@@ -114,6 +119,12 @@ public class DocumentCollection
 	{
 	}
 
+	@PostConstruct
+	private void registerMetrics()
+	{
+		metricsRegistry.registerGauge("documents.rootDocuments.size", rootDocuments::size);
+	}
+
 	public DocumentDescriptorFactory getDocumentDescriptorFactory()
 	{
 		return documentDescriptorFactory;
@@ -2,27 +2,48 @@ package de.metas.ui.web.window.model;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 
+import org.adempiere.ad.security.UserRolePermissionsKey;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.model.ZoomInfoFactory;
 import org.adempiere.model.ZoomInfoFactory.IZoomSource;
 import org.adempiere.model.ZoomInfoFactory.ZoomInfo;
 import org.adempiere.util.Services;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_AD_Column;
+import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
 
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.ImmutableTranslatableString;
+import de.metas.logging.LogManager;
 import de.metas.ui.web.document.filter.MQueryDocumentFilterHelper;
 import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentPath;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
@@ -53,15 +74,106 @@ import lombok.NonNull;
  * #L%
  */
 
+/**
+ * Provides the references (zoom targets and their records count) of a given document.
+ * <ul>
+ * <li>computed references are cached per document and user role; the cache is invalidated by {@link DocumentCacheInvalidationDispatcher}
+ * when the document changes or when any record of a referenced table changes (because that might change the counts). Entries also expire after a while.
+ * <li>references can be computed asynchronously, each reference being forwarded to the caller as soon as its records count is known
+ * (see {@link #streamDocumentReferences(DocumentPath, Consumer)}). The references are forwarded from outside of the document lock.
+ * </ul>
+ */
 @Service
 public class DocumentReferencesService
 {
-	@Autowired
-	private DocumentCollection documentCollection;
+	private static final Logger logger = LogManager.getLogger(DocumentReferencesService.class);
+
+	private final DocumentCollection documentCollection;
+	private final ExecutorService executor;
+	private final Cache<DocumentReferencesCacheKey, CachedDocumentReferences> cache;
+	/** cache keys indexed by source and referenced table names; guarded by itself */
+	private final SetMultimap<String, DocumentReferencesCacheKey> cacheKeysByTableName = HashMultimap.create();
+
+	public DocumentReferencesService(
+			@NonNull final DocumentCollection documentCollection,
+			@Value("${metasfresh.webui.documentReferences.threads:8}") final int threads,
+			@Value("${metasfresh.webui.documentReferences.cacheSize:500}") final int cacheSize,
+			@Value("${metasfresh.webui.documentReferences.cacheExpireSeconds:60}") final int cacheExpireSeconds)
+	{
+		this.documentCollection = documentCollection;
+		this.executor = Executors.newFixedThreadPool(
+				Math.max(threads, 1),
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix("webui-document-references")
+						.setDaemon(true)
+						.build());
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(cacheExpireSeconds, TimeUnit.SECONDS)
+				.<DocumentReferencesCacheKey, CachedDocumentReferences> removalListener(this::onCacheEntryRemoved)
+				.build();
+
+		logger.info("threads={}, cacheSize={}, cacheExpireSeconds={}", threads, cacheSize, cacheExpireSeconds);
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
 
 	public List<DocumentReference> getDocumentReferences(final DocumentPath documentPath)
 	{
-		return documentCollection.forDocumentReadonly(documentPath, document -> {
+		final DocumentReferencesCacheKey key = DocumentReferencesCacheKey.of(documentPath, Env.getCtx());
+		final CachedDocumentReferences cachedDocumentReferences = cache.getIfPresent(key);
+		if (cachedDocumentReferences != null)
+		{
+			return cachedDocumentReferences.getDocumentReferences();
+		}
+
+		return computeDocumentReferences(key, documentReference -> {});
+	}
+
+	/**
+	 * Computes the document references in background.
+	 *
+	 * @param onDocumentReference called (from a background thread) for each document reference, as soon as it's available
+	 * @return future which completes when all document references were computed
+	 */
+	public CompletableFuture<List<DocumentReference>> streamDocumentReferences(
+			@NonNull final DocumentPath documentPath,
+			@NonNull final Consumer<DocumentReference> onDocumentReference)
+	{
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		final DocumentReferencesCacheKey key = DocumentReferencesCacheKey.of(documentPath, ctx);
+		final CachedDocumentReferences cachedDocumentReferences = cache.getIfPresent(key);
+		if (cachedDocumentReferences != null)
+		{
+			final List<DocumentReference> documentReferences = cachedDocumentReferences.getDocumentReferences();
+			documentReferences.forEach(onDocumentReference);
+			return CompletableFuture.completedFuture(documentReferences);
+		}
+
+		final AsyncDocumentReferencesForwarder forwarder = new AsyncDocumentReferencesForwarder(onDocumentReference, executor);
+		return CompletableFuture.supplyAsync(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				return computeDocumentReferences(key, forwarder);
+			}
+		}, executor)
+				.thenCompose(documentReferences -> forwarder.getAllForwardedFuture().thenApply(allForwarded -> documentReferences));
+	}
+
+	/**
+	 * Computes the document references while holding the document's read lock.
+	 *
+	 * @param onDocumentReference called while holding the document's read lock, so it shall not block
+	 */
+	private List<DocumentReference> computeDocumentReferences(
+			final DocumentReferencesCacheKey key,
+			final Consumer<DocumentReference> onDocumentReference)
+	{
+		return documentCollection.forDocumentReadonly(key.getDocumentPath(), document -> {
 
 			if (document.isNew())
 			{
@@ -71,13 +183,88 @@ public class DocumentReferencesService
 			final DocumentAsZoomSource zoomSource = new DocumentAsZoomSource(document);
 			final ITranslatableString filterCaption = extractFilterCaption(document);
 
-			return ZoomInfoFactory.get()
+			final ImmutableSet.Builder<String> referencedTableNames = ImmutableSet.builder();
+			final ImmutableList<DocumentReference> documentReferences = ZoomInfoFactory.get()
 					.streamZoomInfos(zoomSource)
+					.peek(zoomInfo -> referencedTableNames.add(zoomInfo.getQuery().getTableName()))
 					.map(zoomInfo -> createDocumentReference(zoomInfo, filterCaption))
+					.peek(onDocumentReference)
 					.collect(ImmutableList.toImmutableList());
+
+			putToCache(key, CachedDocumentReferences.builder()
+					.documentReferences(documentReferences)
+					.tableName(zoomSource.getTableName())
+					.documentId(document.getDocumentId())
+					.referencedTableNames(referencedTableNames.build())
+					.build());
+			return documentReferences;
 		});
 	}
 
+	private void putToCache(final DocumentReferencesCacheKey key, final CachedDocumentReferences cachedDocumentReferences)
+	{
+		synchronized (cacheKeysByTableName)
+		{
+			final CachedDocumentReferences previousCachedDocumentReferences = cache.asMap().put(key, cachedDocumentReferences);
+			if (previousCachedDocumentReferences != null)
+			{
+				previousCachedDocumentReferences.getAllTableNames().forEach(tableName -> cacheKeysByTableName.remove(tableName, key));
+			}
+			cachedDocumentReferences.getAllTableNames().forEach(tableName -> cacheKeysByTableName.put(tableName, key));
+		}
+	}
+
+	private void onCacheEntryRemoved(final RemovalNotification<DocumentReferencesCacheKey, CachedDocumentReferences> notification)
+	{
+		// replaced entries are re-indexed by putToCache
+		if (notification.getCause() == RemovalCause.REPLACED)
+		{
+			return;
+		}
+
+		final DocumentReferencesCacheKey key = notification.getKey();
+		final CachedDocumentReferences cachedDocumentReferences = notification.getValue();
+		if (key == null || cachedDocumentReferences == null)
+		{
+			return;
+		}
+
+		synchronized (cacheKeysByTableName)
+		{
+			cachedDocumentReferences.getAllTableNames().forEach(tableName -> cacheKeysByTableName.remove(tableName, key));
+		}
+	}
+
+	/**
+	 * Invalidates the cached references of given record's documents and of all documents which are referencing given record's table.
+	 */
+	public void invalidateByRecordId(@NonNull final String tableName, final int recordId)
+	{
+		final ImmutableList<DocumentReferencesCacheKey> candidateKeys;
+		synchronized (cacheKeysByTableName)
+		{
+			candidateKeys = ImmutableList.copyOf(cacheKeysByTableName.get(tableName));
+		}
+		if (candidateKeys.isEmpty())
+		{
+			return;
+		}
+
+		final DocumentId documentId = DocumentId.of(recordId);
+		final ImmutableList<DocumentReferencesCacheKey> keysToInvalidate = candidateKeys.stream()
+				.filter(key -> {
+					final CachedDocumentReferences cachedDocumentReferences = cache.getIfPresent(key);
+					return cachedDocumentReferences != null && cachedDocumentReferences.isAffectedByRecordChange(tableName, documentId);
+				})
+				.collect(ImmutableList.toImmutableList());
+		cache.invalidateAll(keysToInvalidate);
+	}
+
+	public void cacheReset()
+	{
+		cache.invalidateAll();
+	}
+
 	public DocumentReference getDocumentReference(final DocumentPath sourceDocumentPath, final WindowId targetWindowId)
 	{
 		return documentCollection.forDocumentReadonly(sourceDocumentPath, sourceDocument -> {
@@ -140,6 +327,81 @@ public class DocumentReferencesService
 				.build();
 	}
 
+	@lombok.Value(staticConstructor = "of")
+	private static final class DocumentReferencesCacheKey
+	{
+		public static DocumentReferencesCacheKey of(final DocumentPath documentPath, final Properties ctx)
+		{
+			return of(documentPath, UserRolePermissionsKey.of(ctx));
+		}
+
+		DocumentPath documentPath;
+		UserRolePermissionsKey permissionsKey;
+	}
+
+	@lombok.Value
+	@lombok.Builder
+	private static final class CachedDocumentReferences
+	{
+		@NonNull
+		ImmutableList<DocumentReference> documentReferences;
+
+		/** source document's table name */
+		@NonNull
+		String tableName;
+		/** source document's ID */
+		@NonNull
+		DocumentId documentId;
+
+		/** the table names of the referenced records, i.e. those on which the counts depend */
+		@NonNull
+		ImmutableSet<String> referencedTableNames;
+
+		public boolean isAffectedByRecordChange(final String changedTableName, final DocumentId changedDocumentId)
+		{
+			return referencedTableNames.contains(changedTableName)
+					|| (tableName.equals(changedTableName) && documentId.equals(changedDocumentId));
+		}
+
+		/** @return source table name and referenced table names */
+		public ImmutableSet<String> getAllTableNames()
+		{
+			return ImmutableSet.<String> builder()
+					.add(tableName)
+					.addAll(referencedTableNames)
+					.build();
+		}
+	}
+
+	/**
+	 * Forwards the document references to the delegate consumer asynchronously, preserving their order.
+	 * This way the (possibly blocking) delegate is not called while the document's lock is held.
+	 */
+	private static final class AsyncDocumentReferencesForwarder implements Consumer<DocumentReference>
+	{
+		private final Consumer<DocumentReference> delegate;
+		private final Executor executor;
+		private CompletableFuture<Void> lastForwardedFuture = CompletableFuture.completedFuture(null);
+
+		private AsyncDocumentReferencesForwarder(@NonNull final Consumer<DocumentReference> delegate, @NonNull final Executor executor)
+		{
+			this.delegate = delegate;
+			this.executor = executor;
+		}
+
+		@Override
+		public synchronized void accept(final DocumentReference documentReference)
+		{
+			lastForwardedFuture = lastForwardedFuture.thenRunAsync(() -> delegate.accept(documentReference), executor);
+		}
+
+		/** @return future which completes when all document references which were accepted so far were forwarded */
+		public synchronized CompletableFuture<Void> getAllForwardedFuture()
+		{
+			return lastForwardedFuture;
+		}
+	}
+
 	private static final class DocumentAsZoomSource implements IZoomSource
 	{
 		private final Properties ctx;
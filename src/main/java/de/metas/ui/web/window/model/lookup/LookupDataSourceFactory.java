@@ -143,6 +143,11 @@ public final class LookupDataSourceFactory
 				.forEach(CacheInvalidationGroup::cacheInvalidate);
 	}
 
+	public int getLookupDataSourcesCount()
+	{
+		return lookupDataSourcesCache.size();
+	}
+
 	public List<CCacheStats> getCacheStats()
 	{
 		return lookupDataSourcesCache
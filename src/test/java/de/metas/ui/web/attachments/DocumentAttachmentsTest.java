@@ -0,0 +1,72 @@
+package de.metas.ui.web.attachments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentAttachmentsTest
+{
+	private static final byte[] CONTENT = "some attachment content".getBytes();
+
+	@Test
+	public void readFully_knownSize() throws IOException
+	{
+		final MockMultipartFile file = new MockMultipartFile("file", "file.txt", "text/plain", CONTENT);
+		assertThat(DocumentAttachments.readFully(file)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void readFully_unknownSize() throws IOException
+	{
+		assertThat(DocumentAttachments.readFully(fileWithReportedSize(-1))).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void readFully_reportedSizeTooSmall() throws IOException
+	{
+		assertThat(DocumentAttachments.readFully(fileWithReportedSize(CONTENT.length - 5))).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void readFully_reportedSizeTooBig() throws IOException
+	{
+		assertThat(DocumentAttachments.readFully(fileWithReportedSize(CONTENT.length + 5))).isEqualTo(CONTENT);
+	}
+
+	private static MockMultipartFile fileWithReportedSize(final long reportedSize)
+	{
+		return new MockMultipartFile("file", "file.txt", "text/plain", CONTENT)
+		{
+			@Override
+			public long getSize()
+			{
+				return reportedSize;
+			}
+		};
+	}
+}
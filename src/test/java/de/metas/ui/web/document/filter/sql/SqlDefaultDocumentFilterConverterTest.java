@@ -0,0 +1,95 @@
+package de.metas.ui.web.document.filter.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.document.filter.DocumentFilterParam.Operator;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.SqlEntityBinding;
+import de.metas.ui.web.window.descriptor.sql.SqlEntityFieldBinding;
+import de.metas.ui.web.window.model.sql.SqlOptions;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlDefaultDocumentFilterConverterTest
+{
+	@Mocked
+	private SqlEntityBinding entityBinding;
+	@Mocked
+	private SqlEntityFieldBinding nameFieldBinding;
+
+	private final SqlOptions sqlOpts = SqlOptions.usingTableName("C_BPartner");
+	private final SqlDocumentFilterConverterContext context = SqlDocumentFilterConverterContext.EMPTY;
+
+	@Before
+	public void init()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			entityBinding.getFieldByFieldName("Name"); result = nameFieldBinding; minTimes = 0;
+			nameFieldBinding.getColumnName(); result = "Name"; minTimes = 0;
+			nameFieldBinding.getColumnSql(); result = "Name"; minTimes = 0;
+			nameFieldBinding.getWidgetType(); result = DocumentFieldWidgetType.Text; minTimes = 0;
+			nameFieldBinding.getSqlValueClass(); result = String.class; minTimes = 0;
+		}};	// @formatter:on
+	}
+
+	@Test
+	public void sameFilterShape_reusesSqlAndBindsNewValues()
+	{
+		final SqlDefaultDocumentFilterConverter converter = SqlDefaultDocumentFilterConverter.newInstance(entityBinding);
+
+		final SqlParamsCollector sqlParams1 = SqlParamsCollector.newInstance();
+		final String sql1 = converter.getSql(sqlParams1, DocumentFilter.singleParameterFilter("filter", "Name", Operator.LIKE, "abc"), sqlOpts, context);
+
+		final SqlParamsCollector sqlParams2 = SqlParamsCollector.newInstance();
+		final String sql2 = converter.getSql(sqlParams2, DocumentFilter.singleParameterFilter("filter", "Name", Operator.LIKE, "xyz"), sqlOpts, context);
+
+		assertThat(sql2).isSameAs(sql1);
+		assertThat(sqlParams1.toList()).containsExactly("%abc%");
+		assertThat(sqlParams2.toList()).containsExactly("%xyz%");
+	}
+
+	@Test
+	public void nullValue_isADifferentFilterShape()
+	{
+		final SqlDefaultDocumentFilterConverter converter = SqlDefaultDocumentFilterConverter.newInstance(entityBinding);
+
+		final SqlParamsCollector sqlParams1 = SqlParamsCollector.newInstance();
+		final String sql1 = converter.getSql(sqlParams1, DocumentFilter.singleParameterFilter("filter", "Name", Operator.EQUAL, "abc"), sqlOpts, context);
+
+		final SqlParamsCollector sqlParams2 = SqlParamsCollector.newInstance();
+		final String sql2 = converter.getSql(sqlParams2, DocumentFilter.singleParameterFilter("filter", "Name", Operator.EQUAL, null), sqlOpts, context);
+
+		assertThat(sql1).isEqualTo("(Name = ?)");
+		assertThat(sqlParams1.toList()).containsExactly("abc");
+		assertThat(sql2).isEqualTo("(Name IS NULL)");
+		assertThat(sqlParams2.toList()).isEmpty();
+	}
+}
@@ -0,0 +1,269 @@
+package de.metas.ui.web.handlingunits;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.adempiere.ad.dao.impl.POJOQuery;
+import org.adempiere.ad.service.IADReferenceDAO;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.Services;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_Product;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.IHandlingUnitsBL;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Item;
+import de.metas.handlingunits.model.I_M_HU_Storage;
+import de.metas.handlingunits.model.X_M_HU;
+import de.metas.handlingunits.model.X_M_HU_PI_Version;
+import de.metas.handlingunits.reservation.HUReservationService;
+import de.metas.ui.web.metrics.SqlAccounting;
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlHUEditorViewRepositoryTest
+{
+	@Mocked
+	private SqlViewBinding sqlViewBinding;
+	@Mocked
+	private HUReservationService huReservationService;
+	@Mocked
+	private IHandlingUnitsBL handlingUnitsBL;
+	@Mocked
+	private IADReferenceDAO adReferenceDAO;
+
+	private I_M_Product product;
+	private I_C_UOM uom;
+
+	private SqlHUEditorViewRepository huEditorRepo;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		Services.registerService(IHandlingUnitsBL.class, handlingUnitsBL);
+		Services.registerService(IADReferenceDAO.class, adReferenceDAO);
+
+		// @formatter:off
+		new Expectations()
+		{{
+			huReservationService.getReservedForOrderLineId((HuId)any);
+			result = Optional.empty();
+			minTimes = 0;
+
+			handlingUnitsBL.getHU_UnitType((I_M_HU)any);
+			result = new Delegate<String>()
+			{
+				@SuppressWarnings("unused")
+				String getHU_UnitType(final I_M_HU hu)
+				{
+					return hu.getValue(); // see createHU
+				}
+			};
+			minTimes = 0;
+		}};	// @formatter:on
+
+		product = newInstance(I_M_Product.class);
+		product.setValue("product");
+		product.setName("product");
+		saveRecord(product);
+
+		uom = newInstance(I_C_UOM.class);
+		uom.setUOMSymbol("Ea");
+		saveRecord(uom);
+
+		huEditorRepo = SqlHUEditorViewRepository.builder()
+				.windowId(WindowId.of(540189))
+				.sqlViewBinding(sqlViewBinding)
+				.huReservationService(huReservationService)
+				.build();
+
+		new QueriesToSqlAccountingMockUp();
+	}
+
+	@After
+	public void stopSqlAccounting()
+	{
+		SqlAccounting.stop();
+	}
+
+	@Test
+	public void retrieveForHUIds_loadsIncludedHUsAndStorages()
+	{
+		final ImmutableList<HuId> luIds = createLUsWithTwoTUs(3);
+
+		final List<HUEditorRow> rows = huEditorRepo.retrieveForHUIds(luIds);
+
+		assertThat(rows).hasSize(3);
+		assertThat(rows).extracting(HUEditorRow::getM_HU_ID).containsExactly(luIds.get(0).getRepoId(), luIds.get(1).getRepoId(), luIds.get(2).getRepoId());
+		for (final HUEditorRow luRow : rows)
+		{
+			assertThat(luRow.getType()).isEqualTo(HUEditorRowType.LU);
+			assertThat(luRow.getQtyCU()).isEqualByComparingTo("20");
+			assertThat(luRow.getM_Product_ID()).isEqualTo(product.getM_Product_ID());
+
+			assertThat(luRow.getIncludedRows()).hasSize(2);
+			for (final HUEditorRow tuRow : luRow.getIncludedRows())
+			{
+				assertThat(tuRow.getType()).isEqualTo(HUEditorRowType.TU);
+				assertThat(tuRow.getQtyCU()).isEqualByComparingTo("10");
+
+				assertThat(tuRow.getIncludedRows()).hasSize(1);
+				final HUEditorRow vhuStorageRow = tuRow.getIncludedRows().get(0);
+				assertThat(vhuStorageRow.getType()).isEqualTo(HUEditorRowType.HUStorage);
+				assertThat(vhuStorageRow.getQtyCU()).isEqualByComparingTo("10");
+				assertThat(vhuStorageRow.getM_Product_ID()).isEqualTo(product.getM_Product_ID());
+			}
+		}
+	}
+
+	@Test
+	public void retrieveForHUIds_numberOfQueriesDoesNotDependOnNumberOfHUs()
+	{
+		huEditorRepo.retrieveForHUIds(createLUsWithTwoTUs(1)); // warm up
+
+		final int queriesForOneLU = countQueries(() -> huEditorRepo.retrieveForHUIds(createLUsWithTwoTUs(1)));
+		final int queriesForFiftyLUs = countQueries(() -> huEditorRepo.retrieveForHUIds(createLUsWithTwoTUs(50)));
+
+		assertThat(queriesForOneLU).isGreaterThan(0);
+		assertThat(queriesForFiftyLUs).isEqualTo(queriesForOneLU);
+	}
+
+	private static int countQueries(final Runnable runnable)
+	{
+		final SqlAccounting accounting = SqlAccounting.start(0);
+		try
+		{
+			runnable.run();
+			return accounting.getCount();
+		}
+		finally
+		{
+			SqlAccounting.stop();
+		}
+	}
+
+	/** @return LUs, each with two TUs of one VHU each; each VHU and TU stores 10 items, each LU 20 */
+	private ImmutableList<HuId> createLUsWithTwoTUs(final int count)
+	{
+		final ImmutableList.Builder<HuId> luIds = ImmutableList.builder();
+		for (int i = 0; i < count; i++)
+		{
+			final I_M_HU lu = createHU(X_M_HU_PI_Version.HU_UNITTYPE_LoadLogistiqueUnit, null, 20);
+			final I_M_HU_Item luItem = createHUItem(lu);
+
+			for (int tuNo = 0; tuNo < 2; tuNo++)
+			{
+				final I_M_HU tu = createHU(X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit, luItem, 10);
+				createHU(X_M_HU_PI_Version.HU_UNITTYPE_VirtualPI, createHUItem(tu), 10);
+			}
+
+			luIds.add(HuId.ofRepoId(lu.getM_HU_ID()));
+		}
+		return luIds.build();
+	}
+
+	private I_M_HU createHU(final String huUnitType, final I_M_HU_Item parentItem, final int qty)
+	{
+		final I_M_HU hu = newInstance(I_M_HU.class);
+		hu.setValue(huUnitType); // the mocked IHandlingUnitsBL.getHU_UnitType returns it
+		hu.setHUStatus(X_M_HU.HUSTATUS_Active);
+		if (parentItem != null)
+		{
+			hu.setM_HU_Item_Parent(parentItem);
+		}
+		saveRecord(hu);
+
+		final I_M_HU_Storage storage = newInstance(I_M_HU_Storage.class);
+		storage.setM_HU(hu);
+		storage.setM_Product_ID(product.getM_Product_ID());
+		storage.setC_UOM_ID(uom.getC_UOM_ID());
+		storage.setQty(BigDecimal.valueOf(qty));
+		saveRecord(storage);
+
+		return hu;
+	}
+
+	private static I_M_HU_Item createHUItem(final I_M_HU hu)
+	{
+		final I_M_HU_Item item = newInstance(I_M_HU_Item.class);
+		item.setM_HU(hu);
+		saveRecord(item);
+		return item;
+	}
+
+	/**
+	 * Records each query which is executed against the in-memory database as an SQL statement, like the core statements layer does in production.
+	 * All the methods which actually execute a query are covered, not only {@code list}.
+	 */
+	private static final class QueriesToSqlAccountingMockUp extends MockUp<POJOQuery<?>>
+	{
+		private static final ImmutableSet<String> QUERY_EXECUTING_METHOD_NAMES = ImmutableSet.of(
+				"list", "listIds", "first", "firstOnly", "firstId", "firstIdOnly", "count", "match", "iterate", "aggregate", "delete", "update", "updateDirectly");
+
+		private int nestingLevel = 0;
+
+		@Mock
+		public Object $advice(final Invocation invocation)
+		{
+			final String methodName = invocation.getInvokedMember().getName();
+			if (!QUERY_EXECUTING_METHOD_NAMES.contains(methodName) || nestingLevel > 0)
+			{
+				return invocation.proceed();
+			}
+
+			// count the outermost call only, e.g. first() might be implemented using list()
+			nestingLevel++;
+			try (final IAutoCloseable c = SqlAccounting.recordStatement(methodName + ": " + invocation.getInvokedInstance()))
+			{
+				return invocation.proceed();
+			}
+			finally
+			{
+				nestingLevel--;
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package de.metas.ui.web.menu;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.adempiere.ad.security.IUserRolePermissions;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.menu.MenuNode.MenuNodeType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class MenuBaseTreeTest
+{
+	@Mocked
+	private IUserRolePermissions permissions;
+
+	private static MenuNode group(final int adMenuId, final String caption, final MenuNode... children)
+	{
+		return MenuNode.builder()
+				.setAD_Menu_ID(adMenuId)
+				.setCaption(caption)
+				.setTypeGroup()
+				.addChildren(ImmutableList.copyOf(children))
+				.build();
+	}
+
+	private static MenuNode window(final int adMenuId, final String caption)
+	{
+		return MenuNode.builder()
+				.setAD_Menu_ID(adMenuId)
+				.setCaption(caption)
+				.setType(MenuNodeType.Window, DocumentId.of(adMenuId))
+				.build();
+	}
+
+	private static List<String> childrenCaptions(final MenuNode node)
+	{
+		return node.getChildren()
+				.stream()
+				.map(MenuNode::getCaption)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static MenuNode createMenu()
+	{
+		return group(0, "Menu",
+				group(1, "Sales",
+						window(11, "Sales Order"),
+						window(12, "Invoice")),
+				group(2, "Purchase",
+						window(21, "Purchase Order")),
+				group(3, "System",
+						window(31, "Translation")));
+	}
+
+	private MenuNode createRoleRootNode(final MenuBaseTree baseTree)
+	{
+		final BitSet visibleNodes = baseTree.computeVisibleNodes(permissions);
+		return baseTree.createRootNode(visibleNodes, -1);
+	}
+
+	@Test
+	public void inactiveNodesAreExcluded()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			permissions.checkWindowAccess(anyInt); result = Boolean.TRUE; minTimes = 0;
+		}};	// @formatter:on
+
+		final MenuBaseTree baseTree = MenuBaseTree.of(createMenu(), ImmutableSet.of(12, 2, 31));
+		final MenuNode rootNode = createRoleRootNode(baseTree);
+
+		// NOTE: "System" is not displayed because it has no active children
+		assertThat(childrenCaptions(rootNode)).containsExactly("Sales");
+		assertThat(childrenCaptions(rootNode.getChildren().get(0))).containsExactly("Sales Order");
+	}
+
+	@Test
+	public void notAccessibleNodesAreExcluded()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			permissions.checkWindowAccess(11); result = Boolean.TRUE; minTimes = 0;
+			permissions.checkWindowAccess(12); result = null; minTimes = 0;
+			permissions.checkWindowAccess(21); result = null; minTimes = 0;
+			permissions.checkWindowAccess(31); result = Boolean.TRUE; minTimes = 0;
+		}};	// @formatter:on
+
+		final MenuBaseTree baseTree = MenuBaseTree.of(createMenu(), ImmutableSet.of());
+		final MenuNode rootNode = createRoleRootNode(baseTree);
+
+		assertThat(childrenCaptions(rootNode)).containsExactly("Sales", "System");
+		assertThat(childrenCaptions(rootNode.getChildren().get(0))).containsExactly("Sales Order");
+	}
+}
@@ -0,0 +1,140 @@
+package de.metas.ui.web.menu;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.menu.MenuNode.MenuNodeType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class MenuTreeTest
+{
+	private MenuTree menuTree;
+
+	@Before
+	public void init()
+	{
+		final MenuNode root = group(0, "Menu",
+				group(1, "Sales",
+						window(11, "Sales Order"),
+						window(12, "Invoice")),
+				group(2, "Purchase",
+						window(21, "Purchase Order"),
+						window(22, "Vendor Invoice"),
+						window(23, "Orders Overview")),
+				group(3, "System",
+						window(31, "Übersetzung")));
+
+		menuTree = MenuTree.of(1, root);
+	}
+
+	private static MenuNode group(final int adMenuId, final String caption, final MenuNode... children)
+	{
+		return MenuNode.builder()
+				.setAD_Menu_ID(adMenuId)
+				.setCaption(caption)
+				.setTypeGroup()
+				.addChildren(ImmutableList.copyOf(children))
+				.build();
+	}
+
+	private static MenuNode window(final int adMenuId, final String caption)
+	{
+		return MenuNode.builder()
+				.setAD_Menu_ID(adMenuId)
+				.setCaption(caption)
+				.setType(MenuNodeType.Window, DocumentId.of(adMenuId))
+				.build();
+	}
+
+	private static List<String> childrenCaptions(final MenuNode node)
+	{
+		return node.getChildren()
+				.stream()
+				.map(MenuNode::getCaption)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@Test
+	public void filter_onlyPathsToMatchingNodes()
+	{
+		final MenuNode result = menuTree.filter("invoice", false);
+
+		assertThat(result.isRoot()).isTrue();
+		assertThat(childrenCaptions(result)).containsExactly("Sales", "Purchase");
+		assertThat(childrenCaptions(result.getChildren().get(0))).containsExactly("Invoice");
+		assertThat(childrenCaptions(result.getChildren().get(1))).containsExactly("Vendor Invoice");
+		assertThat(result.getChildren().get(0).isMatchedByFilter()).isFalse();
+		assertThat(result.getChildren().get(0).getChildren().get(0).isMatchedByFilter()).isTrue();
+	}
+
+	@Test
+	public void filter_bestMatchesFirst()
+	{
+		final MenuNode result = menuTree.filter("order", false);
+
+		final MenuNode purchase = result.getChildren()
+				.stream()
+				.filter(node -> "Purchase".equals(node.getCaption()))
+				.findFirst()
+				.get();
+		assertThat(childrenCaptions(purchase)).containsExactly("Orders Overview", "Purchase Order");
+	}
+
+	@Test
+	public void filter_ignoresCaseAndDiacritics()
+	{
+		assertThat(childrenCaptions(menuTree.filter("UBERS", false))).containsExactly("System");
+		assertThat(childrenCaptions(menuTree.filter("setzü", false))).containsExactly("System");
+	}
+
+	@Test
+	public void filter_shortQuery()
+	{
+		final MenuNode result = menuTree.filter("sa", false);
+		assertThat(childrenCaptions(result)).containsExactly("Sales");
+		assertThat(result.getChildren().get(0).isMatchedByFilter()).isTrue();
+	}
+
+	@Test
+	public void filter_includeLeafsIfGroupAccepted()
+	{
+		final MenuNode result = menuTree.filter("sales order", true);
+
+		assertThat(childrenCaptions(result)).containsExactly("Sales");
+		assertThat(childrenCaptions(result.getChildren().get(0))).containsExactly("Sales Order", "Invoice");
+	}
+
+	@Test
+	public void filter_noMatches()
+	{
+		assertThat(menuTree.filter("xyz", false).getChildren()).isEmpty();
+	}
+}
@@ -0,0 +1,67 @@
+package de.metas.ui.web.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LatencyHistogramTest
+{
+	@Test
+	public void empty()
+	{
+		final LatencyHistogram histogram = new LatencyHistogram();
+
+		assertThat(histogram.getCount()).isEqualTo(0);
+		assertThat(histogram.getAverageMillis()).isEqualTo(0);
+		assertThat(histogram.getPercentileMillis(99)).isEqualTo(0);
+	}
+
+	@Test
+	public void percentiles()
+	{
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 98; i++)
+		{
+			histogram.record(3);
+		}
+		histogram.record(150);
+		histogram.record(4000);
+
+		assertThat(histogram.getCount()).isEqualTo(100);
+		assertThat(histogram.getMaxMillis()).isEqualTo(4000);
+		assertThat(histogram.getPercentileMillis(50)).isEqualTo(5);
+		assertThat(histogram.getPercentileMillis(99)).isEqualTo(200);
+		assertThat(histogram.getPercentileMillis(100)).isEqualTo(4000);
+	}
+
+	@Test
+	public void percentileNeverExceedsMax()
+	{
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(120);
+
+		assertThat(histogram.getPercentileMillis(99)).isEqualTo(120);
+	}
+}
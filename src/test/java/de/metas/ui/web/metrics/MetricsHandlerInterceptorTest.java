@@ -0,0 +1,88 @@
+package de.metas.ui.web.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+
+public class MetricsHandlerInterceptorTest
+{
+	private static final String ROUTE = "GET /rest/api/window/{windowId}/{documentId}/references/sse";
+
+	private MetricsRegistry metricsRegistry;
+	private MetricsHandlerInterceptor interceptor;
+
+	@Before
+	public void init()
+	{
+		metricsRegistry = new MetricsRegistry(Optional.empty(), 0);
+		interceptor = new MetricsHandlerInterceptor(metricsRegistry);
+	}
+
+	private static MockHttpServletRequest newRequest()
+	{
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rest/api/window/123/1/references/sse");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/rest/api/window/{windowId}/{documentId}/references/sse");
+		return request;
+	}
+
+	@Test
+	public void syncRequest()
+	{
+		final MockHttpServletRequest request = newRequest();
+		final MockHttpServletResponse response = new MockHttpServletResponse();
+
+		interceptor.preHandle(request, response, null);
+		assertThat(metricsRegistry.getRouteMetrics(ROUTE).getInFlight()).isEqualTo(1);
+
+		interceptor.afterCompletion(request, response, null, null);
+		assertThat(metricsRegistry.getRouteMetrics(ROUTE).getInFlight()).isEqualTo(0);
+	}
+
+	@Test
+	public void asyncRequest()
+	{
+		final MockHttpServletRequest request = newRequest();
+		final MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// initial dispatch
+		interceptor.preHandle(request, response, null);
+		interceptor.afterConcurrentHandlingStarted(request, response, null);
+		assertThat(metricsRegistry.getRouteMetrics(ROUTE).getInFlight()).isEqualTo(1);
+
+		// async dispatch
+		interceptor.preHandle(request, response, null);
+		assertThat(metricsRegistry.getRouteMetrics(ROUTE).getInFlight()).isEqualTo(1);
+		interceptor.afterCompletion(request, response, null, null);
+		assertThat(metricsRegistry.getRouteMetrics(ROUTE).getInFlight()).isEqualTo(0);
+		assertThat(metricsRegistry.getSnapshot().getInFlight()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,106 @@
+package de.metas.ui.web.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.util.lang.IAutoCloseable;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.base.Stopwatch;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlAccountingTest
+{
+	@After
+	public void stop()
+	{
+		SqlAccounting.stop();
+	}
+
+	@Test
+	public void notStarted()
+	{
+		try (final IAutoCloseable c = SqlAccounting.recordStatement("SELECT 1"))
+		{
+			// nothing
+		}
+
+		assertThat(SqlAccounting.getCurrentOrNull()).isNull();
+	}
+
+	@Test
+	public void countsStatementsAndKeepsSlowest() throws Exception
+	{
+		final SqlAccounting accounting = SqlAccounting.start(2);
+
+		for (int i = 1; i <= 5; i++)
+		{
+			try (final IAutoCloseable c = SqlAccounting.recordStatement("SELECT " + i))
+			{
+				Thread.sleep(i * 10);
+			}
+		}
+
+		assertThat(accounting.getCount()).isEqualTo(5);
+		assertThat(accounting.getTotalMillis()).isGreaterThanOrEqualTo(150);
+		assertThat(accounting.getSlowestStatements())
+				.extracting("sql")
+				.containsExactly("SELECT 5", "SELECT 4");
+	}
+
+	@Test
+	public void statementsCollectedByCoreAreAccounted()
+	{
+		final List<String> delegateSqls = new ArrayList<>();
+		final SqlAccountingQueryStatisticsCollector collector = new SqlAccountingQueryStatisticsCollector((sql, duration) -> delegateSqls.add(sql));
+
+		final SqlAccounting accounting = SqlAccounting.start(5);
+		collector.collect("SELECT 1", Stopwatch.createStarted());
+		collector.collect("SELECT 2", Stopwatch.createStarted());
+
+		assertThat(accounting.getCount()).isEqualTo(2);
+		assertThat(delegateSqls).containsExactly("SELECT 1", "SELECT 2");
+	}
+
+	@Test
+	public void statementsOfWorkerThreadAreAccounted() throws Exception
+	{
+		final SqlAccounting accounting = SqlAccounting.start(5);
+
+		final Thread worker = new Thread(() -> {
+			try (final IAutoCloseable c = SqlAccounting.temporarySetCurrent(accounting))
+			{
+				SqlAccounting.recordStatement("SELECT 1", 1000);
+			}
+			assertThat(SqlAccounting.getCurrentOrNull()).isNull();
+		});
+		worker.start();
+		worker.join();
+
+		assertThat(accounting.getCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,142 @@
+package de.metas.ui.web.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.notification.INotificationRepository;
+import de.metas.notification.UserNotification;
+import de.metas.ui.web.notification.json.JSONNotification;
+import de.metas.ui.web.notification.json.JSONNotificationEvent;
+import de.metas.ui.web.websocket.WebsocketSender;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class UserNotificationsQueueTest
+{
+	private static final int AD_User_ID = 100;
+
+	@Mocked
+	private INotificationRepository notificationsRepo;
+	@Mocked
+	private WebsocketSender websocketSender;
+	@Mocked
+	private UserNotification notification;
+	@Mocked
+	private JSONNotification jsonNotification;
+
+	private UserNotificationsQueue queue;
+
+	@Before
+	public void init()
+	{
+		queue = UserNotificationsQueue.builder()
+				.adUserId(AD_User_ID)
+				.adLanguage("en_US")
+				.notificationsRepo(notificationsRepo)
+				.websocketSender(websocketSender)
+				.build();
+	}
+
+	@Test
+	public void markAsRead_decrementsUnreadCountOnlyIfNotificationWasNotRead()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			notificationsRepo.getTotalCountByUserId(AD_User_ID); result = 5;
+			notificationsRepo.getUnreadCountByUserId(AD_User_ID); result = 2;
+			notificationsRepo.markAsReadById(1); result = false;
+			notificationsRepo.markAsReadById(2); result = true;
+		}};	// @formatter:on
+
+		assertThat(queue.getUnreadCount()).isEqualTo(2);
+
+		queue.markAsRead("1"); // already read
+		assertThat(queue.getUnreadCount()).isEqualTo(2);
+
+		queue.markAsRead("2");
+		assertThat(queue.getUnreadCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getNotificationsAsList_exactlyLimitNotifications_countersAreLoaded()
+	{
+		final List<UserNotification> notifications = new ArrayList<>();
+		notifications.add(notification);
+		notifications.add(notification);
+
+		// @formatter:off
+		new Expectations()
+		{{
+			notificationsRepo.getByUserId(AD_User_ID, 2); result = notifications;
+			notificationsRepo.getTotalCountByUserId(AD_User_ID); result = 10;
+			notificationsRepo.getUnreadCountByUserId(AD_User_ID); result = 3;
+		}};	// @formatter:on
+
+		assertThat(queue.getNotificationsAsList(2).getTotalCount()).isEqualTo(10);
+	}
+
+	@Test
+	public void newNotifications_areSentImmediately_withoutCountingInDatabaseEachTime()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			notification.getRecipientUserId(); result = AD_User_ID;
+			notification.isNotRead(); result = true;
+			notificationsRepo.getTotalCountByUserId(AD_User_ID); result = 3; times = 1;
+			notificationsRepo.getUnreadCountByUserId(AD_User_ID); result = 3; times = 1;
+		}};	// @formatter:on
+
+		for (int i = 1; i <= 3; i++)
+		{
+			queue.addNotification(notification);
+
+			final int expectedSentEvents = i;
+			// @formatter:off
+			new Verifications()
+			{{
+				websocketSender.convertAndSend(queue.getWebsocketEndpoint(), any); times = expectedSentEvents;
+			}};	// @formatter:on
+		}
+
+		final List<Object> sentEvents = new ArrayList<>();
+		// @formatter:off
+		new Verifications()
+		{{
+			websocketSender.convertAndSend(queue.getWebsocketEndpoint(), withCapture(sentEvents));
+		}};	// @formatter:on
+		assertThat(sentEvents).hasSize(3).allMatch(event -> event instanceof JSONNotificationEvent);
+
+		// counters were loaded once, then maintained in memory
+		assertThat(queue.getUnreadCount()).isEqualTo(5);
+	}
+}
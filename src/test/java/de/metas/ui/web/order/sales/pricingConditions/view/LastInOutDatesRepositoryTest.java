@@ -0,0 +1,57 @@
+package de.metas.ui.web.order.sales.pricingConditions.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.lang.SOTrx;
+import de.metas.product.ProductId;
+import de.metas.ui.web.order.sales.pricingConditions.view.LastInOutDatesRepository.LastInOutDateRequest;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LastInOutDatesRepositoryTest
+{
+	@Test
+	public void buildSql_matchesExactlyTheRequestedTuples()
+	{
+		final List<LastInOutDateRequest> requests = ImmutableList.of(
+				LastInOutDateRequest.builder().bpartnerId(BPartnerId.ofRepoId(1)).productId(ProductId.ofRepoId(10)).soTrx(SOTrx.ofBoolean(true)).build(),
+				LastInOutDateRequest.builder().bpartnerId(BPartnerId.ofRepoId(2)).productId(ProductId.ofRepoId(20)).soTrx(SOTrx.ofBoolean(false)).build());
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final String sql = LastInOutDatesRepository.buildSql(requests, sqlParams);
+
+		assertThat(sql).contains("(io.C_BPartner_ID, iol.M_Product_ID, io.IsSOTrx) IN ((?, ?, ?), (?, ?, ?))");
+		assertThat(sql).contains("io.IsActive='Y'");
+		assertThat(sql).contains("iol.IsActive='Y'");
+		assertThat(sql).contains("io.DocStatus IN ('CO', 'CL')");
+		assertThat(sqlParams).containsExactly(1, 10, "Y", 2, 20, "N");
+	}
+}
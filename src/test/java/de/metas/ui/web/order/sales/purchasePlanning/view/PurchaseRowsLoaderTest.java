@@ -7,6 +7,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.adempiere.mm.attributes.AttributeSetInstanceId;
 import org.adempiere.service.OrgId;
@@ -65,6 +68,8 @@ import de.metas.purchasecandidate.grossprofit.PurchaseProfitInfo;
 import de.metas.purchasecandidate.purchaseordercreation.remotepurchaseitem.PurchaseItemRepository;
 import de.metas.quantity.Quantity;
 import de.metas.ui.web.order.sales.purchasePlanning.view.PurchaseRowsLoader.PurchaseRowsList;
+import de.metas.vendor.gateway.api.availability.TrackingId;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
 
@@ -100,6 +105,7 @@ public class PurchaseRowsLoaderTest
 	private I_M_Product product;
 	private I_C_Order salesOrderRecord;
 	private I_C_BPartner bPartnerVendor;
+	private I_C_BPartner bPartnerVendor2;
 
 	private I_C_Currency currency;
 
@@ -152,6 +158,10 @@ public class PurchaseRowsLoaderTest
 		bPartnerVendor.setName("bPartnerVendor.Name");
 		saveRecord(bPartnerVendor);
 
+		bPartnerVendor2 = newInstance(I_C_BPartner.class);
+		bPartnerVendor2.setName("bPartnerVendor2.Name");
+		saveRecord(bPartnerVendor2);
+
 		currency = newInstance(I_C_Currency.class);
 		currency.setStdPrecision(2);
 		saveRecord(currency);
@@ -269,6 +279,181 @@ public class PurchaseRowsLoaderTest
 		assertThat(availabilityRow.getRowId().toDocumentId()).isNotEqualTo(purchaseRow.getRowId().toDocumentId());
 	}
 
+	@Test
+	public void createAvailabilityRequestsByVendorId()
+	{
+		final PurchaseRowsLoader loader = createTwoVendorsLoader();
+		final PurchaseRowsList rowsList = loader.load();
+
+		//
+		// invoke the method under test
+		final Map<BPartnerId, PurchaseCandidatesAvailabilityRequest> requestsByVendorId = loader.createAvailabilityRequestsByVendorId(rowsList);
+
+		final BPartnerId vendorId1 = BPartnerId.ofRepoId(bPartnerVendor.getC_BPartner_ID());
+		final BPartnerId vendorId2 = BPartnerId.ofRepoId(bPartnerVendor2.getC_BPartner_ID());
+		assertThat(requestsByVendorId).hasSize(2);
+		assertThat(requestsByVendorId.get(vendorId1).getTrackingIds()).hasSize(1);
+		assertThat(requestsByVendorId.get(vendorId2).getTrackingIds()).hasSize(1);
+		assertThat(requestsByVendorId.get(vendorId1).getTrackingIds())
+				.doesNotContainAnyElementsOf(requestsByVendorId.get(vendorId2).getTrackingIds());
+	}
+
+	@Test
+	public void createAndAddAvailabilityResultRowsAsync_appliesEachVendorsResults() throws Exception
+	{
+		final PurchaseRowsLoader loader = createTwoVendorsLoader();
+		final PurchaseRowsList rowsList = loader.load();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			availabilityCheckService.checkAvailability((PurchaseCandidatesAvailabilityRequest)any);
+			result = new Delegate<AvailabilityMultiResult>()
+			{
+				@SuppressWarnings("unused")
+				AvailabilityMultiResult checkAvailability(final PurchaseCandidatesAvailabilityRequest request)
+				{
+					return createAvailableResult(request);
+				}
+			};
+		}};	// @formatter:on
+
+		//
+		// invoke the method under test
+		loader.createAndAddAvailabilityResultRowsAsync(rowsList, 10 * 1000).get(10, TimeUnit.SECONDS);
+
+		for (final TrackingId trackingId : rowsList.getPurchaseCandidatesGroups().keySet())
+		{
+			final PurchaseRow lineRow = rowsList.getPurchaseRowByTrackingId(trackingId);
+			assertThat(lineRow.getIncludedRows()).hasSize(1);
+			assertThat(lineRow.getIncludedRows().iterator().next().getType()).isEqualTo(PurchaseRowType.AVAILABILITY_DETAIL);
+		}
+	}
+
+	@Test
+	public void createAndAddAvailabilityResultRowsAsync_vendorTimeout() throws Exception
+	{
+		final PurchaseRowsLoader loader = createTwoVendorsLoader();
+		final PurchaseRowsList rowsList = loader.load();
+
+		final Map<BPartnerId, PurchaseCandidatesAvailabilityRequest> requestsByVendorId = loader.createAvailabilityRequestsByVendorId(rowsList);
+		final TrackingId slowVendorTrackingId = requestsByVendorId.get(BPartnerId.ofRepoId(bPartnerVendor2.getC_BPartner_ID())).getTrackingIds().iterator().next();
+		final TrackingId fastVendorTrackingId = requestsByVendorId.get(BPartnerId.ofRepoId(bPartnerVendor.getC_BPartner_ID())).getTrackingIds().iterator().next();
+
+		// the slow vendor's call blocks until it's interrupted by the timeout; this latch is never released by the test
+		final CountDownLatch slowVendorCallBlocker = new CountDownLatch(1);
+		final CountDownLatch slowVendorCallInterrupted = new CountDownLatch(1);
+
+		// @formatter:off
+		new Expectations()
+		{{
+			availabilityCheckService.checkAvailability((PurchaseCandidatesAvailabilityRequest)any);
+			result = new Delegate<AvailabilityMultiResult>()
+			{
+				@SuppressWarnings("unused")
+				AvailabilityMultiResult checkAvailability(final PurchaseCandidatesAvailabilityRequest request)
+				{
+					if (request.getTrackingIds().contains(slowVendorTrackingId))
+					{
+						try
+						{
+							slowVendorCallBlocker.await();
+						}
+						catch (final InterruptedException e)
+						{
+							slowVendorCallInterrupted.countDown();
+						}
+					}
+					return createAvailableResult(request);
+				}
+			};
+		}};	// @formatter:on
+
+		//
+		// invoke the method under test; the returned future completes only after both the fast vendor's result and the slow vendor's timeout error were applied
+		loader.createAndAddAvailabilityResultRowsAsync(rowsList, 500).get(10, TimeUnit.SECONDS);
+
+		// the fast vendor's result was applied
+		final PurchaseRow fastVendorLineRow = rowsList.getPurchaseRowByTrackingId(fastVendorTrackingId);
+		assertThat(fastVendorLineRow.getIncludedRows()).hasSize(1);
+		final PurchaseRow fastVendorAvailabilityRow = fastVendorLineRow.getIncludedRows().iterator().next();
+		assertThat(fastVendorAvailabilityRow.getType()).isEqualTo(PurchaseRowType.AVAILABILITY_DETAIL);
+		assertThat(fastVendorAvailabilityRow.getRowId().getAvailabilityType()).isEqualTo(Type.AVAILABLE);
+
+		// the slow vendor got an error row with the timeout message, and its call was interrupted
+		final PurchaseRow slowVendorLineRow = rowsList.getPurchaseRowByTrackingId(slowVendorTrackingId);
+		assertThat(slowVendorLineRow.getIncludedRows()).hasSize(1);
+		final PurchaseRow slowVendorErrorRow = slowVendorLineRow.getIncludedRows().iterator().next();
+		assertThat(slowVendorErrorRow.getType()).isEqualTo(PurchaseRowType.AVAILABILITY_DETAIL);
+		assertThat(slowVendorErrorRow.getRowId().getAvailabilityType()).isEqualTo(Type.NOT_AVAILABLE);
+		assertThat((String)slowVendorErrorRow.getFieldNameAndJsonValues().get("uomOrAvailablility")).contains("timed out");
+		assertThat(slowVendorCallInterrupted.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// the timeout took over before interrupting the call, so the late result of the interrupted call is never applied on top of the error row
+		assertThat(slowVendorLineRow.getIncludedRows()).containsExactly(slowVendorErrorRow);
+	}
+
+	private AvailabilityMultiResult createAvailableResult(final PurchaseCandidatesAvailabilityRequest request)
+	{
+		return AvailabilityMultiResult.of(AvailabilityResult.builder()
+				.trackingId(request.getTrackingIds().iterator().next())
+				.qty(TEN)
+				.type(Type.AVAILABLE)
+				.build());
+	}
+
+	/** @return loader with one demand and one candidate for each of {@link #bPartnerVendor} and {@link #bPartnerVendor2} */
+	private PurchaseRowsLoader createTwoVendorsLoader()
+	{
+		final I_C_OrderLine salesOrderLineRecord = newInstance(I_C_OrderLine.class);
+		salesOrderLineRecord.setAD_Org(org);
+		salesOrderLineRecord.setM_Product(product);
+		salesOrderLineRecord.setM_Warehouse(warehouse);
+		salesOrderLineRecord.setC_Order(salesOrderRecord);
+		salesOrderLineRecord.setC_Currency(currency);
+		salesOrderLineRecord.setC_UOM_ID(TEN.getUOMId());
+		salesOrderLineRecord.setQtyEntered(TEN.getAsBigDecimal());
+		salesOrderLineRecord.setQtyOrdered(TEN.getAsBigDecimal());
+		salesOrderLineRecord.setDatePromised(SystemTime.asTimestamp());
+		save(salesOrderLineRecord);
+
+		final SalesOrderLineRepository salesOrderLineRepository = new SalesOrderLineRepository(new OrderLineRepository(currencyRepository));
+		final SalesOrderLine salesOrderLine = salesOrderLineRepository.ofRecord(salesOrderLineRecord);
+		final PurchaseDemand demand = salesOrder2PurchaseViewFactory.createDemand(salesOrderLine);
+
+		final VendorProductInfo vendorProductInfo1 = createVendorProductInfo(bPartnerVendor);
+		final VendorProductInfo vendorProductInfo2 = createVendorProductInfo(bPartnerVendor2);
+
+		final ImmutableList<PurchaseDemandWithCandidates> demandWithCandidates = ImmutableList.of(PurchaseDemandWithCandidates.builder()
+				.purchaseDemand(demand)
+				.purchaseCandidatesGroup(PurchaseCandidatesGroup.of(demand.getId(), createPurchaseCandidate(salesOrderLineRecord, vendorProductInfo1), vendorProductInfo1))
+				.purchaseCandidatesGroup(PurchaseCandidatesGroup.of(demand.getId(), createPurchaseCandidate(salesOrderLineRecord, vendorProductInfo2), vendorProductInfo2))
+				.build());
+
+		return PurchaseRowsLoader.builder()
+				.purchaseDemandWithCandidatesList(demandWithCandidates)
+				.viewSupplier(() -> null)
+				.purchaseRowFactory(new PurchaseRowFactory(
+						new AvailableToPromiseRepository(),
+						new DoNothingPurchaseProfitInfoServiceImpl()))
+				.availabilityCheckService(availabilityCheckService)
+				.build();
+	}
+
+	private VendorProductInfo createVendorProductInfo(final I_C_BPartner vendor)
+	{
+		return VendorProductInfo.builder()
+				.vendorId(BPartnerId.ofRepoId(vendor.getC_BPartner_ID()))
+				.defaultVendor(false)
+				.product(ProductAndCategoryAndManufacturerId.of(product.getM_Product_ID(), product.getM_Product_Category_ID(), product.getManufacturer_ID()))
+				.attributeSetInstanceId(AttributeSetInstanceId.NONE)
+				.vendorProductNo("bPartnerProduct.VendorProductNo")
+				.vendorProductName("bPartnerProduct.ProductName")
+				.pricingConditions(PricingConditions.builder()
+						.build())
+				.build();
+	}
+
 	private static PurchaseCandidate createPurchaseCandidate(
 			final I_C_OrderLine orderLine,
 			final VendorProductInfo vendorProductInfo)
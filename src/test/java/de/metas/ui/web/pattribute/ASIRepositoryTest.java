@@ -0,0 +1,90 @@
+package de.metas.ui.web.pattribute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_M_Attribute;
+import org.compiere.model.I_M_AttributeInstance;
+import org.compiere.model.I_M_AttributeSet;
+import org.compiere.model.I_M_AttributeSetInstance;
+import org.compiere.model.I_M_Product;
+import org.compiere.util.CCache;
+import org.compiere.util.CacheMgt;
+import org.junit.Before;
+import org.junit.Test;
+
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ASIRepositoryTest
+{
+	@Mocked
+	private ASIDocument asiDoc;
+
+	private CCache<Integer, ASIDocument> readonlyASIDocuments;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		readonlyASIDocuments = ASIRepository.newReadonlyASIDocumentsCache();
+		readonlyASIDocuments.put(1, asiDoc);
+	}
+
+	@Test
+	public void readonlyASIDocuments_resetOnAttributeInstanceChange()
+	{
+		CacheMgt.get().reset(I_M_AttributeInstance.Table_Name);
+		assertThat(readonlyASIDocuments.get(1)).isNull();
+	}
+
+	@Test
+	public void readonlyASIDocuments_resetOnAttributeSetInstanceChange()
+	{
+		CacheMgt.get().reset(I_M_AttributeSetInstance.Table_Name);
+		assertThat(readonlyASIDocuments.get(1)).isNull();
+	}
+
+	@Test
+	public void readonlyASIDocuments_resetOnAttributeSetChange()
+	{
+		CacheMgt.get().reset(I_M_AttributeSet.Table_Name);
+		assertThat(readonlyASIDocuments.get(1)).isNull();
+	}
+
+	@Test
+	public void readonlyASIDocuments_resetOnAttributeChange()
+	{
+		CacheMgt.get().reset(I_M_Attribute.Table_Name);
+		assertThat(readonlyASIDocuments.get(1)).isNull();
+	}
+
+	@Test
+	public void readonlyASIDocuments_notResetOnUnrelatedTableChange()
+	{
+		CacheMgt.get().reset(I_M_Product.Table_Name);
+		assertThat(readonlyASIDocuments.get(1)).isSameAs(asiDoc);
+	}
+}
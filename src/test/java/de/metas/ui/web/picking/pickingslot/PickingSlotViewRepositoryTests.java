@@ -6,13 +6,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.adempiere.test.AdempiereTestHelper;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 
 import de.metas.handlingunits.model.I_M_ShipmentSchedule;
@@ -150,6 +154,46 @@ public class PickingSlotViewRepositoryTests
 		assertThat(whuRow.getHuId(), is(101));
 	}
 
+	/**
+	 * Verifies {@link PickingSlotViewRepository#retrieveRowsIndexedByShipmentScheduleId(PickingSlotRepoQuery, java.util.Collection)}:
+	 * each requested shipment schedule gets its own rows, while the HUs are retrieved just once. Shipment schedules which were not requested get no rows.
+	 */
+	@Test
+	public void testRetrieveRowsIndexedByShipmentScheduleId()
+	{
+		final I_M_ShipmentSchedule shipmentSchedule1 = newInstance(I_M_ShipmentSchedule.class);
+		save(shipmentSchedule1);
+		final I_M_ShipmentSchedule shipmentSchedule2 = newInstance(I_M_ShipmentSchedule.class);
+		save(shipmentSchedule2);
+		final I_M_ShipmentSchedule shipmentSchedule3 = newInstance(I_M_ShipmentSchedule.class);
+		save(shipmentSchedule3);
+
+		final I_M_PickingSlot pickingSlot = newInstance(I_M_PickingSlot.class);
+		save(pickingSlot);
+
+		final PickingSlotRepoQuery query = PickingSlotRepoQuery.builder()
+				.shipmentScheduleId(shipmentSchedule1.getM_ShipmentSchedule_ID())
+				.shipmentScheduleId(shipmentSchedule2.getM_ShipmentSchedule_ID())
+				.shipmentScheduleId(shipmentSchedule3.getM_ShipmentSchedule_ID())
+				.build();
+
+		// @formatter:off
+		new Expectations() {{
+			pickingHUsRepo.retrieveSourceHUsIndexedByShipmentScheduleId((Collection<I_M_ShipmentSchedule>)any, (Collection<I_M_ShipmentSchedule>)any); result = ImmutableMap.of(); times = 1;
+			pickingHUsRepo.retrievePickedHUsIndexedByPickingSlotId(query); result = ImmutableListMultimap.of(); times = 1;
+		}};
+		// @formatter:on
+
+		final PickingSlotViewRepository pickingSlotViewRepository = createPickingSllotViewRepository();
+		final Map<Integer, List<PickingSlotRow>> rowsByShipmentScheduleId = pickingSlotViewRepository.retrieveRowsIndexedByShipmentScheduleId(
+				query,
+				ImmutableSet.of(shipmentSchedule1.getM_ShipmentSchedule_ID(), shipmentSchedule2.getM_ShipmentSchedule_ID()));
+
+		assertThat(rowsByShipmentScheduleId.keySet()).containsOnly(shipmentSchedule1.getM_ShipmentSchedule_ID(), shipmentSchedule2.getM_ShipmentSchedule_ID());
+		assertThat(rowsByShipmentScheduleId.get(shipmentSchedule1.getM_ShipmentSchedule_ID())).hasSize(1);
+		assertThat(rowsByShipmentScheduleId.get(shipmentSchedule2.getM_ShipmentSchedule_ID())).hasSize(1);
+	}
+
 	private PickingSlotViewRepository createPickingSllotViewRepository()
 	{
 		final NullLookupDataSource nullDs = NullLookupDataSource.instance;
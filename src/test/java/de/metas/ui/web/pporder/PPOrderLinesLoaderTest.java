@@ -0,0 +1,128 @@
+package de.metas.ui.web.pporder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.model.X_M_HU;
+import de.metas.ui.web.handlingunits.HUEditorRow;
+import de.metas.ui.web.handlingunits.HUEditorRowId;
+import de.metas.ui.web.handlingunits.HUEditorRowType;
+import de.metas.ui.web.picking.pickingslot.MockedHUEditorViewRepository;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class PPOrderLinesLoaderTest
+{
+	private static final WindowId HU_WINDOW_ID = WindowId.of(540189);
+
+	private CountingHUEditorViewRepository huEditorRepo;
+	private PPOrderLinesLoader loader;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		huEditorRepo = new CountingHUEditorViewRepository();
+		loader = new PPOrderLinesLoader(huEditorRepo, null);
+	}
+
+	@Test
+	public void createRowsForSourceHUs_loadsAllHUsInOneGo()
+	{
+		final ImmutableList.Builder<HuId> sourceHUIds = ImmutableList.builder();
+		for (int huId = 1; huId <= 500; huId++)
+		{
+			huEditorRepo.addRow(createSourceHURow(huId));
+			sourceHUIds.add(HuId.ofRepoId(huId));
+		}
+
+		final List<PPOrderLineRow> rows = loader.createRowsForSourceHUs(sourceHUIds.build());
+
+		assertThat(rows).hasSize(500);
+		assertThat(rows.get(0).getM_HU_ID()).isEqualTo(1);
+		assertThat(rows.get(499).getM_HU_ID()).isEqualTo(500);
+
+		assertThat(huEditorRepo.retrieveForHUIdsCalls).isEqualTo(1);
+		assertThat(huEditorRepo.retrieveForHUIdCalls).isEqualTo(0);
+	}
+
+	@Test
+	public void createRowsForSourceHUs_noSourceHUs()
+	{
+		final List<PPOrderLineRow> rows = loader.createRowsForSourceHUs(ImmutableList.of());
+
+		assertThat(rows).isEmpty();
+		assertThat(huEditorRepo.retrieveForHUIdsCalls).isEqualTo(0);
+		assertThat(huEditorRepo.retrieveForHUIdCalls).isEqualTo(0);
+	}
+
+	private static HUEditorRow createSourceHURow(final int huId)
+	{
+		return HUEditorRow.builder(HU_WINDOW_ID)
+				.setRowId(HUEditorRowId.ofTopLevelHU(huId))
+				.setType(HUEditorRowType.LU)
+				.setTopLevel(true)
+				.setCode("HU-" + huId)
+				.setProduct(JSONLookupValue.of(10, "product"))
+				.setUOM(JSONLookupValue.of(20, "uom"))
+				.setQtyCU(BigDecimal.TEN)
+				.setPackingInfo("packingInfo")
+				.setHUStatusDisplay(JSONLookupValue.of(X_M_HU.HUSTATUS_Active, "Active"))
+				.build();
+	}
+
+	private static class CountingHUEditorViewRepository extends MockedHUEditorViewRepository
+	{
+		private int retrieveForHUIdCalls = 0;
+		private int retrieveForHUIdsCalls = 0;
+
+		@Override
+		public HUEditorRow retrieveForHUId(final HuId huId)
+		{
+			retrieveForHUIdCalls++;
+			return super.retrieveForHUId(huId);
+		}
+
+		@Override
+		public List<HUEditorRow> retrieveForHUIds(final Collection<HuId> huIds)
+		{
+			retrieveForHUIdsCalls++;
+			return huIds.stream()
+					.map(super::retrieveForHUId)
+					.collect(ImmutableList.toImmutableList());
+		}
+	}
+}
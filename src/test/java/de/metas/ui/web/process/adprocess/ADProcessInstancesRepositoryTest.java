@@ -0,0 +1,82 @@
+package de.metas.ui.web.process.adprocess;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.cache.Cache;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import mockit.Expectations;
+import mockit.Injectable;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ADProcessInstancesRepositoryTest
+{
+	@Injectable
+	private ADProcessInstanceController executedInstance;
+	@Injectable
+	private ADProcessInstanceController notExecutedInstance1;
+	@Injectable
+	private ADProcessInstanceController notExecutedInstance2;
+
+	@Test
+	public void executedInstanceIsNotEvictedBySize()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			executedInstance.hasExecutionResult(); result = true; minTimes = 0;
+			notExecutedInstance1.hasExecutionResult(); result = false; minTimes = 0;
+			notExecutedInstance1.getParametersCount(); result = 5; minTimes = 0;
+			notExecutedInstance2.hasExecutionResult(); result = false; minTimes = 0;
+			notExecutedInstance2.getParametersCount(); result = 5; minTimes = 0;
+		}};	// @formatter:on
+
+		final Cache<DocumentId, ADProcessInstanceController> processInstances = ADProcessInstancesRepository.createProcessInstancesCache(10, 10);
+		processInstances.put(DocumentId.of(1), executedInstance);
+		processInstances.put(DocumentId.of(2), notExecutedInstance1);
+		processInstances.put(DocumentId.of(3), notExecutedInstance2);
+
+		assertThat(processInstances.getIfPresent(DocumentId.of(1))).isSameAs(executedInstance);
+		assertThat(processInstances.getIfPresent(DocumentId.of(2))).isNull();
+		assertThat(processInstances.getIfPresent(DocumentId.of(3))).isSameAs(notExecutedInstance2);
+	}
+
+	@Test
+	public void notExecutedInstancesAreEvictedBySize()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			notExecutedInstance1.hasExecutionResult(); result = false; minTimes = 0;
+			notExecutedInstance1.getParametersCount(); result = 20; minTimes = 0;
+		}};	// @formatter:on
+
+		final Cache<DocumentId, ADProcessInstanceController> processInstances = ADProcessInstancesRepository.createProcessInstancesCache(10, 10);
+		processInstances.put(DocumentId.of(1), notExecutedInstance1);
+
+		assertThat(processInstances.getIfPresent(DocumentId.of(1))).isNull();
+	}
+}
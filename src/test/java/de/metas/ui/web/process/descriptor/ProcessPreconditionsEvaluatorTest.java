@@ -0,0 +1,203 @@
+package de.metas.ui.web.process.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Env;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.process.ProcessPreconditionsResolution;
+import de.metas.ui.web.process.ProcessId;
+import de.metas.ui.web.process.ViewAsPreconditionsContext;
+import de.metas.ui.web.view.IView;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRowIdsSelection;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ProcessPreconditionsEvaluatorTest
+{
+	@Mocked
+	private IView view;
+
+	private ViewId viewId;
+	private ViewAsPreconditionsContext viewContext;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		setRoleId(1);
+
+		viewId = ViewId.random(WindowId.of(123));
+
+		// @formatter:off
+		new Expectations()
+		{{
+			view.getViewId(); result = viewId; minTimes = 0;
+		}};	// @formatter:on
+
+		viewContext = ViewAsPreconditionsContext.builder()
+				.view(view)
+				.viewRowIdsSelection(ViewRowIdsSelection.of(viewId, DocumentIdsSelection.of(DocumentId.of(1))))
+				.build();
+	}
+
+	private static void setRoleId(final int adRoleId)
+	{
+		Env.setContext(Env.getCtx(), Env.CTXNAME_AD_Role_ID, adRoleId);
+	}
+
+	private static ProcessPreconditionsEvaluator newEvaluator(final long timeBudgetMillis)
+	{
+		return new ProcessPreconditionsEvaluator(timeBudgetMillis, 2, 10, 100, 60);
+	}
+
+	private static WebuiRelatedProcessDescriptor newDescriptor(final Supplier<ProcessPreconditionsResolution> preconditionsResolutionSupplier)
+	{
+		return newDescriptor(1, preconditionsResolutionSupplier);
+	}
+
+	private static WebuiRelatedProcessDescriptor newDescriptor(final int processId, final Supplier<ProcessPreconditionsResolution> preconditionsResolutionSupplier)
+	{
+		return WebuiRelatedProcessDescriptor.builder()
+				.processId(ProcessId.of("test", processId))
+				.preconditionsResolutionSupplier(preconditionsResolutionSupplier)
+				.build();
+	}
+
+	private static Supplier<ProcessPreconditionsResolution> countingAccept(final AtomicInteger evaluationsCount)
+	{
+		return () -> {
+			evaluationsCount.incrementAndGet();
+			return ProcessPreconditionsResolution.accept();
+		};
+	}
+
+	@Test
+	public void cachedPerPermissionsAndViewVersion()
+	{
+		final ProcessPreconditionsEvaluator evaluator = newEvaluator(5000);
+		final AtomicInteger evaluationsCount = new AtomicInteger(0);
+
+		evaluator.evaluate(viewContext, ImmutableList.of(newDescriptor(countingAccept(evaluationsCount))));
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+
+		final List<WebuiRelatedProcessDescriptor> result = evaluator.evaluate(viewContext, ImmutableList.of(newDescriptor(countingAccept(evaluationsCount))));
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+		assertThat(result.get(0).isEnabled()).isTrue();
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+
+		setRoleId(2);
+		evaluator.evaluate(viewContext, ImmutableList.of(newDescriptor(countingAccept(evaluationsCount))));
+		assertThat(evaluationsCount.get()).isEqualTo(2);
+
+		evaluator.notifyViewChanged(viewId);
+		evaluator.evaluate(viewContext, ImmutableList.of(newDescriptor(countingAccept(evaluationsCount))));
+		assertThat(evaluationsCount.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void evaluatedSequentially()
+	{
+		final ProcessPreconditionsEvaluator evaluator = newEvaluator(5000);
+		final AtomicInteger concurrentEvaluations = new AtomicInteger(0);
+		final AtomicInteger maxConcurrentEvaluations = new AtomicInteger(0);
+		final Supplier<ProcessPreconditionsResolution> preconditionsResolutionSupplier = () -> {
+			maxConcurrentEvaluations.accumulateAndGet(concurrentEvaluations.incrementAndGet(), Math::max);
+			try
+			{
+				Thread.sleep(20);
+				return ProcessPreconditionsResolution.accept();
+			}
+			catch (final InterruptedException ex)
+			{
+				throw new RuntimeException(ex);
+			}
+			finally
+			{
+				concurrentEvaluations.decrementAndGet();
+			}
+		};
+
+		final List<WebuiRelatedProcessDescriptor> result = evaluator.evaluate(viewContext, ImmutableList.of(
+				newDescriptor(1, preconditionsResolutionSupplier),
+				newDescriptor(2, preconditionsResolutionSupplier),
+				newDescriptor(3, preconditionsResolutionSupplier)));
+
+		assertThat(maxConcurrentEvaluations.get()).isEqualTo(1);
+		assertThat(result).allMatch(WebuiRelatedProcessDescriptor::isEnabled);
+		assertThat(evaluator.getCachedResolutionsCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void timeBudgetExceeded_evaluationIsCancelledAndNotYetKnown() throws Exception
+	{
+		final ProcessPreconditionsEvaluator evaluator = newEvaluator(50);
+		final CountDownLatch interruptedLatch = new CountDownLatch(1);
+		final WebuiRelatedProcessDescriptor slowDescriptor = newDescriptor(() -> {
+			try
+			{
+				Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+				return ProcessPreconditionsResolution.accept();
+			}
+			catch (final InterruptedException ex)
+			{
+				interruptedLatch.countDown();
+				throw new RuntimeException(ex);
+			}
+		});
+
+		final AtomicInteger evaluationsCount = new AtomicInteger(0);
+		final WebuiRelatedProcessDescriptor nextDescriptor = newDescriptor(2, countingAccept(evaluationsCount));
+
+		final long startMillis = System.currentTimeMillis();
+		final List<WebuiRelatedProcessDescriptor> result = evaluator.evaluate(viewContext, ImmutableList.of(slowDescriptor, nextDescriptor));
+
+		// not evaluated in time, so they are reported as not yet known, without being evaluated by the caller
+		assertThat(result).hasSize(2);
+		assertThat(result.get(0)).isNotSameAs(slowDescriptor);
+		assertThat(result.get(0).isDisabled()).isTrue();
+		assertThat(result.get(1)).isNotSameAs(nextDescriptor);
+		assertThat(result.get(1).isDisabled()).isTrue();
+		assertThat(System.currentTimeMillis() - startMillis).isLessThan(TimeUnit.SECONDS.toMillis(5));
+
+		assertThat(interruptedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(evaluationsCount.get()).isEqualTo(0);
+		assertThat(evaluator.getCachedResolutionsCount()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,136 @@
+package de.metas.ui.web.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.session.ExpiringSession;
+
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class FixedMapSessionRepositoryTest
+{
+	@Mocked
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	private FixedMapSessionRepository sessionRepository;
+
+	@Before
+	public void init()
+	{
+		sessionRepository = FixedMapSessionRepository.builder()
+				.applicationEventPublisher(applicationEventPublisher)
+				.build();
+	}
+
+	private ExpiringSession createAndSaveSession()
+	{
+		final ExpiringSession session = sessionRepository.createSession();
+		sessionRepository.save(session);
+		return session;
+	}
+
+	@Test
+	public void getSessionsInfo_doesNotExposeSessionIds()
+	{
+		final ExpiringSession session = createAndSaveSession();
+		session.setAttribute("attr", "value");
+
+		final List<SessionInfo> sessionsInfo = sessionRepository.getSessionsInfo(10);
+		assertThat(sessionsInfo).hasSize(1);
+		assertThat(sessionsInfo.get(0).getSessionIdHash())
+				.isNotEmpty()
+				.isNotEqualTo(session.getId())
+				.doesNotContain(session.getId());
+	}
+
+	@Test
+	public void getSessionsInfo_biggestFirstAndLimited()
+	{
+		final ExpiringSession smallSession = createAndSaveSession();
+		smallSession.setAttribute("attr", "x");
+		final ExpiringSession bigSession = createAndSaveSession();
+		bigSession.setAttribute("attr", new String(new char[10000]));
+		final ExpiringSession mediumSession = createAndSaveSession();
+		mediumSession.setAttribute("attr", new String(new char[1000]));
+
+		final List<SessionInfo> sessionsInfo = sessionRepository.getSessionsInfo(2);
+		assertThat(sessionsInfo).hasSize(2);
+		assertThat(sessionsInfo.get(0).getEstimatedSizeBytes()).isGreaterThan(10000);
+		assertThat(sessionsInfo.get(1).getEstimatedSizeBytes()).isBetween(1000L, 10000L);
+	}
+
+	@Test
+	public void getSessionsInfo_estimatesOnlyAccessedOrChangedSessions()
+	{
+		final CountingSerializable attribute = new CountingSerializable();
+		final ExpiringSession session = createAndSaveSession();
+		session.setAttribute("attr", attribute);
+
+		sessionRepository.getSessionsInfo(10);
+		assertThat(attribute.serializationsCount).hasValue(1);
+
+		// not accessed meanwhile => not estimated again
+		sessionRepository.getSessionsInfo(10);
+		assertThat(attribute.serializationsCount).hasValue(1);
+
+		// accessed => estimated again
+		session.setLastAccessedTime(System.currentTimeMillis());
+		sessionRepository.getSessionsInfo(10);
+		assertThat(attribute.serializationsCount).hasValue(2);
+
+		// changed => estimated again
+		session.setAttribute("attr2", "value");
+		sessionRepository.getSessionsInfo(10);
+		assertThat(attribute.serializationsCount).hasValue(3);
+	}
+
+	@Test
+	public void getSessionsInfo_reportsNotSerializableAttributes()
+	{
+		final ExpiringSession session = createAndSaveSession();
+		session.setAttribute("notSerializable", new Object());
+
+		final List<SessionInfo> sessionsInfo = sessionRepository.getSessionsInfo(10);
+		assertThat(sessionsInfo.get(0).getNotSerializableAttributes()).containsExactly("notSerializable");
+	}
+
+	@SuppressWarnings("serial")
+	private static final class CountingSerializable implements Serializable
+	{
+		private final transient AtomicInteger serializationsCount = new AtomicInteger(0);
+
+		private void writeObject(final java.io.ObjectOutputStream out) throws java.io.IOException
+		{
+			serializationsCount.incrementAndGet();
+			out.defaultWriteObject();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowFieldNameAndJsonValuesTest
+{
+	@Test
+	public void nullValuesAreSkipped()
+	{
+		final ViewRowFieldNamesSchema schema = ViewRowFieldNamesSchema.ofFieldNames(ImmutableList.of("A", "B", "C"));
+
+		final ViewRowFieldNameAndJsonValues values = ViewRowFieldNameAndJsonValues.builder(schema)
+				.put("A", 1)
+				.put("B", JSONNullValue.instance)
+				.put("C", "c")
+				.build();
+
+		assertThat(values).hasSize(2);
+		assertThat(values).containsOnlyKeys("A", "C");
+		assertThat(values.get("B")).isNull();
+		assertThat(values.containsKey("B")).isFalse();
+		assertThat(values.get("unknown")).isNull();
+	}
+
+	@Test
+	public void entriesAreIteratedInSchemaOrder()
+	{
+		final ViewRowFieldNamesSchema schema = ViewRowFieldNamesSchema.ofFieldNames(ImmutableList.of("A", "B", "C"));
+
+		final ViewRowFieldNameAndJsonValues values = ViewRowFieldNameAndJsonValues.builder(schema)
+				.put("C", "c")
+				.put("A", "a")
+				.build();
+
+		assertThat(values.keySet()).containsExactly("A", "C");
+		assertThat(values).isEqualTo(ImmutableMap.of("A", "a", "C", "c"));
+	}
+
+	@Test
+	public void schemaGrowsWithoutAffectingExistingRows()
+	{
+		final ViewRowFieldNamesSchema schema = ViewRowFieldNamesSchema.ofFieldNames(ImmutableList.of("A"));
+
+		final ViewRowFieldNameAndJsonValues row1 = ViewRowFieldNameAndJsonValues.builder(schema)
+				.put("A", "a1")
+				.build();
+		final ViewRowFieldNameAndJsonValues row2 = ViewRowFieldNameAndJsonValues.builder(schema)
+				.put("A", "a2")
+				.put("Extra", "extra2")
+				.build();
+
+		assertThat(schema.size()).isEqualTo(2);
+		assertThat(row1).isEqualTo(ImmutableMap.of("A", "a1"));
+		assertThat(row2).isEqualTo(ImmutableMap.of("A", "a2", "Extra", "extra2"));
+	}
+
+	@Test
+	public void viewRowsShareTheSchema()
+	{
+		final ViewRowFieldNamesSchema schema = ViewRowFieldNamesSchema.newInstance();
+
+		final ViewRow row = ViewRow.builder(WindowId.of(123), schema)
+				.setRowId(DocumentId.of(1))
+				.putFieldValue("Name", "name1")
+				.putFieldValue("Description", null)
+				.build();
+
+		assertThat(row.getFieldNameAndJsonValues()).isEqualTo(ImmutableMap.of("Name", "name1"));
+		assertThat(schema.getIndex("Name")).isEqualTo(0);
+	}
+}
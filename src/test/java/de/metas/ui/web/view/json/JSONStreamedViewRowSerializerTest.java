@@ -0,0 +1,322 @@
+package de.metas.ui.web.view.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.i18n.ITranslatableString;
+import de.metas.i18n.ImmutableTranslatableString;
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.IViewRowOverrides;
+import de.metas.ui.web.view.IViewRowType;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewRow.DefaultRowType;
+import de.metas.ui.web.view.ViewRowOverridesHelper;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.datatypes.json.JSONNullValue;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.ViewEditorRenderMode;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Makes sure {@link JSONStreamedViewRow}s are serialized byte by byte the same as {@link JSONViewRow}s.
+ */
+public class JSONStreamedViewRowSerializerTest
+{
+	private static final String AD_Language = "en_US";
+	private static final WindowId WINDOW_ID = WindowId.of(123);
+
+	private ObjectMapper jsonObjectMapper;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		jsonObjectMapper = new ObjectMapper();
+	}
+
+	private void assertSameJson(final List<? extends IViewRow> rows, final IViewRowOverrides rowOverrides) throws Exception
+	{
+		final String expectedJson = jsonObjectMapper.writeValueAsString(JSONViewRow.ofViewRows(rows, rowOverrides, AD_Language));
+		final String actualJson = jsonObjectMapper.writeValueAsString(JSONStreamedViewRow.ofViewRows(rows, rowOverrides, AD_Language));
+		assertThat(actualJson).isEqualTo(expectedJson);
+	}
+
+	@Test
+	public void simpleRow() throws Exception
+	{
+		final TestRow row = TestRow.builder()
+				.rowId(DocumentId.of(1))
+				.fieldValue("DocumentNo", "DOC-1")
+				.build();
+
+		assertSameJson(ImmutableList.of(row), ViewRowOverridesHelper.NULL);
+	}
+
+	@Test
+	public void allKindOfValues() throws Exception
+	{
+		final TestRow row = TestRow.builder()
+				.rowId(DocumentId.of(1))
+				.type(DefaultRowType.Line)
+				.processed(true)
+				.hasAttributes(true)
+				.fieldValue("DocumentNo", "DOC-1")
+				.fieldValue("C_BPartner_ID", JSONLookupValue.of(1001, "Business partner"))
+				.fieldValue("QtyOrdered", new BigDecimal("12.340"))
+				.fieldValue("IsActive", true)
+				.fieldValue("Description", JSONNullValue.instance)
+				.widgetType("DocumentNo", DocumentFieldWidgetType.Text)
+				.widgetType("DateOrdered", DocumentFieldWidgetType.Date) // field without value
+				.viewEditorRenderMode("QtyOrdered", ViewEditorRenderMode.ALWAYS)
+				.viewEditorRenderMode("Description", ViewEditorRenderMode.ON_DEMAND)
+				.build();
+
+		assertSameJson(ImmutableList.of(row), ViewRowOverridesHelper.NULL);
+	}
+
+	@Test
+	public void rowWithIdField() throws Exception
+	{
+		final TestRow row = TestRow.builder()
+				.rowId(DocumentId.of(1))
+				.fieldValue("Name", "name")
+				.fieldValue("ID", 12345)
+				.build();
+
+		assertSameJson(ImmutableList.of(row), ViewRowOverridesHelper.NULL);
+	}
+
+	@Test
+	public void includedRows() throws Exception
+	{
+		final TestRow includedRow1 = TestRow.builder()
+				.rowId(DocumentId.ofString("1-1"))
+				.fieldValue("Name", "included 1")
+				.includedRow(TestRow.builder()
+						.rowId(DocumentId.ofString("1-1-1"))
+						.fieldValue("Name", "included 1-1")
+						.build())
+				.build();
+		final TestRow includedRow2 = TestRow.builder()
+				.rowId(DocumentId.ofString("1-2"))
+				.fieldValue("Name", "included 2")
+				.build();
+		final TestRow row = TestRow.builder()
+				.rowId(DocumentId.of(1))
+				.fieldValue("Name", "main")
+				.includedRow(includedRow1)
+				.includedRow(includedRow2)
+				.build();
+
+		assertSameJson(ImmutableList.of(row), ViewRowOverridesHelper.NULL);
+	}
+
+	@Test
+	public void includedViews() throws Exception
+	{
+		final TestRow rowWithIncludedView = TestRow.builder()
+				.rowId(DocumentId.of(1))
+				.includedViewId(ViewId.random(WindowId.of(456)))
+				.build();
+		final TestRow rowWithOverriddenIncludedView = TestRow.builder()
+				.rowId(DocumentId.of(2))
+				.build();
+		final TestRow rowWithoutIncludedView = TestRow.builder()
+				.rowId(DocumentId.of(3))
+				.build();
+
+		final ViewId overriddenIncludedViewId = ViewId.random(WindowId.of(789));
+		final IViewRowOverrides rowOverrides = new IViewRowOverrides()
+		{
+			@Override
+			public ViewId getIncludedViewId(final IViewRow row)
+			{
+				return row == rowWithOverriddenIncludedView ? overriddenIncludedViewId : row.getIncludedViewId();
+			}
+		};
+
+		assertSameJson(ImmutableList.of(rowWithIncludedView, rowWithOverriddenIncludedView, rowWithoutIncludedView), rowOverrides);
+	}
+
+	@Test
+	public void singleColumnRow() throws Exception
+	{
+		final TestRow row = TestRow.builder()
+				.rowId(DocumentId.of(1))
+				.singleColumn(true)
+				.singleColumnCaption(ImmutableTranslatableString.constant("Some caption"))
+				.build();
+
+		assertSameJson(ImmutableList.of(row), ViewRowOverridesHelper.NULL);
+	}
+
+	@Test
+	public void viewResultPage() throws Exception
+	{
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (int i = 1; i <= 20; i++)
+		{
+			rows.add(TestRow.builder()
+					.rowId(DocumentId.of(i))
+					.type(DefaultRowType.Line)
+					.fieldValue("DocumentNo", "DOC-" + i)
+					.fieldValue("M_Product_ID", JSONLookupValue.of(2000 + i, "Product " + i))
+					.build());
+		}
+
+		assertSameJson(rows.build(), ViewRowOverridesHelper.NULL);
+	}
+
+	private static final class TestRow implements IViewRow
+	{
+		private final DocumentId rowId;
+		private final IViewRowType type;
+		private final boolean processed;
+		private final boolean hasAttributes;
+		private final Map<String, Object> fieldValues;
+		private final Map<String, DocumentFieldWidgetType> widgetTypes;
+		private final Map<String, ViewEditorRenderMode> viewEditorRenderModes;
+		private final List<TestRow> includedRows;
+		private final ViewId includedViewId;
+		private final boolean singleColumn;
+		private final ITranslatableString singleColumnCaption;
+
+		@Builder
+		private TestRow(
+				@NonNull final DocumentId rowId,
+				final IViewRowType type,
+				final boolean processed,
+				final boolean hasAttributes,
+				@Singular final Map<String, Object> fieldValues,
+				@Singular final Map<String, DocumentFieldWidgetType> widgetTypes,
+				@Singular final Map<String, ViewEditorRenderMode> viewEditorRenderModes,
+				@Singular final List<TestRow> includedRows,
+				final ViewId includedViewId,
+				final boolean singleColumn,
+				final ITranslatableString singleColumnCaption)
+		{
+			this.rowId = rowId;
+			this.type = type;
+			this.processed = processed;
+			this.hasAttributes = hasAttributes;
+			this.fieldValues = ImmutableMap.copyOf(fieldValues);
+			this.widgetTypes = ImmutableMap.copyOf(widgetTypes);
+			this.viewEditorRenderModes = ImmutableMap.copyOf(viewEditorRenderModes);
+			this.includedRows = ImmutableList.copyOf(includedRows);
+			this.includedViewId = includedViewId;
+			this.singleColumn = singleColumn;
+			this.singleColumnCaption = singleColumnCaption != null ? singleColumnCaption : ITranslatableString.empty();
+		}
+
+		@Override
+		public DocumentId getId()
+		{
+			return rowId;
+		}
+
+		@Override
+		public IViewRowType getType()
+		{
+			return type;
+		}
+
+		@Override
+		public boolean isProcessed()
+		{
+			return processed;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			return DocumentPath.rootDocumentPath(WINDOW_ID, rowId);
+		}
+
+		@Override
+		public Map<String, Object> getFieldNameAndJsonValues()
+		{
+			return fieldValues;
+		}
+
+		@Override
+		public Map<String, DocumentFieldWidgetType> getWidgetTypesByFieldName()
+		{
+			return widgetTypes;
+		}
+
+		@Override
+		public Map<String, ViewEditorRenderMode> getViewEditorRenderModeByFieldName()
+		{
+			return viewEditorRenderModes;
+		}
+
+		@Override
+		public Collection<? extends IViewRow> getIncludedRows()
+		{
+			return includedRows;
+		}
+
+		@Override
+		public boolean hasAttributes()
+		{
+			return hasAttributes;
+		}
+
+		@Override
+		public ViewId getIncludedViewId()
+		{
+			return includedViewId;
+		}
+
+		@Override
+		public boolean isSingleColumn()
+		{
+			return singleColumn;
+		}
+
+		@Override
+		public ITranslatableString getSingleColumnCaption()
+		{
+			return singleColumnCaption;
+		}
+	}
+}
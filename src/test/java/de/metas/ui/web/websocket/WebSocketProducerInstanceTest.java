@@ -0,0 +1,232 @@
+package de.metas.ui.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import de.metas.ui.web.websocket.WebSocketProducersRegistry.ProducerSchedulingSettings;
+import de.metas.ui.web.websocket.WebSocketProducersRegistry.WebSocketProducerInstance;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class WebSocketProducerInstanceTest
+{
+	private static final String TOPIC = "/test/topic";
+
+	private static final ProducerSchedulingSettings SETTINGS = ProducerSchedulingSettings.builder()
+			.periodMillis(1000)
+			.timeoutMillis(5000)
+			.heartbeatMillis(10000)
+			.maxBackoffMillis(4000)
+			.build();
+
+	@Mocked
+	private WebsocketSender websocketSender;
+
+	private final AtomicLong now = new AtomicLong(0);
+	private ScheduledExecutorService scheduler;
+
+	@Before
+	public void init()
+	{
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+	}
+
+	@After
+	public void destroy()
+	{
+		scheduler.shutdownNow();
+	}
+
+	private WebSocketProducerInstance createInstance(final WebSocketProducer producer, final ExecutorService workers)
+	{
+		return new WebSocketProducerInstance(TOPIC, producer, SETTINGS, scheduler, workers, websocketSender, now::get);
+	}
+
+	private void tickAt(final WebSocketProducerInstance instance, final long millis)
+	{
+		now.set(millis);
+		instance.tick();
+	}
+
+	@Test
+	public void unchangedEventIsSentOnlyOnHeartbeat()
+	{
+		final AtomicInteger value = new AtomicInteger(1);
+		final WebSocketProducerInstance instance = createInstance(new EqualsProducer(value::get), MoreExecutors.newDirectExecutorService());
+
+		tickAt(instance, 0); // sent: first event
+		tickAt(instance, 1000); // skipped: unchanged
+		tickAt(instance, 9999); // skipped: unchanged, heartbeat not elapsed
+		tickAt(instance, 10000); // sent: heartbeat elapsed
+		value.set(2);
+		tickAt(instance, 11000); // sent: changed
+
+		// @formatter:off
+		new Verifications()
+		{{
+			websocketSender.convertAndSend(TOPIC, 1); times = 2;
+			websocketSender.convertAndSend(TOPIC, 2); times = 1;
+		}};	// @formatter:on
+	}
+
+	@Test
+	public void failingProducerIsBackedOffExponentially()
+	{
+		final AtomicInteger calls = new AtomicInteger(0);
+		final WebSocketProducerInstance instance = createInstance(() -> {
+			calls.incrementAndGet();
+			throw new RuntimeException("test failure");
+		}, MoreExecutors.newDirectExecutorService());
+
+		tickAt(instance, 0); // failure #1 => backoff 1000ms
+		assertThat(calls).hasValue(1);
+		tickAt(instance, 999);
+		assertThat(calls).hasValue(1);
+		tickAt(instance, 1000); // failure #2 => backoff 2000ms
+		assertThat(calls).hasValue(2);
+		tickAt(instance, 2999);
+		assertThat(calls).hasValue(2);
+		tickAt(instance, 3000); // failure #3 => backoff 4000ms
+		assertThat(calls).hasValue(3);
+		tickAt(instance, 6999);
+		assertThat(calls).hasValue(3);
+		tickAt(instance, 7000); // failure #4 => backoff capped to 4000ms
+		assertThat(calls).hasValue(4);
+		tickAt(instance, 10999);
+		assertThat(calls).hasValue(4);
+		tickAt(instance, 11000);
+		assertThat(calls).hasValue(5);
+
+		// @formatter:off
+		new Verifications()
+		{{
+			websocketSender.convertAndSend(TOPIC, any); times = 0;
+		}};	// @formatter:on
+	}
+
+	@Test
+	public void backoffIsResetAfterSuccessfulCall()
+	{
+		final AtomicInteger calls = new AtomicInteger(0);
+		final WebSocketProducerInstance instance = createInstance(() -> {
+			if (calls.incrementAndGet() == 1)
+			{
+				throw new RuntimeException("test failure");
+			}
+			return calls.get();
+		}, MoreExecutors.newDirectExecutorService());
+
+		tickAt(instance, 0); // failure => backoff 1000ms
+		tickAt(instance, 1000); // success
+		tickAt(instance, 2000); // success, no backoff
+		assertThat(calls).hasValue(3);
+	}
+
+	@Test
+	public void stuckProducerIsInterruptedAndBackedOff() throws Exception
+	{
+		final CountDownLatch producerStarted = new CountDownLatch(1);
+		final CountDownLatch producerInterrupted = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger(0);
+		final WebSocketProducer stuckProducer = () -> {
+			calls.incrementAndGet();
+			producerStarted.countDown();
+			try
+			{
+				new CountDownLatch(1).await();
+			}
+			catch (final InterruptedException ex)
+			{
+				producerInterrupted.countDown();
+				Thread.currentThread().interrupt();
+			}
+			return "never sent";
+		};
+
+		final ExecutorService workers = Executors.newSingleThreadExecutor();
+		try
+		{
+			final WebSocketProducerInstance instance = createInstance(stuckProducer, workers);
+
+			tickAt(instance, 0);
+			assertThat(producerStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+			tickAt(instance, 4999); // still running, not timed out yet
+			assertThat(producerInterrupted.getCount()).isEqualTo(1);
+
+			tickAt(instance, 5000); // timed out => interrupted, backoff 1000ms
+			assertThat(producerInterrupted.await(10, TimeUnit.SECONDS)).isTrue();
+
+			tickAt(instance, 5999);
+			assertThat(calls).hasValue(1);
+		}
+		finally
+		{
+			workers.shutdownNow();
+		}
+
+		// @formatter:off
+		new Verifications()
+		{{
+			websocketSender.convertAndSend(TOPIC, any); times = 0;
+		}};	// @formatter:on
+	}
+
+	private static final class EqualsProducer implements WebSocketProducer
+	{
+		private final Supplier<Object> valueSupplier;
+
+		private EqualsProducer(final Supplier<Object> valueSupplier)
+		{
+			this.valueSupplier = valueSupplier;
+		}
+
+		@Override
+		public Object produceEvent()
+		{
+			return valueSupplier.get();
+		}
+
+		@Override
+		public boolean isSameEvent(final Object previousEvent, final Object event)
+		{
+			return previousEvent.equals(event);
+		}
+	}
+}
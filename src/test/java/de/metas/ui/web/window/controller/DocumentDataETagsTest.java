@@ -0,0 +1,230 @@
+package de.metas.ui.web.window.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.adempiere.ad.expression.api.LogicExpressionResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONDocument;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentField;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.DocumentValidStatus;
+import de.metas.ui.web.window.model.IDocumentFieldView;
+import de.metas.ui.web.window.model.lookup.DocumentZoomIntoInfo;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentDataETagsTest
+{
+	private static final String VARIANT = "variant";
+	private static final String AD_LANGUAGE = "en_US";
+
+	@Injectable
+	private Document document;
+
+	private DocumentDataETags documentDataETags;
+	private FieldView nameField;
+	private FieldView bpartnerField;
+	private String documentVersion;
+
+	@Before
+	public void init()
+	{
+		documentDataETags = new DocumentDataETags();
+		nameField = new FieldView("Name", "name1");
+		bpartnerField = new FieldView("C_BPartner_ID", IntegerLookupValue.of(1, "partner1"));
+		documentVersion = "version1";
+
+		// @formatter:off
+		new Expectations()
+		{{
+			document.getVersionIfNotChanged(); result = new Delegate<String>() { @SuppressWarnings("unused") String delegate() { return documentVersion; } }; minTimes = 0;
+			document.getDocumentPath(); result = DocumentPath.rootDocumentPath(WindowId.of(123), 1); minTimes = 0;
+			document.getFieldViews(); result = ImmutableList.of(nameField, bpartnerField); minTimes = 0;
+			document.getIncludedDocumentsCollections(); result = ImmutableList.of(); minTimes = 0;
+			document.getValidStatus(); result = DocumentValidStatus.documentValid(); minTimes = 0;
+			document.getStandardActions(); result = ImmutableSet.of(); minTimes = 0;
+		}};	// @formatter:on
+	}
+
+	private ResponseEntity<List<JSONDocument>> getData(final String ifNoneMatch, final boolean delta, final Supplier<List<JSONDocument>> jsonDocumentsSupplier)
+	{
+		final MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET", "/rest/api/window/123/1");
+		if (ifNoneMatch != null)
+		{
+			httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		final ServletWebRequest request = new ServletWebRequest(httpRequest, new MockHttpServletResponse());
+
+		return documentDataETags.createResponse(ImmutableList.of(document), VARIANT, AD_LANGUAGE, delta, request, jsonDocumentsSupplier);
+	}
+
+	@Test
+	public void notModified()
+	{
+		final ResponseEntity<List<JSONDocument>> response1 = getData(null, false, ImmutableList::of);
+		assertThat(response1.getStatusCode()).isEqualTo(HttpStatus.OK);
+		final String etag = response1.getHeaders().getETag();
+		assertThat(etag).isNotNull();
+
+		final AtomicInteger jsonConversions = new AtomicInteger();
+		final ResponseEntity<List<JSONDocument>> response2 = getData(etag, false, () -> {
+			jsonConversions.incrementAndGet();
+			return ImmutableList.of();
+		});
+		assertThat(response2.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(jsonConversions).hasValue(0);
+	}
+
+	@Test
+	public void lookupDisplayNameChanged_sameVersion()
+	{
+		final String etag = getData(null, false, ImmutableList::of).getHeaders().getETag();
+
+		bpartnerField.value = IntegerLookupValue.of(1, "partner1 renamed");
+
+		final ResponseEntity<List<JSONDocument>> response = getData(etag, false, ImmutableList::of);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+	}
+
+	@Test
+	public void readonlyLogicChanged_sameVersion()
+	{
+		final String etag = getData(null, false, ImmutableList::of).getHeaders().getETag();
+
+		nameField.readonly = LogicExpressionResult.TRUE;
+
+		final ResponseEntity<List<JSONDocument>> response = getData(etag, false, ImmutableList::of);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+	}
+
+	@Test
+	public void documentWithUnsavedChanges_noETag()
+	{
+		documentVersion = null;
+
+		final ResponseEntity<List<JSONDocument>> response = getData("\"some-etag\"", false, ImmutableList::of);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNull();
+	}
+
+	@Test
+	public void delta_onlyChangedFieldsAreRetained(@Mocked final JSONDocument jsonDocument)
+	{
+		final String etag = getData(null, true, () -> ImmutableList.of(jsonDocument)).getHeaders().getETag();
+
+		nameField.value = "name2";
+
+		final ResponseEntity<List<JSONDocument>> response = getData(etag, true, () -> ImmutableList.of(jsonDocument));
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		// @formatter:off
+		final List<Predicate<JSONDocumentField>> filters = new ArrayList<>();
+		new Verifications()
+		{{
+			jsonDocument.retainFields(withCapture(filters)); times = 1;
+			jsonDocument.setDelta(); times = 1;
+		}};	// @formatter:on
+
+		final Predicate<JSONDocumentField> filter = filters.get(0);
+		assertThat(filter.test(JSONDocumentField.ofNameAndValue("Name", "name2"))).isTrue();
+		assertThat(filter.test(JSONDocumentField.ofNameAndValue("C_BPartner_ID", null))).isFalse();
+		assertThat(filter.test(JSONDocumentField.idField(1))).isTrue();
+	}
+
+	@Test
+	public void delta_unknownPreviousETag_allFieldsAreSent(@Mocked final JSONDocument jsonDocument)
+	{
+		getData("\"unknown\"", true, () -> ImmutableList.of(jsonDocument));
+
+		// @formatter:off
+		new Verifications()
+		{{
+			jsonDocument.retainFields((Predicate<JSONDocumentField>)any); times = 0;
+			jsonDocument.setDelta(); times = 0;
+		}};	// @formatter:on
+	}
+
+	private static final class FieldView implements IDocumentFieldView
+	{
+		private final String fieldName;
+		private Object value;
+		private LogicExpressionResult readonly = LogicExpressionResult.FALSE;
+
+		private FieldView(final String fieldName, final Object value)
+		{
+			this.fieldName = fieldName;
+			this.value = value;
+		}
+
+		// @formatter:off
+		@Override public String getFieldName() { return fieldName; }
+		@Override public Object getValue() { return value; }
+		@Override public LogicExpressionResult getReadonly() { return readonly; }
+		@Override public LogicExpressionResult getMandatory() { return LogicExpressionResult.FALSE; }
+		@Override public LogicExpressionResult getDisplayed() { return LogicExpressionResult.TRUE; }
+		@Override public boolean isLookupValuesStale() { return false; }
+		@Override public DocumentValidStatus getValidStatus() { return DocumentValidStatus.validField(fieldName, true); }
+		//
+		@Override public DocumentFieldDescriptor getDescriptor() { throw new UnsupportedOperationException(); }
+		@Override public DocumentPath getDocumentPath() { throw new UnsupportedOperationException(); }
+		@Override public boolean hasChangesToSave() { throw new UnsupportedOperationException(); }
+		@Override public Object getValueAsJsonObject(final String adLanguage) { throw new UnsupportedOperationException(); }
+		@Override public boolean getValueAsBoolean() { throw new UnsupportedOperationException(); }
+		@Override public int getValueAsInt(final int defaultValueWhenNull) { throw new UnsupportedOperationException(); }
+		@Override public DocumentZoomIntoInfo getZoomIntoInfo() { throw new UnsupportedOperationException(); }
+		@Override public <T> T getValueAs(final Class<T> returnType) { throw new UnsupportedOperationException(); }
+		@Override public Object getInitialValue() { throw new UnsupportedOperationException(); }
+		@Override public Object getOldValue() { throw new UnsupportedOperationException(); }
+		@Override public Optional<WindowId> getZoomIntoWindowId() { throw new UnsupportedOperationException(); }
+		// @formatter:on
+	}
+}